@@ -11,6 +11,7 @@ import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.MecanumDriveKin
 import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.MecanumDriveMotorVoltages;
 import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.MecanumDriveWheelSpeeds;
 import com.seattlesolvers.solverslib.trajectory.Trajectory;
+import com.seattlesolvers.solverslib.trajectory.TrajectorySampler;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -43,6 +44,8 @@ public class MecanumControllerCommand extends CommandBase {
     private final boolean m_usePID;
 
     private final Trajectory m_trajectory;
+    private final TrajectorySampler m_sampler;
+    private final TrajectorySampler.Sample m_sample = new TrajectorySampler.Sample();
     private final Supplier<Pose2d> m_pose;
     private final SimpleMotorFeedforward m_feedforward;
     private final MecanumDriveKinematics m_kinematics;
@@ -112,6 +115,7 @@ public class MecanumControllerCommand extends CommandBase {
 
                                     Consumer<MecanumDriveMotorVoltages> outputDriveVoltages) {
         m_trajectory = trajectory;
+        m_sampler = new TrajectorySampler(trajectory);
         m_pose = pose;
         m_feedforward = feedforward;
         m_kinematics = kinematics;
@@ -179,6 +183,7 @@ public class MecanumControllerCommand extends CommandBase {
                                     Consumer<MecanumDriveWheelSpeeds> outputWheelSpeeds) {
 
         m_trajectory = trajectory;
+        m_sampler = new TrajectorySampler(trajectory);
         m_pose = pose;
         m_feedforward = new SimpleMotorFeedforward(0, 0, 0);
         m_kinematics = kinematics;
@@ -209,6 +214,7 @@ public class MecanumControllerCommand extends CommandBase {
 
     @Override
     public void initialize() {
+        m_sampler.reset();
         Trajectory.State initialState = m_trajectory.sample(0);
 
         // Sample final pose to get robot rotation
@@ -232,18 +238,18 @@ public class MecanumControllerCommand extends CommandBase {
         double curTime = m_timer.seconds();
         double dt = curTime - m_prevTime;
 
-        Trajectory.State desiredState = m_trajectory.sample(curTime);
-        Pose2d desiredPose = desiredState.poseMeters;
+        m_sampler.sample(curTime, m_sample);
 
-        Pose2d poseError = desiredPose.relativeTo(m_pose.get());
+        // Only the rotation of the error between the desired and current pose is needed
+        double headingError = m_sample.headingRadians - m_pose.get().getRotation().getRadians();
 
         double targetXVel = m_xController.calculate(
                 m_pose.get().getTranslation().getX(),
-                desiredPose.getTranslation().getX());
+                m_sample.xMeters);
 
         double targetYVel = m_yController.calculate(
                 m_pose.get().getTranslation().getY(),
-                desiredPose.getTranslation().getY());
+                m_sample.yMeters);
 
         // The robot will go to the desired rotation of the final pose in the trajectory,
         // not following the poses at individual states.
@@ -251,10 +257,10 @@ public class MecanumControllerCommand extends CommandBase {
                 m_pose.get().getRotation().getRadians(),
                 m_finalPose.getRotation().getRadians());
 
-        double vRef = desiredState.velocityMetersPerSecond;
+        double vRef = m_sample.velocityMetersPerSecond;
 
-        targetXVel += vRef * poseError.getRotation().getCos();
-        targetYVel += vRef * poseError.getRotation().getSin();
+        targetXVel += vRef * Math.cos(headingError);
+        targetYVel += vRef * Math.sin(headingError);
 
         ChassisSpeeds targetChassisSpeeds = new ChassisSpeeds(targetXVel, targetYVel, targetAngularVel);
 
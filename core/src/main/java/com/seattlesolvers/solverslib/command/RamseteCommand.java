@@ -9,6 +9,7 @@ import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.ChassisSpeeds;
 import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.DifferentialDriveKinematics;
 import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.DifferentialDriveWheelSpeeds;
 import com.seattlesolvers.solverslib.trajectory.Trajectory;
+import com.seattlesolvers.solverslib.trajectory.TrajectorySampler;
 
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -31,6 +32,8 @@ public class RamseteCommand extends CommandBase {
     private final ElapsedTime m_timer;
     private final boolean m_usePID;
     private final Trajectory m_trajectory;
+    private final TrajectorySampler m_sampler;
+    private final TrajectorySampler.Sample m_sample = new TrajectorySampler.Sample();
     private final Supplier<Pose2d> m_pose;
     private final RamseteController m_follower;
     private final SimpleMotorFeedforward m_feedforward;
@@ -69,6 +72,7 @@ public class RamseteCommand extends CommandBase {
                           PIDController rightController,
                           BiConsumer<Double, Double> output) {
         m_trajectory = trajectory;
+        m_sampler = new TrajectorySampler(trajectory);
         m_pose = pose;
         m_follower = controller;
         m_feedforward = feedforward;
@@ -102,6 +106,7 @@ public class RamseteCommand extends CommandBase {
                           DifferentialDriveKinematics kinematics,
                           BiConsumer<Double, Double> outputMetersPerSecond) {
         m_trajectory = trajectory;
+        m_sampler = new TrajectorySampler(trajectory);
         m_pose = pose;
         m_follower = follower;
         m_kinematics = kinematics;
@@ -120,6 +125,7 @@ public class RamseteCommand extends CommandBase {
     @Override
     public void initialize() {
         m_prevTime = 0;
+        m_sampler.reset();
         Trajectory.State initialState = m_trajectory.sample(0);
         m_prevSpeeds = m_kinematics.toWheelSpeeds(
                 new ChassisSpeeds(initialState.velocityMetersPerSecond,
@@ -138,8 +144,11 @@ public class RamseteCommand extends CommandBase {
         double curTime = m_timer.seconds();
         double dt = curTime - m_prevTime;
 
+        m_sampler.sample(curTime, m_sample);
+
         DifferentialDriveWheelSpeeds targetWheelSpeeds = m_kinematics.toWheelSpeeds(
-                m_follower.calculate(m_pose.get(), m_trajectory.sample(curTime)));
+                m_follower.calculate(m_pose.get(), m_sample.getPose(), m_sample.velocityMetersPerSecond,
+                        m_sample.velocityMetersPerSecond * m_sample.curvatureRadPerMeter));
 
         double leftSpeedSetpoint = targetWheelSpeeds.leftMetersPerSecond;
         double rightSpeedSetpoint = targetWheelSpeeds.rightMetersPerSecond;
@@ -10,12 +10,14 @@
 package com.seattlesolvers.solverslib.command;
 
 import com.qualcomm.robotcore.util.ElapsedTime;
+import com.seattlesolvers.solverslib.trajectory.SCurveProfile;
 import com.seattlesolvers.solverslib.trajectory.TrapezoidProfile;
 
 import java.util.function.Consumer;
 
 /**
- * A command that runs a {@link TrapezoidProfile}. Useful for smoothly controlling mechanism motion.
+ * A command that runs a {@link TrapezoidProfile} or a jerk-limited {@link SCurveProfile}.
+ * Useful for smoothly controlling mechanism motion.
  *
  * @author Ryan
  */
@@ -23,6 +25,8 @@ import java.util.function.Consumer;
 public class TrapezoidProfileCommand extends CommandBase {
 
     private final TrapezoidProfile m_profile;
+    private final SCurveProfile m_sCurveProfile;
+    private final SCurveProfile.State m_sCurveState = new SCurveProfile.State();
     private final Consumer<TrapezoidProfile.State> m_output;
 
 
@@ -40,6 +44,24 @@ public class TrapezoidProfileCommand extends CommandBase {
     public TrapezoidProfileCommand(
             TrapezoidProfile profile, Consumer<TrapezoidProfile.State> output, Subsystem... requirements){
         m_profile = profile;
+        m_sCurveProfile = null;
+        m_output = output;
+        addRequirements(requirements);
+    }
+
+    /**
+     * Creates a new TrapezoidProfileCommand that will execute the given {@link SCurveProfile}.
+     * Output will be piped to the provided consumer function. The consumer receives the same
+     * {@link SCurveProfile.State} every loop, updated in place, which also holds the acceleration.
+     *
+     * @param profile The motion profile to execute.
+     * @param output The consumer for the profile output.
+     * @param requirements The subsystems required by this command.
+     */
+    public TrapezoidProfileCommand(
+            SCurveProfile profile, Consumer<TrapezoidProfile.State> output, Subsystem... requirements){
+        m_profile = null;
+        m_sCurveProfile = profile;
         m_output = output;
         addRequirements(requirements);
     }
@@ -52,11 +74,16 @@ public class TrapezoidProfileCommand extends CommandBase {
 
     @Override
     public void execute() {
-        m_output.accept(m_profile.calculate(m_timer.seconds()));
+        if (m_sCurveProfile != null) {
+            m_output.accept(m_sCurveProfile.calculate(m_timer.seconds(), m_sCurveState));
+        } else {
+            m_output.accept(m_profile.calculate(m_timer.seconds()));
+        }
     }
 
     @Override
     public boolean isFinished() {
-        return m_timer.seconds() >= m_profile.totalTime();
+        double totalTime = m_sCurveProfile != null ? m_sCurveProfile.totalTime() : m_profile.totalTime();
+        return m_timer.seconds() >= totalTime;
     }
 }
@@ -14,6 +14,11 @@ public abstract class Controller {
     protected double lastTimeStamp;
     protected double period;
 
+    private boolean hasTimeStamp;
+    private double fixedPeriod = 0;
+    private double nextPeriod = Double.NaN;
+    private double nextTimeStamp = Double.NaN;
+
     public Controller() {
         reset();
         period = 0;
@@ -25,6 +30,33 @@ public abstract class Controller {
     public void reset() {
         prevErrorVal = 0;
         lastTimeStamp = 0;
+        hasTimeStamp = false;
+    }
+
+    /**
+     * Updates {@link #period} to the time since the last calculation. Subclasses call this
+     * once from {@link #calculateOutput(double)} before using the period.
+     * <p>
+     * The period is, in order of priority, the one given to {@link #calculateWithPeriod},
+     * the time since the timestamp given to {@link #calculateAtTime}, the fixed period set with
+     * {@link #setFixedPeriod(double)}, or the time since the last calculation on the system clock.
+     * The first timestamped calculation after a {@link #reset()} has a period of zero.
+     */
+    protected void updatePeriod() {
+        if (!Double.isNaN(nextPeriod)) {
+            period = nextPeriod;
+            nextPeriod = Double.NaN;
+            hasTimeStamp = false;
+        } else if (Double.isNaN(nextTimeStamp) && fixedPeriod > 0) {
+            period = fixedPeriod;
+            hasTimeStamp = false;
+        } else {
+            double currentTimeStamp = Double.isNaN(nextTimeStamp) ? (double) System.nanoTime() / 1E9 : nextTimeStamp;
+            nextTimeStamp = Double.NaN;
+            period = hasTimeStamp ? currentTimeStamp - lastTimeStamp : 0;
+            lastTimeStamp = currentTimeStamp;
+            hasTimeStamp = true;
+        }
     }
 
     /**
@@ -47,11 +79,18 @@ public abstract class Controller {
      * @return the value produced by u(t).
      */
     public double calculate(double pv) {
-        double rawOutput = calculateOutput(pv);
-        if (atSetPoint()) {
-            return rawOutput;
-        } else {
-            return Math.max(Math.abs(rawOutput), minOutput) * Math.signum(rawOutput);
+        try {
+            double rawOutput = calculateOutput(pv);
+            if (atSetPoint()) {
+                return rawOutput;
+            } else {
+                return Math.max(Math.abs(rawOutput), minOutput) * Math.signum(rawOutput);
+            }
+        } finally {
+            // The period or timestamp given for this calculation must not carry over to a later
+            // one, even if the subclass never called updatePeriod() or the calculation failed.
+            nextPeriod = Double.NaN;
+            nextTimeStamp = Double.NaN;
         }
     }
 
@@ -68,6 +107,38 @@ public abstract class Controller {
         return calculate(pv);
     }
 
+    /**
+     * Calculates the next output of the controller, using the given period
+     * instead of the time since the last calculation.
+     *
+     * @param pv     The given measured value.
+     * @param sp     The given setpoint.
+     * @param period The time since the last calculation, in seconds.
+     * @return the next output using the given measured value via
+     * {@link #calculate(double)}.
+     */
+    public double calculateWithPeriod(double pv, double sp, double period) {
+        nextPeriod = period;
+        return calculate(pv, sp);
+    }
+
+    /**
+     * Calculates the next output of the controller at the given time. The period is the
+     * time since the timestamp of the last calculation, so all timestamps given to the
+     * controller should come from the same clock, such as the time of a simulation or
+     * the time a measurement was taken.
+     *
+     * @param pv        The given measured value.
+     * @param sp        The given setpoint.
+     * @param timestamp The time of the measurement, in seconds.
+     * @return the next output using the given measured value via
+     * {@link #calculate(double)}.
+     */
+    public double calculateAtTime(double pv, double sp, double timestamp) {
+        nextTimeStamp = timestamp;
+        return calculate(pv, sp);
+    }
+
     /**
      * Calculates the next output the controller.
      *
@@ -165,6 +236,36 @@ public abstract class Controller {
         return period;
     }
 
+    /**
+     * Uses the given period for every calculation instead of reading the clock, for
+     * controllers that are run at a fixed rate, such as in a simulation or on a timed thread.
+     *
+     * @param period The time between calculations, in seconds.
+     * @return this object for chaining purposes
+     */
+    public Controller setFixedPeriod(double period) {
+        if (!(period > 0)) {
+            throw new IllegalArgumentException("The fixed period must be positive.");
+        }
+        fixedPeriod = period;
+        return this;
+    }
+
+    /**
+     * Goes back to measuring the period with the clock after {@link #setFixedPeriod(double)}.
+     * The first calculation afterwards has a period of zero.
+     */
+    public void clearFixedPeriod() {
+        fixedPeriod = 0;
+    }
+
+    /**
+     * @return the fixed period of the controller, or 0 if it measures the period with the clock
+     */
+    public double getFixedPeriod() {
+        return fixedPeriod;
+    }
+
     /**
      * An option to enforce a minimum (magnitude of the / absolute value of the) output from
      * subsequent calculations from the controller if the controller is not {@link #atSetPoint()}
@@ -0,0 +1,450 @@
+package com.seattlesolvers.solverslib.controller;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.ChassisSpeeds;
+import com.seattlesolvers.solverslib.trajectory.Trajectory;
+import com.seattlesolvers.solverslib.trajectory.TrajectorySampler;
+import com.seattlesolvers.solverslib.util.MathUtils;
+
+/**
+ * A linear model-predictive controller that follows a {@link Trajectory} with a
+ * differential or holonomic drivetrain.
+ * <p>
+ * Every loop, the controller samples the next few states of the trajectory (the horizon) and
+ * linearizes the drivetrain around them. It then finds the corrections to the reference
+ * velocities over the whole horizon that minimize
+ * <p>
+ * sum over the horizon of e(k)' Q e(k) + du(k)' R du(k)
+ * <p>
+ * where e(k) is the predicted pose error and du(k) the correction, subject to the velocity
+ * limits. Only the first correction is used, and the rest warm-start the next loop.
+ * Unlike {@link com.seattlesolvers.solverslib.controller.wpilibcontroller.RamseteController},
+ * which only reacts to the current error, this sees the turns of the trajectory coming.
+ * <p>
+ * The problem is a small quadratic program with bounds on each variable, which is solved with
+ * projected coordinate descent. All of its matrices are allocated once, in the constructor. The
+ * solver stops after a maximum number of sweeps or when the time budget set with
+ * {@link #setTimeBudget(double)} runs out, whichever is first, so each loop takes a bounded time.
+ *
+ * <pre>{@code
+ * MPCController controller = MPCController.differential(10, 0.05, 1.5, 4.0);
+ * // every loop:
+ * ChassisSpeeds speeds = controller.calculate(pose, trajectory, timer.seconds());
+ * }</pre>
+ */
+public class MPCController {
+    private static final int kStates = 3;
+    private static final double kTolerance = 1E-6;
+
+    private final boolean holonomic;
+    private final int horizon;
+    private final int inputs;
+    private final int variables;
+    private final double timestep;
+    private final double[] maxInputs;
+
+    // Diagonal weights of the pose error (x, y, heading) and of each input correction.
+    private final double[] stateWeights = {20.0, 20.0, 5.0};
+    private final double[] inputWeights;
+
+    private int maxIterations = 50;
+    private long timeBudgetNanos = Long.MAX_VALUE;
+
+    // The reference input and the linearized dynamics at each step of the horizon.
+    private final double[] referenceInputs;
+    private final double[][] dynamics;
+
+    // The pose error after each step of the horizon without corrections, and the
+    // effect of each correction on it, stored one correction per array.
+    private final double[] freeResponse;
+    private final double[][] response;
+
+    // The quadratic program 1/2 x' H x + g' x subject to lower <= x <= upper.
+    private final double[][] hessian;
+    private final double[] gradient;
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] corrections;
+
+    private final TrajectorySampler.Sample sample = new TrajectorySampler.Sample();
+    private Trajectory trajectory;
+    private TrajectorySampler sampler;
+
+    private double errorX, errorY, errorHeading;
+    private Pose2d poseTolerance = new Pose2d();
+    private int iterations;
+
+    private MPCController(boolean holonomic, int horizon, double timestep,
+                          double maxVelocity, double maxAngularVelocity) {
+        if (horizon < 1) {
+            throw new IllegalArgumentException("The horizon must have at least one step.");
+        }
+        if (timestep <= 0 || maxVelocity <= 0 || maxAngularVelocity <= 0) {
+            throw new IllegalArgumentException("The timestep and velocity limits must be positive.");
+        }
+        this.holonomic = holonomic;
+        this.horizon = horizon;
+        this.timestep = timestep;
+        inputs = holonomic ? 3 : 2;
+        variables = horizon * inputs;
+        maxInputs = holonomic
+                ? new double[]{maxVelocity, maxVelocity, maxAngularVelocity}
+                : new double[]{maxVelocity, maxAngularVelocity};
+        inputWeights = holonomic ? new double[]{1.0, 1.0, 0.5} : new double[]{1.0, 0.5};
+
+        referenceInputs = new double[variables];
+        dynamics = new double[horizon][2];
+        freeResponse = new double[horizon * kStates];
+        response = new double[variables][horizon * kStates];
+        hessian = new double[variables][variables];
+        gradient = new double[variables];
+        lower = new double[variables];
+        upper = new double[variables];
+        corrections = new double[variables];
+    }
+
+    /**
+     * Creates a controller for a differential drivetrain, which outputs a forward velocity
+     * and an angular velocity.
+     *
+     * @param horizon            The number of steps to predict.
+     * @param timestep           The time between steps, in seconds.
+     * @param maxVelocity        The maximum forward velocity, in meters per second.
+     * @param maxAngularVelocity The maximum angular velocity, in radians per second.
+     * @return the controller
+     */
+    public static MPCController differential(int horizon, double timestep,
+                                             double maxVelocity, double maxAngularVelocity) {
+        return new MPCController(false, horizon, timestep, maxVelocity, maxAngularVelocity);
+    }
+
+    /**
+     * Creates a controller for a holonomic drivetrain, such as mecanum or swerve, which outputs
+     * an x, y and angular velocity. The heading of the trajectory is used as the heading of
+     * the robot, and each field-relative velocity is limited to the maximum velocity.
+     *
+     * @param horizon            The number of steps to predict.
+     * @param timestep           The time between steps, in seconds.
+     * @param maxVelocity        The maximum velocity along each axis, in meters per second.
+     * @param maxAngularVelocity The maximum angular velocity, in radians per second.
+     * @return the controller
+     */
+    public static MPCController holonomic(int horizon, double timestep,
+                                          double maxVelocity, double maxAngularVelocity) {
+        return new MPCController(true, horizon, timestep, maxVelocity, maxAngularVelocity);
+    }
+
+    /**
+     * Sets the weights of the pose error. Larger weights follow the trajectory more tightly.
+     *
+     * @param x       The weight of the x error, per square meter.
+     * @param y       The weight of the y error, per square meter.
+     * @param heading The weight of the heading error, per square radian.
+     * @return this object for chaining purposes
+     */
+    public MPCController setStateWeights(double x, double y, double heading) {
+        if (x < 0 || y < 0 || heading < 0) {
+            throw new IllegalArgumentException("The weights must not be negative.");
+        }
+        stateWeights[0] = x;
+        stateWeights[1] = y;
+        stateWeights[2] = heading;
+        return this;
+    }
+
+    /**
+     * Sets the weights of the corrections to the reference velocities. Larger weights correct
+     * the error more gently.
+     *
+     * @param velocity        The weight of a velocity correction, per square meter per second.
+     * @param angularVelocity The weight of an angular velocity correction,
+     *                        per square radian per second.
+     * @return this object for chaining purposes
+     */
+    public MPCController setInputWeights(double velocity, double angularVelocity) {
+        if (velocity <= 0 || angularVelocity <= 0) {
+            throw new IllegalArgumentException("The input weights must be positive.");
+        }
+        for (int i = 0; i < inputs - 1; i++) {
+            inputWeights[i] = velocity;
+        }
+        inputWeights[inputs - 1] = angularVelocity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of sweeps of the solver in each loop.
+     *
+     * @param maxIterations The maximum number of sweeps.
+     * @return this object for chaining purposes
+     */
+    public MPCController setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("There must be at least one iteration.");
+        }
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /**
+     * Sets the longest time the solver may take in each loop. When it runs out, the
+     * best corrections found so far are used.
+     *
+     * @param seconds The time budget, in seconds.
+     * @return this object for chaining purposes
+     */
+    public MPCController setTimeBudget(double seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("The time budget must be positive.");
+        }
+        timeBudgetNanos = (long) Math.min(seconds * 1E9, Long.MAX_VALUE);
+        return this;
+    }
+
+    /**
+     * Sets the pose error which is considered tolerable for use with {@link #atReference()}.
+     *
+     * @param poseTolerance Pose error which is tolerable.
+     */
+    public void setTolerance(Pose2d poseTolerance) {
+        this.poseTolerance = poseTolerance;
+    }
+
+    /**
+     * Returns true if the pose error of the last calculation is within tolerance of the reference.
+     */
+    public boolean atReference() {
+        return Math.abs(errorX) < poseTolerance.getTranslation().getX()
+                && Math.abs(errorY) < poseTolerance.getTranslation().getY()
+                && Math.abs(errorHeading) < poseTolerance.getRotation().getRadians();
+    }
+
+    /**
+     * @return the number of sweeps of the solver in the last calculation
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Clears the corrections kept from the last calculation, for when a new trajectory is started.
+     */
+    public void reset() {
+        for (int i = 0; i < variables; i++) {
+            corrections[i] = 0;
+        }
+    }
+
+    /**
+     * Returns the next output of the controller.
+     *
+     * @param currentPose The current pose.
+     * @param trajectory  The trajectory to follow. It is copied into a {@link TrajectorySampler}
+     *                    the first time it is given.
+     * @param timeSeconds The time since the beginning of the trajectory.
+     * @return the robot-relative speeds
+     */
+    public ChassisSpeeds calculate(Pose2d currentPose, Trajectory trajectory, double timeSeconds) {
+        if (trajectory != this.trajectory) {
+            this.trajectory = trajectory;
+            sampler = new TrajectorySampler(trajectory);
+            reset();
+        }
+        return calculate(currentPose, sampler, timeSeconds);
+    }
+
+    /**
+     * Returns the next output of the controller.
+     *
+     * @param currentPose The current pose.
+     * @param sampler     The sampler of the trajectory to follow.
+     * @param timeSeconds The time since the beginning of the trajectory.
+     * @return the robot-relative speeds
+     */
+    public ChassisSpeeds calculate(Pose2d currentPose, TrajectorySampler sampler, double timeSeconds) {
+        final long startTime = System.nanoTime();
+        final double x = currentPose.getTranslation().getX();
+        final double y = currentPose.getTranslation().getY();
+        final double heading = currentPose.getRotation().getRadians();
+
+        for (int k = 0; k < horizon; k++) {
+            sampler.sample(timeSeconds + k * timestep, sample);
+            if (k == 0) {
+                setInitialError(x, y, heading);
+            }
+            linearize(k);
+        }
+
+        buildProblem();
+        solve(startTime);
+
+        double first = referenceInputs[0] + corrections[0];
+        double second = referenceInputs[1] + corrections[1];
+        ChassisSpeeds speeds = holonomic
+                ? ChassisSpeeds.fromFieldRelativeSpeeds(first, second,
+                        referenceInputs[2] + corrections[2], new Rotation2d(heading))
+                : new ChassisSpeeds(first, 0.0, second);
+        shiftCorrections();
+        return speeds;
+    }
+
+    /**
+     * Sets the pose error from the first sample, in the frame of the reference for a
+     * differential drivetrain, or the field for a holonomic one.
+     */
+    private void setInitialError(double x, double y, double heading) {
+        double dx = x - sample.xMeters;
+        double dy = y - sample.yMeters;
+        if (holonomic) {
+            errorX = dx;
+            errorY = dy;
+        } else {
+            double cos = Math.cos(sample.headingRadians);
+            double sin = Math.sin(sample.headingRadians);
+            errorX = cos * dx + sin * dy;
+            errorY = -sin * dx + cos * dy;
+        }
+        errorHeading = MathUtils.normalizeRadians(heading - sample.headingRadians, false);
+    }
+
+    /**
+     * Stores the reference input, the bounds of the corrections and the linearized dynamics
+     * at a step of the horizon.
+     * <p>
+     * For a differential drivetrain, the error in the frame of the reference changes as
+     * ex' = w ey + dv, ey' = -w ex + v eh, eh' = dw, where v and w are the reference velocities.
+     * For a holonomic drivetrain, the error simply changes with the field-relative corrections.
+     */
+    private void linearize(int k) {
+        double velocity = sample.velocityMetersPerSecond;
+        double angularVelocity = velocity * sample.curvatureRadPerMeter;
+        int i = k * inputs;
+        if (holonomic) {
+            referenceInputs[i] = velocity * Math.cos(sample.headingRadians);
+            referenceInputs[i + 1] = velocity * Math.sin(sample.headingRadians);
+            referenceInputs[i + 2] = angularVelocity;
+        } else {
+            referenceInputs[i] = velocity;
+            referenceInputs[i + 1] = angularVelocity;
+        }
+        for (int j = 0; j < inputs; j++) {
+            lower[i + j] = -maxInputs[j] - referenceInputs[i + j];
+            upper[i + j] = maxInputs[j] - referenceInputs[i + j];
+        }
+        dynamics[k][0] = angularVelocity * timestep;
+        dynamics[k][1] = velocity * timestep;
+    }
+
+    /**
+     * Applies the discretized dynamics of step k, without corrections, to the pose error at
+     * the given row of an array, and writes the result at another row.
+     */
+    private void step(int k, double[] values, int fromRow, int toRow) {
+        double ex = values[fromRow];
+        double ey = values[fromRow + 1];
+        double eh = values[fromRow + 2];
+        if (holonomic) {
+            values[toRow] = ex;
+            values[toRow + 1] = ey;
+        } else {
+            values[toRow] = ex + dynamics[k][0] * ey;
+            values[toRow + 1] = ey - dynamics[k][0] * ex + dynamics[k][1] * eh;
+        }
+        values[toRow + 2] = eh;
+    }
+
+    /**
+     * Predicts the pose error over the horizon and condenses the cost into a quadratic program
+     * over the corrections alone. Row block k of the predictions is the error after step k.
+     */
+    private void buildProblem() {
+        // The error after each step without corrections.
+        freeResponse[0] = errorX;
+        freeResponse[1] = errorY;
+        freeResponse[2] = errorHeading;
+        step(0, freeResponse, 0, 0);
+        for (int k = 1; k < horizon; k++) {
+            step(k, freeResponse, (k - 1) * kStates, k * kStates);
+        }
+
+        // The effect of each correction on the error after each step. A correction at step j
+        // moves the error after step j directly, then is carried by the dynamics of later steps.
+        for (int c = 0; c < variables; c++) {
+            double[] column = response[c];
+            int first = c / inputs;
+            int input = c % inputs;
+            for (int r = 0; r < first * kStates; r++) {
+                column[r] = 0;
+            }
+            int row = first * kStates;
+            column[row] = 0;
+            column[row + 1] = 0;
+            column[row + 2] = 0;
+            if (holonomic) {
+                column[row + input] = timestep;
+            } else {
+                column[row + (input == 0 ? 0 : 2)] = timestep;
+            }
+            for (int k = first + 1; k < horizon; k++) {
+                step(k, column, (k - 1) * kStates, k * kStates);
+            }
+        }
+
+        for (int a = 0; a < variables; a++) {
+            double[] columnA = response[a];
+            int firstA = a / inputs;
+            double g = 0;
+            for (int r = firstA * kStates; r < horizon * kStates; r++) {
+                g += stateWeights[r % kStates] * columnA[r] * freeResponse[r];
+            }
+            gradient[a] = g;
+
+            for (int b = a; b < variables; b++) {
+                double[] columnB = response[b];
+                double h = a == b ? inputWeights[a % inputs] : 0;
+                for (int r = Math.max(firstA, b / inputs) * kStates; r < horizon * kStates; r++) {
+                    h += stateWeights[r % kStates] * columnA[r] * columnB[r];
+                }
+                hessian[a][b] = h;
+                hessian[b][a] = h;
+            }
+        }
+    }
+
+    /**
+     * Minimizes the quadratic program by projected coordinate descent, starting from the
+     * corrections of the last loop, until it converges or runs out of sweeps or time.
+     */
+    private void solve(long startTime) {
+        for (int i = 0; i < variables; i++) {
+            corrections[i] = Math.min(Math.max(corrections[i], lower[i]), upper[i]);
+        }
+
+        iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            double largestChange = 0;
+            for (int i = 0; i < variables; i++) {
+                double[] row = hessian[i];
+                double slope = gradient[i];
+                for (int j = 0; j < variables; j++) {
+                    slope += row[j] * corrections[j];
+                }
+                double next = Math.min(Math.max(corrections[i] - slope / row[i], lower[i]), upper[i]);
+                largestChange = Math.max(largestChange, Math.abs(next - corrections[i]));
+                corrections[i] = next;
+            }
+            if (largestChange < kTolerance || System.nanoTime() - startTime > timeBudgetNanos) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Moves the corrections one step forward, repeating the last one, to warm-start the next loop.
+     */
+    private void shiftCorrections() {
+        System.arraycopy(corrections, inputs, corrections, 0, variables - inputs);
+    }
+}
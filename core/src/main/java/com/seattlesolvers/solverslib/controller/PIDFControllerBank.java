@@ -0,0 +1,300 @@
+package com.seattlesolvers.solverslib.controller;
+
+import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+
+/**
+ * A fixed number of PIDF controllers, stored channel by channel in primitive arrays so they
+ * can all be evaluated in a single loop. Each channel behaves like a {@link PIDFController}:
+ * <p>
+ * u(t) = kP * e(t) + kI * int(0,t)[e(t')dt'] + kD * e'(t) + kF * r(t)
+ * <p>
+ * Set the setpoints and measured values of the channels, then call {@link #update()} once per
+ * loop. It reads the clock once and uses the same period for every channel. The outputs can
+ * then be read with {@link #getOutput(int)}. A single channel can also be evaluated on its own
+ * with {@link #calculate(int, double, double)}.
+ */
+public class PIDFControllerBank {
+    private final int size;
+
+    private final double[] kP, kI, kD, kF;
+    private final double[] minIntegral, maxIntegral;
+
+    private final double[] setPoint;
+    private final double[] measuredValue;
+    private final double[] errorVal_p;
+    private final double[] errorVal_v;
+    private final double[] errorTolerance_p;
+    private final double[] errorTolerance_v;
+    private final double[] prevErrorVal;
+    private final double[] totalError;
+    private final double[] output;
+
+    private final double[] lastTimeStamp;
+    private final double[] period;
+
+    /**
+     * Creates a bank of controllers with all gains set to zero.
+     *
+     * @param size The number of channels.
+     */
+    public PIDFControllerBank(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A controller bank must have at least one channel.");
+        }
+        this.size = size;
+        kP = new double[size];
+        kI = new double[size];
+        kD = new double[size];
+        kF = new double[size];
+        minIntegral = new double[size];
+        maxIntegral = new double[size];
+        setPoint = new double[size];
+        measuredValue = new double[size];
+        errorVal_p = new double[size];
+        errorVal_v = new double[size];
+        errorTolerance_p = new double[size];
+        errorTolerance_v = new double[size];
+        prevErrorVal = new double[size];
+        totalError = new double[size];
+        output = new double[size];
+        lastTimeStamp = new double[size];
+        period = new double[size];
+        for (int i = 0; i < size; i++) {
+            minIntegral[i] = -1.0;
+            maxIntegral[i] = 1.0;
+            errorTolerance_p[i] = 0.05;
+            errorTolerance_v[i] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Creates a bank of controllers that all start with the same coefficients.
+     *
+     * @param size         The number of channels.
+     * @param coefficients The coefficients of every channel.
+     */
+    public PIDFControllerBank(int size, PIDFCoefficients coefficients) {
+        this(size);
+        for (int i = 0; i < size; i++) {
+            setCoefficients(i, coefficients);
+        }
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Evaluates every channel with the current setpoints and measured values, using the
+     * time since the last update of each channel as its period.
+     */
+    public void update() {
+        double currentTimeStamp = (double) System.nanoTime() / 1E9;
+        for (int i = 0; i < size; i++) {
+            if (lastTimeStamp[i] == 0) lastTimeStamp[i] = currentTimeStamp;
+            calculateChannel(i, currentTimeStamp - lastTimeStamp[i]);
+            lastTimeStamp[i] = currentTimeStamp;
+        }
+    }
+
+    /**
+     * Evaluates every channel with the current setpoints and measured values,
+     * using the given period instead of the clock.
+     *
+     * @param period The time since the last update, in seconds.
+     */
+    public void update(double period) {
+        for (int i = 0; i < size; i++) {
+            calculateChannel(i, period);
+        }
+    }
+
+    /**
+     * Evaluates every channel with the given measured values.
+     *
+     * @param pv The measured value of each channel.
+     */
+    public void update(double[] pv) {
+        System.arraycopy(pv, 0, measuredValue, 0, size);
+        update();
+    }
+
+    /**
+     * Evaluates a single channel on its own clock, like {@link PIDFController#calculate(double, double)}.
+     *
+     * @param channel The channel.
+     * @param pv      The measured value.
+     * @param sp      The setpoint.
+     * @return the output of the channel
+     */
+    public double calculate(int channel, double pv, double sp) {
+        setPoint[channel] = sp;
+        measuredValue[channel] = pv;
+        double currentTimeStamp = (double) System.nanoTime() / 1E9;
+        if (lastTimeStamp[channel] == 0) lastTimeStamp[channel] = currentTimeStamp;
+        calculateChannel(channel, currentTimeStamp - lastTimeStamp[channel]);
+        lastTimeStamp[channel] = currentTimeStamp;
+        return output[channel];
+    }
+
+    private void calculateChannel(int i, double dt) {
+        prevErrorVal[i] = errorVal_p[i];
+        period[i] = dt;
+
+        errorVal_p[i] = setPoint[i] - measuredValue[i];
+        if (Math.abs(dt) > 1E-6) {
+            errorVal_v[i] = (errorVal_p[i] - prevErrorVal[i]) / dt;
+        } else {
+            errorVal_v[i] = 0;
+        }
+
+        double total = totalError[i] + dt * errorVal_p[i];
+        totalError[i] = total < minIntegral[i] ? minIntegral[i] : Math.min(maxIntegral[i], total);
+
+        output[i] = kP[i] * errorVal_p[i] + kI[i] * totalError[i] + kD[i] * errorVal_v[i] + kF[i] * setPoint[i];
+    }
+
+    /**
+     * Resets the integral, previous error and timestamp of every channel.
+     */
+    public void reset() {
+        for (int i = 0; i < size; i++) {
+            reset(i);
+        }
+    }
+
+    /**
+     * Resets the integral, previous error and timestamp of a channel.
+     *
+     * @param channel The channel.
+     */
+    public void reset(int channel) {
+        totalError[channel] = 0;
+        prevErrorVal[channel] = 0;
+        lastTimeStamp[channel] = 0;
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the last output of the channel
+     */
+    public double getOutput(int channel) {
+        return output[channel];
+    }
+
+    /**
+     * Sets the setpoint of a channel.
+     *
+     * @param channel The channel.
+     * @param sp      The desired setpoint.
+     */
+    public void setSetPoint(int channel, double sp) {
+        setPoint[channel] = sp;
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the setpoint of the channel
+     */
+    public double getSetPoint(int channel) {
+        return setPoint[channel];
+    }
+
+    /**
+     * Sets the measured value of a channel, used by the next {@link #update()}.
+     *
+     * @param channel The channel.
+     * @param pv      The measured value.
+     */
+    public void setMeasuredValue(int channel, double pv) {
+        measuredValue[channel] = pv;
+    }
+
+    /**
+     * Returns true if the error of the channel is within the tolerance set by {@link #setTolerance}.
+     *
+     * @param channel The channel.
+     * @return Whether the error is within the acceptable bounds.
+     */
+    public boolean atSetPoint(int channel) {
+        return Math.abs(errorVal_p[channel]) < errorTolerance_p[channel]
+                && Math.abs(errorVal_v[channel]) < errorTolerance_v[channel];
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the positional error e(t) of the channel
+     */
+    public double getPositionError(int channel) {
+        return errorVal_p[channel];
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the velocity error e'(t) of the channel
+     */
+    public double getVelocityError(int channel) {
+        return errorVal_v[channel];
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the period of the last evaluation of the channel
+     */
+    public double getPeriod(int channel) {
+        return period[channel];
+    }
+
+    /**
+     * Sets the error which is considered tolerable for use with {@link #atSetPoint(int)}.
+     *
+     * @param channel           The channel.
+     * @param positionTolerance Position error which is tolerable.
+     */
+    public void setTolerance(int channel, double positionTolerance) {
+        setTolerance(channel, positionTolerance, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Sets the error which is considered tolerable for use with {@link #atSetPoint(int)}.
+     *
+     * @param channel           The channel.
+     * @param positionTolerance Position error which is tolerable.
+     * @param velocityTolerance Velocity error which is tolerable.
+     */
+    public void setTolerance(int channel, double positionTolerance, double velocityTolerance) {
+        errorTolerance_p[channel] = positionTolerance;
+        errorTolerance_v[channel] = velocityTolerance;
+    }
+
+    public void setPIDF(int channel, double kp, double ki, double kd, double kf) {
+        kP[channel] = kp;
+        kI[channel] = ki;
+        kD[channel] = kd;
+        kF[channel] = kf;
+    }
+
+    public void setCoefficients(int channel, PIDFCoefficients coefficients) {
+        setPIDF(channel, coefficients.p, coefficients.i, coefficients.d, coefficients.f);
+    }
+
+    /**
+     * @param channel The channel.
+     * @return the PIDF coefficients of the channel
+     */
+    public double[] getCoefficients(int channel) {
+        return new double[]{kP[channel], kI[channel], kD[channel], kF[channel]};
+    }
+
+    public void setIntegrationBounds(int channel, double integralMin, double integralMax) {
+        minIntegral[channel] = integralMin;
+        maxIntegral[channel] = integralMax;
+    }
+
+    public void clearTotalError(int channel) {
+        totalError[channel] = 0;
+    }
+}
@@ -46,10 +46,7 @@ public class SquIDFController extends PIDFController {
     protected double calculateOutput(double pv) {
         prevErrorVal = errorVal_p;
 
-        double currentTimeStamp = (double) System.nanoTime() / 1E9;
-        if (lastTimeStamp == 0) lastTimeStamp = currentTimeStamp;
-        period = currentTimeStamp - lastTimeStamp;
-        lastTimeStamp = currentTimeStamp;
+        updatePeriod();
 
         if (measuredValue == pv) {
             errorVal_p = setPoint - measuredValue;
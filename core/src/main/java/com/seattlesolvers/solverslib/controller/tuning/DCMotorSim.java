@@ -0,0 +1,155 @@
+package com.seattlesolvers.solverslib.controller.tuning;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ArmFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+
+/**
+ * A simulated DC motor mechanism, described by the same gains as its feedforward:
+ * V = ks * sgn(v) + gravity + kv * v + ka * a. The gravity term is zero for a flywheel,
+ * constant for an elevator, and proportional to the cosine of the angle for an arm.
+ * <p>
+ * Static friction holds the mechanism still until the voltage overcomes it, and the
+ * applied voltage is limited to the battery voltage, so controllers tuned against it see
+ * the same deadband and saturation as on the robot.
+ */
+public class DCMotorSim {
+    // Internal integration step, so the simulation does not depend on the control period.
+    private static final double SUBSTEP = 0.001;
+
+    private enum Gravity {
+        NONE, CONSTANT, COSINE
+    }
+
+    private final double ks, kg, kv, ka;
+    private final Gravity gravity;
+    private double maxVoltage = 12;
+
+    private double position;
+    private double velocity;
+
+    private DCMotorSim(double ks, double kg, double kv, double ka, Gravity gravity) {
+        if (!(ka > 0)) {
+            throw new IllegalArgumentException("The acceleration gain must be positive.");
+        }
+        this.ks = Math.abs(ks);
+        this.kg = kg;
+        this.kv = kv;
+        this.ka = ka;
+        this.gravity = gravity;
+    }
+
+    /**
+     * Creates a simulated flywheel or drive motor.
+     *
+     * @param feedforward the feedforward of the motor, whose acceleration gain must be positive
+     */
+    public DCMotorSim(SimpleMotorFeedforward feedforward) {
+        this(feedforward.ks, 0, feedforward.kv, feedforward.ka, Gravity.NONE);
+    }
+
+    /**
+     * Creates a simulated elevator.
+     *
+     * @param feedforward the feedforward of the elevator, whose acceleration gain must be positive
+     */
+    public DCMotorSim(ElevatorFeedforward feedforward) {
+        this(feedforward.ks, feedforward.kg, feedforward.kv, feedforward.ka, Gravity.CONSTANT);
+    }
+
+    /**
+     * Creates a simulated arm, whose position is its angle in radians from horizontal.
+     *
+     * @param feedforward the feedforward of the arm, whose acceleration gain must be positive
+     */
+    public DCMotorSim(ArmFeedforward feedforward) {
+        this(feedforward.ks, feedforward.kcos, feedforward.kv, feedforward.ka, Gravity.COSINE);
+    }
+
+    /**
+     * Sets the largest voltage that can be applied, 12 V by default.
+     *
+     * @param maxVoltage the largest voltage
+     * @return this simulation, for chaining
+     */
+    public DCMotorSim setMaxVoltage(double maxVoltage) {
+        if (!(maxVoltage > 0)) {
+            throw new IllegalArgumentException("The maximum voltage must be positive.");
+        }
+        this.maxVoltage = maxVoltage;
+        return this;
+    }
+
+    /**
+     * @return the largest voltage that can be applied
+     */
+    public double getMaxVoltage() {
+        return maxVoltage;
+    }
+
+    /**
+     * Moves the mechanism to the given state.
+     *
+     * @param position the position
+     * @param velocity the velocity
+     */
+    public void reset(double position, double velocity) {
+        this.position = position;
+        this.velocity = velocity;
+    }
+
+    /**
+     * Applies a voltage to the motor for the given time.
+     *
+     * @param voltage   the voltage, which is limited to the maximum voltage
+     * @param dtSeconds the time to apply it for
+     */
+    public void step(double voltage, double dtSeconds) {
+        double applied = Math.max(-maxVoltage, Math.min(maxVoltage, voltage));
+        double remaining = dtSeconds;
+        while (remaining > 1E-12) {
+            double dt = Math.min(SUBSTEP, remaining);
+            remaining -= dt;
+
+            double drive = applied - gravityVoltage();
+            if (velocity == 0 && Math.abs(drive) <= ks) {
+                // Held by static friction.
+                continue;
+            }
+            double friction = ks * Math.signum(velocity == 0 ? drive : velocity);
+            double newVelocity = velocity + (drive - friction - kv * velocity) / ka * dt;
+            if (velocity != 0 && Math.signum(newVelocity) != Math.signum(velocity)
+                    && Math.abs(drive) <= ks) {
+                // Friction stops the mechanism instead of reversing it.
+                newVelocity = 0;
+            }
+            position += (velocity + newVelocity) / 2 * dt;
+            velocity = newVelocity;
+        }
+    }
+
+    private double gravityVoltage() {
+        switch (gravity) {
+            case CONSTANT:
+                return kg;
+            case COSINE:
+                return kg * Math.cos(position);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @return the position of the mechanism
+     */
+    public double getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the velocity of the mechanism
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+}
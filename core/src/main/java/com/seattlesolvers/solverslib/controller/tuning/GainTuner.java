@@ -0,0 +1,551 @@
+package com.seattlesolvers.solverslib.controller.tuning;
+
+import com.seattlesolvers.solverslib.controller.PIDFController;
+import com.seattlesolvers.solverslib.controller.SquIDFController;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ArmFeedforward;
+import com.seattlesolvers.solverslib.trajectory.TrapezoidProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Tunes controller gains offline, by simulating a move of a {@link DCMotorSim} with each set
+ * of gains and scoring the response on its rise time, overshoot and settling time. The
+ * simulations are independent, so they run in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * The gains are searched either over a grid, with {@link #sweep(ForkJoinPool)}, or with a
+ * pattern search that refines a starting point, with {@link #optimize(Result, int, ForkJoinPool)}.
+ * A coarse sweep followed by an optimization usually finds good gains with few simulations.
+ *
+ * <pre><code>
+ * GainTuner tuner = new GainTuner(GainTuner.withFeedforward(GainTuner.pidf()),
+ *         () -&gt; new DCMotorSim(new ElevatorFeedforward(0.3, 1.1, 6, 0.4)))
+ *         .addGain("kp", 0, 60, 13)
+ *         .addGain("ki", 0)
+ *         .addGain("kd", 0, 4, 9)
+ *         .addGain("kf", 0)
+ *         .addGain("ks", 0.3)
+ *         .addGain("kg", 1.1)
+ *         .addGain("kv", 6)
+ *         .setMove(0, 0.5)
+ *         .setProfile(new TrapezoidProfile.Constraints(1, 2));
+ * GainTuner.Result best = tuner.optimize(tuner.sweep(), 20, ForkJoinPool.commonPool());
+ * </code></pre>
+ * <p>
+ * The tuner must not be changed while a search is running.
+ */
+public class GainTuner {
+    // Simulations evaluated by one task of a sweep before it is split further.
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    /**
+     * A control loop being tuned, which computes the voltage to apply to the motor.
+     */
+    public interface Loop {
+        /**
+         * @param measurement       the measured position, or velocity under velocity control
+         * @param reference         the position, or velocity, to reach
+         * @param referenceVelocity the velocity of the reference, for feedforward
+         * @param dtSeconds         the time since the last calculation
+         * @return the voltage to apply
+         */
+        double calculate(double measurement, double reference, double referenceVelocity, double dtSeconds);
+    }
+
+    /**
+     * Creates a fresh control loop for a set of gains, in the order they were added
+     * to the tuner. It is called from several threads at once, so the loops it creates must
+     * not share state.
+     */
+    public interface LoopFactory {
+        Loop create(double[] gains);
+    }
+
+    /**
+     * @return a factory for a {@link PIDFController} with the gains kp, ki, kd and kf
+     */
+    public static LoopFactory pidf() {
+        return gains -> {
+            PIDFController controller = new PIDFController(gains[0], gains[1], gains[2], gains[3]);
+            return (measurement, reference, referenceVelocity, dtSeconds) ->
+                    controller.calculateWithPeriod(measurement, reference, dtSeconds);
+        };
+    }
+
+    /**
+     * @return a factory for a {@link SquIDFController} with the gains kp, ki, kd and kf
+     */
+    public static LoopFactory squidf() {
+        return gains -> {
+            SquIDFController controller = new SquIDFController(gains[0], gains[1], gains[2], gains[3]);
+            return (measurement, reference, referenceVelocity, dtSeconds) ->
+                    controller.calculateWithPeriod(measurement, reference, dtSeconds);
+        };
+    }
+
+    /**
+     * Adds a feedforward of ks * sgn(v) + kg + kv * v to a feedback loop, where v is the velocity
+     * of the reference. The gravity term is constant, so this is for an elevator or, with a kg of
+     * zero, a flywheel; use {@link #withArmFeedforward(LoopFactory)} for an arm. The feedforward
+     * gains ks, kg and kv are the last three gains.
+     *
+     * @param feedback the factory of the feedback loop, which reads the gains before them
+     * @return the factory of the combined loop
+     */
+    public static LoopFactory withFeedforward(LoopFactory feedback) {
+        return withFeedforward(feedback, false);
+    }
+
+    /**
+     * Adds a feedforward of ks * sgn(v) + kg * cos(r) + kv * v to a feedback loop, where r is the
+     * reference angle in radians from horizontal and v is its velocity, as for an arm simulated
+     * with {@link DCMotorSim#DCMotorSim(ArmFeedforward)}. The feedforward gains ks, kg and kv are
+     * the last three gains.
+     *
+     * @param feedback the factory of the feedback loop, which reads the gains before them
+     * @return the factory of the combined loop
+     */
+    public static LoopFactory withArmFeedforward(LoopFactory feedback) {
+        return withFeedforward(feedback, true);
+    }
+
+    private static LoopFactory withFeedforward(LoopFactory feedback, boolean arm) {
+        return gains -> {
+            Loop loop = feedback.create(gains);
+            double ks = gains[gains.length - 3];
+            double kg = gains[gains.length - 2];
+            double kv = gains[gains.length - 1];
+            return (measurement, reference, referenceVelocity, dtSeconds) ->
+                    loop.calculate(measurement, reference, referenceVelocity, dtSeconds)
+                            + ks * Math.signum(referenceVelocity)
+                            + (arm ? kg * Math.cos(reference) : kg)
+                            + kv * referenceVelocity;
+        };
+    }
+
+    /**
+     * The score of a set of gains, and the response it was computed from.
+     */
+    public static class Result {
+        private final String[] names;
+        private final double[] gains;
+        private final double score, riseTime, overshoot, settlingTime;
+
+        Result(String[] names, double[] gains, double score, double riseTime,
+               double overshoot, double settlingTime) {
+            this.names = names;
+            this.gains = gains;
+            this.score = score;
+            this.riseTime = riseTime;
+            this.overshoot = overshoot;
+            this.settlingTime = settlingTime;
+        }
+
+        /**
+         * @return a copy of the gains, in the order they were added to the tuner
+         */
+        public double[] getGains() {
+            return gains.clone();
+        }
+
+        /**
+         * @param name the name of a gain
+         * @return the value of that gain
+         */
+        public double getGain(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return gains[i];
+                }
+            }
+            throw new IllegalArgumentException("There is no gain named " + name + ".");
+        }
+
+        /**
+         * @return the weighted score, where lower is better
+         */
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * @return the time to go from 10% to 90% of the move, in seconds
+         */
+        public double getRiseTime() {
+            return riseTime;
+        }
+
+        /**
+         * @return the largest overshoot, as a fraction of the move
+         */
+        public double getOvershoot() {
+            return overshoot;
+        }
+
+        /**
+         * @return the time after which the response stays within the settling tolerance, in seconds
+         */
+        public double getSettlingTime() {
+            return settlingTime;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder str = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                str.append(String.format(Locale.US, "%s=%.4g, ", names[i], gains[i]));
+            }
+            return str.append(String.format(Locale.US,
+                    "score=%.4g (rise %.3f s, overshoot %.1f%%, settling %.3f s)",
+                    score, riseTime, overshoot * 100, settlingTime)).toString();
+        }
+    }
+
+    private final LoopFactory factory;
+    private final Supplier<DCMotorSim> plant;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<double[]> ranges = new ArrayList<>();
+    private final List<Integer> counts = new ArrayList<>();
+
+    private boolean velocityControl = false;
+    private double start = 0, goal = 1;
+    private TrapezoidProfile.Constraints constraints;
+    private double duration = 3, period = 0.02;
+    private double settlingTolerance = 0.02;
+    private double riseWeight = 1, overshootWeight = 1, settlingWeight = 1;
+
+    /**
+     * Creates a tuner.
+     *
+     * @param factory the factory of the loop being tuned
+     * @param plant   creates the simulated mechanism, once for every simulation
+     */
+    public GainTuner(LoopFactory factory, Supplier<DCMotorSim> plant) {
+        this.factory = factory;
+        this.plant = plant;
+    }
+
+    /**
+     * Adds a gain to search, with evenly spaced values from min to max for a sweep. Gains are
+     * passed to the loop factory in the order they are added.
+     *
+     * @param name  the name of the gain
+     * @param min   the smallest value
+     * @param max   the largest value
+     * @param count the number of values to sweep
+     * @return this tuner, for chaining
+     */
+    public GainTuner addGain(String name, double min, double max, int count) {
+        if (count < 1 || !(max >= min) || (count == 1 && max != min)) {
+            throw new IllegalArgumentException("The range of " + name + " is invalid.");
+        }
+        names.add(name);
+        ranges.add(new double[]{min, max});
+        counts.add(count);
+        return this;
+    }
+
+    /**
+     * Adds a gain with a fixed value.
+     *
+     * @param name  the name of the gain
+     * @param value the value of the gain
+     * @return this tuner, for chaining
+     */
+    public GainTuner addGain(String name, double value) {
+        return addGain(name, value, value, 1);
+    }
+
+    /**
+     * Sets whether the loop controls the velocity of the mechanism instead of its position.
+     *
+     * @param velocityControl true for velocity control
+     * @return this tuner, for chaining
+     */
+    public GainTuner setVelocityControl(boolean velocityControl) {
+        this.velocityControl = velocityControl;
+        return this;
+    }
+
+    /**
+     * Sets the move that is simulated, from 0 to 1 by default. The mechanism starts at rest, or
+     * at the start velocity under velocity control.
+     *
+     * @param start the starting position, or velocity
+     * @param goal  the goal position, or velocity
+     * @return this tuner, for chaining
+     */
+    public GainTuner setMove(double start, double goal) {
+        if (start == goal) {
+            throw new IllegalArgumentException("The move must not be empty.");
+        }
+        this.start = start;
+        this.goal = goal;
+        return this;
+    }
+
+    /**
+     * Has the reference of a position move follow a {@link TrapezoidProfile} instead of
+     * stepping to the goal. Rise time and overshoot are still measured against the goal.
+     *
+     * @param constraints the constraints of the profile, or null to step to the goal
+     * @return this tuner, for chaining
+     */
+    public GainTuner setProfile(TrapezoidProfile.Constraints constraints) {
+        this.constraints = constraints;
+        return this;
+    }
+
+    /**
+     * Sets how long each move is simulated for, 3 s by default, and the period of the
+     * control loop, 0.02 s by default.
+     *
+     * @param duration the length of the simulation, in seconds
+     * @param period   the period of the loop, in seconds
+     * @return this tuner, for chaining
+     */
+    public GainTuner setDuration(double duration, double period) {
+        if (!(period > 0) || !(duration >= period)) {
+            throw new IllegalArgumentException("The duration and period must be positive.");
+        }
+        this.duration = duration;
+        this.period = period;
+        return this;
+    }
+
+    /**
+     * Sets the band around the goal that the response settles in, 2% of the move by default.
+     *
+     * @param fraction the half-width of the band, as a fraction of the move
+     * @return this tuner, for chaining
+     */
+    public GainTuner setSettlingTolerance(double fraction) {
+        settlingTolerance = fraction;
+        return this;
+    }
+
+    /**
+     * Sets the weights of the score, which is
+     * riseWeight * rise time + overshootWeight * overshoot + settlingWeight * settling time,
+     * with times in seconds and overshoot as a fraction of the move. All weights are 1 by default.
+     *
+     * @param riseWeight      the weight of the rise time
+     * @param overshootWeight the weight of the overshoot
+     * @param settlingWeight  the weight of the settling time
+     * @return this tuner, for chaining
+     */
+    public GainTuner setWeights(double riseWeight, double overshootWeight, double settlingWeight) {
+        this.riseWeight = riseWeight;
+        this.overshootWeight = overshootWeight;
+        this.settlingWeight = settlingWeight;
+        return this;
+    }
+
+    /**
+     * Simulates the move with one set of gains.
+     *
+     * @param gains the gains, in the order they were added
+     * @return the score of the gains
+     */
+    public Result evaluate(double[] gains) {
+        if (gains.length != names.size()) {
+            throw new IllegalArgumentException("Expected " + names.size() + " gains.");
+        }
+        gains = gains.clone();
+        String[] gainNames = names.toArray(new String[0]);
+
+        DCMotorSim sim = plant.get();
+        if (velocityControl) {
+            sim.reset(0, start);
+        } else {
+            sim.reset(start, 0);
+        }
+        Loop loop = factory.create(gains.clone());
+        TrapezoidProfile profile = !velocityControl && constraints != null
+                ? new TrapezoidProfile(constraints, new TrapezoidProfile.State(goal, 0),
+                new TrapezoidProfile.State(start, 0))
+                : null;
+
+        double move = goal - start;
+        double riseStart = Double.NaN, riseEnd = Double.NaN;
+        double overshoot = 0, settlingTime = 0;
+        int steps = (int) Math.round(duration / period);
+        for (int i = 0; i < steps; i++) {
+            double reference = goal;
+            double referenceVelocity = velocityControl ? goal : 0;
+            if (profile != null) {
+                TrapezoidProfile.State state = profile.calculate(i * period);
+                reference = state.position;
+                referenceVelocity = state.velocity;
+            }
+            double measurement = velocityControl ? sim.getVelocity() : sim.getPosition();
+            sim.step(loop.calculate(measurement, reference, referenceVelocity, period), period);
+
+            double time = (i + 1) * period;
+            double progress = ((velocityControl ? sim.getVelocity() : sim.getPosition()) - start) / move;
+            if (Double.isNaN(progress) || Double.isInfinite(progress)) {
+                return new Result(gainNames, gains, Double.POSITIVE_INFINITY, duration,
+                        Double.POSITIVE_INFINITY, duration);
+            }
+            if (Double.isNaN(riseStart) && progress >= 0.1) {
+                riseStart = time;
+            }
+            if (Double.isNaN(riseEnd) && progress >= 0.9) {
+                riseEnd = time;
+            }
+            overshoot = Math.max(overshoot, progress - 1);
+            if (Math.abs(1 - progress) > settlingTolerance) {
+                settlingTime = time;
+            }
+        }
+
+        double riseTime = Double.isNaN(riseEnd) ? duration : riseEnd - riseStart;
+        double score = riseWeight * riseTime + overshootWeight * overshoot + settlingWeight * settlingTime;
+        return new Result(gainNames, gains, score, riseTime, overshoot, settlingTime);
+    }
+
+    /**
+     * Simulates every combination of the swept gains on the common pool.
+     *
+     * @return the best gains
+     */
+    public Result sweep() {
+        return sweep(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simulates every combination of the swept gains. Of gains with equal scores, the one
+     * found first in the grid is returned, so the result does not depend on the pool.
+     *
+     * @param pool the pool to run the simulations on, or null to run them on the calling thread
+     * @return the best gains
+     */
+    public Result sweep(ForkJoinPool pool) {
+        long combinations = 1;
+        for (int count : counts) {
+            combinations *= count;
+        }
+        if (names.isEmpty() || combinations > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The grid of gains is empty or too large.");
+        }
+        SweepTask task = new SweepTask(0, (int) combinations);
+        return pool == null ? task.compute() : pool.invoke(task);
+    }
+
+    private double[] gridPoint(int index) {
+        double[] gains = new double[names.size()];
+        for (int i = gains.length - 1; i >= 0; i--) {
+            int count = counts.get(i);
+            double[] range = ranges.get(i);
+            int step = index % count;
+            index /= count;
+            gains[i] = count == 1 ? range[0] : range[0] + (range[1] - range[0]) * step / (count - 1);
+        }
+        return gains;
+    }
+
+    private static Result better(Result first, Result second) {
+        return second.score < first.score ? second : first;
+    }
+
+    private class SweepTask extends RecursiveTask<Result> {
+        private final int from, to;
+
+        SweepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD || getPool() == null) {
+                Result best = evaluate(gridPoint(from));
+                for (int i = from + 1; i < to; i++) {
+                    best = better(best, evaluate(gridPoint(i)));
+                }
+                return best;
+            }
+            int middle = (from + to) >>> 1;
+            SweepTask second = new SweepTask(middle, to);
+            second.fork();
+            Result first = new SweepTask(from, middle).compute();
+            return better(first, second.join());
+        }
+    }
+
+    /**
+     * Refines a set of gains with a pattern search. Each round simulates every swept gain
+     * moved up and down by its step, in parallel, and moves to the best of them if it improves
+     * the score, or halves the steps if none do. The steps start at half the grid spacing, and
+     * the gains stay within their ranges.
+     *
+     * @param start  the gains to start from, such as the result of {@link #sweep(ForkJoinPool)}
+     * @param rounds the number of rounds
+     * @param pool   the pool to run the simulations on, or null to run them on the calling thread
+     * @return the best gains found
+     */
+    public Result optimize(Result start, int rounds, ForkJoinPool pool) {
+        Result best = evaluate(start.gains);
+        double[] steps = new double[names.size()];
+        for (int i = 0; i < steps.length; i++) {
+            double[] range = ranges.get(i);
+            int count = counts.get(i);
+            steps[i] = count > 1 ? (range[1] - range[0]) / (count - 1) / 2 : 0;
+        }
+
+        List<double[]> candidates = new ArrayList<>();
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            candidates.clear();
+            for (int i = 0; i < steps.length; i++) {
+                if (steps[i] == 0) {
+                    continue;
+                }
+                double[] range = ranges.get(i);
+                for (int direction = -1; direction <= 1; direction += 2) {
+                    double value = Math.max(range[0], Math.min(range[1], best.gains[i] + direction * steps[i]));
+                    if (value != best.gains[i]) {
+                        double[] candidate = best.gains.clone();
+                        candidate[i] = value;
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            Result roundBest = null;
+            if (pool == null) {
+                for (double[] candidate : candidates) {
+                    Result result = evaluate(candidate);
+                    roundBest = roundBest == null ? result : better(roundBest, result);
+                }
+            } else {
+                tasks.clear();
+                for (final double[] candidate : candidates) {
+                    tasks.add(pool.submit(() -> evaluate(candidate)));
+                }
+                for (ForkJoinTask<Result> task : tasks) {
+                    Result result = task.join();
+                    roundBest = roundBest == null ? result : better(roundBest, result);
+                }
+            }
+
+            if (roundBest.score < best.score) {
+                best = roundBest;
+            } else {
+                for (int i = 0; i < steps.length; i++) {
+                    steps[i] /= 2;
+                }
+            }
+        }
+        return best;
+    }
+}
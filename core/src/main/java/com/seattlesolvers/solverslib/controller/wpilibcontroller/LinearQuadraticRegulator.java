@@ -0,0 +1,476 @@
+package com.seattlesolvers.solverslib.controller.wpilibcontroller;
+
+import org.ejml.simple.SimpleMatrix;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A linear-quadratic regulator, the optimal state-feedback controller u = K(r - x) for a linear
+ * system dx/dt = Ax + Bu that minimizes the sum of x'Qx + u'Ru over time.
+ *
+ * <p>The gain K is found once, at construction, by discretizing the system and solving the
+ * discrete algebraic Riccati equation. It can also be saved to a file with {@link #save} and
+ * loaded back with {@link #load}, so the solve can be done ahead of time. Each loop is then a
+ * single matrix-vector product into a reused array.
+ *
+ * <p>The regulator only handles the linear part of the mechanism. The mechanism factories
+ * build it from the gains of the matching feedforward, which should still be added to the
+ * output to handle friction and gravity:
+ *
+ * <pre><code>
+ * ElevatorFeedforward feedforward = new ElevatorFeedforward(kS, kG, kV, kA);
+ * LinearQuadraticRegulator lqr = LinearQuadraticRegulator.forElevator(
+ *   feedforward, 0.02, 0.4, 12.0, 0.02);
+ * // every loop:
+ * double voltage = feedforward.calculate(setpoint.velocity, acceleration)
+ *   + lqr.calculate(position, velocity, setpoint.position, setpoint.velocity);
+ * </code></pre>
+ *
+ * <p>The cost matrices are most easily picked with Bryson's rule, using
+ * {@link #makeCostMatrix(double...)}: the largest acceptable error in each state and the
+ * largest acceptable input.
+ */
+public class LinearQuadraticRegulator {
+    private static final int kMaxIterations = 64;
+
+    private final int m_states;
+    private final int m_inputs;
+
+    // The gain, stored row by row, and the last output.
+    private final double[][] m_K;
+    private final double[] m_u;
+
+    /**
+     * Constructs a regulator with the given gain.
+     *
+     * @param K The gain, with one row per input and one column per state.
+     */
+    @SuppressWarnings("ParameterName")
+    public LinearQuadraticRegulator(double[][] K) {
+        if (K.length == 0 || K[0].length == 0) {
+            throw new IllegalArgumentException("The gain must have at least one row and one column.");
+        }
+        m_inputs = K.length;
+        m_states = K[0].length;
+        m_K = new double[m_inputs][];
+        for (int i = 0; i < m_inputs; i++) {
+            if (K[i].length != m_states) {
+                throw new IllegalArgumentException("Every row of the gain must have the same length.");
+            }
+            m_K[i] = K[i].clone();
+        }
+        m_u = new double[m_inputs];
+    }
+
+    /**
+     * Constructs a regulator for the continuous system dx/dt = Ax + Bu, by discretizing it
+     * with the given period and solving for the optimal gain.
+     *
+     * @param A         The system matrix.
+     * @param B         The input matrix.
+     * @param Q         The state cost matrix.
+     * @param R         The input cost matrix.
+     * @param dtSeconds The period of the control loop.
+     */
+    @SuppressWarnings("ParameterName")
+    public LinearQuadraticRegulator(SimpleMatrix A, SimpleMatrix B, SimpleMatrix Q, SimpleMatrix R,
+                                    double dtSeconds) {
+        this(solveGain(A, B, Q, R, dtSeconds));
+    }
+
+    /**
+     * Constructs a regulator for a position-controlled elevator from the velocity and
+     * acceleration gains of its feedforward.
+     *
+     * @param feedforward       The feedforward of the elevator. Its acceleration gain must be positive.
+     * @param positionTolerance The largest acceptable position error.
+     * @param velocityTolerance The largest acceptable velocity error.
+     * @param maxVoltage        The largest acceptable output.
+     * @param dtSeconds         The period of the control loop.
+     * @return the regulator
+     */
+    public static LinearQuadraticRegulator forElevator(ElevatorFeedforward feedforward,
+                                                       double positionTolerance, double velocityTolerance,
+                                                       double maxVoltage, double dtSeconds) {
+        return forPosition(feedforward.kv, feedforward.ka, positionTolerance, velocityTolerance,
+                maxVoltage, dtSeconds);
+    }
+
+    /**
+     * Constructs a regulator for a position-controlled arm from the velocity and
+     * acceleration gains of its feedforward.
+     *
+     * @param feedforward       The feedforward of the arm. Its acceleration gain must be positive.
+     * @param angleTolerance    The largest acceptable angle error, in radians.
+     * @param velocityTolerance The largest acceptable angular velocity error, in radians per second.
+     * @param maxVoltage        The largest acceptable output.
+     * @param dtSeconds         The period of the control loop.
+     * @return the regulator
+     */
+    public static LinearQuadraticRegulator forArm(ArmFeedforward feedforward,
+                                                  double angleTolerance, double velocityTolerance,
+                                                  double maxVoltage, double dtSeconds) {
+        return forPosition(feedforward.kv, feedforward.ka, angleTolerance, velocityTolerance,
+                maxVoltage, dtSeconds);
+    }
+
+    /**
+     * Constructs a regulator for a velocity-controlled flywheel from the velocity and
+     * acceleration gains of its feedforward.
+     *
+     * @param feedforward       The feedforward of the flywheel. Its acceleration gain must be positive.
+     * @param velocityTolerance The largest acceptable velocity error.
+     * @param maxVoltage        The largest acceptable output.
+     * @param dtSeconds         The period of the control loop.
+     * @return the regulator
+     */
+    public static LinearQuadraticRegulator forFlywheel(SimpleMotorFeedforward feedforward,
+                                                       double velocityTolerance,
+                                                       double maxVoltage, double dtSeconds) {
+        checkAcceleration(feedforward.ka);
+        SimpleMatrix A = new SimpleMatrix(new double[][]{{-feedforward.kv / feedforward.ka}});
+        SimpleMatrix B = new SimpleMatrix(new double[][]{{1 / feedforward.ka}});
+        return new LinearQuadraticRegulator(A, B, makeCostMatrix(velocityTolerance),
+                makeCostMatrix(maxVoltage), dtSeconds);
+    }
+
+    /**
+     * The voltage of a mechanism with feedforward u = kV v + kA a, once friction and gravity are
+     * compensated, gives the system d/dt [x, v] = [v, (u - kV v) / kA].
+     */
+    private static LinearQuadraticRegulator forPosition(double kv, double ka,
+                                                        double positionTolerance, double velocityTolerance,
+                                                        double maxVoltage, double dtSeconds) {
+        checkAcceleration(ka);
+        SimpleMatrix A = new SimpleMatrix(new double[][]{{0, 1}, {0, -kv / ka}});
+        SimpleMatrix B = new SimpleMatrix(new double[][]{{0}, {1 / ka}});
+        return new LinearQuadraticRegulator(A, B, makeCostMatrix(positionTolerance, velocityTolerance),
+                makeCostMatrix(maxVoltage), dtSeconds);
+    }
+
+    private static void checkAcceleration(double ka) {
+        if (!(ka > 0)) {
+            throw new IllegalArgumentException("The feedforward must have a positive acceleration gain.");
+        }
+    }
+
+    /**
+     * Creates a diagonal cost matrix with Bryson's rule, where each entry is the inverse
+     * square of the largest acceptable value.
+     *
+     * @param tolerances The largest acceptable value of each state or input.
+     * @return the cost matrix
+     */
+    public static SimpleMatrix makeCostMatrix(double... tolerances) {
+        SimpleMatrix result = new SimpleMatrix(tolerances.length, tolerances.length);
+        for (int i = 0; i < tolerances.length; i++) {
+            if (!(tolerances[i] > 0)) {
+                throw new IllegalArgumentException("The tolerances must be positive.");
+            }
+            result.set(i, i, 1 / (tolerances[i] * tolerances[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Discretizes the system and solves for the optimal gain.
+     */
+    @SuppressWarnings("ParameterName")
+    private static double[][] solveGain(SimpleMatrix A, SimpleMatrix B, SimpleMatrix Q, SimpleMatrix R,
+                                        double dtSeconds) {
+        int states = A.numRows();
+        int inputs = B.numCols();
+        if (A.numCols() != states || B.numRows() != states
+                || Q.numRows() != states || Q.numCols() != states
+                || R.numRows() != inputs || R.numCols() != inputs) {
+            throw new IllegalArgumentException("The dimensions of the matrices do not match.");
+        }
+        if (!(dtSeconds > 0)) {
+            throw new IllegalArgumentException("The period must be positive.");
+        }
+
+        // Zero-order hold: exp([[A, B], [0, 0]] dt) = [[Ad, Bd], [0, I]].
+        SimpleMatrix system = new SimpleMatrix(states + inputs, states + inputs);
+        for (int i = 0; i < states; i++) {
+            for (int j = 0; j < states; j++) {
+                system.set(i, j, A.get(i, j) * dtSeconds);
+            }
+            for (int j = 0; j < inputs; j++) {
+                system.set(i, states + j, B.get(i, j) * dtSeconds);
+            }
+        }
+        SimpleMatrix discrete = exp(system);
+        SimpleMatrix discA = new SimpleMatrix(states, states);
+        SimpleMatrix discB = new SimpleMatrix(states, inputs);
+        for (int i = 0; i < states; i++) {
+            for (int j = 0; j < states; j++) {
+                discA.set(i, j, discrete.get(i, j));
+            }
+            for (int j = 0; j < inputs; j++) {
+                discB.set(i, j, discrete.get(i, states + j));
+            }
+        }
+
+        SimpleMatrix P = solveDARE(discA, discB, Q, R);
+
+        // K = (R + B'PB)^-1 B'PA
+        SimpleMatrix BtP = discB.transpose().mult(P);
+        SimpleMatrix K = R.plus(BtP.mult(discB)).solve(BtP.mult(discA));
+        double[][] result = new double[inputs][states];
+        for (int i = 0; i < inputs; i++) {
+            for (int j = 0; j < states; j++) {
+                result[i][j] = K.get(i, j);
+                if (Double.isNaN(result[i][j]) || Double.isInfinite(result[i][j])) {
+                    throw new IllegalArgumentException("The system cannot be stabilized with these costs.");
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Solves the discrete algebraic Riccati equation
+     * P = A'PA - A'PB (R + B'PB)^-1 B'PA + Q
+     * with the structure-preserving doubling algorithm, which converges quadratically.
+     *
+     * @param A The discrete system matrix.
+     * @param B The discrete input matrix.
+     * @param Q The state cost matrix.
+     * @param R The input cost matrix.
+     * @return the solution P
+     */
+    @SuppressWarnings("ParameterName")
+    static SimpleMatrix solveDARE(SimpleMatrix A, SimpleMatrix B, SimpleMatrix Q, SimpleMatrix R) {
+        SimpleMatrix identity = SimpleMatrix.identity(A.numRows());
+        SimpleMatrix a = A.copy();
+        SimpleMatrix g = B.mult(R.solve(B.transpose()));
+        SimpleMatrix h = Q.copy();
+
+        for (int i = 0; i < kMaxIterations; i++) {
+            SimpleMatrix w = identity.plus(g.mult(h));
+            SimpleMatrix wA = w.solve(a);
+            SimpleMatrix wG = w.solve(g);
+
+            SimpleMatrix nextH = h.plus(a.transpose().mult(h).mult(wA));
+            g = g.plus(a.mult(wG).mult(a.transpose()));
+            a = a.mult(wA);
+
+            double change = nextH.minus(h).normF();
+            h = nextH;
+            if (change <= 1E-10 * h.normF()) {
+                return h;
+            }
+        }
+        throw new IllegalArgumentException("The Riccati equation did not converge. "
+                + "Check that the system is stabilizable and that the costs are positive.");
+    }
+
+    /**
+     * Computes the matrix exponential by scaling and squaring a Taylor series.
+     */
+    private static SimpleMatrix exp(SimpleMatrix m) {
+        int squarings = Math.max(0, (int) Math.ceil(Math.log(m.normF()) / Math.log(2)) + 1);
+        SimpleMatrix scaled = m.scale(1 / Math.pow(2, squarings));
+
+        SimpleMatrix result = SimpleMatrix.identity(m.numRows());
+        SimpleMatrix term = SimpleMatrix.identity(m.numRows());
+        for (int k = 1; k <= 12; k++) {
+            term = term.mult(scaled).scale(1.0 / k);
+            result = result.plus(term);
+        }
+        for (int i = 0; i < squarings; i++) {
+            result = result.mult(result);
+        }
+        return result;
+    }
+
+    /**
+     * Loads a regulator from gains written by {@link #save(OutputStream)}: one row of the gain
+     * per line, with the values separated by commas or spaces. Blank lines and lines starting
+     * with # are ignored.
+     *
+     * @param stream The stream to read.
+     * @return the regulator
+     * @throws IOException if the stream cannot be read.
+     */
+    public static LinearQuadraticRegulator load(InputStream stream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        List<double[]> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] values = line.split("[,\\s]+");
+            double[] row = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                try {
+                    row[i] = Double.parseDouble(values[i]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid gain: " + values[i], e);
+                }
+            }
+            rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            throw new IOException("The gain file is empty.");
+        }
+        return new LinearQuadraticRegulator(rows.toArray(new double[0][]));
+    }
+
+    /**
+     * Loads a regulator from a file of gains.
+     *
+     * @param file The file to read.
+     * @return the regulator
+     * @throws IOException if the file cannot be read.
+     * @see #load(InputStream)
+     */
+    public static LinearQuadraticRegulator load(File file) throws IOException {
+        try (InputStream stream = new FileInputStream(file)) {
+            return load(stream);
+        }
+    }
+
+    /**
+     * Writes the gain of this regulator, so it can be loaded with {@link #load(InputStream)}.
+     *
+     * @param stream The stream to write to.
+     */
+    public void save(OutputStream stream) {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        writer.println("# LQR gain: one row per input, one column per state");
+        for (double[] row : m_K) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0; j < row.length; j++) {
+                if (j > 0) {
+                    builder.append(", ");
+                }
+                builder.append(row[j]);
+            }
+            writer.println(builder);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the gain of this regulator to a file.
+     *
+     * @param file The file to write to.
+     * @throws IOException if the file cannot be written.
+     * @see #save(OutputStream)
+     */
+    public void save(File file) throws IOException {
+        try (OutputStream stream = new FileOutputStream(file)) {
+            save(stream);
+        }
+    }
+
+    /**
+     * Returns a copy of the gain.
+     *
+     * @return The gain, with one row per input and one column per state.
+     */
+    public double[][] getK() {
+        double[][] result = new double[m_inputs][];
+        for (int i = 0; i < m_inputs; i++) {
+            result[i] = m_K[i].clone();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the gain from a state to an input.
+     *
+     * @param input The row of the gain.
+     * @param state The column of the gain.
+     * @return the gain
+     */
+    public double getK(int input, int state) {
+        return m_K[input][state];
+    }
+
+    /**
+     * Returns the number of states of the system.
+     */
+    public int getStates() {
+        return m_states;
+    }
+
+    /**
+     * Returns the number of inputs of the system.
+     */
+    public int getInputs() {
+        return m_inputs;
+    }
+
+    /**
+     * Returns the next output of the regulator, u = K(r - x). The returned array is
+     * reused by every call.
+     *
+     * @param x The current state.
+     * @param r The reference state.
+     * @return the output, one value per input
+     */
+    @SuppressWarnings("ParameterName")
+    public double[] calculate(double[] x, double[] r) {
+        for (int i = 0; i < m_inputs; i++) {
+            double[] row = m_K[i];
+            double u = 0;
+            for (int j = 0; j < m_states; j++) {
+                u += row[j] * (r[j] - x[j]);
+            }
+            m_u[i] = u;
+        }
+        return m_u;
+    }
+
+    /**
+     * Returns the next output of a regulator with one state and one input, such as a flywheel.
+     *
+     * @param velocity          The current velocity.
+     * @param referenceVelocity The reference velocity.
+     * @return the output
+     */
+    public double calculate(double velocity, double referenceVelocity) {
+        return m_u[0] = m_K[0][0] * (referenceVelocity - velocity);
+    }
+
+    /**
+     * Returns the next output of a regulator with a position and a velocity state and one
+     * input, such as an elevator or an arm.
+     *
+     * @param position          The current position.
+     * @param velocity          The current velocity.
+     * @param referencePosition The reference position.
+     * @param referenceVelocity The reference velocity.
+     * @return the output
+     */
+    public double calculate(double position, double velocity,
+                            double referencePosition, double referenceVelocity) {
+        return m_u[0] = m_K[0][0] * (referencePosition - position)
+                + m_K[0][1] * (referenceVelocity - velocity);
+    }
+
+    /**
+     * Returns the last output of the regulator.
+     *
+     * @return the output, one value per input
+     */
+    public double[] getU() {
+        return m_u;
+    }
+}
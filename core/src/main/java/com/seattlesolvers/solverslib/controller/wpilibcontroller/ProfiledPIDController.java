@@ -8,11 +8,16 @@
 package com.seattlesolvers.solverslib.controller.wpilibcontroller;
 
 import com.seattlesolvers.solverslib.controller.PIDController;
+import com.seattlesolvers.solverslib.trajectory.SCurveProfile;
 import com.seattlesolvers.solverslib.trajectory.TrapezoidProfile;
 
 /**
  * Implements a PID control loop whose setpoint is constrained by a trapezoid
  * profile.
+ *
+ * <p>If the constraints are {@link SCurveProfile.Constraints}, the setpoint follows a
+ * jerk-limited {@link SCurveProfile} instead. That profile is only recomputed when the goal
+ * or the constraints change, and is sampled into the same setpoint every loop.
  */
 @SuppressWarnings("PMD.TooManyMethods")
 public class ProfiledPIDController {
@@ -21,6 +26,16 @@ public class ProfiledPIDController {
     private TrapezoidProfile.State m_setpoint = new TrapezoidProfile.State();
     private TrapezoidProfile.Constraints m_constraints;
 
+    private SCurveProfile m_sCurveProfile;
+    private final SCurveProfile.State m_sCurveSetpoint = new SCurveProfile.State();
+    private boolean m_sCurveStale = true;
+    private double m_sCurveTime;
+    private double m_sCurveGoalPosition;
+    private double m_sCurveGoalVelocity;
+    private double m_sCurveMaxVelocity;
+    private double m_sCurveMaxAcceleration;
+    private double m_sCurveMaxJerk;
+
     /**
      * Allocates a ProfiledPIDController with the given constants for Kp, Ki, and
      * Kd.
@@ -219,11 +234,43 @@ public class ProfiledPIDController {
      * @param measurement The current measurement of the process variable.
      */
     public double calculate(double measurement) {
-        TrapezoidProfile profile = new TrapezoidProfile(m_constraints, m_goal, m_setpoint);
-        m_setpoint = profile.calculate(getPeriod());
+        if (m_constraints instanceof SCurveProfile.Constraints) {
+            updateSCurveSetpoint((SCurveProfile.Constraints) m_constraints);
+        } else {
+            TrapezoidProfile profile = new TrapezoidProfile(m_constraints, m_goal, m_setpoint);
+            m_setpoint = profile.calculate(getPeriod());
+        }
         return m_controller.calculate(measurement, m_setpoint.position);
     }
 
+    /**
+     * Advances the setpoint along the S-curve profile, recomputing the profile from the
+     * current setpoint if the goal or the constraints have changed since it was computed.
+     */
+    private void updateSCurveSetpoint(SCurveProfile.Constraints constraints) {
+        if (m_sCurveStale
+                || m_goal.position != m_sCurveGoalPosition
+                || m_goal.velocity != m_sCurveGoalVelocity
+                || constraints.maxVelocity != m_sCurveMaxVelocity
+                || constraints.maxAcceleration != m_sCurveMaxAcceleration
+                || constraints.maxJerk != m_sCurveMaxJerk) {
+            if (m_sCurveProfile == null) {
+                m_sCurveProfile = new SCurveProfile(constraints, m_goal, m_setpoint);
+            } else {
+                m_sCurveProfile.reset(constraints, m_goal, m_setpoint);
+            }
+            m_sCurveStale = false;
+            m_sCurveTime = 0;
+            m_sCurveGoalPosition = m_goal.position;
+            m_sCurveGoalVelocity = m_goal.velocity;
+            m_sCurveMaxVelocity = constraints.maxVelocity;
+            m_sCurveMaxAcceleration = constraints.maxAcceleration;
+            m_sCurveMaxJerk = constraints.maxJerk;
+        }
+        m_sCurveTime += getPeriod();
+        m_setpoint = m_sCurveProfile.calculate(m_sCurveTime, m_sCurveSetpoint);
+    }
+
     /**
      * Returns the next output of the PID controller.
      *
@@ -274,6 +321,7 @@ public class ProfiledPIDController {
     public void reset(TrapezoidProfile.State measurement) {
         m_controller.reset();
         m_setpoint = measurement;
+        m_sCurveStale = true;
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.seattlesolvers.solverslib.drivebase;
 
 import com.seattlesolvers.solverslib.geometry.Vector2d;
+import com.seattlesolvers.solverslib.hardware.GyroEx;
 import com.seattlesolvers.solverslib.hardware.motors.Motor;
 
 /**
@@ -187,6 +188,21 @@ public class MecanumDrive extends RobotDrive {
         driveFieldCentric(xSpeed, ySpeed, turnSpeed, gyroAngle);
     }
 
+    /**
+     * Drives the robot from the perspective of the driver, taking the heading from a gyro.
+     * When given a {@link com.seattlesolvers.solverslib.hardware.DecimatedGyro}, this uses the
+     * heading from its last {@code update()} and does not read the IMU.
+     *
+     * @param strafeSpeed  the horizontal speed of the robot, derived from input
+     * @param forwardSpeed the vertical speed of the robot, derived from input
+     * @param turnSpeed    the turn speed of the robot, derived from input
+     * @param gyro         the heading source of the robot
+     */
+    public void driveFieldCentric(double strafeSpeed, double forwardSpeed,
+                                  double turnSpeed, GyroEx gyro) {
+        driveFieldCentric(strafeSpeed, forwardSpeed, turnSpeed, gyro.getHeading());
+    }
+
     /**
      * Drives the motors directly with the specified motor powers.
      *
@@ -1,6 +1,7 @@
 package com.seattlesolvers.solverslib.drivebase.swerve.coaxial;
 
 import com.qualcomm.robotcore.hardware.PIDFCoefficients;
+import com.seattlesolvers.solverslib.controller.PIDFControllerBank;
 import com.seattlesolvers.solverslib.drivebase.RobotDrive;
 import com.seattlesolvers.solverslib.geometry.Vector2d;
 import com.seattlesolvers.solverslib.hardware.motors.CRServoEx;
@@ -10,6 +11,8 @@ import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.ChassisSpeeds;
 
 public class CoaxialSwerveDrivetrain extends RobotDrive {
     private final CoaxialSwerveModule[] modules = new CoaxialSwerveModule[4];
+    // The swervo PIDF controllers of all modules, evaluated together
+    private final PIDFControllerBank swervoControllers = new PIDFControllerBank(4);
     // Left-right c2c distance between pods
     private final double trackWidth;
     // Front-back c2c distance between pods
@@ -42,10 +45,13 @@ public class CoaxialSwerveDrivetrain extends RobotDrive {
             motor.setZeroPowerBehavior(Motor.ZeroPowerBehavior.BRAKE);
         }
 
-        this.modules[0] = new CoaxialSwerveModule(motors[0], swervos[0], new Vector2d(trackWidth / 2, wheelBase / 2), maxSpeed, swervoPIDFCoefficients);
-        this.modules[1] = new CoaxialSwerveModule(motors[1], swervos[1], new Vector2d(-trackWidth / 2, wheelBase / 2), maxSpeed, swervoPIDFCoefficients);
-        this.modules[2] = new CoaxialSwerveModule(motors[2], swervos[2], new Vector2d(-trackWidth / 2, -wheelBase / 2), maxSpeed, swervoPIDFCoefficients);
-        this.modules[3] = new CoaxialSwerveModule(motors[3], swervos[3], new Vector2d(trackWidth / 2, -wheelBase / 2), maxSpeed, swervoPIDFCoefficients);
+        for (int i = 0; i < 4; i++) {
+            swervoControllers.setCoefficients(i, swervoPIDFCoefficients);
+        }
+        this.modules[0] = new CoaxialSwerveModule(motors[0], swervos[0], new Vector2d(trackWidth / 2, wheelBase / 2), maxSpeed, swervoControllers, 0);
+        this.modules[1] = new CoaxialSwerveModule(motors[1], swervos[1], new Vector2d(-trackWidth / 2, wheelBase / 2), maxSpeed, swervoControllers, 1);
+        this.modules[2] = new CoaxialSwerveModule(motors[2], swervos[2], new Vector2d(-trackWidth / 2, -wheelBase / 2), maxSpeed, swervoControllers, 2);
+        this.modules[3] = new CoaxialSwerveModule(motors[3], swervos[3], new Vector2d(trackWidth / 2, -wheelBase / 2), maxSpeed, swervoControllers, 3);
         setMaxSpeed(maxSpeed);
     }
 
@@ -89,8 +95,10 @@ public class CoaxialSwerveDrivetrain extends RobotDrive {
             // Scale the actual module velocities by the scale the normalization did to the magnitudes
             moduleVelocities[i].scale(moduleVelocitiesMagnitude[i] / moduleVelocities[i].magnitude());
             // Update the module itself
-            modules[i].updateModuleWithVelocity(moduleVelocities[i]);
+            modules[i].setTargetVelocity(moduleVelocities[i]);
+            modules[i].updateWheel();
         }
+        updateSwervos();
 
         return moduleVelocities;
     }
@@ -111,9 +119,19 @@ public class CoaxialSwerveDrivetrain extends RobotDrive {
         for (int i = 0; i < modules.length; i++) {
             double angle = (-Math.PI / 4) + (Math.PI/2 * i);
             // Update the module itself
-            modules[i].updateModuleWithVelocity(
-                    new Vector2d(Math.cos(angle), Math.sin(angle)).scale(0.0001)
-            );
+            modules[i].setTargetVelocity(new Vector2d(Math.cos(angle), Math.sin(angle)).scale(0.0001));
+            modules[i].updateWheel();
+        }
+        updateSwervos();
+    }
+
+    /**
+     * Evaluates the swervo controllers of all modules at once, and sets the swervo speeds
+     */
+    private void updateSwervos() {
+        swervoControllers.update();
+        for (CoaxialSwerveModule module : modules) {
+            module.updateSwervo();
         }
     }
 
@@ -132,6 +150,13 @@ public class CoaxialSwerveDrivetrain extends RobotDrive {
         }
     }
 
+    /**
+     * @return the bank holding the swervo PIDF controllers of the modules, one channel per module
+     */
+    public PIDFControllerBank getSwervoControllers() {
+        return swervoControllers;
+    }
+
     public CoaxialSwerveModule[] getModules() {
         return modules;
     }
@@ -1,7 +1,7 @@
 package com.seattlesolvers.solverslib.drivebase.swerve.coaxial;
 
 import com.qualcomm.robotcore.hardware.PIDFCoefficients;
-import com.seattlesolvers.solverslib.controller.PIDFController;
+import com.seattlesolvers.solverslib.controller.PIDFControllerBank;
 import com.seattlesolvers.solverslib.geometry.Vector2d;
 import com.seattlesolvers.solverslib.hardware.motors.CRServoEx;
 import com.seattlesolvers.solverslib.hardware.motors.MotorEx;
@@ -12,7 +12,8 @@ public class CoaxialSwerveModule {
     private final MotorEx motor;
     private final CRServoEx swervo;
     private double maxSpeed;
-    private PIDFController swervoPIDF;
+    private final PIDFControllerBank swervoControllers;
+    private final int swervoChannel;
     // Angle that is tangential to the circle made by the 4 modules relative to the robot
     private final double tangentialAngle;
     private final double circumference;
@@ -30,10 +31,26 @@ public class CoaxialSwerveModule {
      * @param swervoPIDFCoefficients the coefficients for the swervo PIDF controller.
      */
     public CoaxialSwerveModule(MotorEx motor, CRServoEx swervo, Vector2d offset, double maxSpeed, PIDFCoefficients swervoPIDFCoefficients) {
+        this(motor, swervo, offset, maxSpeed, new PIDFControllerBank(1, swervoPIDFCoefficients), 0);
+    }
+
+    /**
+     * The constructor that sets up the swerve module object, with its swervo PIDF controller
+     * stored in a channel of a controller bank shared with other modules.
+     *
+     * @param motor the SolversMotor for the swerve module.
+     * @param swervo the SolversAxonServo for the pod rotation, with the proper absolute encoder and angle offset so that the wheel is moving the robot forward when motor power is positive.
+     * @param offset the offset of the center of the wheel/pod from the center of the robot, in inches.
+     * @param maxSpeed the maximum linear speed of the wheel/pod in inches/second.
+     * @param swervoControllers the controller bank holding the swervo PIDF controller.
+     * @param swervoChannel the channel of this module's swervo PIDF controller in the bank.
+     */
+    public CoaxialSwerveModule(MotorEx motor, CRServoEx swervo, Vector2d offset, double maxSpeed, PIDFControllerBank swervoControllers, int swervoChannel) {
         this.motor = motor;
         this.swervo = swervo;
         this.maxSpeed = maxSpeed;
-        this.swervoPIDF = new PIDFController(swervoPIDFCoefficients);
+        this.swervoControllers = swervoControllers;
+        this.swervoChannel = swervoChannel;
 
         tangentialAngle = offset.angle();
         circumference = offset.magnitude() * Math.PI * 2;
@@ -67,6 +84,16 @@ public class CoaxialSwerveModule {
      * Updates the module/hardware to follow the known, previous target velocity set in the object.
      */
     public void updateModule() {
+        updateWheel();
+        // Set swervo speed for pod rotation
+        swervo.set(swervoControllers.calculate(swervoChannel, 0, angleError));
+    }
+
+    /**
+     * Sets the wheel speed and loads the pod angle error into the swervo controller bank, without
+     * evaluating it. Once the bank is updated, {@link #updateSwervo()} sets the swervo speed.
+     */
+    void updateWheel() {
         // Wheel flipping optimization (if its quicker to swap motor direction and rotate the pod less, then do that)
         wheelFlipped = false;
         angleError = MathUtils.normalizeRadians(MathUtils.normalizeRadians(targetVelocity.angle(), true) - swervo.getAbsoluteEncoder().getCurrentPosition(), false);
@@ -82,8 +109,15 @@ public class CoaxialSwerveModule {
             motor.set(targetVelocity.magnitude() / maxSpeed * Math.cos(angleError));
         }
 
-        // Set swervo speed for pod rotation
-        swervo.set(swervoPIDF.calculate(0, angleError));
+        swervoControllers.setSetPoint(swervoChannel, angleError);
+        swervoControllers.setMeasuredValue(swervoChannel, 0);
+    }
+
+    /**
+     * Sets the swervo speed from the last output of this module's channel in the controller bank.
+     */
+    void updateSwervo() {
+        swervo.set(swervoControllers.getOutput(swervoChannel));
     }
 
     /**
@@ -124,7 +158,7 @@ public class CoaxialSwerveModule {
     }
 
     public void setSwervoPIDF(PIDFCoefficients pidfCoefficients) {
-        this.swervoPIDF.setPIDF(pidfCoefficients.p, pidfCoefficients.i, pidfCoefficients.d, pidfCoefficients.f);
+        swervoControllers.setCoefficients(swervoChannel, pidfCoefficients);
     }
 
     public void setMaxSpeed(double maxSpeed) {
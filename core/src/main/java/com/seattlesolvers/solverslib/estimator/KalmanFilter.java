@@ -0,0 +1,552 @@
+package com.seattlesolvers.solverslib.estimator;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ArmFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+
+/**
+ * A linear Kalman filter, which estimates the state of a system dx/dt = Ax + Bu from noisy
+ * measurements y = Cx. The noise is described by the standard deviation of each state
+ * (how much the model can be trusted) and of each measurement.
+ *
+ * <p>All of the storage is allocated once, at construction, for the size of the model, so
+ * {@link #predict(double[], double)} and {@link #correct(double[])} do not allocate. The model is
+ * discretized for the period given to {@link #predict}, and the result is kept until the
+ * period changes, so a loop running at a fixed rate only discretizes once.
+ *
+ * <p>Compared to finite differences of an encoder, the filter smooths out the quantization
+ * noise of the measurements, and a model with an input uses the applied voltage to react to
+ * changes without waiting for the measurements to show them.
+ *
+ * <pre><code>
+ * KalmanFilter filter = KalmanFilter.forFlywheel(feedforward, 3.0, 0.01);
+ * // every loop:
+ * filter.predict(voltage - feedforward.ks * Math.signum(velocity), dt);
+ * filter.correct(measuredVelocity);
+ * double velocity = filter.getXhat(0);
+ * </code></pre>
+ */
+public class KalmanFilter {
+    // Terms of the Taylor series of the matrix exponential, after scaling.
+    private static final int kExpTerms = 12;
+
+    private final int m_states;
+    private final int m_inputs;
+    private final int m_outputs;
+
+    // The continuous model, and the variances of the process noise per second and of the measurements.
+    private final double[][] m_contA;
+    private final double[][] m_contB;
+    private final double[][] m_C;
+    private final double[] m_processVariances;
+    private final double[] m_measurementVariances;
+
+    // The model discretized for the last period.
+    private double m_discretePeriod = Double.NaN;
+    private final double[][] m_discA;
+    private final double[][] m_discB;
+
+    private final double[] m_xhat;
+    private final double[][] m_P;
+    private final double[] m_zeroInput;
+
+    // Scratch space, sized for the model.
+    private double[][] m_expResult;
+    private double[][] m_expScratch;
+    private final double[][] m_expTerm;
+    private final double[] m_stateScratch;
+    private final double[][] m_stateMatrixScratch;
+    private final double[][] m_PCt;
+    private final double[][] m_S;
+    private final double[][] m_K;
+    private final double[] m_innovation;
+    private final double[] m_singleMeasurement = new double[1];
+    private final double[] m_singleInput = new double[1];
+
+    /**
+     * Constructs a Kalman filter for the continuous system dx/dt = Ax + Bu with measurements y = Cx.
+     *
+     * @param A                      The system matrix, with one row and one column per state.
+     * @param B                      The input matrix, with one row per state and one column per input.
+     *                               It may have no columns for a system without inputs.
+     * @param C                      The output matrix, with one row per measurement and one column per state.
+     * @param stateStdDevs           The standard deviation of each state, per second, that is not
+     *                               explained by the model.
+     * @param measurementStdDevs     The standard deviation of each measurement.
+     */
+    @SuppressWarnings("ParameterName")
+    public KalmanFilter(double[][] A, double[][] B, double[][] C,
+                        double[] stateStdDevs, double[] measurementStdDevs) {
+        m_states = A.length;
+        m_inputs = m_states > 0 && B.length > 0 ? B[0].length : 0;
+        m_outputs = C.length;
+        if (m_states == 0 || m_outputs == 0) {
+            throw new IllegalArgumentException("The filter must have at least one state and one measurement.");
+        }
+        if (B.length != m_states || stateStdDevs.length != m_states || measurementStdDevs.length != m_outputs) {
+            throw new IllegalArgumentException("The dimensions of the model do not match.");
+        }
+        m_contA = copy(A, m_states, m_states);
+        m_contB = copy(B, m_states, m_inputs);
+        m_C = copy(C, m_outputs, m_states);
+
+        m_processVariances = new double[m_states];
+        for (int i = 0; i < m_states; i++) {
+            m_processVariances[i] = stateStdDevs[i] * stateStdDevs[i];
+        }
+        m_measurementVariances = new double[m_outputs];
+        for (int i = 0; i < m_outputs; i++) {
+            if (!(measurementStdDevs[i] > 0)) {
+                throw new IllegalArgumentException("The measurement standard deviations must be positive.");
+            }
+            m_measurementVariances[i] = measurementStdDevs[i] * measurementStdDevs[i];
+        }
+
+        int size = m_states + m_inputs;
+        m_discA = new double[m_states][m_states];
+        m_discB = new double[m_states][m_inputs];
+        m_xhat = new double[m_states];
+        m_P = new double[m_states][m_states];
+        m_zeroInput = new double[m_inputs];
+        m_expResult = new double[size][size];
+        m_expScratch = new double[size][size];
+        m_expTerm = new double[size][size];
+        m_stateScratch = new double[m_states];
+        m_stateMatrixScratch = new double[m_states][m_states];
+        m_PCt = new double[m_states][m_outputs];
+        m_S = new double[m_outputs][2 * m_outputs];
+        m_K = new double[m_states][m_outputs];
+        m_innovation = new double[m_outputs];
+
+        reset();
+    }
+
+    private static double[][] copy(double[][] matrix, int rows, int columns) {
+        double[][] result = new double[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            if (matrix[i].length != columns) {
+                throw new IllegalArgumentException("The dimensions of the model do not match.");
+            }
+            System.arraycopy(matrix[i], 0, result[i], 0, columns);
+        }
+        return result;
+    }
+
+    /**
+     * Constructs a filter that tracks the position and velocity of an encoder, without knowing
+     * the input, by assuming the velocity only changes randomly. The states are the position and
+     * the velocity, and the measurement is the position.
+     *
+     * @param accelerationStdDev The standard deviation of the acceleration, which is how fast the
+     *                           velocity is expected to change.
+     * @param positionStdDev     The standard deviation of the position measurements.
+     * @return the filter
+     */
+    public static KalmanFilter forEncoder(double accelerationStdDev, double positionStdDev) {
+        return new KalmanFilter(
+                new double[][]{{0, 1}, {0, 0}},
+                new double[2][0],
+                new double[][]{{1, 0}},
+                new double[]{0, accelerationStdDev},
+                new double[]{positionStdDev});
+    }
+
+    /**
+     * Constructs a filter for the velocity of a DC motor, such as a flywheel, from the velocity
+     * and acceleration gains of its feedforward. The state is the velocity, the input is the
+     * voltage left after the static friction term, and the measurement is the velocity.
+     *
+     * @param feedforward        The feedforward of the motor. Its acceleration gain must be positive.
+     * @param velocityStdDev     The standard deviation of the velocity, per second, not explained by the model.
+     * @param measurementStdDev  The standard deviation of the velocity measurements.
+     * @return the filter
+     */
+    public static KalmanFilter forFlywheel(SimpleMotorFeedforward feedforward,
+                                           double velocityStdDev, double measurementStdDev) {
+        checkAcceleration(feedforward.ka);
+        return new KalmanFilter(
+                new double[][]{{-feedforward.kv / feedforward.ka}},
+                new double[][]{{1 / feedforward.ka}},
+                new double[][]{{1}},
+                new double[]{velocityStdDev},
+                new double[]{measurementStdDev});
+    }
+
+    /**
+     * Constructs a filter for an elevator from the velocity and acceleration gains of its
+     * feedforward. The states are the position and the velocity, the input is the voltage
+     * left after the static friction and gravity terms, and the measurement is the position.
+     *
+     * @param feedforward       The feedforward of the elevator. Its acceleration gain must be positive.
+     * @param positionStdDev    The standard deviation of the position, per second, not explained by the model.
+     * @param velocityStdDev    The standard deviation of the velocity, per second, not explained by the model.
+     * @param measurementStdDev The standard deviation of the position measurements.
+     * @return the filter
+     */
+    public static KalmanFilter forElevator(ElevatorFeedforward feedforward, double positionStdDev,
+                                           double velocityStdDev, double measurementStdDev) {
+        return forPosition(feedforward.kv, feedforward.ka, positionStdDev, velocityStdDev, measurementStdDev);
+    }
+
+    /**
+     * Constructs a filter for an arm from the velocity and acceleration gains of its
+     * feedforward. The states are the angle and the angular velocity, the input is the voltage
+     * left after the static friction and gravity terms, and the measurement is the angle.
+     *
+     * @param feedforward       The feedforward of the arm. Its acceleration gain must be positive.
+     * @param angleStdDev       The standard deviation of the angle, per second, not explained by the model.
+     * @param velocityStdDev    The standard deviation of the angular velocity, per second, not
+     *                          explained by the model.
+     * @param measurementStdDev The standard deviation of the angle measurements.
+     * @return the filter
+     */
+    public static KalmanFilter forArm(ArmFeedforward feedforward, double angleStdDev,
+                                      double velocityStdDev, double measurementStdDev) {
+        return forPosition(feedforward.kv, feedforward.ka, angleStdDev, velocityStdDev, measurementStdDev);
+    }
+
+    private static KalmanFilter forPosition(double kv, double ka, double positionStdDev,
+                                            double velocityStdDev, double measurementStdDev) {
+        checkAcceleration(ka);
+        return new KalmanFilter(
+                new double[][]{{0, 1}, {0, -kv / ka}},
+                new double[][]{{0}, {1 / ka}},
+                new double[][]{{1, 0}},
+                new double[]{positionStdDev, velocityStdDev},
+                new double[]{measurementStdDev});
+    }
+
+    private static void checkAcceleration(double ka) {
+        if (!(ka > 0)) {
+            throw new IllegalArgumentException("The feedforward must have a positive acceleration gain.");
+        }
+    }
+
+    /**
+     * Resets the state estimate to zero, with a large uncertainty so the first
+     * measurements are trusted.
+     */
+    public void reset() {
+        for (int i = 0; i < m_states; i++) {
+            m_xhat[i] = 0;
+            for (int j = 0; j < m_states; j++) {
+                m_P[i][j] = i == j ? 1E6 : 0;
+            }
+        }
+    }
+
+    /**
+     * Projects the state estimate forward in time.
+     *
+     * @param u         The input over the period, one value per input.
+     * @param dtSeconds The time since the last prediction.
+     * @throws IllegalArgumentException if there is not one value per input
+     */
+    public void predict(double[] u, double dtSeconds) {
+        if (u.length != m_inputs) {
+            throw new IllegalArgumentException("The system has " + m_inputs + " inputs, but "
+                    + u.length + " were given.");
+        }
+        if (dtSeconds <= 0) {
+            return;
+        }
+        if (dtSeconds != m_discretePeriod) {
+            discretize(dtSeconds);
+        }
+
+        // x = Ad x + Bd u
+        for (int i = 0; i < m_states; i++) {
+            double value = 0;
+            for (int j = 0; j < m_states; j++) {
+                value += m_discA[i][j] * m_xhat[j];
+            }
+            for (int j = 0; j < m_inputs; j++) {
+                value += m_discB[i][j] * u[j];
+            }
+            m_stateScratch[i] = value;
+        }
+        System.arraycopy(m_stateScratch, 0, m_xhat, 0, m_states);
+
+        // P = Ad P Ad' + Q dt
+        for (int i = 0; i < m_states; i++) {
+            for (int j = 0; j < m_states; j++) {
+                double value = 0;
+                for (int k = 0; k < m_states; k++) {
+                    value += m_discA[i][k] * m_P[k][j];
+                }
+                m_stateMatrixScratch[i][j] = value;
+            }
+        }
+        for (int i = 0; i < m_states; i++) {
+            for (int j = 0; j < m_states; j++) {
+                double value = 0;
+                for (int k = 0; k < m_states; k++) {
+                    value += m_stateMatrixScratch[i][k] * m_discA[j][k];
+                }
+                m_P[i][j] = value;
+            }
+            m_P[i][i] += m_processVariances[i] * dtSeconds;
+        }
+    }
+
+    /**
+     * Projects the state estimate of a system with one input forward in time. For a system
+     * without inputs, the input is ignored.
+     *
+     * @param u         The input over the period.
+     * @param dtSeconds The time since the last prediction.
+     * @throws IllegalArgumentException if the system has more than one input
+     */
+    public void predict(double u, double dtSeconds) {
+        if (m_inputs > 1) {
+            throw new IllegalArgumentException("The system has " + m_inputs
+                    + " inputs, so they must be given as an array.");
+        }
+        m_singleInput[0] = u;
+        predict(m_inputs == 0 ? m_zeroInput : m_singleInput, dtSeconds);
+    }
+
+    /**
+     * Projects the state estimate forward in time, with no input.
+     *
+     * @param dtSeconds The time since the last prediction.
+     */
+    public void predict(double dtSeconds) {
+        predict(m_zeroInput, dtSeconds);
+    }
+
+    /**
+     * Corrects the state estimate with measurements.
+     *
+     * @param y The measurements, one value per row of C.
+     * @throws IllegalArgumentException if there is not one value per measurement
+     */
+    public void correct(double[] y) {
+        if (y.length != m_outputs) {
+            throw new IllegalArgumentException("The system has " + m_outputs + " measurements, but "
+                    + y.length + " were given.");
+        }
+        final int n = m_states;
+        final int p = m_outputs;
+
+        // S = C P C' + R, stored next to the identity for inversion.
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < p; j++) {
+                double value = 0;
+                for (int k = 0; k < n; k++) {
+                    value += m_P[i][k] * m_C[j][k];
+                }
+                m_PCt[i][j] = value;
+            }
+        }
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                double value = i == j ? m_measurementVariances[i] : 0;
+                for (int k = 0; k < n; k++) {
+                    value += m_C[i][k] * m_PCt[k][j];
+                }
+                m_S[i][j] = value;
+                m_S[i][p + j] = i == j ? 1 : 0;
+            }
+        }
+        invertInPlace(m_S, p);
+
+        // K = P C' S^-1
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < p; j++) {
+                double value = 0;
+                for (int k = 0; k < p; k++) {
+                    value += m_PCt[i][k] * m_S[k][p + j];
+                }
+                m_K[i][j] = value;
+            }
+        }
+
+        // x = x + K (y - C x)
+        for (int i = 0; i < p; i++) {
+            double value = y[i];
+            for (int k = 0; k < n; k++) {
+                value -= m_C[i][k] * m_xhat[k];
+            }
+            m_innovation[i] = value;
+        }
+        for (int i = 0; i < n; i++) {
+            double value = 0;
+            for (int j = 0; j < p; j++) {
+                value += m_K[i][j] * m_innovation[j];
+            }
+            m_xhat[i] += value;
+        }
+
+        // P = P - K (P C')', kept symmetric.
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double value = 0;
+                for (int k = 0; k < p; k++) {
+                    value += m_K[i][k] * m_PCt[j][k];
+                }
+                double updated = m_P[i][j] - value;
+                m_stateMatrixScratch[i][j] = updated;
+                m_stateMatrixScratch[j][i] = updated;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(m_stateMatrixScratch[i], 0, m_P[i], 0, n);
+        }
+    }
+
+    /**
+     * Corrects the state estimate with a single measurement.
+     *
+     * @param y The measurement.
+     * @throws IllegalArgumentException if the system has more than one measurement
+     */
+    public void correct(double y) {
+        if (m_outputs != 1) {
+            throw new IllegalArgumentException("The system has " + m_outputs
+                    + " measurements, so they must be given as an array.");
+        }
+        m_singleMeasurement[0] = y;
+        correct(m_singleMeasurement);
+    }
+
+    /**
+     * Inverts the left half of an augmented matrix [S | I] into its right half with
+     * Gauss-Jordan elimination. S is symmetric positive definite, so no pivoting is needed.
+     */
+    private static void invertInPlace(double[][] augmented, int size) {
+        for (int pivot = 0; pivot < size; pivot++) {
+            double[] pivotRow = augmented[pivot];
+            double scale = 1 / pivotRow[pivot];
+            for (int j = 0; j < 2 * size; j++) {
+                pivotRow[j] *= scale;
+            }
+            for (int i = 0; i < size; i++) {
+                if (i == pivot) {
+                    continue;
+                }
+                double factor = augmented[i][pivot];
+                if (factor != 0) {
+                    for (int j = 0; j < 2 * size; j++) {
+                        augmented[i][j] -= factor * pivotRow[j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Discretizes the model with a zero-order hold: exp([[A, B], [0, 0]] dt) = [[Ad, Bd], [0, I]].
+     * The exponential is computed by scaling and squaring a Taylor series.
+     */
+    private void discretize(double dtSeconds) {
+        final int size = m_states + m_inputs;
+        double norm = 0;
+        for (int i = 0; i < m_states; i++) {
+            for (int j = 0; j < size; j++) {
+                double value = (j < m_states ? m_contA[i][j] : m_contB[i][j - m_states]) * dtSeconds;
+                norm += value * value;
+            }
+        }
+        int squarings = norm > 1 ? (int) Math.ceil(Math.log(Math.sqrt(norm)) / Math.log(2)) + 1 : 0;
+        double scale = dtSeconds / Math.pow(2, squarings);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                m_expResult[i][j] = i == j ? 1 : 0;
+                m_expTerm[i][j] = i == j ? 1 : 0;
+            }
+        }
+        for (int k = 1; k <= kExpTerms; k++) {
+            // term = term * M * scale / k, where only the first rows of M are nonzero.
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double value = 0;
+                    for (int l = 0; l < m_states; l++) {
+                        double m = j < m_states ? m_contA[l][j] : m_contB[l][j - m_states];
+                        value += m_expTerm[i][l] * m;
+                    }
+                    m_expScratch[i][j] = value * scale / k;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    m_expTerm[i][j] = m_expScratch[i][j];
+                    m_expResult[i][j] += m_expScratch[i][j];
+                }
+            }
+        }
+        for (int s = 0; s < squarings; s++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    double value = 0;
+                    for (int l = 0; l < size; l++) {
+                        value += m_expResult[i][l] * m_expResult[l][j];
+                    }
+                    m_expScratch[i][j] = value;
+                }
+            }
+            double[][] swap = m_expResult;
+            m_expResult = m_expScratch;
+            m_expScratch = swap;
+        }
+
+        for (int i = 0; i < m_states; i++) {
+            System.arraycopy(m_expResult[i], 0, m_discA[i], 0, m_states);
+            System.arraycopy(m_expResult[i], m_states, m_discB[i], 0, m_inputs);
+        }
+        m_discretePeriod = dtSeconds;
+    }
+
+    /**
+     * Returns an element of the state estimate.
+     *
+     * @param row The row of the state.
+     * @return the estimate of that state
+     */
+    public double getXhat(int row) {
+        return m_xhat[row];
+    }
+
+    /**
+     * Sets an element of the state estimate, for example to start from a known position.
+     *
+     * @param row   The row of the state.
+     * @param value The estimate of that state.
+     */
+    public void setXhat(int row, double value) {
+        m_xhat[row] = value;
+    }
+
+    /**
+     * Returns an element of the covariance of the state estimate.
+     *
+     * @param row    The row of the covariance.
+     * @param column The column of the covariance.
+     * @return the covariance
+     */
+    public double getP(int row, int column) {
+        return m_P[row][column];
+    }
+
+    /**
+     * Returns the number of states of the model.
+     */
+    public int getStates() {
+        return m_states;
+    }
+
+    /**
+     * Returns the number of inputs of the model.
+     */
+    public int getInputs() {
+        return m_inputs;
+    }
+
+    /**
+     * Returns the number of measurements of the model.
+     */
+    public int getOutputs() {
+        return m_outputs;
+    }
+}
@@ -4,8 +4,6 @@ import com.qualcomm.robotcore.hardware.Gamepad;
 import com.seattlesolvers.solverslib.command.button.GamepadButton;
 import com.seattlesolvers.solverslib.gamepad.GamepadKeys.Button;
 
-import java.util.HashMap;
-
 /**
  * An extended gamepad for more advanced toggles, key events,
  * and other control processors.
@@ -17,20 +15,34 @@ public class GamepadEx {
      */
     public Gamepad gamepad;
 
-    private HashMap<Button, ButtonReader> buttonReaders;
-    private HashMap<Button, GamepadButton> gamepadButtons;
+    private final GamepadButton[] gamepadButtons;
     private SlewRateLimiter LX = null;
     private SlewRateLimiter LY = null;
     private SlewRateLimiter RX = null;
     private SlewRateLimiter RY = null;
 
-    private final Button[] buttons = {
-            Button.Y, Button.X, Button.A, Button.B, Button.LEFT_BUMPER, Button.RIGHT_BUMPER, Button.BACK,
-            Button.START, Button.OPTIONS, Button.DPAD_UP, Button.DPAD_DOWN, Button.DPAD_LEFT, Button.DPAD_RIGHT,
-            Button.LEFT_STICK_BUTTON, Button.RIGHT_STICK_BUTTON,
-            Button.TRIANGLE, Button.SQUARE, Button.CROSS, Button.CIRCLE,
-            Button.PS, Button.SHARE, Button.TOUCHPAD, Button.TOUCHPAD_FINGER_1, Button.TOUCHPAD_FINGER_2
-    };
+    // One bit per physical button. The Xbox and PlayStation names of a face button share a bit.
+    private static final int Y_BIT = 1, X_BIT = 1 << 1, A_BIT = 1 << 2, B_BIT = 1 << 3,
+            LEFT_BUMPER_BIT = 1 << 4, RIGHT_BUMPER_BIT = 1 << 5,
+            BACK_BIT = 1 << 6, START_BIT = 1 << 7, OPTIONS_BIT = 1 << 8,
+            DPAD_UP_BIT = 1 << 9, DPAD_DOWN_BIT = 1 << 10, DPAD_LEFT_BIT = 1 << 11, DPAD_RIGHT_BIT = 1 << 12,
+            LEFT_STICK_BUTTON_BIT = 1 << 13, RIGHT_STICK_BUTTON_BIT = 1 << 14,
+            PS_BIT = 1 << 15, SHARE_BIT = 1 << 16,
+            TOUCHPAD_BIT = 1 << 17, TOUCHPAD_FINGER_1_BIT = 1 << 18, TOUCHPAD_FINGER_2_BIT = 1 << 19;
+
+    // The bit of each button, indexed by ordinal.
+    private static final int[] BUTTON_BITS = new int[Button.values().length];
+
+    static {
+        for (Button button : Button.values()) {
+            BUTTON_BITS[button.ordinal()] = bitOf(button);
+        }
+    }
+
+    /**
+     * The buttons that were down at the last and previous calls to {@link #readButtons()}.
+     */
+    private int currentButtons, previousButtons;
 
     /**
      * The constructor, that contains the gamepad object from the
@@ -40,12 +52,109 @@ public class GamepadEx {
      */
     public GamepadEx(Gamepad gamepad) {
         this.gamepad = gamepad;
-        buttonReaders = new HashMap<>();
-        gamepadButtons = new HashMap<>();
+        gamepadButtons = new GamepadButton[Button.values().length];
+        for (Button button : Button.values()) {
+            gamepadButtons[button.ordinal()] = new GamepadButton(this, button);
+        }
+        currentButtons = readButtonMask();
+        previousButtons = currentButtons;
+    }
+
+    private static int bitOf(Button button) {
+        switch (button) {
+            case A:
+            case CROSS:
+                return A_BIT;
+            case B:
+            case CIRCLE:
+                return B_BIT;
+            case SQUARE:
+            case X:
+                return X_BIT;
+            case TRIANGLE:
+            case Y:
+                return Y_BIT;
+            case LEFT_BUMPER:
+                return LEFT_BUMPER_BIT;
+            case RIGHT_BUMPER:
+                return RIGHT_BUMPER_BIT;
+            case DPAD_UP:
+                return DPAD_UP_BIT;
+            case DPAD_DOWN:
+                return DPAD_DOWN_BIT;
+            case DPAD_LEFT:
+                return DPAD_LEFT_BIT;
+            case DPAD_RIGHT:
+                return DPAD_RIGHT_BIT;
+            case BACK:
+                return BACK_BIT;
+            case START:
+                return START_BIT;
+            case OPTIONS:
+                return OPTIONS_BIT;
+            case LEFT_STICK_BUTTON:
+                return LEFT_STICK_BUTTON_BIT;
+            case RIGHT_STICK_BUTTON:
+                return RIGHT_STICK_BUTTON_BIT;
+            case PS:
+                return PS_BIT;
+            case SHARE:
+                return SHARE_BIT;
+            case TOUCHPAD:
+                return TOUCHPAD_BIT;
+            case TOUCHPAD_FINGER_1:
+                return TOUCHPAD_FINGER_1_BIT;
+            case TOUCHPAD_FINGER_2:
+                return TOUCHPAD_FINGER_2_BIT;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the bitmask of the given buttons, as used by {@link #readButtonMask()}.
+     * Buttons with two names, such as {@link Button#A} and {@link Button#CROSS}, have the same bit.
+     *
+     * @param buttons the buttons
+     * @return the bitmask with the bit of each button set
+     */
+    public static int getMask(Button... buttons) {
+        int mask = 0;
         for (Button button : buttons) {
-            buttonReaders.put(button, new ButtonReader(this, button));
-            gamepadButtons.put(button, new GamepadButton(this, button));
+            mask |= BUTTON_BITS[button.ordinal()];
         }
+        return mask;
+    }
+
+    /**
+     * Reads the current state of every button on the gamepad into a bitmask.
+     *
+     * @return the bitmask of the buttons that are down
+     * @see #getMask(Button...)
+     */
+    public int readButtonMask() {
+        int mask = 0;
+        if (gamepad.y) mask |= Y_BIT;
+        if (gamepad.x) mask |= X_BIT;
+        if (gamepad.a) mask |= A_BIT;
+        if (gamepad.b) mask |= B_BIT;
+        if (gamepad.left_bumper) mask |= LEFT_BUMPER_BIT;
+        if (gamepad.right_bumper) mask |= RIGHT_BUMPER_BIT;
+        if (gamepad.back) mask |= BACK_BIT;
+        if (gamepad.start) mask |= START_BIT;
+        if (gamepad.options) mask |= OPTIONS_BIT;
+        if (gamepad.dpad_up) mask |= DPAD_UP_BIT;
+        if (gamepad.dpad_down) mask |= DPAD_DOWN_BIT;
+        if (gamepad.dpad_left) mask |= DPAD_LEFT_BIT;
+        if (gamepad.dpad_right) mask |= DPAD_RIGHT_BIT;
+        if (gamepad.left_stick_button) mask |= LEFT_STICK_BUTTON_BIT;
+        if (gamepad.right_stick_button) mask |= RIGHT_STICK_BUTTON_BIT;
+        if (gamepad.ps) mask |= PS_BIT;
+        if (gamepad.share) mask |= SHARE_BIT;
+        if (gamepad.touchpad) mask |= TOUCHPAD_BIT;
+        if (gamepad.touchpad_finger_1) mask |= TOUCHPAD_FINGER_1_BIT;
+        if (gamepad.touchpad_finger_2) mask |= TOUCHPAD_FINGER_2_BIT;
+        return mask;
     }
 
     /**
@@ -210,7 +319,7 @@ public class GamepadEx {
      * @return if the button was just pressed
      */
     public boolean wasJustPressed(Button button) {
-        return buttonReaders.get(button).wasJustPressed();
+        return (currentButtons & ~previousButtons & BUTTON_BITS[button.ordinal()]) != 0;
     }
 
     /**
@@ -220,17 +329,32 @@ public class GamepadEx {
      * @return if the button was just released
      */
     public boolean wasJustReleased(Button button) {
-        return buttonReaders.get(button).wasJustReleased();
+        return (previousButtons & ~currentButtons & BUTTON_BITS[button.ordinal()]) != 0;
     }
 
     /**
-     * Updates the value for each {@link ButtonReader}.
-     * Call this once in your loop.
+     * Takes a snapshot of every button, which {@link #wasJustPressed(Button)},
+     * {@link #wasJustReleased(Button)} and {@link #stateJustChanged(Button)} compare
+     * to the previous snapshot. Call this once in your loop.
      */
     public void readButtons() {
-        for (Button button : buttons) {
-            buttonReaders.get(button).readValue();
-        }
+        previousButtons = currentButtons;
+        currentButtons = readButtonMask();
+    }
+
+    /**
+     * @return the bitmask of the buttons that were down at the last call to {@link #readButtons()}
+     */
+    public int getButtonMask() {
+        return currentButtons;
+    }
+
+    /**
+     * @return the bitmask of the buttons whose state changed between the last two calls
+     * to {@link #readButtons()}
+     */
+    public int getChangedMask() {
+        return currentButtons ^ previousButtons;
     }
 
     /**
@@ -240,7 +364,7 @@ public class GamepadEx {
      * @return if the button is down
      */
     public boolean isDown(Button button) {
-        return buttonReaders.get(button).isDown();
+        return getButton(button);
     }
 
     /**
@@ -250,7 +374,7 @@ public class GamepadEx {
      * @return if the button's state has just changed
      */
     public boolean stateJustChanged(Button button) {
-        return buttonReaders.get(button).stateJustChanged();
+        return ((currentButtons ^ previousButtons) & BUTTON_BITS[button.ordinal()]) != 0;
     }
 
     /**
@@ -258,7 +382,7 @@ public class GamepadEx {
      * @return the commandable button
      */
     public GamepadButton getGamepadButton(Button button) {
-        return gamepadButtons.get(button);
+        return gamepadButtons[button.ordinal()];
     }
 
 }
\ No newline at end of file
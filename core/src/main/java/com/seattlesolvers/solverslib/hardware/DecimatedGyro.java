@@ -0,0 +1,263 @@
+package com.seattlesolvers.solverslib.hardware;
+
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.util.MathUtils;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A heading source that only reads the wrapped {@link GyroEx} every few loops
+ * (or every few milliseconds) and propagates the heading from wheel odometry in between.
+ * <p>
+ * Each time a fresh gyro sample arrives, the offset between the gyro and the odometry heading
+ * is recomputed, so any drift accumulated by the wheels since the last sample is removed.
+ * How much that offset changes per degree the odometry turns is also estimated from consecutive
+ * samples, and applied between samples, so a proportional drift of the odometry (such as from a
+ * miscalibrated track width) is corrected between gyro reads too. The drift only grows while the
+ * robot turns, so the heading holds still while it does not. Drift that is not proportional to
+ * the rotation is only corrected at the next sample.
+ * Call {@link #update()} exactly once per loop, and then read the heading as many times as
+ * needed; the getters never touch the hardware.
+ * <p>
+ * The odometry heading supplier should return the heading calculated from the wheel encoders in
+ * degrees, with the same sign convention as the gyro, counterclockwise positive. For dead wheels
+ * this is usually {@code Math.toDegrees((right - left) / trackWidth)}.
+ */
+public class DecimatedGyro extends GyroEx {
+
+    private final GyroEx gyro;
+    private final DoubleSupplier odometryHeading;
+
+    private int loopDecimation;
+    private long samplePeriodNanos;
+
+    private int loopsSinceSample;
+    private long lastSampleTime;
+    private boolean hasSample;
+    private boolean sampleRequested;
+
+    /**
+     * Difference between the gyro and the odometry heading at the last gyro sample
+     */
+    private double correction;
+
+    /**
+     * Odometry heading at the last gyro sample, in degrees
+     */
+    private double sampleOdometryHeading;
+
+    /**
+     * Estimated change of the correction per degree the odometry turns
+     */
+    private double driftPerDegree;
+    private boolean driftCompensation = true;
+
+    // Samples less than this many degrees of rotation apart are too noisy to estimate the drift from.
+    private static final double MIN_DRIFT_ROTATION = 0.5;
+    // Weight of the newest estimate in the smoothed drift.
+    private static final double DRIFT_SMOOTHING = 0.5;
+
+    /**
+     * Fused heading relative to the gyro's zero, in degrees
+     */
+    private double absoluteHeading;
+
+    /**
+     * Offset between absolute heading and relative heading
+     */
+    private double offset;
+
+    /**
+     * Creates a new decimated heading source.
+     *
+     * @param gyro            the gyro to sample
+     * @param odometryHeading the heading calculated from wheel odometry, in degrees
+     * @param loopDecimation  the number of loops between gyro reads, or 0 to only use the period
+     * @param periodMillis    the maximum time between gyro reads in milliseconds,
+     *                        or 0 to only use the loop count
+     */
+    public DecimatedGyro(GyroEx gyro, DoubleSupplier odometryHeading, int loopDecimation, double periodMillis) {
+        this.gyro = gyro;
+        this.odometryHeading = odometryHeading;
+        setLoopDecimation(loopDecimation);
+        setSamplePeriod(periodMillis);
+    }
+
+    /**
+     * Creates a new decimated heading source that reads the gyro every {@code loopDecimation} loops.
+     *
+     * @param gyro            the gyro to sample
+     * @param odometryHeading the heading calculated from wheel odometry, in degrees
+     * @param loopDecimation  the number of loops between gyro reads
+     */
+    public DecimatedGyro(GyroEx gyro, DoubleSupplier odometryHeading, int loopDecimation) {
+        this(gyro, odometryHeading, loopDecimation, 0);
+    }
+
+    /**
+     * Initializes the wrapped gyro and takes the first sample.
+     */
+    @Override
+    public void init() {
+        gyro.init();
+        offset = 0;
+        driftPerDegree = 0;
+        hasSample = false;
+        sample(System.nanoTime());
+    }
+
+    /**
+     * Updates the fused heading. This reads the gyro if enough loops or time have passed since
+     * the last sample, and otherwise propagates the heading from the odometry.
+     * This should be called once per loop.
+     */
+    public void update() {
+        update(System.nanoTime());
+    }
+
+    void update(long now) {
+        loopsSinceSample++;
+
+        boolean loopsElapsed = loopDecimation > 0 && loopsSinceSample >= loopDecimation;
+        boolean periodElapsed = samplePeriodNanos > 0 && now - lastSampleTime >= samplePeriodNanos;
+
+        if (!hasSample || sampleRequested || loopsElapsed || periodElapsed) {
+            sample(now);
+        } else {
+            double heading = odometryHeading.getAsDouble();
+            double drift = driftCompensation
+                    ? driftPerDegree * MathUtils.normalizeDegrees(heading - sampleOdometryHeading, false)
+                    : 0;
+            absoluteHeading = heading + correction + drift;
+        }
+    }
+
+    /**
+     * Reads the gyro on the next call to {@link #update()}, regardless of the decimation settings.
+     */
+    public void requestSample() {
+        sampleRequested = true;
+    }
+
+    private void sample(long now) {
+        double gyroHeading = gyro.getAbsoluteHeading();
+        double heading = odometryHeading.getAsDouble();
+        double newCorrection = gyroHeading - heading;
+        double rotation = MathUtils.normalizeDegrees(heading - sampleOdometryHeading, false);
+        if (hasSample && Math.abs(rotation) >= MIN_DRIFT_ROTATION) {
+            double drift = MathUtils.normalizeDegrees(newCorrection - correction, false) / rotation;
+            driftPerDegree += DRIFT_SMOOTHING * (drift - driftPerDegree);
+        }
+        correction = newCorrection;
+        sampleOdometryHeading = heading;
+        absoluteHeading = gyroHeading;
+
+        loopsSinceSample = 0;
+        lastSampleTime = now;
+        hasSample = true;
+        sampleRequested = false;
+    }
+
+    /**
+     * @param loopDecimation the number of loops between gyro reads, or 0 to only use the period
+     */
+    public void setLoopDecimation(int loopDecimation) {
+        if (loopDecimation < 0) {
+            throw new IllegalArgumentException("Loop decimation must be non-negative");
+        }
+        this.loopDecimation = loopDecimation;
+    }
+
+    /**
+     * @param periodMillis the maximum time between gyro reads in milliseconds,
+     *                     or 0 to only use the loop count
+     */
+    public void setSamplePeriod(double periodMillis) {
+        if (periodMillis < 0) {
+            throw new IllegalArgumentException("Sample period must be non-negative");
+        }
+        samplePeriodNanos = (long) (periodMillis * 1E6);
+    }
+
+    /**
+     * Sets whether the estimated drift of the odometry is applied between gyro samples.
+     * It is enabled by default.
+     *
+     * @param enabled true to apply the drift
+     */
+    public void setDriftCompensation(boolean enabled) {
+        driftCompensation = enabled;
+    }
+
+    /**
+     * @return the estimated drift of the odometry from the gyro, in degrees per degree the odometry turns
+     */
+    public double getDriftPerDegree() {
+        return driftPerDegree;
+    }
+
+    /**
+     * @return the difference between the gyro and the odometry heading at the last gyro sample,
+     * in degrees
+     */
+    public double getCorrection() {
+        return correction;
+    }
+
+    /**
+     * @return Relative heading of the robot in degrees
+     */
+    @Override
+    public double getHeading() {
+        return MathUtils.normalizeDegrees(absoluteHeading - offset, false);
+    }
+
+    /**
+     * @return Absolute heading of the robot in degrees
+     */
+    @Override
+    public double getAbsoluteHeading() {
+        return MathUtils.normalizeDegrees(absoluteHeading, false);
+    }
+
+    /**
+     * Reads all angles directly from the wrapped gyro. Note that this bypasses the decimation.
+     *
+     * @return X, Y, Z angles of gyro
+     */
+    @Override
+    public double[] getAngles() {
+        return gyro.getAngles();
+    }
+
+    /**
+     * @return Transforms heading into {@link Rotation2d}
+     */
+    @Override
+    public Rotation2d getRotation2d() {
+        return Rotation2d.fromDegrees(getHeading());
+    }
+
+    @Override
+    public void reset() {
+        offset += getHeading();
+    }
+
+    @Override
+    public void disable() {
+        gyro.disable();
+    }
+
+    @Override
+    public String getDeviceType() {
+        return "Decimated " + gyro.getDeviceType();
+    }
+
+    /**
+     * @return the gyro being wrapped
+     */
+    public GyroEx getGyro() {
+        return gyro;
+    }
+
+}
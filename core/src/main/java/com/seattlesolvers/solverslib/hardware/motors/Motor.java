@@ -9,6 +9,7 @@ import com.qualcomm.robotcore.hardware.PIDFCoefficients;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
 import com.seattlesolvers.solverslib.controller.PIDFController;
 import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.seattlesolvers.solverslib.estimator.KalmanFilter;
 import com.seattlesolvers.solverslib.hardware.HardwareDevice;
 
 
@@ -67,6 +68,11 @@ public class Motor implements HardwareDevice {
         private int resetVal, lastPosition;
         private Direction direction;
         private double lastTimeStamp, veloEstimate, dpp, accel, lastVelo;
+        private KalmanFilter filter;
+        private double lastFilterTimeStamp;
+
+        // Reads closer together than this are treated as the same loop and do not update the filter.
+        private final static double MIN_FILTER_PERIOD = 1E-3;
 
         /**
          * The encoder object for the motor.
@@ -96,7 +102,17 @@ public class Motor implements HardwareDevice {
                 lastPosition = currentPosition;
                 lastTimeStamp = currentTime;
             }
-            return direction.getMultiplier() * currentPosition - resetVal;
+            int position = direction.getMultiplier() * currentPosition - resetVal;
+            if (filter != null) {
+                double currentTime = (double) System.nanoTime() / 1E9;
+                double dt = currentTime - lastFilterTimeStamp;
+                if (dt >= MIN_FILTER_PERIOD) {
+                    filter.predict(dt);
+                    filter.correct(position);
+                    lastFilterTimeStamp = currentTime;
+                }
+            }
+            return position;
         }
 
         /**
@@ -117,7 +133,11 @@ public class Motor implements HardwareDevice {
          * Resets the encoder without having to stop the motor.
          */
         public void reset() {
-            resetVal += getPosition();
+            int position = getPosition();
+            resetVal += position;
+            if (filter != null) {
+                filter.setXhat(0, filter.getXhat(0) - position);
+            }
         }
 
         /**
@@ -137,6 +157,55 @@ public class Motor implements HardwareDevice {
          */
         public void setDirection(Direction direction) {
             this.direction = direction;
+            if (filter != null) {
+                setFilter(filter);
+            }
+        }
+
+        /**
+         * Sets a Kalman filter that estimates the position and velocity of the encoder from its
+         * position readings, such as {@link KalmanFilter#forEncoder(double, double)}. The filter
+         * is updated every time the position is read, and is used for velocity control in place
+         * of the finite-difference velocity.
+         *
+         * @param filter the filter, whose first state is the position in ticks and second state the
+         *               velocity in ticks per second, or null to remove the filter
+         */
+        public Encoder setFilter(KalmanFilter filter) {
+            if (filter != null && (filter.getStates() < 2 || filter.getInputs() != 0 || filter.getOutputs() != 1)) {
+                throw new IllegalArgumentException(
+                        "The filter must have position and velocity states, no inputs and a single measurement.");
+            }
+            this.filter = null;
+            if (filter != null) {
+                int position = getPosition();
+                filter.reset();
+                filter.setXhat(0, position);
+                lastFilterTimeStamp = (double) System.nanoTime() / 1E9;
+            }
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * @return whether a Kalman filter is set on the encoder
+         */
+        public boolean isFiltered() {
+            return filter != null;
+        }
+
+        /**
+         * Reads the position and returns the velocity estimated by the Kalman filter,
+         * or the corrected velocity if no filter is set.
+         *
+         * @return the velocity of the encoder in ticks per second
+         */
+        public double getFilteredVelocity() {
+            if (filter == null) {
+                return getCorrectedVelocity();
+            }
+            getPosition();
+            return filter.getXhat(1);
         }
 
         /**
@@ -296,8 +365,8 @@ public class Motor implements HardwareDevice {
         double power;
         if (runmode == RunMode.VelocityControl) {
             double speed = bufferFraction * output * ACHIEVABLE_MAX_TICKS_PER_SECOND;
-            double velocity = veloController.calculate(getVelocity(), speed) + feedforward.calculate(speed, encoder.getAcceleration());
-            power = velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND;
+            setVelocityControlOutput(veloController.calculate(getControlledVelocity(), speed), speed);
+            return;
         } else if (runmode == RunMode.PositionControl) {
             double error = positionController.calculate(getDistance());
             power = output * error;
@@ -308,6 +377,27 @@ public class Motor implements HardwareDevice {
         lastPower = power;
     }
 
+    /**
+     * @return the velocity that velocity control is performed on, in ticks per second
+     */
+    protected double getControlledVelocity() {
+        return encoder.isFiltered() ? encoder.getFilteredVelocity() : getVelocity();
+    }
+
+    /**
+     * Sets the power of the motor in velocity control, from the output of a velocity controller
+     * and the feedforward for the target speed.
+     *
+     * @param controllerOutput the output of the velocity controller
+     * @param speed            the target speed, in ticks per second
+     */
+    protected void setVelocityControlOutput(double controllerOutput, double speed) {
+        double velocity = controllerOutput + feedforward.calculate(speed, encoder.getAcceleration());
+        double power = velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND;
+        motor.setPower(power);
+        lastPower = power;
+    }
+
     /**
      * Sets the distance per pulse of the encoder in units per tick.
      *
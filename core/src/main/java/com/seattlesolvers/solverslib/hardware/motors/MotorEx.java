@@ -60,8 +60,7 @@ public class MotorEx extends Motor {
     public void set(double output) {
         if (runmode == RunMode.VelocityControl) {
             double speed = bufferFraction * output * ACHIEVABLE_MAX_TICKS_PER_SECOND;
-            double velocity = veloController.calculate(getCorrectedVelocity(), speed) + feedforward.calculate(speed, getAcceleration());
-            setPower(velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND);
+            setVelocityControlOutput(veloController.calculate(getControlledVelocity(), speed), speed);
         } else if (runmode == RunMode.PositionControl) {
             double error = positionController.calculate(encoder.getDistance());
             setPower(output * error);
@@ -70,6 +69,17 @@ public class MotorEx extends Motor {
         }
     }
 
+    @Override
+    protected double getControlledVelocity() {
+        return encoder.isFiltered() ? encoder.getFilteredVelocity() : getCorrectedVelocity();
+    }
+
+    @Override
+    protected void setVelocityControlOutput(double controllerOutput, double speed) {
+        double velocity = controllerOutput + feedforward.calculate(speed, getAcceleration());
+        setPower(velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND);
+    }
+
     /**
      * @param velocity the velocity in ticks per second
      */
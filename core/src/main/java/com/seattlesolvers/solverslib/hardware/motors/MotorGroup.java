@@ -2,6 +2,8 @@ package com.seattlesolvers.solverslib.hardware.motors;
 
 import androidx.annotation.NonNull;
 
+import com.seattlesolvers.solverslib.controller.PIDFControllerBank;
+
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -17,6 +19,9 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
 
     private final Motor[] group;
 
+    // One velocity controller per motor, when individual velocity control is enabled
+    private PIDFControllerBank velocityControllers;
+
     /**
      * Create a new MotorGroup with the provided Motors.
      *
@@ -36,6 +41,17 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
      */
     @Override
     public void set(double speed) {
+        if (velocityControllers != null && group[0].runmode == RunMode.VelocityControl) {
+            for (int i = 0; i < group.length; i++) {
+                velocityControllers.setSetPoint(i, group[i].bufferFraction * speed * group[i].ACHIEVABLE_MAX_TICKS_PER_SECOND);
+                velocityControllers.setMeasuredValue(i, group[i].getControlledVelocity());
+            }
+            velocityControllers.update();
+            for (int i = 0; i < group.length; i++) {
+                group[i].setVelocityControlOutput(velocityControllers.getOutput(i), velocityControllers.getSetPoint(i));
+            }
+            return;
+        }
         group[0].set(speed);
         for (int i = 1; i < group.length; i++) {
             group[i].set(group[0].get());
@@ -110,6 +126,9 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
     @Override
     public Motor setRunMode(RunMode runmode) {
         group[0].setRunMode(runmode);
+        if (velocityControllers != null) {
+            velocityControllers.reset();
+        }
 
         return this;
     }
@@ -161,6 +180,36 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
     @Override
     public void setVeloCoefficients(double kp, double ki, double kd) {
         group[0].setVeloCoefficients(kp, ki, kd);
+        if (velocityControllers != null) {
+            for (int i = 0; i < group.length; i++) {
+                velocityControllers.setPIDF(i, kp, ki, kd, 0);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables individual velocity control. When it is enabled and the group is in
+     * {@link RunMode#VelocityControl}, every motor runs velocity control on its own encoder
+     * instead of copying the leader's output, with each motor's own feedforward. The velocity
+     * controllers of all motors are evaluated together in a {@link PIDFControllerBank}, starting
+     * from the leader's velocity coefficients.
+     *
+     * @param enabled whether each motor should run its own velocity control
+     * @return this object for chaining purposes
+     */
+    public MotorGroup setIndividualVelocityControl(boolean enabled) {
+        if (!enabled) {
+            velocityControllers = null;
+            return this;
+        }
+        if (velocityControllers == null) {
+            double[] coefficients = group[0].getVeloCoefficients();
+            velocityControllers = new PIDFControllerBank(group.length);
+            for (int i = 0; i < group.length; i++) {
+                velocityControllers.setPIDF(i, coefficients[0], coefficients[1], coefficients[2], coefficients[3]);
+            }
+        }
+        return this;
     }
 
     @Override
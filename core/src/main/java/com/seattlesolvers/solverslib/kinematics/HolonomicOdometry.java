@@ -3,6 +3,7 @@ package com.seattlesolvers.solverslib.kinematics;
 import com.seattlesolvers.solverslib.geometry.Pose2d;
 import com.seattlesolvers.solverslib.geometry.Rotation2d;
 import com.seattlesolvers.solverslib.geometry.Twist2d;
+import com.seattlesolvers.solverslib.hardware.GyroEx;
 
 import java.util.function.DoubleSupplier;
 
@@ -15,6 +16,10 @@ public class HolonomicOdometry extends Odometry {
     // the suppliers
     DoubleSupplier m_left, m_right, m_horizontal;
 
+    // optional heading source, used instead of the encoder heading when set
+    private GyroEx m_gyro;
+    private double m_gyroOffset;
+
     public HolonomicOdometry(DoubleSupplier leftEncoder, DoubleSupplier rightEncoder,
                              DoubleSupplier horizontalEncoder, double trackWidth, double centerWheelOffset) {
         this(trackWidth, centerWheelOffset);
@@ -23,6 +28,26 @@ public class HolonomicOdometry extends Odometry {
         m_horizontal = horizontalEncoder;
     }
 
+    /**
+     * Constructs a holonomic odometry that takes its heading from a gyro rather than
+     * from the difference of the parallel encoders. Pair this with a
+     * {@link com.seattlesolvers.solverslib.hardware.DecimatedGyro} to avoid reading the IMU every loop.
+     * See {@link #setHeadingSource(GyroEx)} for the sign convention.
+     *
+     * @param leftEncoder       the left encoder position
+     * @param rightEncoder      the right encoder position
+     * @param horizontalEncoder the horizontal encoder position
+     * @param gyro              the heading source
+     * @param trackWidth        the distance between the parallel encoders
+     * @param centerWheelOffset the offset of the horizontal encoder from the center of rotation
+     */
+    public HolonomicOdometry(DoubleSupplier leftEncoder, DoubleSupplier rightEncoder,
+                             DoubleSupplier horizontalEncoder, GyroEx gyro,
+                             double trackWidth, double centerWheelOffset) {
+        this(leftEncoder, rightEncoder, horizontalEncoder, trackWidth, centerWheelOffset);
+        setHeadingSource(gyro);
+    }
+
     public HolonomicOdometry(Pose2d initialPose, double trackwidth, double centerWheelOffset) {
         super(initialPose, trackwidth);
         previousAngle = initialPose.getRotation();
@@ -33,6 +58,22 @@ public class HolonomicOdometry extends Odometry {
         this(new Pose2d(), trackwidth, centerWheelOffset);
     }
 
+    /**
+     * Sets the heading source used for the robot's rotation. The current pose's rotation is kept.
+     * <p>
+     * The gyro heading is counterclockwise positive, while the encoder heading of this odometry,
+     * {@code (left - right) / trackWidth}, is clockwise positive. The gyro heading is negated to
+     * match, so both sources give the same pose.
+     *
+     * @param gyro the heading source, or null to use the encoder heading
+     */
+    public void setHeadingSource(GyroEx gyro) {
+        m_gyro = gyro;
+        if (gyro != null) {
+            m_gyroOffset = previousAngle.getRadians() + Math.toRadians(gyro.getHeading());
+        }
+    }
+
     /**
      * This handles all the calculations for you.
      */
@@ -49,6 +90,10 @@ public class HolonomicOdometry extends Odometry {
         prevLeftEncoder = 0;
         prevRightEncoder = 0;
         prevHorizontalEncoder = 0;
+
+        if (m_gyro != null) {
+            m_gyroOffset = pose.getRotation().getRadians() + Math.toRadians(m_gyro.getHeading());
+        }
     }
 
     public void update(double leftEncoderPos, double rightEncoderPos, double horizontalEncoderPos) {
@@ -56,11 +101,13 @@ public class HolonomicOdometry extends Odometry {
         double deltaRightEncoder = rightEncoderPos - prevRightEncoder;
         double deltaHorizontalEncoder = horizontalEncoderPos - prevHorizontalEncoder;
 
-        Rotation2d angle = previousAngle.plus(
-                new Rotation2d(
-                        (deltaLeftEncoder - deltaRightEncoder) / trackWidth
-                )
-        );
+        Rotation2d angle = m_gyro != null
+                ? new Rotation2d(m_gyroOffset - Math.toRadians(m_gyro.getHeading()))
+                : previousAngle.plus(
+                        new Rotation2d(
+                                (deltaLeftEncoder - deltaRightEncoder) / trackWidth
+                        )
+                );
 
         prevLeftEncoder = leftEncoderPos;
         prevRightEncoder = rightEncoderPos;
@@ -8,6 +8,19 @@ import com.seattlesolvers.solverslib.util.MathUtils;
 
 import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Drives the robot to a target pose with a controller for each field-centric axis.
+ * <p>
+ * Several targets can be queued with {@link #setTargets(Pose2d...)} or {@link #addTarget(Pose2d)}.
+ * Once the robot is within the blend radius of an intermediate target, or within the positional
+ * tolerance if that is larger, the controller moves on to the next one instead of stopping. Until the last target, the translational controllers
+ * are given the remaining distance along the queued targets as their error, in the direction of
+ * the current target, so the robot keeps its speed through the intermediate targets and only
+ * slows down for the last one.
+ */
 public class P2PController {
     public final Controller xController;
     public final Controller yController;
@@ -18,6 +31,13 @@ public class P2PController {
     private Pose2d current;
     private Transform2d error;
 
+    // Targets after the current one, and the distance from the current target through all of them.
+    private final Queue<Pose2d> queuedTargets = new ArrayDeque<Pose2d>();
+    private Pose2d lastTarget;
+    private double queuedDistance;
+    private double blendRadius;
+    private double positionalTolerance;
+
     /**
      * The constructor for a P2PController object.
      *
@@ -37,6 +57,7 @@ public class P2PController {
         this.angleUnit = angleUnit;
         this.current = start;
         this.target = target;
+        this.lastTarget = target;
         getError(); // updates error
         setTolerance(positionalTolerance, angularTolerance);
     }
@@ -61,24 +82,122 @@ public class P2PController {
      * @return field-centric chassis speeds/power
      */
     public ChassisSpeeds calculate(Pose2d pv) {
+        return calculate(pv, new ChassisSpeeds());
+    }
+
+    /**
+     * Calculates the output for robot movement into the given chassis speeds, without allocating.
+     *
+     * @param pv     the last known position of the robot
+     * @param speeds the chassis speeds to write the output into
+     * @return the given chassis speeds, holding the field-centric speeds/power
+     */
+    public ChassisSpeeds calculate(Pose2d pv, ChassisSpeeds speeds) {
         // Update internal variables
         current = pv;
-        getError();
+        double dx = target.getX() - current.getX();
+        double dy = target.getY() - current.getY();
+        double distance = Math.hypot(dx, dy);
+
+        // Blend into the next target once the robot is close enough to an intermediate one
+        double radius = Math.max(blendRadius, positionalTolerance);
+        while (!queuedTargets.isEmpty() && distance <= radius) {
+            Pose2d next = queuedTargets.remove();
+            queuedDistance -= Math.hypot(next.getX() - target.getX(), next.getY() - target.getY());
+            target = next;
+            dx = target.getX() - current.getX();
+            dy = target.getY() - current.getY();
+            distance = Math.hypot(dx, dy);
+        }
+        if (queuedTargets.isEmpty()) {
+            queuedDistance = 0;
+        }
 
-        double xVal = xController.calculate(current.getX(), target.getX());
-        double yVal = yController.calculate(current.getY(), target.getY());
-        double headingVal = headingController.calculate(0, MathUtils.normalizeAngle(error.getRotation().getAngle(angleUnit), false, angleUnit));
+        // Stretch the error toward the current target to the distance left along all targets
+        double xError = dx;
+        double yError = dy;
+        if (queuedDistance > 0 && distance > 1e-9) {
+            double scale = (distance + queuedDistance) / distance;
+            xError *= scale;
+            yError *= scale;
+        }
+        double headingError = MathUtils.normalizeAngle(
+                target.getRotation().getAngle(angleUnit) - current.getRotation().getAngle(angleUnit), false, angleUnit);
 
-        return new ChassisSpeeds(xVal, yVal, headingVal);
+        speeds.vxMetersPerSecond = xController.calculate(target.getX() - xError, target.getX());
+        speeds.vyMetersPerSecond = yController.calculate(target.getY() - yError, target.getY());
+        speeds.omegaRadiansPerSecond = headingController.calculate(0, headingError);
+        return speeds;
     }
 
     /**
-     * Sets the target pose
+     * Sets the target pose, replacing any queued targets.
      *
      * @param sp The desired pose.
      */
     public void setTarget(Pose2d sp) {
         target = sp;
+        lastTarget = sp;
+        queuedTargets.clear();
+        queuedDistance = 0;
+    }
+
+    /**
+     * Sets the targets to drive through, in order, replacing any queued targets.
+     * The robot blends through all but the last one, where it stops.
+     *
+     * @param targets The desired poses.
+     * @throws IllegalArgumentException if no targets are given
+     */
+    public void setTargets(Pose2d... targets) {
+        if (targets.length == 0) {
+            throw new IllegalArgumentException("At least one target must be given.");
+        }
+        setTarget(targets[0]);
+        for (int i = 1; i < targets.length; i++) {
+            addTarget(targets[i]);
+        }
+    }
+
+    /**
+     * Queues a target after the last one. The previous last target becomes an intermediate
+     * target that the robot blends through.
+     *
+     * @param sp The desired pose.
+     */
+    public void addTarget(Pose2d sp) {
+        queuedDistance += Math.hypot(sp.getX() - lastTarget.getX(), sp.getY() - lastTarget.getY());
+        queuedTargets.add(sp);
+        lastTarget = sp;
+    }
+
+    /**
+     * @return The number of targets queued after the current one.
+     */
+    public int getQueuedTargetCount() {
+        return queuedTargets.size();
+    }
+
+    /**
+     * Sets the distance from an intermediate target at which the robot moves on to the next one.
+     * The robot always moves on once it is within the positional tolerance, so this only has an
+     * effect if it is larger than the tolerance. By default, it is 0.
+     *
+     * @param radius The blend radius, in the units of the poses.
+     * @throws IllegalArgumentException if the radius is negative
+     */
+    public void setBlendRadius(double radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("The blend radius must not be negative.");
+        }
+        blendRadius = radius;
+    }
+
+    /**
+     * @return The distance from an intermediate target at which the robot moves on to the next one.
+     */
+    public double getBlendRadius() {
+        return blendRadius;
     }
 
     /**
@@ -95,6 +214,7 @@ public class P2PController {
      * @param angularTolerance Angular error which is tolerable, in the angle unit specified.
      */
     public void setTolerance(double positionTolerance, double angularTolerance) {
+        positionalTolerance = positionTolerance;
         xController.setTolerance(positionTolerance);
         yController.setTolerance(positionTolerance);
         headingController.setTolerance(angularTolerance);
@@ -109,11 +229,13 @@ public class P2PController {
 
     /**
      * Returns true if the error is within the tolerance set by the user through {@link #setTolerance}.
+     * While targets are queued after the current one, this is always false.
      *
      * @return Whether the error is within the acceptable bounds.
      */
     public boolean atTarget() {
-        return xController.atSetPoint() && yController.atSetPoint() && headingController.atSetPoint();
+        return queuedTargets.isEmpty()
+                && xController.atSetPoint() && yController.atSetPoint() && headingController.atSetPoint();
     }
 
     /**
@@ -0,0 +1,413 @@
+package com.seattlesolvers.solverslib.planner;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.purepursuit.Path;
+import com.seattlesolvers.solverslib.purepursuit.waypoints.EndWaypoint;
+import com.seattlesolvers.solverslib.purepursuit.waypoints.GeneralWaypoint;
+import com.seattlesolvers.solverslib.purepursuit.waypoints.StartWaypoint;
+import com.seattlesolvers.solverslib.trajectory.Trajectory;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryConfig;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plans the shortest path between two points on a field with static obstacles.
+ * <p>
+ * The obstacles are grown by the clearance of the robot, and a visibility graph is built once,
+ * when the planner is created: its nodes are the corners of the grown obstacles, and its edges
+ * connect every pair of corners that can see each other. Each query only connects the start and
+ * goal to the graph and runs A* over it, so it takes milliseconds even on a detailed field, and
+ * it gives up once its time budget is spent. Create the planner during init and reuse it.
+ *
+ * <pre>{@code
+ * FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 9,
+ *         Obstacle.rectangle(-12, -12, 12, 12));
+ * List<Translation2d> points = planner.plan(start, goal);
+ * }</pre>
+ */
+public class FieldPlanner {
+    static final double kEpsilon = 1E-9;
+
+    // How many nodes are expanded between checks of the clock.
+    private static final int kClockInterval = 16;
+
+    private final Obstacle[] m_obstacles;
+    private final double m_minX;
+    private final double m_minY;
+    private final double m_maxX;
+    private final double m_maxY;
+
+    // The graph nodes. The goal of a query is stored after them, at index m_nodeCount.
+    private final int m_nodeCount;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final int[][] m_neighbors;
+    private final double[][] m_costs;
+
+    // Buffers reused by each query.
+    private final double[] m_exit = new double[2];
+    private final double[] m_goalCosts;
+    private final double[] m_g;
+    private final double[] m_f;
+    private final int[] m_parents;
+    private final boolean[] m_closed;
+    private final int[] m_heap;
+    private final int[] m_heapIndices;
+    private int m_heapSize;
+
+    private long m_timeBudgetNanos = Long.MAX_VALUE;
+
+    /**
+     * Creates a planner for a rectangular field, and builds its visibility graph.
+     *
+     * @param minX      The lowest x of the field.
+     * @param minY      The lowest y of the field.
+     * @param maxX      The highest x of the field.
+     * @param maxY      The highest y of the field.
+     * @param clearance The distance the center of the robot must keep from the obstacles and
+     *                  the field walls, usually the radius of the robot plus a margin.
+     * @param obstacles The obstacles on the field.
+     */
+    public FieldPlanner(double minX, double minY, double maxX, double maxY, double clearance,
+                        Obstacle... obstacles) {
+        if (clearance < 0) {
+            throw new IllegalArgumentException("The clearance must not be negative.");
+        }
+        m_minX = minX + clearance;
+        m_minY = minY + clearance;
+        m_maxX = maxX - clearance;
+        m_maxY = maxY - clearance;
+        if (m_minX > m_maxX || m_minY > m_maxY) {
+            throw new IllegalArgumentException("The field is smaller than the clearance.");
+        }
+
+        m_obstacles = new Obstacle[obstacles.length];
+        for (int i = 0; i < obstacles.length; i++) {
+            m_obstacles[i] = obstacles[i].inflate(clearance);
+        }
+
+        // The corners of the obstacles that the robot can reach are the nodes.
+        List<double[]> nodes = new ArrayList<>();
+        for (Obstacle obstacle : m_obstacles) {
+            for (int i = 0; i < obstacle.size(); i++) {
+                double x = obstacle.getX(i);
+                double y = obstacle.getY(i);
+                if (isFree(x, y)) {
+                    nodes.add(new double[]{x, y});
+                }
+            }
+        }
+        m_nodeCount = nodes.size();
+        m_x = new double[m_nodeCount + 1];
+        m_y = new double[m_nodeCount + 1];
+        for (int i = 0; i < m_nodeCount; i++) {
+            m_x[i] = nodes.get(i)[0];
+            m_y[i] = nodes.get(i)[1];
+        }
+
+        // Connect every pair of nodes that can see each other.
+        int[] neighbors = new int[m_nodeCount];
+        m_neighbors = new int[m_nodeCount][];
+        m_costs = new double[m_nodeCount][];
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < m_nodeCount; i++) {
+            for (int j = i + 1; j < m_nodeCount; j++) {
+                if (isVisible(m_x[i], m_y[i], m_x[j], m_y[j])) {
+                    edges.add(new int[]{i, j});
+                    neighbors[i]++;
+                    neighbors[j]++;
+                }
+            }
+        }
+        for (int i = 0; i < m_nodeCount; i++) {
+            m_neighbors[i] = new int[neighbors[i]];
+            m_costs[i] = new double[neighbors[i]];
+            neighbors[i] = 0;
+        }
+        for (int[] edge : edges) {
+            double cost = Math.hypot(m_x[edge[1]] - m_x[edge[0]], m_y[edge[1]] - m_y[edge[0]]);
+            addEdge(edge[0], edge[1], cost, neighbors);
+            addEdge(edge[1], edge[0], cost, neighbors);
+        }
+
+        m_goalCosts = new double[m_nodeCount];
+        m_g = new double[m_nodeCount + 1];
+        m_f = new double[m_nodeCount + 1];
+        m_parents = new int[m_nodeCount + 1];
+        m_closed = new boolean[m_nodeCount + 1];
+        m_heap = new int[m_nodeCount + 1];
+        m_heapIndices = new int[m_nodeCount + 1];
+    }
+
+    private void addEdge(int from, int to, double cost, int[] counts) {
+        m_neighbors[from][counts[from]] = to;
+        m_costs[from][counts[from]] = cost;
+        counts[from]++;
+    }
+
+    /**
+     * Sets the longest time a query may take. When it runs out, the query returns null.
+     *
+     * @param seconds The time budget, in seconds.
+     */
+    public void setTimeBudget(double seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("The time budget must be positive.");
+        }
+        m_timeBudgetNanos = (long) Math.min(seconds * 1E9, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of nodes in the visibility graph.
+     *
+     * @return The number of nodes.
+     */
+    public int getNodeCount() {
+        return m_nodeCount;
+    }
+
+    /**
+     * Returns whether the robot can be at the given point without hitting an obstacle or a wall.
+     *
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @return Whether the point is free.
+     */
+    public boolean isFree(double x, double y) {
+        if (x < m_minX - kEpsilon || x > m_maxX + kEpsilon || y < m_minY - kEpsilon || y > m_maxY + kEpsilon) {
+            return false;
+        }
+        for (Obstacle obstacle : m_obstacles) {
+            if (obstacle.contains(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the robot can drive straight between the points.
+     */
+    private boolean isVisible(double x0, double y0, double x1, double y1) {
+        for (int i = 0; i < m_obstacles.length; i++) {
+            if (m_obstacles[i].intersects(x0, y0, x1, y1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Plans the shortest path from the start to the goal. If the start is inside an obstacle,
+     * for example because the robot was pushed into it, the path first drives straight out to
+     * the closest edge of that obstacle.
+     *
+     * @param start The position of the robot.
+     * @param goal  The position to drive to.
+     * @return The corners of the path, including the start and goal, or null if the goal cannot
+     *     be reached or the time budget ran out.
+     */
+    public List<Translation2d> plan(Translation2d start, Translation2d goal) {
+        final long startTime = System.nanoTime();
+        final double gx = goal.getX();
+        final double gy = goal.getY();
+        if (!isFree(gx, gy)) {
+            return null;
+        }
+        Translation2d exit = null;
+        double sx = start.getX();
+        double sy = start.getY();
+        for (Obstacle obstacle : m_obstacles) {
+            if (obstacle.contains(sx, sy)) {
+                obstacle.closestBoundaryPoint(sx, sy, m_exit);
+                exit = new Translation2d(m_exit[0], m_exit[1]);
+                sx = m_exit[0];
+                sy = m_exit[1];
+                break;
+            }
+        }
+        if (exit != null && !isFree(sx, sy)) {
+            return null;
+        }
+        if (isVisible(sx, sy, gx, gy)) {
+            return exit == null ? Arrays.asList(start, goal) : Arrays.asList(start, exit, goal);
+        }
+
+        final int goalIndex = m_nodeCount;
+        m_x[goalIndex] = gx;
+        m_y[goalIndex] = gy;
+        Arrays.fill(m_g, Double.POSITIVE_INFINITY);
+        Arrays.fill(m_closed, false);
+        Arrays.fill(m_heapIndices, -1);
+        m_heapSize = 0;
+
+        // Connect the start and goal to the nodes they can see.
+        for (int i = 0; i < m_nodeCount; i++) {
+            m_goalCosts[i] = isVisible(m_x[i], m_y[i], gx, gy)
+                    ? Math.hypot(gx - m_x[i], gy - m_y[i]) : Double.POSITIVE_INFINITY;
+            if (isVisible(sx, sy, m_x[i], m_y[i])) {
+                relax(i, -1, Math.hypot(m_x[i] - sx, m_y[i] - sy));
+            }
+        }
+
+        int expanded = 0;
+        while (m_heapSize > 0) {
+            if (++expanded % kClockInterval == 0 && System.nanoTime() - startTime > m_timeBudgetNanos) {
+                return null;
+            }
+            int node = pop();
+            if (node == goalIndex) {
+                return reconstruct(start, exit, goal);
+            }
+            m_closed[node] = true;
+            for (int i = 0; i < m_neighbors[node].length; i++) {
+                int neighbor = m_neighbors[node][i];
+                if (!m_closed[neighbor]) {
+                    relax(neighbor, node, m_g[node] + m_costs[node][i]);
+                }
+            }
+            if (m_goalCosts[node] < Double.POSITIVE_INFINITY) {
+                relax(goalIndex, node, m_g[node] + m_goalCosts[node]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plans a trajectory from the start pose to the end pose, through the corners of the
+     * shortest path. The trajectory is a spline, so it rounds the corners slightly; add some
+     * margin to the clearance of the planner for it.
+     *
+     * @param start  The pose of the robot.
+     * @param end    The pose to drive to.
+     * @param config The configuration of the trajectory.
+     * @return The trajectory, or null if no path was found.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public Trajectory planTrajectory(Pose2d start, Pose2d end, TrajectoryConfig config) {
+        List<Translation2d> points = plan(start.getTranslation(), end.getTranslation());
+        if (points == null) {
+            return null;
+        }
+        return TrajectoryGenerator.generateTrajectory(start, points.subList(1, points.size() - 1), end, config);
+    }
+
+    /**
+     * Plans a pure pursuit path from the start pose to the end pose, with a waypoint at each
+     * corner of the shortest path. The returned path still needs to be initialized.
+     *
+     * @param start          The pose of the robot.
+     * @param end            The pose to drive to.
+     * @param movementSpeed  The movement speed of the waypoints.
+     * @param turnSpeed      The turn speed of the waypoints.
+     * @param followRadius   The follow radius of the waypoints.
+     * @param positionBuffer The position buffer of the end waypoint.
+     * @param rotationBuffer The rotation buffer of the end waypoint.
+     * @return The path, or null if no path was found.
+     */
+    public Path planPath(Pose2d start, Pose2d end, double movementSpeed, double turnSpeed,
+                         double followRadius, double positionBuffer, double rotationBuffer) {
+        List<Translation2d> points = plan(start.getTranslation(), end.getTranslation());
+        if (points == null) {
+            return null;
+        }
+        Path path = new Path(new StartWaypoint(start));
+        for (int i = 1; i < points.size() - 1; i++) {
+            Translation2d point = points.get(i);
+            path.add(new GeneralWaypoint(point.getX(), point.getY(), movementSpeed, turnSpeed, followRadius));
+        }
+        path.add(new EndWaypoint(end, movementSpeed, turnSpeed, followRadius, positionBuffer, rotationBuffer));
+        return path;
+    }
+
+    private List<Translation2d> reconstruct(Translation2d start, Translation2d exit, Translation2d goal) {
+        List<Translation2d> points = new ArrayList<>();
+        points.add(goal);
+        for (int node = m_parents[m_nodeCount]; node != -1; node = m_parents[node]) {
+            points.add(new Translation2d(m_x[node], m_y[node]));
+        }
+        if (exit != null) {
+            points.add(exit);
+        }
+        points.add(start);
+        List<Translation2d> path = new ArrayList<>(points.size());
+        for (int i = points.size() - 1; i >= 0; i--) {
+            path.add(points.get(i));
+        }
+        return path;
+    }
+
+    /**
+     * Lowers the cost of reaching a node, if the given cost is lower than its current one.
+     */
+    private void relax(int node, int parent, double cost) {
+        if (cost >= m_g[node]) {
+            return;
+        }
+        m_g[node] = cost;
+        m_f[node] = cost + Math.hypot(m_x[m_nodeCount] - m_x[node], m_y[m_nodeCount] - m_y[node]);
+        m_parents[node] = parent;
+        if (m_heapIndices[node] == -1) {
+            m_heap[m_heapSize] = node;
+            m_heapIndices[node] = m_heapSize;
+            m_heapSize++;
+        }
+        siftUp(m_heapIndices[node]);
+    }
+
+    private int pop() {
+        int top = m_heap[0];
+        m_heapIndices[top] = -1;
+        m_heapSize--;
+        if (m_heapSize > 0) {
+            m_heap[0] = m_heap[m_heapSize];
+            m_heapIndices[m_heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = m_heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (m_f[m_heap[parent]] <= m_f[node]) {
+                break;
+            }
+            m_heap[index] = m_heap[parent];
+            m_heapIndices[m_heap[index]] = index;
+            index = parent;
+        }
+        m_heap[index] = node;
+        m_heapIndices[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = m_heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= m_heapSize) {
+                break;
+            }
+            if (child + 1 < m_heapSize && m_f[m_heap[child + 1]] < m_f[m_heap[child]]) {
+                child++;
+            }
+            if (m_f[node] <= m_f[m_heap[child]]) {
+                break;
+            }
+            m_heap[index] = m_heap[child];
+            m_heapIndices[m_heap[index]] = index;
+            index = child;
+        }
+        m_heap[index] = node;
+        m_heapIndices[node] = index;
+    }
+}
@@ -0,0 +1,202 @@
+package com.seattlesolvers.solverslib.planner;
+
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+
+/**
+ * A convex polygon on the field that the robot must not drive through.
+ */
+public class Obstacle {
+    private final double[] m_x;
+    private final double[] m_y;
+
+    /**
+     * Creates an obstacle from the vertices of a convex polygon, in either winding order.
+     *
+     * @param vertices The vertices of the polygon.
+     */
+    public Obstacle(Translation2d... vertices) {
+        if (vertices.length < 3) {
+            throw new IllegalArgumentException("An obstacle must have at least three vertices.");
+        }
+        int n = vertices.length;
+        m_x = new double[n];
+        m_y = new double[n];
+
+        // Store the vertices counterclockwise, so the outward normal of each edge is on its right.
+        double area = 0.0;
+        for (int i = 0; i < n; i++) {
+            Translation2d a = vertices[i];
+            Translation2d b = vertices[(i + 1) % n];
+            area += a.getX() * b.getY() - b.getX() * a.getY();
+        }
+        for (int i = 0; i < n; i++) {
+            Translation2d vertex = vertices[area >= 0 ? i : n - 1 - i];
+            m_x[i] = vertex.getX();
+            m_y[i] = vertex.getY();
+        }
+    }
+
+    private Obstacle(double[] x, double[] y) {
+        m_x = x;
+        m_y = y;
+    }
+
+    /**
+     * Creates an axis-aligned rectangular obstacle.
+     *
+     * @param minX The lowest x of the rectangle.
+     * @param minY The lowest y of the rectangle.
+     * @param maxX The highest x of the rectangle.
+     * @param maxY The highest y of the rectangle.
+     * @return The obstacle.
+     */
+    public static Obstacle rectangle(double minX, double minY, double maxX, double maxY) {
+        return new Obstacle(new double[]{minX, maxX, maxX, minX}, new double[]{minY, minY, maxY, maxY});
+    }
+
+    /**
+     * Returns the number of vertices of the polygon.
+     *
+     * @return The number of vertices.
+     */
+    public int size() {
+        return m_x.length;
+    }
+
+    /**
+     * Returns a vertex of the polygon. The vertices are ordered counterclockwise.
+     *
+     * @param index The index of the vertex.
+     * @return The vertex.
+     */
+    public Translation2d getVertex(int index) {
+        return new Translation2d(m_x[index], m_y[index]);
+    }
+
+    /**
+     * Returns this obstacle grown outward by the given distance. Each edge moves out by the
+     * distance and the corners stay sharp, so the grown polygon contains every point within
+     * the distance of this one.
+     *
+     * @param distance The distance to grow the obstacle by, usually the radius of the robot.
+     * @return The grown obstacle.
+     */
+    public Obstacle inflate(double distance) {
+        int n = m_x.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            int prev = (i + n - 1) % n;
+            int next = (i + 1) % n;
+            // Outward normals of the edges before and after the vertex.
+            double n1x = m_y[i] - m_y[prev];
+            double n1y = m_x[prev] - m_x[i];
+            double n2x = m_y[next] - m_y[i];
+            double n2y = m_x[i] - m_x[next];
+            double l1 = Math.hypot(n1x, n1y);
+            double l2 = Math.hypot(n2x, n2y);
+            n1x /= l1;
+            n1y /= l1;
+            n2x /= l2;
+            n2y /= l2;
+            // Moving along the sum of the normals by distance / (1 + cos) moves both edges out by the distance.
+            double scale = distance / (1 + n1x * n2x + n1y * n2y);
+            x[i] = m_x[i] + (n1x + n2x) * scale;
+            y[i] = m_y[i] + (n1y + n2y) * scale;
+        }
+        return new Obstacle(x, y);
+    }
+
+    /**
+     * Returns whether the point is strictly inside the polygon.
+     *
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @return Whether the point is inside.
+     */
+    public boolean contains(double x, double y) {
+        int n = m_x.length;
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            double ex = m_x[next] - m_x[i];
+            double ey = m_y[next] - m_y[i];
+            if (ex * (y - m_y[i]) - ey * (x - m_x[i]) <= FieldPlanner.kEpsilon * Math.hypot(ex, ey)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the segment passes through the inside of the polygon. Segments that
+     * only touch its edges or vertices do not.
+     *
+     * @param x0 The x of the start of the segment.
+     * @param y0 The y of the start of the segment.
+     * @param x1 The x of the end of the segment.
+     * @param y1 The y of the end of the segment.
+     * @return Whether the segment crosses the polygon.
+     */
+    @SuppressWarnings("ParameterName")
+    public boolean intersects(double x0, double y0, double x1, double y1) {
+        // Clip the segment against each edge (Cyrus-Beck), keeping the part strictly inside.
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double enter = 0.0;
+        double exit = 1.0;
+        int n = m_x.length;
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            double ex = m_x[next] - m_x[i];
+            double ey = m_y[next] - m_y[i];
+            // The start is inside this edge when start > 0, and the segment moves inward when rate > 0.
+            double start = ex * (y0 - m_y[i]) - ey * (x0 - m_x[i]);
+            double rate = ex * dy - ey * dx;
+            double margin = FieldPlanner.kEpsilon * Math.hypot(ex, ey);
+            if (Math.abs(rate) < 1E-12) {
+                if (start <= margin) {
+                    return false;
+                }
+            } else if (rate > 0) {
+                enter = Math.max(enter, (margin - start) / rate);
+            } else {
+                exit = Math.min(exit, (margin - start) / rate);
+            }
+            if (enter >= exit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the point on the edges of the polygon that is closest to the given point.
+     */
+    void closestBoundaryPoint(double x, double y, double[] point) {
+        double best = Double.POSITIVE_INFINITY;
+        int n = m_x.length;
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            double ex = m_x[next] - m_x[i];
+            double ey = m_y[next] - m_y[i];
+            double t = ((x - m_x[i]) * ex + (y - m_y[i]) * ey) / (ex * ex + ey * ey);
+            t = Math.min(Math.max(t, 0.0), 1.0);
+            double px = m_x[i] + ex * t;
+            double py = m_y[i] + ey * t;
+            double distance = Math.hypot(px - x, py - y);
+            if (distance < best) {
+                best = distance;
+                point[0] = px;
+                point[1] = py;
+            }
+        }
+    }
+
+    double getX(int index) {
+        return m_x[index];
+    }
+
+    double getY(int index) {
+        return m_y[index];
+    }
+}
@@ -2,8 +2,6 @@ package com.seattlesolvers.solverslib.purepursuit;
 
 import com.seattlesolvers.solverslib.drivebase.MecanumDrive;
 import com.seattlesolvers.solverslib.geometry.Pose2d;
-import com.seattlesolvers.solverslib.geometry.Rotation2d;
-import com.seattlesolvers.solverslib.geometry.Translation2d;
 import com.seattlesolvers.solverslib.kinematics.Odometry;
 import com.seattlesolvers.solverslib.purepursuit.actions.TriggeredAction;
 import com.seattlesolvers.solverslib.purepursuit.types.PathType;
@@ -70,7 +68,37 @@ public class Path extends ArrayList<Waypoint> {
     private boolean retracing;
     private double retraceMovementSpeed;
     private double retraceTurnSpeed;
-    private Translation2d lastKnownIntersection;
+    private boolean hasLastKnownIntersection;
+    private double lastKnownIntersectionX;
+    private double lastKnownIntersectionY;
+
+    // Fields for the intersection search. Only the segments around the waypoint of the last
+    // intersection are searched, and the results are written into reused buffers.
+    private int searchWindowBehind;
+    private int searchWindowAhead;
+    private int searchAnchor;
+    private TaggedIntersection[] intersections;
+    private int intersectionCount;
+
+    // The motor powers returned by loop().
+    private final double[] motorPowers = new double[3];
+
+    // The waypoints compiled by init(). Segment i is the line from waypoint i - 1 to waypoint i,
+    // and its values are stored at index i.
+    private double[] waypointX;
+    private double[] waypointY;
+    private double[] followDistances;
+    private double[] movementSpeeds;
+    private double[] turnSpeeds;
+    private boolean[] pointTurns;
+    private int[] awayIndices;
+    private double[] directionX;
+    private double[] directionY;
+    private double[] segmentLengths;
+    private double[] cumulativeDistances;
+
+    // Distance along the path of the robot, as of the last loop.
+    private double distanceTraveled;
 
     // Action lists
     private List<TriggeredAction> triggeredActions;
@@ -98,6 +126,9 @@ public class Path extends ArrayList<Waypoint> {
         retraceMovementSpeed = 1;
         retraceTurnSpeed = 1;
         retraceEnabled = true;
+        searchWindowBehind = 2;
+        searchWindowAhead = 4;
+        searchAnchor = 1;
         initComplete = false;
         timedOut = false;
         triggeredActions = new ArrayList<TriggeredAction>();
@@ -115,6 +146,9 @@ public class Path extends ArrayList<Waypoint> {
      * - Begin with a StartWaypoint
      * - End with an EndWaypoint
      * - Not contain any StartWaypoints or EndWaypoints in it's body.
+     * <p>
+     * The init also compiles the positions, speeds and follow distances of the waypoints, so it must
+     * be ran again after the waypoints are changed.
      *
      * @throws IllegalStateException If the path is not legal.
      */
@@ -126,6 +160,9 @@ public class Path extends ArrayList<Waypoint> {
         // Configure unconfigured waypoints.
         for (int i = 1; i < size(); i++)
             ((GeneralWaypoint) get(i)).inherit(get(i - 1));
+        // Compile the waypoints and allocate the intersection buffer.
+        compile();
+        allocateIntersections();
         // Mark the init as complete.
         initComplete = true;
     }
@@ -181,6 +218,7 @@ public class Path extends ArrayList<Waypoint> {
      * @param hPosition Robot's current horizontal position.
      * @param rotation  Robot's current rotation.
      * @return A double array containing the motor powers. a[0] is the x power, a[1] is the y power, and a[2] is the turn power.
+     * The same array is returned by every call, so copy it if the values are needed after the next call.
      */
     public double[] loop(double vPosition, double hPosition, double rotation) {
         // First, make sure the init has been called. While this does not guarantee the program will run without errors, it is better than nothing.
@@ -188,7 +226,7 @@ public class Path extends ArrayList<Waypoint> {
             throw new IllegalStateException("You must call the init() function before calling loop()");
         if (timedOut)
             // If this path has timed out, return no motor speeds.
-            return new double[]{0, 0, 0};
+            return stop();
         if (timeoutMiliseconds != -1)
             // If this path has a timeout.
             if (timeSinceStart == -1)
@@ -196,62 +234,62 @@ public class Path extends ArrayList<Waypoint> {
             else if (timeSinceStart + timeoutMiliseconds < System.currentTimeMillis()) {
                 timedOut = true;
                 // If the path has timed out, return no speeds.
-                return new double[]{0, 0, 0};
+                return stop();
             }
         // Next, loop triggered and perform interrupted actions.
         loopTriggeredActions();
         runQueuedInterruptActions();
-        // Get all the intersections on the path.
-        ArrayList<TaggedIntersection> intersections = new ArrayList<TaggedIntersection>();
-        for (int i = 1; i < size(); i++) {
-            // Get the path line segment and circle.
-            Translation2d linePoint1 = get(i - 1).getPose().getTranslation();
-            Translation2d linePoint2 = get(i).getPose().getTranslation();
-            double radius = get(i).getFollowDistance();
-            Translation2d robotPosition = new Translation2d(vPosition, hPosition);
-            List<Translation2d> points = PurePursuitUtil.lineCircleIntersection(robotPosition, radius, linePoint1, linePoint2);
-            for (Translation2d point : points)
-                // Add results to list.
-                intersections.add(new TaggedIntersection(point, get(i), i));
-            if (get(i) instanceof PointTurnWaypoint) {
-                // If the second waypoint is a point turn waypoint, decrease the follow radius so the next point is always found.
-                double dx = linePoint2.getX() - vPosition;
-                double dy = linePoint2.getY() - hPosition;
-                double adjustedRadius = Math.hypot(dx, dy) - 1e-9;
-                if (adjustedRadius < radius) {
-                    // Add the point to the list.
-                    intersections.add(new TaggedIntersection(((PointTurnWaypoint) get(i)).getTranslation(), get(i), i));
-                }
-            }
-            // Now all intersections are recorded.
+        // Get the intersections on the segments around the last intersection.
+        allocateIntersections();
+        intersectionCount = 0;
+        int firstSegment = searchWindowBehind < 0 ? 1 : Math.max(1, searchAnchor - searchWindowBehind);
+        int lastSegment = searchWindowAhead < 0 ? size() - 1 : Math.min(size() - 1, searchAnchor + searchWindowAhead);
+        findIntersections(vPosition, hPosition, firstSegment, lastSegment);
+        if (intersectionCount == 0) {
+            // If the path is not in the window, search the rest of it before considering it lost.
+            findIntersections(vPosition, hPosition, 1, firstSegment - 1);
+            findIntersections(vPosition, hPosition, lastSegment + 1, size() - 1);
         }
         // If there are no intersections found, the path is lost.
-        if (intersections.size() == 0) {
+        if (intersectionCount == 0) {
             if (retracing)
                 return retrace(vPosition, hPosition, rotation);
             // If retrace is enabled, we can try to re-find the path.
             if (retraceEnabled) {
-                if (lastKnownIntersection == null)
-                    lastKnownIntersection = get(0).getPose().getTranslation();
+                if (!hasLastKnownIntersection) {
+                    lastKnownIntersectionX = get(0).getPose().getX();
+                    lastKnownIntersectionY = get(0).getPose().getY();
+                    hasLastKnownIntersection = true;
+                }
                 retracing = true;
                 return retrace(vPosition, hPosition, rotation);
             } else
-                return new double[]{0, 0, 0};
+                return stop();
         } else
             retracing = false;
+        // Wrap the rotation to [-pi, pi], the same way Rotation2d does.
+        double heading = rotation;
+        while (heading > Math.PI) heading -= 2 * Math.PI;
+        while (heading < -Math.PI) heading += 2 * Math.PI;
         // The intersections are handled differently depending on the path type.
-        TaggedIntersection bestIntersection = intersections.get(0);
+        TaggedIntersection bestIntersection = intersections[0];
         switch (pathType) {
             case HEADING_CONTROLLED:
-                bestIntersection = selectHeadingControlledIntersection(intersections, new Pose2d(vPosition, hPosition, new Rotation2d(rotation)));
+                bestIntersection = selectHeadingControlledIntersection(heading);
                 break;
             case WAYPOINT_ORDERING_CONTROLLED:
-                bestIntersection = selectWaypointOrderingControlledIntersection(intersections);
+                bestIntersection = selectWaypointOrderingControlledIntersection();
                 break;
         }
-        if (retraceEnabled)
+        // The next search is centered on this intersection.
+        searchAnchor = bestIntersection.waypointIndex;
+        distanceTraveled = distanceAlongPath(searchAnchor, vPosition, hPosition);
+        if (retraceEnabled) {
             // If retrace is enabled, store the intersection.
-            lastKnownIntersection = bestIntersection.intersection;
+            lastKnownIntersectionX = bestIntersection.x;
+            lastKnownIntersectionY = bestIntersection.y;
+            hasLastKnownIntersection = true;
+        }
         if (bestIntersection.taggedPoint != lastWaypoint) {
             // If this is the first intersection of a new waypoint, update timeout values.
             lastWaypoint = bestIntersection.taggedPoint;
@@ -262,35 +300,128 @@ public class Path extends ArrayList<Waypoint> {
             if (System.currentTimeMillis() > lastWaypointTimeStamp + bestIntersection.taggedPoint.getTimeout()) {
                 timedOut = true;
                 // If it has, return no motor speeds.
-                return new double[]{0, 0, 0};
+                return stop();
             }
         // After the best intersection is found, the robot behaves differently depending on the type of waypoint.
-        double[] motorPowers = new double[]{0, 0, 0};
-        Pose2d robotPos = new Pose2d(vPosition, hPosition, new Rotation2d(rotation));
+        motorPowers[0] = 0;
+        motorPowers[1] = 0;
+        motorPowers[2] = 0;
         switch (bestIntersection.taggedPoint.getType()) {
             case GENERAL:
-                motorPowers = handleGeneralIntersection(bestIntersection, robotPos);
+                handleGeneralIntersection(bestIntersection, vPosition, hPosition, heading);
                 break;
             case POINT_TURN:
-                motorPowers = handlePointTurnIntersection(bestIntersection, robotPos);
+                handlePointTurnIntersection(bestIntersection, vPosition, hPosition, heading);
                 break;
             case INTERRUPT:
-                motorPowers = handleInterruptIntersection(bestIntersection, robotPos);
+                handleInterruptIntersection(bestIntersection, vPosition, hPosition, heading);
                 break;
             case END:
-                motorPowers = handleEndIntersection(bestIntersection, robotPos);
+                handleEndIntersection(bestIntersection, vPosition, hPosition, heading);
                 break;
             case START:
                 // This should never happen.
                 throw new IllegalStateException("Path has lost integrity.");
         }
         // Adjust speeds.
-        adjustSpeedsWithProfile(motorPowers, bestIntersection, robotPos.getTranslation());
+        adjustSpeedsWithProfile(motorPowers, bestIntersection, vPosition, hPosition);
         normalizeMotorSpeeds(motorPowers);
         // Return the motor powers.
         return motorPowers;
     }
 
+    /**
+     * Sets the motor powers to zero.
+     *
+     * @return The motor powers.
+     */
+    private double[] stop() {
+        motorPowers[0] = 0;
+        motorPowers[1] = 0;
+        motorPowers[2] = 0;
+        return motorPowers;
+    }
+
+    /**
+     * Makes sure the intersection buffer can hold every intersection of the path. Each segment can
+     * have two intersections with the follow circle, plus the point turn waypoint at its end.
+     */
+    private void allocateIntersections() {
+        int capacity = 3 * Math.max(size() - 1, 0);
+        if (intersections != null && intersections.length >= capacity)
+            return;
+        intersections = new TaggedIntersection[capacity];
+        for (int i = 0; i < capacity; i++)
+            intersections[i] = new TaggedIntersection();
+    }
+
+    /**
+     * Adds the intersections of the robot's follow circle with the given segments to the intersection buffer.
+     * Segment i is the line between waypoints i - 1 and i.
+     *
+     * @param xPosition    Robot's x position.
+     * @param yPosition    Robot's y position.
+     * @param firstSegment First segment to search.
+     * @param lastSegment  Last segment to search (inclusive).
+     */
+    private void findIntersections(double xPosition, double yPosition, int firstSegment, int lastSegment) {
+        for (int i = firstSegment; i <= lastSegment; i++) {
+            // Get the robot's position relative to the start of the segment.
+            double radius = followDistances[i];
+            double dx = xPosition - waypointX[i - 1];
+            double dy = yPosition - waypointY[i - 1];
+            if (segmentLengths[i] > 0) {
+                // The intersections are the points on the segment's line that are the radius away from the robot.
+                double along = dx * directionX[i] + dy * directionY[i];
+                double disc = radius * radius - (dx * dx + dy * dy - along * along);
+                if (disc >= 0) {
+                    double halfChord = Math.sqrt(disc);
+                    addIntersection(i, along - halfChord);
+                    if (halfChord > 0)
+                        addIntersection(i, along + halfChord);
+                }
+            }
+            if (pointTurns[i]) {
+                // If the second waypoint is a point turn waypoint, decrease the follow radius so the next point is always found.
+                double adjustedRadius = Math.hypot(waypointX[i] - xPosition, waypointY[i] - yPosition) - 1e-9;
+                if (adjustedRadius < radius) {
+                    // Add the point to the buffer.
+                    intersections[intersectionCount++].set(waypointX[i], waypointY[i], get(i), i);
+                }
+            }
+            // Now all intersections are recorded.
+        }
+    }
+
+    /**
+     * Adds the point at the given distance along a segment to the intersection buffer, if it is on the segment.
+     *
+     * @param segment  Index of the segment.
+     * @param distance Distance from the start of the segment.
+     */
+    private void addIntersection(int segment, double distance) {
+        if (distance < 0 || distance > segmentLengths[segment])
+            return;
+        intersections[intersectionCount++].set(
+                waypointX[segment - 1] + directionX[segment] * distance,
+                waypointY[segment - 1] + directionY[segment] * distance,
+                get(segment), segment);
+    }
+
+    /**
+     * Returns the distance along the path of the point on the given segment closest to the given position.
+     *
+     * @param segment   Index of the segment.
+     * @param xPosition X position.
+     * @param yPosition Y position.
+     * @return Distance from the start of the path.
+     */
+    private double distanceAlongPath(int segment, double xPosition, double yPosition) {
+        double along = (xPosition - waypointX[segment - 1]) * directionX[segment]
+                + (yPosition - waypointY[segment - 1]) * directionY[segment];
+        return cumulativeDistances[segment - 1] + Math.min(Math.max(along, 0), segmentLengths[segment]);
+    }
+
     /**
      * Retraces the robot's moves back to the path's last known location.
      *
@@ -301,7 +432,7 @@ public class Path extends ArrayList<Waypoint> {
      */
     private double[] retrace(double xPosition, double yPosition, double rotation) {
         // Move towards the last known intersection.
-        double[] motorPowers = PurePursuitUtil.moveToPosition(xPosition, yPosition, rotation, lastKnownIntersection.getX(), lastKnownIntersection.getY(), rotation, false);
+        PurePursuitUtil.moveToPosition(xPosition, yPosition, rotation, lastKnownIntersectionX, lastKnownIntersectionY, rotation, false, motorPowers);
         motorPowers[0] *= retraceMovementSpeed;
         motorPowers[1] *= retraceMovementSpeed;
         motorPowers[2] *= retraceTurnSpeed;
@@ -309,22 +440,35 @@ public class Path extends ArrayList<Waypoint> {
     }
 
     /**
-     * Selects and returns the "best" intersection from the given list using heading
+     * Returns whether the first intersection is further along its segment than the second one.
+     *
+     * @param intersection Intersection to be compared.
+     * @param other        Intersection that the first one is compared to, on the same segment.
+     * @return True if the intersection is in front of the other one.
+     */
+    private boolean isInFront(TaggedIntersection intersection, TaggedIntersection other) {
+        int i = intersection.waypointIndex;
+        return PurePursuitUtil.isInFront(waypointX[i - 1], waypointY[i - 1], waypointX[i], waypointY[i],
+                intersection.x, intersection.y, other.x, other.y);
+    }
+
+    /**
+     * Selects and returns the "best" intersection from the intersection buffer using heading
      * control. The intersection is chosen based on the following rules:
-     * 1. If the list contains any untraversed waypoints, they are given priority and the best intersection is the point closest to the point turn waypoint.
-     * 2. If the list contains no point turn points, then it chooses the intersection the robot is oriented most closely towards.
+     * 1. If the buffer contains any untraversed waypoints, they are given priority and the best intersection is the point closest to the point turn waypoint.
+     * 2. If the buffer contains no point turn points, then it chooses the intersection the robot is oriented most closely towards.
      *
-     * @param intersections Intersection list.
-     * @param robotPos      Robot's current position/rotation.
+     * @param heading Robot's current rotation, in [-pi, pi].
      * @return The best intersection in the form of a TaggedIntersection.
      */
-    private TaggedIntersection selectHeadingControlledIntersection(List<TaggedIntersection> intersections, Pose2d robotPos) {
-        TaggedIntersection bestIntersection = intersections.get(0);
+    private TaggedIntersection selectHeadingControlledIntersection(double heading) {
+        TaggedIntersection bestIntersection = intersections[0];
         boolean pointTurnPriority = false;
         /**
          * In a heading controlled path, the intersection the robot is most closely oriented toward is considered the "best point".
          */
-        for (TaggedIntersection intersection : intersections) {
+        for (int i = 0; i < intersectionCount; i++) {
+            TaggedIntersection intersection = intersections[i];
             // Check to see if a point turn waypoint is found.
             if (intersection.taggedPoint instanceof PointTurnWaypoint) {
                 PointTurnWaypoint ptwaypoint = (PointTurnWaypoint) intersection.taggedPoint;
@@ -340,7 +484,7 @@ public class Path extends ArrayList<Waypoint> {
                             bestIntersection = intersection;
                         else if (bestIntersection.waypointIndex == intersection.waypointIndex)
                             // Check to see if it is in front.
-                            if (PurePursuitUtil.isInFront(get(intersection.waypointIndex - 1).getPose().getTranslation(), intersection.taggedPoint.getPose().getTranslation(), intersection.intersection, bestIntersection.intersection))
+                            if (isInFront(intersection, bestIntersection))
                                 bestIntersection = intersection;
                     }
                 }
@@ -350,11 +494,11 @@ public class Path extends ArrayList<Waypoint> {
             else {
                 // Normal case.
                 // Relative angle to intersection.
-                double absoluteAngleToIntersection = Math.atan2(intersection.intersection.getY(), intersection.intersection.getX());
-                double relativeAngleToIntersection = absoluteAngleToIntersection - robotPos.getHeading();
+                double absoluteAngleToIntersection = Math.atan2(intersection.y, intersection.x);
+                double relativeAngleToIntersection = absoluteAngleToIntersection - heading;
                 // Relative angle to best intersection.
-                double absoluteAngleToBestIntersection = Math.atan2(bestIntersection.intersection.getY(), bestIntersection.intersection.getX());
-                double relativeAngleToBestIntersection = absoluteAngleToBestIntersection - robotPos.getHeading();
+                double absoluteAngleToBestIntersection = Math.atan2(bestIntersection.y, bestIntersection.x);
+                double relativeAngleToBestIntersection = absoluteAngleToBestIntersection - heading;
                 if (relativeAngleToIntersection < relativeAngleToBestIntersection)
                     // Update bestIntersection.
                     bestIntersection = intersection;
@@ -365,21 +509,21 @@ public class Path extends ArrayList<Waypoint> {
     }
 
     /**
-     * Selects and returns the "best" intersection from the given list by choosing the intersection that is farthest along the path.
+     * Selects and returns the "best" intersection from the intersection buffer by choosing the intersection that is farthest along the path.
      * The intersection is chosen based on the following rules:
-     * 1. If the list contains any untraversed waypoints, they are given priority and the best intersection is the point closest to the point turn waypoint.
-     * 2. If the list contains no point turn points, then it chooses the intersection that is farthest along the path.
+     * 1. If the buffer contains any untraversed waypoints, they are given priority and the best intersection is the point closest to the point turn waypoint.
+     * 2. If the buffer contains no point turn points, then it chooses the intersection that is farthest along the path.
      *
-     * @param intersections Intersection list.
      * @return The best intersection in the form of a TaggedIntersection.
      */
-    private TaggedIntersection selectWaypointOrderingControlledIntersection(List<TaggedIntersection> intersections) {
-        TaggedIntersection bestIntersection = intersections.get(0);
+    private TaggedIntersection selectWaypointOrderingControlledIntersection() {
+        TaggedIntersection bestIntersection = intersections[0];
         boolean pointTurnPriority = false;
         /**
          * In a waypoint ordering controlled path, the intersection that is farthest along the path is considered the "best point".
          */
-        for (TaggedIntersection intersection : intersections) {
+        for (int i = 0; i < intersectionCount; i++) {
+            TaggedIntersection intersection = intersections[i];
             // Check to see if a point turn waypoint is found.
             if (intersection.taggedPoint instanceof PointTurnWaypoint) {
                 PointTurnWaypoint ptwaypoint = (PointTurnWaypoint) intersection.taggedPoint;
@@ -397,7 +541,7 @@ public class Path extends ArrayList<Waypoint> {
                             bestIntersection = intersection;
                         else if (bestIntersection.waypointIndex == intersection.waypointIndex)
                             // Check to see if it is in front.
-                            if (PurePursuitUtil.isInFront(get(intersection.waypointIndex - 1).getPose().getTranslation(), intersection.taggedPoint.getPose().getTranslation(), intersection.intersection, bestIntersection.intersection))
+                            if (isInFront(intersection, bestIntersection))
                                 bestIntersection = intersection;
                     }
                 }
@@ -411,7 +555,7 @@ public class Path extends ArrayList<Waypoint> {
                     bestIntersection = intersection;
                 else if (bestIntersection.waypointIndex == intersection.waypointIndex)
                     // Check to see if it is in front.
-                    if (PurePursuitUtil.isInFront(get(intersection.waypointIndex - 1).getPose().getTranslation(), intersection.taggedPoint.getPose().getTranslation(), intersection.intersection, bestIntersection.intersection))
+                    if (isInFront(intersection, bestIntersection))
                         bestIntersection = intersection;
             }
         }
@@ -420,23 +564,21 @@ public class Path extends ArrayList<Waypoint> {
     }
 
     /**
-     * Returns the motor speeds required to approach the given intersection.
+     * Sets the motor speeds required to approach the given intersection.
      *
      * @param intersection Intersection to approach.
-     * @param robotPos     Robot's current position/rotation.
-     * @return Final motor speeds.
+     * @param cx           Robot's current x position.
+     * @param cy           Robot's current y position.
+     * @param ca           Robot's current rotation.
      */
-    private double[] handleGeneralIntersection(TaggedIntersection intersection, Pose2d robotPos) {
+    private void handleGeneralIntersection(TaggedIntersection intersection, double cx, double cy, double ca) {
         /**
          * General intersections are handled like normal pure pursuit intersections. The robot simply moves towards them.
          */
         GeneralWaypoint waypoint = (GeneralWaypoint) intersection.taggedPoint;
         // Get necessary values.
-        double cx = robotPos.getTranslation().getX();
-        double cy = robotPos.getTranslation().getY();
-        double ca = robotPos.getHeading();
-        double tx = intersection.intersection.getX();
-        double ty = intersection.intersection.getY();
+        double tx = intersection.x;
+        double ty = intersection.y;
         double ta;
         if (waypoint.usingPreferredAngle())
             // If this waypoint has a preferred angle, use it instead of the calculated angle.
@@ -444,55 +586,50 @@ public class Path extends ArrayList<Waypoint> {
         else
             // Calculate the target angle.
             ta = Math.atan2(ty - cy, tx - cx);
-        // Get raw motor powers.
-        double[] motorPowers = PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false);
-        // Return motor speeds.
-        return motorPowers;
+        // Set raw motor powers.
+        PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false, motorPowers);
     }
 
     /**
-     * Returns the motor speeds required to approach the given point turn intersection.
+     * Sets the motor speeds required to approach the given point turn intersection.
      * This will cause the robot to behave as follows:
      * 1. Approach and decelerate to the waypoint.
      * 2. Perform a point turn.
      * 3. Continue to the next waypoint as normal.
      *
      * @param intersection Intersection to approach.
-     * @param robotPos     Robot's current position/rotation.
-     * @return Final motor speeds.
+     * @param cx           Robot's current x position.
+     * @param cy           Robot's current y position.
+     * @param ca           Robot's current rotation.
      */
-    private double[] handlePointTurnIntersection(TaggedIntersection intersection, Pose2d robotPos) {
+    private void handlePointTurnIntersection(TaggedIntersection intersection, double cx, double cy, double ca) {
         /**
          * Point turn intersections are handled very differently than general intersections. Instead of "curving" around
          * the point, the robot will decelerate and perform a point turn.
          */
         PointTurnWaypoint waypoint = (PointTurnWaypoint) intersection.taggedPoint;
         // Get necessary values.
-        double cx = robotPos.getTranslation().getX();
-        double cy = robotPos.getTranslation().getY();
-        double ca = robotPos.getHeading();
-        double tx = intersection.intersection.getX();
-        double ty = intersection.intersection.getY();
+        double tx = intersection.x;
+        double ty = intersection.y;
         double ta;
-        double[] motorPowers;
-        if (!waypoint.hasTraversed() && PurePursuitUtil.positionEqualsWithBuffer(robotPos.getTranslation(), waypoint.getTranslation(), waypoint.getPositionBuffer())) {
+        if (!waypoint.hasTraversed() && PurePursuitUtil.positionEqualsWithBuffer(cx, cy, waypoint.getX(), waypoint.getY(), waypoint.getPositionBuffer())) {
             // If the robot has not reached the point.
             if (((GeneralWaypoint) get(intersection.waypointIndex + 1)).usingPreferredAngle()) {
-                if (PurePursuitUtil.rotationEqualsWithBuffer(robotPos.getHeading(), ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle(), waypoint.getRotationBuffer()))
+                if (PurePursuitUtil.rotationEqualsWithBuffer(ca, ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle(), waypoint.getRotationBuffer()))
                     // If the robot has reached the point and is at the preferredAngle, then the point is traversed.
                     waypoint.setTraversed();
                 // Set the target angle.
                 ta = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle();
             } else {
-                double tempTy = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPose().getTranslation().getY();
-                double tempTx = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPose().getTranslation().getX();
+                double tempTy = waypointY[intersection.waypointIndex + 1];
+                double tempTx = waypointX[intersection.waypointIndex + 1];
                 // Calculate the target angle.
                 ta = Math.atan2(tempTy - cy, tempTx - cx);
-                if (PurePursuitUtil.rotationEqualsWithBuffer(robotPos.getHeading(), ta, waypoint.getRotationBuffer()))
+                if (PurePursuitUtil.rotationEqualsWithBuffer(ca, ta, waypoint.getRotationBuffer()))
                     // If the robot has reached the point and is at the target angle, then the point is traversed.
                     waypoint.setTraversed();
             }
-            motorPowers = PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, true);
+            PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, true, motorPowers);
         } else {
             if (waypoint.usingPreferredAngle())
                 // If this waypoint has a preferred angle, use it instead of the calculated angle.
@@ -500,14 +637,12 @@ public class Path extends ArrayList<Waypoint> {
             else
                 // Calculate the target angle.
                 ta = Math.atan2(ty - cy, tx - cx);
-            motorPowers = PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false);
+            PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false, motorPowers);
         }
-        // Return motor speeds.
-        return motorPowers;
     }
 
     /**
-     * Returns the motor speeds required to approach the given interrupt intersection.
+     * Sets the motor speeds required to approach the given interrupt intersection.
      * This will cause the robot to behave as follows:
      * 1. Approach and decelerate to the waypoint.
      * 2. Perform a point turn / align with the preferred angle.
@@ -515,58 +650,58 @@ public class Path extends ArrayList<Waypoint> {
      * 3. Continue to the next waypoint as normal.
      *
      * @param intersection Intersection to approach.
-     * @param robotPos     Robot's current position/rotation.
-     * @return Final motor speeds.
+     * @param cx           Robot's current x position.
+     * @param cy           Robot's current y position.
+     * @param ca           Robot's current rotation.
      */
-    private double[] handleInterruptIntersection(TaggedIntersection intersection, Pose2d robotPos) {
+    private void handleInterruptIntersection(TaggedIntersection intersection, double cx, double cy, double ca) {
         /**
          * Interrupt intersections are handled similarly to point turn intersections. Instead of continuing directly
          * after it has turned, the robot will stop and perform the interrupt actions.
          */
         InterruptWaypoint waypoint = (InterruptWaypoint) intersection.taggedPoint;
         // Get necessary values.
-        double cx = robotPos.getTranslation().getX();
-        double cy = robotPos.getTranslation().getY();
-        double ca = robotPos.getHeading();
-        double tx = intersection.intersection.getX();
-        double ty = intersection.intersection.getY();
+        double tx = intersection.x;
+        double ty = intersection.y;
         double ta;
-        double[] motorPowers;
-        if (!waypoint.hasTraversed() && PurePursuitUtil.positionEqualsWithBuffer(robotPos.getTranslation(), waypoint.getTranslation(), waypoint.getPositionBuffer())) {
+        if (!waypoint.hasTraversed() && PurePursuitUtil.positionEqualsWithBuffer(cx, cy, waypoint.getX(), waypoint.getY(), waypoint.getPositionBuffer())) {
             // If the robot has not reached the point.
             if (waypoint.getType() == WaypointType.END) {
-                if (waypoint.usingPreferredAngle() && !PurePursuitUtil.rotationEqualsWithBuffer(robotPos.getHeading(), waypoint.getPreferredAngle(), waypoint.getRotationBuffer()))
+                if (waypoint.usingPreferredAngle() && !PurePursuitUtil.rotationEqualsWithBuffer(ca, waypoint.getPreferredAngle(), waypoint.getRotationBuffer()))
                     ta = waypoint.getPreferredAngle();
                 else {
                     ((EndWaypoint) waypoint).setTraversed();
-                    return new double[]{0, 0, 0};
+                    stop();
+                    return;
                 }
             } else if (((GeneralWaypoint) get(intersection.waypointIndex + 1)).usingPreferredAngle()) {
-                if (PurePursuitUtil.rotationEqualsWithBuffer(robotPos.getHeading(), ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle(), waypoint.getRotationBuffer())) {
+                if (PurePursuitUtil.rotationEqualsWithBuffer(ca, ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle(), waypoint.getRotationBuffer())) {
                     // If the robot has reached the point and is at the preferredAngle, then the point is traversed.
                     waypoint.setTraversed();
                     // Queue the action.
                     interruptActionQueue.add(waypoint);
                     // Stop the robot while it does the action.
-                    return new double[]{0, 0, 0};
+                    stop();
+                    return;
                 }
                 // Set the target angle.
                 ta = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPreferredAngle();
             } else {
-                double tempTy = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPose().getTranslation().getY();
-                double tempTx = ((GeneralWaypoint) get(intersection.waypointIndex + 1)).getPose().getTranslation().getX();
+                double tempTy = waypointY[intersection.waypointIndex + 1];
+                double tempTx = waypointX[intersection.waypointIndex + 1];
                 // Calculate the target angle.
                 ta = Math.atan2(tempTy - cy, tempTx - cx);
-                if (PurePursuitUtil.rotationEqualsWithBuffer(robotPos.getHeading(), ta, waypoint.getRotationBuffer())) {
+                if (PurePursuitUtil.rotationEqualsWithBuffer(ca, ta, waypoint.getRotationBuffer())) {
                     // If the robot has reached the point and is at the target angle, then the point is traversed.
                     waypoint.setTraversed();
                     // Queue the action.
                     interruptActionQueue.add(waypoint);
                     // Stop the robot while it does the action.
-                    return new double[]{0, 0, 0};
+                    stop();
+                    return;
                 }
             }
-            motorPowers = PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, true);
+            PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, true, motorPowers);
         } else {
             if (waypoint.usingPreferredAngle())
                 // If this waypoint has a preferred angle, use it instead of the calculated angle.
@@ -574,28 +709,27 @@ public class Path extends ArrayList<Waypoint> {
             else
                 // Calculate the target angle.
                 ta = Math.atan2(ty - cy, tx - cx);
-            motorPowers = PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false);
+            PurePursuitUtil.moveToPosition(cx, cy, ca, tx, ty, ta, false, motorPowers);
         }
-        // Return motor speeds.
-        return motorPowers;
     }
 
     /**
-     * Returns the motor speeds required to approach the given end intersection.
+     * Sets the motor speeds required to approach the given end intersection.
      * This will cause the robot to behave as follows:
      * 1. Approach and decelerate to the end point.
      * 2. Turn to face the preferred angle (if provided).
      * 3. Mark the path as complete.
      *
      * @param intersection Intersection to approach.
-     * @param robotPos     Robot's current position/rotation.
-     * @return Final motor speeds.
+     * @param cx           Robot's current x position.
+     * @param cy           Robot's current y position.
+     * @param ca           Robot's current rotation.
      */
-    private double[] handleEndIntersection(TaggedIntersection intersection, Pose2d robotPos) {
+    private void handleEndIntersection(TaggedIntersection intersection, double cx, double cy, double ca) {
         /**
          * End intersections are handled the same way as interrupt intersections.
          */
-        return handleInterruptIntersection(intersection, robotPos);
+        handleInterruptIntersection(intersection, cx, cy, ca);
     }
 
     /**
@@ -710,6 +844,35 @@ public class Path extends ArrayList<Waypoint> {
         return this;
     }
 
+    /**
+     * Sets the number of path segments that are searched for intersections behind and ahead of the
+     * segment of the last intersection. If the path is not found within them, the whole path is searched.
+     * By default, 2 segments behind and 4 ahead are searched.
+     *
+     * @param segmentsBehind Number of segments searched behind the last intersection.
+     * @param segmentsAhead  Number of segments searched ahead of the last intersection.
+     * @return This path, used for chaining methods.
+     * @throws IllegalArgumentException If either number is negative.
+     */
+    public Path setSearchWindow(int segmentsBehind, int segmentsAhead) {
+        if (segmentsBehind < 0 || segmentsAhead < 0)
+            throw new IllegalArgumentException("The search window must not be negative.");
+        searchWindowBehind = segmentsBehind;
+        searchWindowAhead = segmentsAhead;
+        return this;
+    }
+
+    /**
+     * Searches the whole path for intersections on every loop, instead of a window around the last intersection.
+     *
+     * @return This path, used for chaining methods.
+     */
+    public Path disableSearchWindow() {
+        searchWindowBehind = -1;
+        searchWindowAhead = -1;
+        return this;
+    }
+
     /**
      * Adds the provided TriggeredActions to the path. These are handled automatically.
      *
@@ -784,11 +947,41 @@ public class Path extends ArrayList<Waypoint> {
         return timedOut;
     }
 
+    /**
+     * Returns the length of this path, measured along its segments. Only available after init() has been ran.
+     *
+     * @return The length of this path.
+     */
+    public double getLength() {
+        return cumulativeDistances == null ? 0 : cumulativeDistances[cumulativeDistances.length - 1];
+    }
+
+    /**
+     * Returns how far along the path the robot was at the last loop. This is the distance from the start of
+     * the path to the point on the path closest to the robot, on the segment of the robot's target intersection.
+     *
+     * @return The distance traveled along this path.
+     */
+    public double getDistanceTraveled() {
+        return distanceTraveled;
+    }
+
+    /**
+     * Returns the distance along the path from the robot's position at the last loop to the end of the path.
+     *
+     * @return The distance remaining on this path.
+     */
+    public double getDistanceRemaining() {
+        return getLength() - distanceTraveled;
+    }
+
     /**
      * Resets all the waypoints/timeouts/actions in this path. Called by the init.
      */
     public void reset() {
         resetTimeouts();
+        searchAnchor = 1;
+        distanceTraveled = 0;
         for (Waypoint waypoint : this)
             if (waypoint instanceof GeneralWaypoint)
                 ((GeneralWaypoint) waypoint).reset();
@@ -850,36 +1043,71 @@ public class Path extends ArrayList<Waypoint> {
     }
 
     /**
-     * Adjusts the motor speeds based on this path's motion profile.
+     * Adjusts the motor speeds based on this path's motion profile. The distances given to the profile
+     * are straight-line distances from the last start or point turn waypoint and to the intersection's waypoint.
      *
      * @param speeds       Speeds to be adjusted.
      * @param intersection The tagged intersection.
+     * @param xPosition    Robot's x position.
+     * @param yPosition    Robot's y position.
      */
-    private void adjustSpeedsWithProfile(double[] speeds, TaggedIntersection intersection, Translation2d robotPos) {
-        // Get closest away and to points.
-        Translation2d awayPoint = null;
-        for (int i = intersection.waypointIndex - 1; i >= 0; i--)
-            if (get(i).getType() == WaypointType.START || get(i) instanceof PointTurnWaypoint) {
-                awayPoint = get(i).getPose().getTranslation();
-                break;
-            }
-        if (awayPoint == null)
-            // This should never happen.
-            throw new IllegalStateException("Path has lost integrity.");
-        Translation2d toPoint = intersection.taggedPoint.getPose().getTranslation();
-        // Get delta values.
-        double adx = robotPos.getX() - awayPoint.getX();
-        double ady = robotPos.getY() - awayPoint.getY();
-        double tdx = toPoint.getX() - robotPos.getX();
-        double tdy = toPoint.getY() - robotPos.getY();
-        double ad = Math.hypot(adx, ady);
-        double td = Math.hypot(tdx, tdy);
+    private void adjustSpeedsWithProfile(double[] speeds, TaggedIntersection intersection, double xPosition, double yPosition) {
+        int i = intersection.waypointIndex;
+        int away = awayIndices[i];
+        // Get the distances from the away point and to the to point.
+        double ad = Math.hypot(xPosition - waypointX[away], yPosition - waypointY[away]);
+        double td = Math.hypot(waypointX[i] - xPosition, waypointY[i] - yPosition);
         if (ad < td)
             // If the intersection is closer to the away point.
-            motionProfile.processAccelerate(speeds, ad, ((GeneralWaypoint) intersection.taggedPoint).getMovementSpeed(), ((GeneralWaypoint) intersection.taggedPoint).getTurnSpeed());
+            motionProfile.processAccelerate(speeds, ad, movementSpeeds[i], turnSpeeds[i]);
         else
             // If the intersection is closer to the to point.
-            motionProfile.processDecelerate(speeds, td, ((GeneralWaypoint) intersection.taggedPoint).getMovementSpeed(), ((GeneralWaypoint) intersection.taggedPoint).getTurnSpeed());
+            motionProfile.processDecelerate(speeds, td, movementSpeeds[i], turnSpeeds[i]);
+    }
+
+    /**
+     * Compiles the waypoints of this path into the arrays used by the follower.
+     */
+    private void compile() {
+        int size = size();
+        waypointX = new double[size];
+        waypointY = new double[size];
+        followDistances = new double[size];
+        movementSpeeds = new double[size];
+        turnSpeeds = new double[size];
+        pointTurns = new boolean[size];
+        awayIndices = new int[size];
+        directionX = new double[size];
+        directionY = new double[size];
+        segmentLengths = new double[size];
+        cumulativeDistances = new double[size];
+        int awayIndex = 0;
+        for (int i = 0; i < size; i++) {
+            Waypoint waypoint = get(i);
+            waypointX[i] = waypoint.getPose().getX();
+            waypointY[i] = waypoint.getPose().getY();
+            followDistances[i] = waypoint.getFollowDistance();
+            pointTurns[i] = waypoint instanceof PointTurnWaypoint;
+            if (waypoint instanceof GeneralWaypoint) {
+                movementSpeeds[i] = ((GeneralWaypoint) waypoint).getMovementSpeed();
+                turnSpeeds[i] = ((GeneralWaypoint) waypoint).getTurnSpeed();
+            }
+            if (i == 0)
+                continue;
+            // The closest start or point turn waypoint before this one.
+            awayIndices[i] = awayIndex;
+            if (pointTurns[i])
+                awayIndex = i;
+            // Segment geometry.
+            double dx = waypointX[i] - waypointX[i - 1];
+            double dy = waypointY[i] - waypointY[i - 1];
+            segmentLengths[i] = Math.hypot(dx, dy);
+            if (segmentLengths[i] > 0) {
+                directionX[i] = dx / segmentLengths[i];
+                directionY[i] = dy / segmentLengths[i];
+            }
+            cumulativeDistances[i] = cumulativeDistances[i - 1] + segmentLengths[i];
+        }
     }
 
     /**
@@ -941,13 +1169,15 @@ public class Path extends ArrayList<Waypoint> {
 
     /**
      * This private class is used to store additional information associated with an intersection.
+     * Instances are reused between loops, so they are set instead of constructed.
      *
-     * @version 1.0
+     * @version 1.1
      */
     private static class TaggedIntersection {
 
         // Location of the intersection.
-        public Translation2d intersection;
+        public double x;
+        public double y;
 
         // Waypoint associated with the intersection.
         public Waypoint taggedPoint;
@@ -956,14 +1186,16 @@ public class Path extends ArrayList<Waypoint> {
         public int waypointIndex;
 
         /**
-         * Constructs a TaggedIntersection object with the given values.
+         * Sets this TaggedIntersection to the given values.
          *
-         * @param intersection  Location of the intersection.
+         * @param x             X location of the intersection.
+         * @param y             Y location of the intersection.
          * @param taggedPoint   Waypoint associated with the intersection.
          * @param waypointIndex The associated waypoint's index in the path.
          */
-        public TaggedIntersection(Translation2d intersection, Waypoint taggedPoint, int waypointIndex) {
-            this.intersection = intersection;
+        public void set(double x, double y, Waypoint taggedPoint, int waypointIndex) {
+            this.x = x;
+            this.y = y;
             this.taggedPoint = taggedPoint;
             this.waypointIndex = waypointIndex;
         }
@@ -3,8 +3,6 @@ package com.seattlesolvers.solverslib.purepursuit;
 import com.seattlesolvers.solverslib.geometry.Translation2d;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -50,6 +48,20 @@ public final class PurePursuitUtil {
         return true;
     }
 
+    /**
+     * Calculates if a point is further along a line then another point, without allocating.
+     *
+     * @see #isInFront(Translation2d, Translation2d, Translation2d, Translation2d)
+     */
+    public static boolean isInFront(double lineX1, double lineY1, double lineX2, double lineY2,
+                                    double x1, double y1, double x2, double y2) {
+        if (lineX1 < lineX2 && x1 < x2)
+            return false;
+        if (lineY1 < lineY2 && y1 < y2)
+            return false;
+        return true;
+    }
+
     /**
      * Calculates whether or not two points are equal within a margin of error.
      *
@@ -65,6 +77,18 @@ public final class PurePursuitUtil {
         return false;
     }
 
+    /**
+     * Calculates whether or not two points are equal within a margin of error, without allocating.
+     *
+     * @see #positionEqualsWithBuffer(Translation2d, Translation2d, double)
+     */
+    public static boolean positionEqualsWithBuffer(double x1, double y1, double x2, double y2, double buffer) {
+        if (x1 - buffer < x2 && x1 + buffer > x2)
+            if (y1 - buffer < y2 && y1 + buffer > y2)
+                return true;
+        return false;
+    }
+
     /**
      * Calculates whether or not two angles are equal within a margin of error.
      *
@@ -92,12 +116,34 @@ public final class PurePursuitUtil {
      * @return A double array containing raw motor powers. a[0] is strafe power, a[1] is vertical power and a[2] is turn power.
      */
     public static double[] moveToPosition(double cx, double cy, double ca, double tx, double ty, double ta, boolean turnOnly) {
+        double[] rawMotorPowers = new double[3];
+        moveToPosition(cx, cy, ca, tx, ty, ta, turnOnly, rawMotorPowers);
+        return rawMotorPowers;
+    }
 
-        double[] rawMotorPowers;
+    /**
+     * Takes the robot's current position and rotation and calculates the motor powers for the robot to move to the target position.
+     * This is the same as {@link #moveToPosition(double, double, double, double, double, double, boolean)}, but writes the powers
+     * into the given array instead of allocating a new one.
+     *
+     * @param cx             Robot's current X position.
+     * @param cy             Robot's current Y position.
+     * @param ca             Robot's current rotation (angle).
+     * @param tx             Target X position.
+     * @param ty             Target Y position.
+     * @param ta             Target rotation (angle).
+     * @param turnOnly       True if the robot should only turn.
+     * @param rawMotorPowers Array of length 3 to write the raw motor powers into. a[0] is strafe power, a[1] is vertical power and a[2] is turn power.
+     */
+    public static void moveToPosition(double cx, double cy, double ca, double tx, double ty, double ta, boolean turnOnly, double[] rawMotorPowers) {
 
-        if (turnOnly)
+        if (turnOnly) {
             // If turnOnly is true, only return a turn power.
-            return new double[]{0, 0, angleWrap(ca + ta) / Math.PI};
+            rawMotorPowers[0] = 0;
+            rawMotorPowers[1] = 0;
+            rawMotorPowers[2] = angleWrap(ca + ta) / Math.PI;
+            return;
+        }
 
 
         double absoluteXToPosition = tx - cx;
@@ -115,14 +161,10 @@ public final class PurePursuitUtil {
         double powerY = relativeYToPosition / (Math.abs(relativeXToPosition) + Math.abs(relativeYToPosition));
         double powerTurn = angleWrap(ca + ta) / Math.PI;
 
-        rawMotorPowers = new double[3];
-
         // The x and y powers need to be swapped and have their signs flipped.
         rawMotorPowers[0] = powerX;
         rawMotorPowers[1] = powerY;
         rawMotorPowers[2] = powerTurn;
-
-        return rawMotorPowers;
     }
 
     /**
@@ -135,12 +177,37 @@ public final class PurePursuitUtil {
      * @return A list containing all point where the line and circle intersect.
      */
     public static List<Translation2d> lineCircleIntersection(Translation2d circleCenter, double radius, Translation2d linePoint1, Translation2d linePoint2) {
+        double[] points = new double[4];
+        int count = lineCircleIntersection(circleCenter.getX(), circleCenter.getY(), radius,
+                linePoint1.getX(), linePoint1.getY(), linePoint2.getX(), linePoint2.getY(), points);
+
+        List<Translation2d> boundedPoints = new ArrayList<Translation2d>(count);
+        for (int i = 0; i < count; i++)
+            boundedPoints.add(new Translation2d(points[2 * i], points[2 * i + 1]));
+        return boundedPoints;
+    }
+
+    /**
+     * This method finds points where a line intersects with a circle, without allocating.
+     *
+     * @param circleX Center x of the circle.
+     * @param circleY Center y of the circle.
+     * @param radius  Radius of the circle.
+     * @param x1      X of one of the line's end points.
+     * @param y1      Y of one of the line's end points.
+     * @param x2      X of the other end point of the line.
+     * @param y2      Y of the other end point of the line.
+     * @param points  Array of length 4 to write the intersections into, as x0, y0, x1, y1.
+     * @return The number of intersections written, between 0 and 2.
+     */
+    public static int lineCircleIntersection(double circleX, double circleY, double radius,
+                                             double x1, double y1, double x2, double y2, double[] points) {
         // This method was lifted from Team 11115 Gluten Free's code.
 
-        double baX = linePoint2.getX() - linePoint1.getX();
-        double baY = linePoint2.getY() - linePoint1.getY();
-        double caX = circleCenter.getX() - linePoint1.getX();
-        double caY = circleCenter.getY() - linePoint1.getY();
+        double baX = x2 - x1;
+        double baY = y2 - y1;
+        double caX = circleX - x1;
+        double caY = circleY - y1;
 
         double a = baX * baX + baY * baY;
         double bBy2 = baX * caX + baY * caY;
@@ -151,41 +218,33 @@ public final class PurePursuitUtil {
 
         double disc = pBy2 * pBy2 - q;
         if (disc < 0) {
-            return Collections.emptyList();
+            return 0;
         }
 
         double tmpSqrt = Math.sqrt(disc);
         double abScalingFactor1 = -pBy2 + tmpSqrt;
         double abScalingFactor2 = -pBy2 - tmpSqrt;
 
-        List<Translation2d> allPoints = null;
-
-        Translation2d p1 = new Translation2d(linePoint1.getX() - baX * abScalingFactor1, linePoint1.getY() - baY * abScalingFactor1);
-        if (disc == 0) {
-            allPoints = Collections.singletonList(p1);
-        }
-
-        if (allPoints == null) {
-            Translation2d p2 = new Translation2d(linePoint1.getX() - baX * abScalingFactor2, linePoint1.getY() - baY * abScalingFactor2);
-            allPoints = Arrays.asList(p1, p2);
-        }
-
-        double maxX = Math.max(linePoint1.getX(), linePoint2.getX());
-        double maxY = Math.max(linePoint1.getY(), linePoint2.getY());
-        double minX = Math.min(linePoint1.getX(), linePoint2.getX());
-        double minY = Math.min(linePoint1.getY(), linePoint2.getY());
-
-        List<Translation2d> boundedPoints = new ArrayList<Translation2d>();
-
-        for (Translation2d point : allPoints) {
-
-            if (point.getX() <= maxX && point.getX() >= minX)
-                if (point.getY() <= maxY && point.getY() >= minY)
-                    boundedPoints.add(point);
-
+        double maxX = Math.max(x1, x2);
+        double maxY = Math.max(y1, y2);
+        double minX = Math.min(x1, x2);
+        double minY = Math.min(y1, y2);
+
+        int count = 0;
+        for (int i = 0; i < (disc == 0 ? 1 : 2); i++) {
+            double scalingFactor = i == 0 ? abScalingFactor1 : abScalingFactor2;
+            double x = x1 - baX * scalingFactor;
+            double y = y1 - baY * scalingFactor;
+
+            if (x <= maxX && x >= minX)
+                if (y <= maxY && y >= minY) {
+                    points[2 * count] = x;
+                    points[2 * count + 1] = y;
+                    count++;
+                }
         }
 
-        return boundedPoints;
+        return count;
     }
 
 }
@@ -0,0 +1,152 @@
+package com.seattlesolvers.solverslib.spline;
+
+/**
+ * Maps between the parameter t of a {@link Spline} and the distance traveled along it.
+ * <p>
+ * The distance is integrated once, at construction, over evenly spaced values of t and then
+ * inverted into a second table over evenly spaced distances. Both lookups index straight into
+ * a primitive array, then refine the value within its segment with a fixed number of spline
+ * evaluations, so they take constant time.
+ */
+public class ArcLengthTable {
+    // Gauss-Legendre nodes and weights on [-1, 1], exact for polynomials up to degree 5.
+    private static final double[] kNodes = {-Math.sqrt(0.6), 0.0, Math.sqrt(0.6)};
+    private static final double[] kWeights = {5.0 / 9.0, 8.0 / 9.0, 5.0 / 9.0};
+
+    private final Spline m_spline;
+    private final int m_segments;
+    private final double m_length;
+
+    // The distance at t = i / segments.
+    private final double[] m_distances;
+
+    // The t at distance = i / segments * length.
+    private final double[] m_parameters;
+
+    /**
+     * Creates a table for the given spline, with 64 segments.
+     *
+     * @param spline The spline.
+     */
+    public ArcLengthTable(Spline spline) {
+        this(spline, 64);
+    }
+
+    /**
+     * Creates a table for the given spline.
+     *
+     * @param spline   The spline.
+     * @param segments The number of segments in each table. More segments are more accurate,
+     *                 at the cost of memory and construction time.
+     */
+    public ArcLengthTable(Spline spline, int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("There must be at least one segment.");
+        }
+        m_spline = spline;
+        m_segments = segments;
+
+        m_distances = new double[segments + 1];
+        for (int i = 0; i < segments; i++) {
+            m_distances[i + 1] = m_distances[i] + integrate((double) i / segments, (double) (i + 1) / segments);
+        }
+        m_length = m_distances[segments];
+
+        m_parameters = new double[segments + 1];
+        int index = 0;
+        for (int i = 0; i <= segments; i++) {
+            double distance = m_length * i / segments;
+            while (index < segments - 1 && m_distances[index + 1] < distance) {
+                index++;
+            }
+            double span = m_distances[index + 1] - m_distances[index];
+            double fraction = span > 1E-12 ? (distance - m_distances[index]) / span : 0.0;
+            m_parameters[i] = (index + Math.min(Math.max(fraction, 0.0), 1.0)) / segments;
+        }
+    }
+
+    /**
+     * Integrates the speed of the spline between two values of t.
+     */
+    @SuppressWarnings("ParameterName")
+    private double integrate(double t0, double t1) {
+        double half = (t1 - t0) / 2;
+        double mid = (t1 + t0) / 2;
+        double sum = 0.0;
+        for (int i = 0; i < kNodes.length; i++) {
+            double t = mid + half * kNodes[i];
+            sum += kWeights[i] * Math.hypot(m_spline.getDx(t), m_spline.getDy(t));
+        }
+        return sum * half;
+    }
+
+    /**
+     * Returns the spline of this table.
+     *
+     * @return The spline.
+     */
+    public Spline getSpline() {
+        return m_spline;
+    }
+
+    /**
+     * Returns the total length of the spline.
+     *
+     * @return The length of the spline.
+     */
+    public double getLength() {
+        return m_length;
+    }
+
+    /**
+     * Returns the distance along the spline at the given t.
+     *
+     * @param t The point t, clamped to [0, 1].
+     * @return The distance from the start of the spline.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getDistance(double t) {
+        t = Math.min(Math.max(t, 0.0), 1.0);
+        int index = Math.min((int) (t * m_segments), m_segments - 1);
+        return m_distances[index] + integrate((double) index / m_segments, t);
+    }
+
+    /**
+     * Returns the t at the given distance along the spline.
+     *
+     * @param distance The distance from the start of the spline, clamped to [0, length].
+     * @return The point t.
+     */
+    public double getParameter(double distance) {
+        if (m_length < 1E-12) {
+            return 0.0;
+        }
+        double t = lookup(m_parameters, distance / m_length);
+
+        // One Newton step on the distance, since the table is only linear between entries.
+        double speed = Math.hypot(m_spline.getDx(t), m_spline.getDy(t));
+        if (speed > 1E-12 && distance > 0.0 && distance < m_length) {
+            t = Math.min(Math.max(t - (getDistance(t) - distance) / speed, 0.0), 1.0);
+        }
+        return t;
+    }
+
+    /**
+     * Returns the point at the given distance along the spline.
+     *
+     * @param distance The distance from the start of the spline.
+     * @return The point at that distance.
+     */
+    public PoseWithCurvature getPoint(double distance) {
+        return m_spline.getPoint(getParameter(distance));
+    }
+
+    /**
+     * Linearly interpolates a table with evenly spaced entries over [0, 1].
+     */
+    private double lookup(double[] table, double fraction) {
+        double position = Math.min(Math.max(fraction, 0.0), 1.0) * m_segments;
+        int index = Math.min((int) position, m_segments - 1);
+        return table[index] + (table[index + 1] - table[index]) * (position - index);
+    }
+}
@@ -31,6 +31,45 @@ public abstract class Spline {
         m_degree = degree;
     }
 
+    // Polynomial coefficients in primitive arrays, highest power first, so that points can
+    // be evaluated with Horner's method instead of building a matrix for every point. They are
+    // copied from getCoefficients() on first use.
+    private Coefficients m_cache;
+
+    private static final class Coefficients {
+        final double[] x;
+        final double[] y;
+        final double[] dx;
+        final double[] dy;
+        final double[] ddx;
+        final double[] ddy;
+
+        Coefficients(SimpleMatrix coefficients, int degree) {
+            x = new double[degree + 1];
+            y = new double[degree + 1];
+            dx = new double[degree];
+            dy = new double[degree];
+            ddx = new double[degree - 1];
+            ddy = new double[degree - 1];
+
+            // Column i of the coefficients matrix is the term with power (degree - i). The
+            // derivative rows keep the same columns, so the last column of the first derivative
+            // and the last two columns of the second derivative are always zero and dropped here.
+            for (int i = 0; i <= degree; i++) {
+                x[i] = coefficients.get(0, i);
+                y[i] = coefficients.get(1, i);
+            }
+            for (int i = 0; i < degree; i++) {
+                dx[i] = coefficients.get(2, i);
+                dy[i] = coefficients.get(3, i);
+            }
+            for (int i = 0; i < degree - 1; i++) {
+                ddx[i] = coefficients.get(4, i);
+                ddy[i] = coefficients.get(5, i);
+            }
+        }
+    }
+
     /**
      * Returns the coefficients of the spline.
      *
@@ -39,56 +78,131 @@ public abstract class Spline {
     protected abstract SimpleMatrix getCoefficients();
 
     /**
-     * Gets the pose and curvature at some point t on the spline.
+     * Returns the coefficients in primitive arrays, copying them from {@link #getCoefficients()}
+     * on first use. The arrays are immutable once published, so a spline shared between threads
+     * at worst copies them more than once.
+     */
+    private Coefficients coefficients() {
+        Coefficients cache = m_cache;
+        if (cache == null) {
+            cache = new Coefficients(getCoefficients(), m_degree);
+            m_cache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Evaluates a polynomial with Horner's method.
+     *
+     * @param coefficients The coefficients, highest power first.
+     * @param t            The point t.
+     * @return The value of the polynomial at t.
+     */
+    @SuppressWarnings("ParameterName")
+    private static double horner(double[] coefficients, double t) {
+        double result = coefficients[0];
+        for (int i = 1; i < coefficients.length; i++) {
+            result = result * t + coefficients[i];
+        }
+        return result;
+    }
+
+    /**
+     * Gets the x position at some point t on the spline.
      *
      * @param t The point t
-     * @return The pose and curvature at that point.
+     * @return The x position at that point.
      */
     @SuppressWarnings("ParameterName")
-    public PoseWithCurvature getPoint(double t) {
-        SimpleMatrix polynomialBases = new SimpleMatrix(m_degree + 1, 1);
-        final SimpleMatrix coefficients = getCoefficients();
+    public double getX(double t) {
+        return horner(coefficients().x, t);
+    }
 
-        // Populate the polynomial bases.
-        for (int i = 0; i <= m_degree; i++) {
-            polynomialBases.set(i, 0, Math.pow(t, m_degree - i));
-        }
+    /**
+     * Gets the y position at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The y position at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getY(double t) {
+        return horner(coefficients().y, t);
+    }
 
-        // This simply multiplies by the coefficients. We need to divide out t some
-        // n number of times where n is the derivative we want to take.
-        SimpleMatrix combined = coefficients.mult(polynomialBases);
-
-        // Get x and y
-        final double x = combined.get(0, 0);
-        final double y = combined.get(1, 0);
-
-        double dx;
-        double dy;
-        double ddx;
-        double ddy;
-
-        if (t == 0) {
-            dx = coefficients.get(2, m_degree - 1);
-            dy = coefficients.get(3, m_degree - 1);
-            ddx = coefficients.get(4, m_degree - 2);
-            ddy = coefficients.get(5, m_degree - 2);
-        } else {
-            // Divide out t once for first derivative.
-            dx = combined.get(2, 0) / t;
-            dy = combined.get(3, 0) / t;
-
-            // Divide out t twice for second derivative.
-            ddx = combined.get(4, 0) / t / t;
-            ddy = combined.get(5, 0) / t / t;
-        }
+    /**
+     * Gets the first derivative of x at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The first derivative of x at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getDx(double t) {
+        return horner(coefficients().dx, t);
+    }
+
+    /**
+     * Gets the first derivative of y at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The first derivative of y at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getDy(double t) {
+        return horner(coefficients().dy, t);
+    }
+
+    /**
+     * Gets the second derivative of x at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The second derivative of x at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getDdx(double t) {
+        return horner(coefficients().ddx, t);
+    }
+
+    /**
+     * Gets the second derivative of y at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The second derivative of y at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getDdy(double t) {
+        return horner(coefficients().ddy, t);
+    }
 
-        // Find the curvature.
-        final double curvature =
-                (dx * ddy - ddx * dy) / ((dx * dx + dy * dy) * Math.hypot(dx, dy));
+    /**
+     * Gets the curvature at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The curvature at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public double getCurvature(double t) {
+        return curvature(getDx(t), getDy(t), getDdx(t), getDdy(t));
+    }
+
+    @SuppressWarnings("ParameterName")
+    private static double curvature(double dx, double dy, double ddx, double ddy) {
+        return (dx * ddy - ddx * dy) / ((dx * dx + dy * dy) * Math.hypot(dx, dy));
+    }
+
+    /**
+     * Gets the pose and curvature at some point t on the spline.
+     *
+     * @param t The point t
+     * @return The pose and curvature at that point.
+     */
+    @SuppressWarnings("ParameterName")
+    public PoseWithCurvature getPoint(double t) {
+        final double dx = getDx(t);
+        final double dy = getDy(t);
 
         return new PoseWithCurvature(
-                new Pose2d(x, y, new Rotation2d(dx, dy)),
-                curvature
+                new Pose2d(getX(t), getY(t), new Rotation2d(dx, dy)),
+                curvature(dx, dy, getDdx(t), getDdy(t))
         );
     }
 
@@ -136,7 +136,7 @@ public final class SplineParameterizer {
                 stack.addFirst(new StackContents((current.t0 + current.t1) / 2, current.t1));
                 stack.addFirst(new StackContents(current.t0, (current.t0 + current.t1) / 2));
             } else {
-                splinePoints.add(spline.getPoint(current.t1));
+                splinePoints.add(end);
             }
 
             iterations++;
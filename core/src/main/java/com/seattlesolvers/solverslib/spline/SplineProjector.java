@@ -0,0 +1,210 @@
+package com.seattlesolvers.solverslib.spline;
+
+/**
+ * Finds the closest point on a path of splines to the robot, once per loop.
+ * <p>
+ * The projector remembers the spline and parameter t of the last projection and starts
+ * from there, refining it with a few Newton iterations on the distance to the given point.
+ * Since the robot only moves a little between loops, this usually converges in one or
+ * two iterations, and the number of iterations is capped so each query takes a constant,
+ * small amount of time. When the robot could be anywhere on the path (for example, when
+ * a new path is started), call {@link #reset(double, double)} first to search the whole path.
+ *
+ * <pre>{@code
+ * SplineProjector projector = new SplineProjector(splines);
+ * projector.reset(pose.getX(), pose.getY());
+ * // every loop:
+ * double distanceAlongPath = projector.project(pose.getX(), pose.getY());
+ * }</pre>
+ */
+public class SplineProjector {
+    private static final int kMaxIterations = 4;
+    private static final int kSearchSamples = 16;
+
+    private final ArcLengthTable[] m_tables;
+
+    // The distance along the path at the start of each spline.
+    private final double[] m_startDistances;
+    private final double m_length;
+
+    private int m_index;
+    private double m_t;
+
+    /**
+     * Creates a projector for a path made of the given splines, in order.
+     *
+     * @param splines The splines of the path.
+     */
+    public SplineProjector(Spline... splines) {
+        this(toTables(splines));
+    }
+
+    /**
+     * Creates a projector for a path made of the splines of the given tables, in order.
+     *
+     * @param tables The arc length tables of the splines of the path.
+     */
+    public SplineProjector(ArcLengthTable... tables) {
+        if (tables.length == 0) {
+            throw new IllegalArgumentException("The path must have at least one spline.");
+        }
+        m_tables = tables;
+        m_startDistances = new double[tables.length];
+        double length = 0.0;
+        for (int i = 0; i < tables.length; i++) {
+            m_startDistances[i] = length;
+            length += tables[i].getLength();
+        }
+        m_length = length;
+    }
+
+    private static ArcLengthTable[] toTables(Spline[] splines) {
+        ArcLengthTable[] tables = new ArcLengthTable[splines.length];
+        for (int i = 0; i < splines.length; i++) {
+            tables[i] = new ArcLengthTable(splines[i]);
+        }
+        return tables;
+    }
+
+    /**
+     * Searches the whole path for the closest point to the given point, and starts
+     * the following projections from there. This takes time proportional to the
+     * number of splines.
+     *
+     * @param x The x position of the point.
+     * @param y The y position of the point.
+     * @return The distance along the path of the closest point.
+     */
+    public double reset(double x, double y) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < m_tables.length; i++) {
+            Spline spline = m_tables[i].getSpline();
+            for (int j = 0; j <= kSearchSamples; j++) {
+                double t = (double) j / kSearchSamples;
+                double distance = Math.hypot(spline.getX(t) - x, spline.getY(t) - y);
+                if (distance < best) {
+                    best = distance;
+                    m_index = i;
+                    m_t = t;
+                }
+            }
+        }
+        return project(x, y);
+    }
+
+    /**
+     * Finds the closest point on the path to the given point, starting from the last one.
+     *
+     * @param x The x position of the point.
+     * @param y The y position of the point.
+     * @return The distance along the path of the closest point.
+     */
+    @SuppressWarnings("LocalVariableName")
+    public double project(double x, double y) {
+        for (int i = 0; i < kMaxIterations; i++) {
+            Spline spline = m_tables[m_index].getSpline();
+            double ex = spline.getX(m_t) - x;
+            double ey = spline.getY(m_t) - y;
+            double dx = spline.getDx(m_t);
+            double dy = spline.getDy(m_t);
+
+            // Newton's method on the derivative of the squared distance. Far from the path,
+            // the second derivative can be negative, so fall back to Gauss-Newton there.
+            double gradient = ex * dx + ey * dy;
+            double hessian = dx * dx + dy * dy;
+            double newtonHessian = hessian + ex * spline.getDdx(m_t) + ey * spline.getDdy(m_t);
+            if (newtonHessian > 1E-12) {
+                hessian = newtonHessian;
+            }
+            if (hessian < 1E-12) {
+                break;
+            }
+
+            double step = gradient / hessian;
+            m_t -= step;
+
+            // Continue onto the neighboring spline when stepping off the end of this one.
+            if (m_t > 1.0) {
+                if (m_index < m_tables.length - 1) {
+                    m_index++;
+                    m_t = 0.0;
+                    continue;
+                }
+                m_t = 1.0;
+                break;
+            } else if (m_t < 0.0) {
+                if (m_index > 0) {
+                    m_index--;
+                    m_t = 1.0;
+                    continue;
+                }
+                m_t = 0.0;
+                break;
+            }
+
+            if (Math.abs(step) < 1E-9) {
+                break;
+            }
+        }
+        return getDistance();
+    }
+
+    /**
+     * Returns the index of the spline of the last projection.
+     *
+     * @return The index of the spline.
+     */
+    public int getSplineIndex() {
+        return m_index;
+    }
+
+    /**
+     * Returns the parameter t on its spline of the last projection.
+     *
+     * @return The point t.
+     */
+    public double getParameter() {
+        return m_t;
+    }
+
+    /**
+     * Returns the distance along the path of the last projection.
+     *
+     * @return The distance from the start of the path.
+     */
+    public double getDistance() {
+        return m_startDistances[m_index] + m_tables[m_index].getDistance(m_t);
+    }
+
+    /**
+     * Returns the total length of the path.
+     *
+     * @return The length of the path.
+     */
+    public double getLength() {
+        return m_length;
+    }
+
+    /**
+     * Returns the point at the given distance along the path.
+     *
+     * @param distance The distance from the start of the path, clamped to the path.
+     * @return The point at that distance.
+     */
+    public PoseWithCurvature getPoint(double distance) {
+        int index = 0;
+        while (index < m_tables.length - 1 && m_startDistances[index + 1] <= distance) {
+            index++;
+        }
+        return m_tables[index].getPoint(distance - m_startDistances[index]);
+    }
+
+    /**
+     * Returns the point of the last projection.
+     *
+     * @return The closest point on the path.
+     */
+    public PoseWithCurvature getPoint() {
+        return m_tables[m_index].getSpline().getPoint(m_t);
+    }
+}
@@ -0,0 +1,198 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.spline.Spline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Generates trajectories in the background, so that an autonomous can queue all of its
+ * trajectories at the start of init and keep initializing while they are generated.
+ * <p>
+ * Independent trajectories are generated in parallel on a fork-join pool, and the
+ * splines inside each trajectory are parameterized in parallel on the same pool.
+ * Call {@link #awaitAll()} before the trajectories are needed, usually at the start
+ * of the match.
+ *
+ * <pre>{@code
+ * AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator();
+ * CompletableFuture<Trajectory> toBasket = generator.generateTrajectory(waypoints, config);
+ * // ... the rest of init
+ * generator.awaitAll();
+ * Trajectory trajectory = toBasket.join();
+ * }</pre>
+ */
+@RequiresApi(api = Build.VERSION_CODES.N)
+public class AsyncTrajectoryGenerator {
+    private final ForkJoinPool m_pool;
+    private final boolean m_ownsPool;
+    private final List<CompletableFuture<Trajectory>> m_pending = new ArrayList<>();
+
+    /**
+     * Creates a generator that uses one thread per available core.
+     */
+    public AsyncTrajectoryGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a generator with its own pool of the given parallelism.
+     *
+     * @param parallelism The number of threads to generate trajectories on.
+     */
+    public AsyncTrajectoryGenerator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Creates a generator that runs on an existing pool. The pool is not shut down
+     * by {@link #shutdown()}.
+     *
+     * @param pool The pool to generate trajectories on.
+     */
+    public AsyncTrajectoryGenerator(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    private AsyncTrajectoryGenerator(ForkJoinPool pool, boolean ownsPool) {
+        m_pool = pool;
+        m_ownsPool = ownsPool;
+    }
+
+    /**
+     * Generates a trajectory from the given control vectors and config in the background.
+     *
+     * @param initial           The initial control vector.
+     * @param interiorWaypoints The interior waypoints.
+     * @param end               The ending control vector.
+     * @param config            The configuration for the trajectory.
+     * @return A future that completes with the generated trajectory.
+     * @see TrajectoryGenerator#generateTrajectory(Spline.ControlVector, List, Spline.ControlVector, TrajectoryConfig)
+     */
+    public CompletableFuture<Trajectory> generateTrajectory(
+            Spline.ControlVector initial,
+            List<Translation2d> interiorWaypoints,
+            Spline.ControlVector end,
+            TrajectoryConfig config
+    ) {
+        return submit(() -> TrajectoryGenerator.generateTrajectory(
+                initial, interiorWaypoints, end, config, m_pool));
+    }
+
+    /**
+     * Generates a trajectory from the given waypoints and config in the background.
+     *
+     * @param start             The starting pose.
+     * @param interiorWaypoints The interior waypoints.
+     * @param end               The ending pose.
+     * @param config            The configuration for the trajectory.
+     * @return A future that completes with the generated trajectory.
+     * @see TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)
+     */
+    public CompletableFuture<Trajectory> generateTrajectory(
+            Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end,
+            TrajectoryConfig config
+    ) {
+        return submit(() -> TrajectoryGenerator.generateTrajectory(
+                start, interiorWaypoints, end, config, m_pool));
+    }
+
+    /**
+     * Generates a trajectory from the given quintic control vectors and config in the background.
+     *
+     * @param controlVectors List of quintic control vectors.
+     * @param config         The configuration for the trajectory.
+     * @return A future that completes with the generated trajectory.
+     * @see TrajectoryGenerator#generateTrajectory(TrajectoryGenerator.ControlVectorList, TrajectoryConfig)
+     */
+    public CompletableFuture<Trajectory> generateTrajectory(
+            TrajectoryGenerator.ControlVectorList controlVectors,
+            TrajectoryConfig config
+    ) {
+        return submit(() -> TrajectoryGenerator.generateTrajectory(controlVectors, config, m_pool));
+    }
+
+    /**
+     * Generates a trajectory from the given waypoints and config in the background.
+     *
+     * @param waypoints List of waypoints.
+     * @param config    The configuration for the trajectory.
+     * @return A future that completes with the generated trajectory.
+     * @see TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)
+     */
+    public CompletableFuture<Trajectory> generateTrajectory(List<Pose2d> waypoints, TrajectoryConfig config) {
+        return submit(() -> TrajectoryGenerator.generateTrajectory(waypoints, config, m_pool));
+    }
+
+    private CompletableFuture<Trajectory> submit(Supplier<Trajectory> generator) {
+        CompletableFuture<Trajectory> future = CompletableFuture.supplyAsync(generator, m_pool);
+        synchronized (m_pending) {
+            m_pending.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Blocks until every trajectory submitted so far has been generated.
+     *
+     * @throws CompletionException if any of the trajectories failed to generate
+     */
+    public void awaitAll() {
+        allOf().join();
+    }
+
+    /**
+     * Blocks until every trajectory submitted so far has been generated, or the timeout passes.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return True if all trajectories were generated in time.
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public boolean awaitAll(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            allOf().get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * @return True if every trajectory submitted so far has been generated.
+     */
+    public boolean isDone() {
+        return allOf().isDone();
+    }
+
+    private CompletableFuture<Void> allOf() {
+        synchronized (m_pending) {
+            return CompletableFuture.allOf(m_pending.toArray(new CompletableFuture[0]));
+        }
+    }
+
+    /**
+     * Shuts down the pool if it was created by this generator. Trajectories that are
+     * already being generated will still finish.
+     */
+    public void shutdown() {
+        if (m_ownsPool) {
+            m_pool.shutdown();
+        }
+    }
+}
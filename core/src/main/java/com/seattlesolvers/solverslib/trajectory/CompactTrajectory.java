@@ -0,0 +1,233 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A time-parameterized trajectory stored as parallel primitive arrays instead of a list
+ * of {@link Trajectory.State} objects. Each sample takes seven doubles rather than
+ * a state, a pose, a translation and a rotation, which keeps long trajectories small and
+ * contiguous in memory.
+ * <p>
+ * Use {@link #fromTrajectory(Trajectory)} and {@link #toTrajectory()} to convert to and
+ * from a regular trajectory, {@link #getStates()} for a read-only list view, and
+ * {@link TrajectorySampler} to sample it without allocating.
+ */
+public class CompactTrajectory {
+    private final double[] m_timeSeconds;
+    private final double[] m_velocityMetersPerSecond;
+    private final double[] m_accelerationMetersPerSecondSq;
+    private final double[] m_xMeters;
+    private final double[] m_yMeters;
+    private final double[] m_headingRadians;
+    private final double[] m_curvatureRadPerMeter;
+
+    /**
+     * Constructs a compact trajectory from the given arrays. The arrays are not copied,
+     * and must all be the same, non-zero length.
+     *
+     * @param timeSeconds                   The time of each sample.
+     * @param velocityMetersPerSecond       The velocity of each sample.
+     * @param accelerationMetersPerSecondSq The acceleration of each sample.
+     * @param xMeters                       The x position of each sample.
+     * @param yMeters                       The y position of each sample.
+     * @param headingRadians                The heading of each sample.
+     * @param curvatureRadPerMeter          The curvature of each sample.
+     */
+    public CompactTrajectory(double[] timeSeconds, double[] velocityMetersPerSecond,
+                             double[] accelerationMetersPerSecondSq, double[] xMeters,
+                             double[] yMeters, double[] headingRadians, double[] curvatureRadPerMeter) {
+        int length = timeSeconds.length;
+        if (length == 0
+                || velocityMetersPerSecond.length != length
+                || accelerationMetersPerSecondSq.length != length
+                || xMeters.length != length
+                || yMeters.length != length
+                || headingRadians.length != length
+                || curvatureRadPerMeter.length != length) {
+            throw new IllegalArgumentException(
+                    "There must be at least one state and the arrays must be of equal length.");
+        }
+        m_timeSeconds = timeSeconds;
+        m_velocityMetersPerSecond = velocityMetersPerSecond;
+        m_accelerationMetersPerSecondSq = accelerationMetersPerSecondSq;
+        m_xMeters = xMeters;
+        m_yMeters = yMeters;
+        m_headingRadians = headingRadians;
+        m_curvatureRadPerMeter = curvatureRadPerMeter;
+    }
+
+    /**
+     * Converts a trajectory into its compact form.
+     *
+     * @param trajectory The trajectory to convert.
+     * @return The compact trajectory.
+     */
+    public static CompactTrajectory fromTrajectory(Trajectory trajectory) {
+        List<Trajectory.State> states = trajectory.getStates();
+        int size = states.size();
+
+        double[] time = new double[size];
+        double[] velocity = new double[size];
+        double[] acceleration = new double[size];
+        double[] x = new double[size];
+        double[] y = new double[size];
+        double[] heading = new double[size];
+        double[] curvature = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            Trajectory.State state = states.get(i);
+            time[i] = state.timeSeconds;
+            velocity[i] = state.velocityMetersPerSecond;
+            acceleration[i] = state.accelerationMetersPerSecondSq;
+            x[i] = state.poseMeters.getTranslation().getX();
+            y[i] = state.poseMeters.getTranslation().getY();
+            heading[i] = state.poseMeters.getRotation().getRadians();
+            curvature[i] = state.curvatureRadPerMeter;
+        }
+
+        return new CompactTrajectory(time, velocity, acceleration, x, y, heading, curvature);
+    }
+
+    /**
+     * Converts this compact trajectory back into a regular trajectory.
+     *
+     * @return The trajectory.
+     */
+    public Trajectory toTrajectory() {
+        return new Trajectory(new ArrayList<>(getStates()));
+    }
+
+    /**
+     * Returns a read-only view of the states of this trajectory. Each call to
+     * {@code get} creates a new state.
+     *
+     * @return The states of the trajectory.
+     */
+    public List<Trajectory.State> getStates() {
+        return new AbstractList<Trajectory.State>() {
+            @Override
+            public Trajectory.State get(int index) {
+                return getState(index);
+            }
+
+            @Override
+            public int size() {
+                return CompactTrajectory.this.size();
+            }
+        };
+    }
+
+    /**
+     * Creates the state at the given index.
+     *
+     * @param index The index of the state.
+     * @return The state at that index.
+     */
+    public Trajectory.State getState(int index) {
+        return new Trajectory.State(m_timeSeconds[index], m_velocityMetersPerSecond[index],
+                m_accelerationMetersPerSecondSq[index], getPose(index), m_curvatureRadPerMeter[index]);
+    }
+
+    /**
+     * Creates the pose at the given index.
+     *
+     * @param index The index of the state.
+     * @return The pose at that index.
+     */
+    public Pose2d getPose(int index) {
+        return new Pose2d(m_xMeters[index], m_yMeters[index], new Rotation2d(m_headingRadians[index]));
+    }
+
+    /**
+     * Returns the initial pose of the trajectory.
+     *
+     * @return The initial pose of the trajectory.
+     */
+    public Pose2d getInitialPose() {
+        return getPose(0);
+    }
+
+    /**
+     * Returns the overall duration of the trajectory.
+     *
+     * @return The duration of the trajectory.
+     */
+    public double getTotalTimeSeconds() {
+        return m_timeSeconds[m_timeSeconds.length - 1];
+    }
+
+    /**
+     * Returns the number of states in the trajectory.
+     *
+     * @return The number of states.
+     */
+    public int size() {
+        return m_timeSeconds.length;
+    }
+
+    public double getTime(int index) {
+        return m_timeSeconds[index];
+    }
+
+    public double getVelocity(int index) {
+        return m_velocityMetersPerSecond[index];
+    }
+
+    public double getAcceleration(int index) {
+        return m_accelerationMetersPerSecondSq[index];
+    }
+
+    public double getX(int index) {
+        return m_xMeters[index];
+    }
+
+    public double getY(int index) {
+        return m_yMeters[index];
+    }
+
+    public double getHeading(int index) {
+        return m_headingRadians[index];
+    }
+
+    public double getCurvature(int index) {
+        return m_curvatureRadPerMeter[index];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompactTrajectory)) {
+            return false;
+        }
+        CompactTrajectory other = (CompactTrajectory) obj;
+        return Arrays.equals(m_timeSeconds, other.m_timeSeconds)
+                && Arrays.equals(m_velocityMetersPerSecond, other.m_velocityMetersPerSecond)
+                && Arrays.equals(m_accelerationMetersPerSecondSq, other.m_accelerationMetersPerSecondSq)
+                && Arrays.equals(m_xMeters, other.m_xMeters)
+                && Arrays.equals(m_yMeters, other.m_yMeters)
+                && Arrays.equals(m_headingRadians, other.m_headingRadians)
+                && Arrays.equals(m_curvatureRadPerMeter, other.m_curvatureRadPerMeter);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(m_timeSeconds);
+        result = 31 * result + Arrays.hashCode(m_xMeters);
+        result = 31 * result + Arrays.hashCode(m_yMeters);
+        result = 31 * result + Arrays.hashCode(m_headingRadians);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompactTrajectory - Seconds: %.2f, States: %d", getTotalTimeSeconds(), size());
+    }
+}
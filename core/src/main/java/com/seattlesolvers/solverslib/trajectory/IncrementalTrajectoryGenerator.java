@@ -0,0 +1,398 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Transform2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.spline.PoseWithCurvature;
+import com.seattlesolvers.solverslib.spline.Spline;
+import com.seattlesolvers.solverslib.spline.SplineHelper;
+import com.seattlesolvers.solverslib.spline.SplineParameterizer;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryParameterizer.ConstrainedState;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates a quintic trajectory that can be updated one waypoint at a time. The result
+ * is the same as {@link TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)},
+ * but when a waypoint changes, only the splines that touch it are parameterized again,
+ * and the velocity passes are only re-run over the points whose constraints changed.
+ * This makes it cheap to replan the end of a path on the fly, for example to splice in
+ * a target that moves.
+ *
+ * <pre>{@code
+ * IncrementalTrajectoryGenerator generator = new IncrementalTrajectoryGenerator(waypoints, config);
+ * generator.setWaypoint(waypoints.size() - 1, latestTargetPose);
+ * Trajectory trajectory = generator.getTrajectory();
+ * }</pre>
+ * <p>
+ * Only the {@link TrajectoryConfig.Parameterizer#FORWARD_BACKWARD} parameterizer is supported.
+ */
+public class IncrementalTrajectoryGenerator {
+    private static final Transform2d kFlip = new Transform2d(new Translation2d(), Rotation2d.fromDegrees(180.0));
+
+    private final TrajectoryConfig m_config;
+    private final ArrayList<Pose2d> m_waypoints;
+
+    // The control vectors, flipped if the trajectory is reversed.
+    private Spline.ControlVector[] m_controlVectors;
+
+    // The number of points that each spline adds after the first point of the trajectory.
+    private int[] m_splineSizes;
+    private ArrayList<PoseWithCurvature> m_points;
+
+    // The states after each pass, and the accelerations of the states before
+    // they were changed by the next state in the pass.
+    private List<ConstrainedState> m_forward;
+    private double[] m_forwardMaxAccelerations;
+    private List<ConstrainedState> m_backward;
+    private double[] m_backwardMinAccelerations;
+
+    private Trajectory m_trajectory;
+
+    /**
+     * Generates a trajectory from the given waypoints and config.
+     *
+     * @param waypoints List of waypoints.
+     * @param config    The configuration for the trajectory.
+     * @throws SplineParameterizer.MalformedSplineException if the waypoints form a malformed spline
+     * @throws IllegalArgumentException if the config does not use the forward-backward parameterizer
+     */
+    public IncrementalTrajectoryGenerator(List<Pose2d> waypoints, TrajectoryConfig config) {
+        m_config = requireForwardBackward(config);
+        m_waypoints = new ArrayList<>(waypoints);
+        generate(SplineHelper.getQuinticControlVectorsFromWaypoints(m_waypoints));
+    }
+
+    /**
+     * Generates a trajectory from the given quintic control vectors and config.
+     *
+     * @param controlVectors List of quintic control vectors.
+     * @param config         The configuration for the trajectory.
+     * @throws SplineParameterizer.MalformedSplineException if the control vectors form a malformed spline
+     * @throws IllegalArgumentException if the config does not use the forward-backward parameterizer
+     */
+    public IncrementalTrajectoryGenerator(TrajectoryGenerator.ControlVectorList controlVectors,
+                                          TrajectoryConfig config) {
+        m_config = requireForwardBackward(config);
+        m_waypoints = null;
+        generate(controlVectors);
+    }
+
+    /**
+     * Returns the current trajectory.
+     *
+     * @return The trajectory.
+     */
+    public Trajectory getTrajectory() {
+        return m_trajectory;
+    }
+
+    /**
+     * Returns the current waypoints.
+     *
+     * @return The waypoints.
+     * @throws IllegalStateException if the generator was created from control vectors
+     */
+    public List<Pose2d> getWaypoints() {
+        requireWaypoints();
+        return Collections.unmodifiableList(m_waypoints);
+    }
+
+    /**
+     * Moves one waypoint and updates the trajectory. If the new spline is malformed,
+     * the exception is thrown and the trajectory is left unchanged.
+     *
+     * @param index    The index of the waypoint.
+     * @param waypoint The new waypoint.
+     * @return The updated trajectory.
+     * @throws IllegalStateException if the generator was created from control vectors
+     * @throws SplineParameterizer.MalformedSplineException if the new spline is malformed
+     */
+    public Trajectory setWaypoint(int index, Pose2d waypoint) {
+        requireWaypoints();
+        Pose2d previous = m_waypoints.set(index, waypoint);
+        try {
+            update(SplineHelper.getQuinticControlVectorsFromWaypoints(m_waypoints));
+        } catch (SplineParameterizer.MalformedSplineException e) {
+            m_waypoints.set(index, previous);
+            throw e;
+        }
+        return m_trajectory;
+    }
+
+    /**
+     * Replaces one control vector and updates the trajectory. If the new spline is malformed,
+     * the exception is thrown and the trajectory is left unchanged.
+     *
+     * @param index         The index of the control vector.
+     * @param controlVector The new control vector.
+     * @return The updated trajectory.
+     * @throws IllegalStateException if the generator was created from waypoints
+     * @throws SplineParameterizer.MalformedSplineException if the new spline is malformed
+     */
+    public Trajectory setControlVector(int index, Spline.ControlVector controlVector) {
+        if (m_waypoints != null) {
+            throw new IllegalStateException("This generator was created from waypoints, use setWaypoint instead.");
+        }
+        Spline.ControlVector[] controlVectors = m_controlVectors.clone();
+        controlVectors[index] = prepare(controlVector);
+        updatePrepared(controlVectors);
+        return m_trajectory;
+    }
+
+    private static TrajectoryConfig requireForwardBackward(TrajectoryConfig config) {
+        if (config.getParameterizer() != TrajectoryConfig.Parameterizer.FORWARD_BACKWARD) {
+            throw new IllegalArgumentException("Only the forward-backward parameterizer can be updated incrementally.");
+        }
+        return config;
+    }
+
+    private void requireWaypoints() {
+        if (m_waypoints == null) {
+            throw new IllegalStateException("This generator was created from control vectors.");
+        }
+    }
+
+    /**
+     * Copies a control vector, flipping its orientation if the trajectory is reversed.
+     */
+    private Spline.ControlVector prepare(Spline.ControlVector vector) {
+        Spline.ControlVector newVector = new Spline.ControlVector(vector.x, vector.y);
+        if (m_config.isReversed()) {
+            newVector.x[1] *= -1;
+            newVector.y[1] *= -1;
+        }
+        return newVector;
+    }
+
+    private Spline.ControlVector[] prepare(List<Spline.ControlVector> controlVectors) {
+        Spline.ControlVector[] prepared = new Spline.ControlVector[controlVectors.size()];
+        for (int i = 0; i < prepared.length; i++) {
+            prepared[i] = prepare(controlVectors.get(i));
+        }
+        return prepared;
+    }
+
+    /**
+     * Parameterizes a spline, changing the points back to their original orientation
+     * if the trajectory is reversed.
+     */
+    private List<PoseWithCurvature> parameterize(Spline spline) {
+        List<PoseWithCurvature> points = SplineParameterizer.parameterize(spline);
+        if (m_config.isReversed()) {
+            for (PoseWithCurvature point : points) {
+                flip(point);
+            }
+        }
+        return points;
+    }
+
+    private static void flip(PoseWithCurvature point) {
+        point.poseMeters = point.poseMeters.plus(kFlip);
+        point.curvatureRadPerMeter *= -1;
+    }
+
+    private void generate(List<Spline.ControlVector> controlVectors) {
+        m_controlVectors = prepare(controlVectors);
+        Spline[] splines = SplineHelper.getQuinticSplinesFromControlVectors(m_controlVectors);
+
+        m_splineSizes = new int[splines.length];
+        m_points = new ArrayList<>();
+        PoseWithCurvature start = splines[0].getPoint(0.0);
+        if (m_config.isReversed()) {
+            flip(start);
+        }
+        m_points.add(start);
+        for (int i = 0; i < splines.length; i++) {
+            List<PoseWithCurvature> points = parameterize(splines[i]);
+            m_points.addAll(points.subList(1, points.size()));
+            m_splineSizes[i] = points.size() - 1;
+        }
+
+        reparameterize(0, m_points.size() - 1, 0);
+    }
+
+    private void update(List<Spline.ControlVector> controlVectors) {
+        updatePrepared(prepare(controlVectors));
+    }
+
+    private void updatePrepared(Spline.ControlVector[] controlVectors) {
+        // Find the splines whose control vectors changed. Spline i goes from vector i to i + 1.
+        int firstVector = -1;
+        int lastVector = -1;
+        for (int i = 0; i < controlVectors.length; i++) {
+            if (!Arrays.equals(controlVectors[i].x, m_controlVectors[i].x)
+                    || !Arrays.equals(controlVectors[i].y, m_controlVectors[i].y)) {
+                if (firstVector < 0) {
+                    firstVector = i;
+                }
+                lastVector = i;
+            }
+        }
+        if (firstVector < 0) {
+            return;
+        }
+        int firstSpline = Math.max(firstVector - 1, 0);
+        int lastSpline = Math.min(lastVector, m_splineSizes.length - 1);
+
+        // Parameterize the changed splines before touching any state, so that a
+        // malformed spline leaves the generator unchanged.
+        Spline[] splines = SplineHelper.getQuinticSplinesFromControlVectors(
+                Arrays.copyOfRange(controlVectors, firstSpline, lastSpline + 2));
+        List<PoseWithCurvature> window = new ArrayList<>();
+        if (firstSpline == 0) {
+            PoseWithCurvature start = splines[0].getPoint(0.0);
+            if (m_config.isReversed()) {
+                flip(start);
+            }
+            window.add(start);
+        }
+        int[] splineSizes = m_splineSizes.clone();
+        for (int i = 0; i < splines.length; i++) {
+            List<PoseWithCurvature> points = parameterize(splines[i]);
+            window.addAll(points.subList(1, points.size()));
+            splineSizes[firstSpline + i] = points.size() - 1;
+        }
+
+        // Splice the new points in place of the old ones.
+        int start = firstSpline == 0 ? 0 : 1;
+        for (int i = 0; i < firstSpline; i++) {
+            start += m_splineSizes[i];
+        }
+        int oldWindowSize = firstSpline == 0 ? 1 : 0;
+        for (int i = firstSpline; i <= lastSpline; i++) {
+            oldWindowSize += m_splineSizes[i];
+        }
+
+        ArrayList<PoseWithCurvature> points = new ArrayList<>(
+                m_points.size() - oldWindowSize + window.size());
+        points.addAll(m_points.subList(0, start));
+        points.addAll(window);
+        points.addAll(m_points.subList(start + oldWindowSize, m_points.size()));
+
+        m_controlVectors = controlVectors;
+        m_splineSizes = splineSizes;
+        m_points = points;
+        reparameterize(start, start + window.size() - 1, window.size() - oldWindowSize);
+    }
+
+    /**
+     * Runs the velocity passes of {@link TrajectoryParameterizer} again after the points from
+     * first to last (inclusive) were replaced. The points after them are the old points,
+     * moved by the given shift.
+     * <p>
+     * The forward pass starts at the first changed point, and stops as soon as a state after
+     * the changed points is the same as it was before, because every state after that would be
+     * too. The backward pass then starts at that state, and stops in the same way before the
+     * changed points. Only the distances and the final integration cover the whole trajectory.
+     * The states after the forward pass converged keep their old backward pass, which differs
+     * from running it again only by the rounding of the moved distances.
+     */
+    private void reparameterize(int first, int last, int shift) {
+        final List<TrajectoryConstraint> constraints = m_config.getConstraints();
+        final double maxVelocity = m_config.getMaxVelocity();
+        final double maxAcceleration = m_config.getMaxAcceleration();
+        final boolean reversed = m_config.isReversed();
+        final int size = m_points.size();
+
+        // Forward pass
+        ArrayList<ConstrainedState> forward = new ArrayList<>(size);
+        double[] forwardMaxAccelerations = new double[size];
+        for (int i = 0; i < first; i++) {
+            forward.add(m_forward.get(i));
+            forwardMaxAccelerations[i] = m_forwardMaxAccelerations[i];
+        }
+
+        ConstrainedState predecessor;
+        if (first == 0) {
+            predecessor = new ConstrainedState(m_points.get(0), 0, m_config.getStartVelocity(),
+                    -maxAcceleration, maxAcceleration);
+        } else {
+            predecessor = forward.get(first - 1);
+            predecessor.maxAccelerationMetersPerSecondSq = forwardMaxAccelerations[first - 1];
+        }
+
+        int converged = size;
+        for (int i = first; i < size; i++) {
+            ConstrainedState state = new ConstrainedState();
+            state.pose = m_points.get(i);
+            TrajectoryParameterizer.constrainForward(predecessor, state, constraints,
+                    maxVelocity, maxAcceleration, reversed);
+            forwardMaxAccelerations[i] = state.maxAccelerationMetersPerSecondSq;
+
+            if (i > last && m_forward != null) {
+                ConstrainedState old = m_forward.get(i - shift);
+                if (state.maxVelocityMetersPerSecond == old.maxVelocityMetersPerSecond
+                        && state.minAccelerationMetersPerSecondSq == old.minAccelerationMetersPerSecondSq
+                        && state.maxAccelerationMetersPerSecondSq == m_forwardMaxAccelerations[i - shift]) {
+                    converged = i;
+                    for (int j = i; j < size; j++) {
+                        ConstrainedState reused = m_forward.get(j - shift);
+                        reused.distanceMeters = forward.get(j - 1).distanceMeters
+                                + reused.pose.poseMeters.getTranslation().getDistance(
+                                forward.get(j - 1).pose.poseMeters.getTranslation());
+                        forward.add(reused);
+                        forwardMaxAccelerations[j] = m_forwardMaxAccelerations[j - shift];
+                    }
+                    break;
+                }
+            }
+
+            forward.add(state);
+            predecessor = state;
+        }
+
+        // Backward pass
+        ConstrainedState[] backward = new ConstrainedState[size];
+        double[] backwardMinAccelerations = new double[size];
+        for (int i = converged; i < size; i++) {
+            backward[i] = m_backward.get(i - shift);
+            backward[i].distanceMeters = forward.get(i).distanceMeters;
+            backwardMinAccelerations[i] = m_backwardMinAccelerations[i - shift];
+        }
+
+        ConstrainedState successor;
+        if (converged == size) {
+            successor = new ConstrainedState(m_points.get(size - 1),
+                    forward.get(size - 1).distanceMeters, m_config.getEndVelocity(),
+                    -maxAcceleration, maxAcceleration);
+        } else {
+            successor = backward[converged];
+            successor.minAccelerationMetersPerSecondSq = backwardMinAccelerations[converged];
+        }
+
+        for (int i = converged - 1; i >= 0; i--) {
+            ConstrainedState state = new ConstrainedState(forward.get(i));
+            TrajectoryParameterizer.constrainBackward(successor, state, constraints, reversed);
+            backward[i] = state;
+            backwardMinAccelerations[i] = state.minAccelerationMetersPerSecondSq;
+
+            // The forward pass is unchanged before the state preceding the changed points.
+            if (i < first - 1 && m_backward != null) {
+                ConstrainedState old = m_backward.get(i);
+                if (state.maxVelocityMetersPerSecond == old.maxVelocityMetersPerSecond
+                        && state.minAccelerationMetersPerSecondSq == m_backwardMinAccelerations[i]
+                        && state.maxAccelerationMetersPerSecondSq == old.maxAccelerationMetersPerSecondSq) {
+                    for (int j = i; j >= 0; j--) {
+                        backward[j] = m_backward.get(j);
+                        backwardMinAccelerations[j] = m_backwardMinAccelerations[j];
+                    }
+                    break;
+                }
+            }
+
+            successor = state;
+        }
+
+        m_forward = forward;
+        m_forwardMaxAccelerations = forwardMaxAccelerations;
+        m_backward = Arrays.asList(backward);
+        m_backwardMinAccelerations = backwardMinAccelerations;
+        m_trajectory = TrajectoryParameterizer.integrate(m_backward, reversed);
+    }
+}
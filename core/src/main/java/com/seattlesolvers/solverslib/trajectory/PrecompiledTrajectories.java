@@ -0,0 +1,62 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Loads trajectories written by {@link TrajectoryPrecompiler}. The files use the same format
+ * as {@link TrajectoryCache}, so loading only reads the arrays back and does no generation.
+ * <p>
+ * Precompiled trajectories are usually packaged as assets, and can be opened with
+ * {@code hardwareMap.appContext.getAssets().open("trajectories/toBasket.traj")}.
+ */
+public final class PrecompiledTrajectories {
+
+    /**
+     * The file extension of precompiled trajectories.
+     */
+    public static final String EXTENSION = TrajectoryCache.EXTENSION;
+
+    private PrecompiledTrajectories() {
+    }
+
+    /**
+     * Reads a precompiled trajectory from a stream. The stream is not closed.
+     *
+     * @param in The stream to read from.
+     * @return The trajectory.
+     * @throws IOException if the stream could not be read or does not contain a valid trajectory
+     */
+    public static CompactTrajectory load(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+
+        CompactTrajectory trajectory = TrajectoryCache.decode(ByteBuffer.wrap(bytes.toByteArray()));
+        if (trajectory == null) {
+            throw new IOException("Invalid precompiled trajectory. It may be corrupt, or written with a format version other than "
+                    + TrajectoryCache.FORMAT_VERSION + ".");
+        }
+        return trajectory;
+    }
+
+    /**
+     * Reads a precompiled trajectory from a file.
+     *
+     * @param file The file to read.
+     * @return The trajectory.
+     * @throws IOException if the file could not be read or does not contain a valid trajectory
+     */
+    public static CompactTrajectory load(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return load(in);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.spline.PoseWithCurvature;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryParameterizer.ConstrainedState;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parameterizes a trajectory by time using reachability analysis, in the style of TOPP-RA.
+ * <p>
+ * The path is split into stages at the spline points, and the squared velocity at each stage
+ * is the state. A backward pass computes, for each stage, the highest squared velocity from
+ * which the end of the path can still be reached without breaking a constraint (the
+ * controllable set). A forward pass then accelerates as hard as the constraints allow at every
+ * stage, clamped to the controllable set of the next stage, so it never has to go back and
+ * repair an earlier stage.
+ * <p>
+ * Constraints are treated as black boxes, so the edge of each controllable set is found by
+ * bisection with a fixed number of steps. The number of constraint evaluations is therefore
+ * bounded by the number of points, which keeps the compute time predictable. Select it with
+ * {@link TrajectoryConfig#setParameterizer(TrajectoryConfig.Parameterizer)}.
+ */
+public final class ReachabilityParameterizer {
+    private static final int kBisectionSteps = 24;
+
+    /**
+     * Private constructor because this is a utility class.
+     */
+    private ReachabilityParameterizer() {
+    }
+
+    /**
+     * Parameterize the trajectory by time. This takes the same arguments as
+     * {@link TrajectoryParameterizer#timeParameterizeTrajectory(List, List, double, double,
+     * double, double, boolean)}.
+     *
+     * @param points                           Reference to the spline points.
+     * @param constraints                      A vector of various velocity and acceleration.
+     *                                         constraints.
+     * @param startVelocityMetersPerSecond     The start velocity for the trajectory.
+     * @param endVelocityMetersPerSecond       The end velocity for the trajectory.
+     * @param maxVelocityMetersPerSecond       The max velocity for the trajectory.
+     * @param maxAccelerationMetersPerSecondSq The max acceleration for the trajectory.
+     * @param reversed                         Whether the robot should move backwards.
+     * @return The trajectory.
+     */
+    public static Trajectory timeParameterizeTrajectory(
+            List<PoseWithCurvature> points,
+            List<TrajectoryConstraint> constraints,
+            double startVelocityMetersPerSecond,
+            double endVelocityMetersPerSecond,
+            double maxVelocityMetersPerSecond,
+            double maxAccelerationMetersPerSecondSq,
+            boolean reversed
+    ) {
+        final int size = points.size();
+        final Limits limits = new Limits(constraints, maxAccelerationMetersPerSecondSq, reversed);
+        ArrayList<ConstrainedState> states = new ArrayList<ConstrainedState>(size);
+
+        // The highest squared velocity allowed at each stage, ignoring the other stages.
+        double[] admissible = new double[size];
+        double distanceMeters = 0.0;
+        for (int i = 0; i < size; i++) {
+            ConstrainedState state = new ConstrainedState();
+            state.pose = points.get(i);
+            if (i > 0) {
+                distanceMeters += state.pose.poseMeters.getTranslation().getDistance(
+                        points.get(i - 1).poseMeters.getTranslation());
+            }
+            state.distanceMeters = distanceMeters;
+            states.add(state);
+
+            double velocity = maxVelocityMetersPerSecond;
+            for (final TrajectoryConstraint constraint : constraints) {
+                velocity = Math.min(velocity, constraint.getMaxVelocityMetersPerSecond(
+                        state.pose.poseMeters, state.pose.curvatureRadPerMeter, velocity));
+            }
+            admissible[i] = limits.maxFeasibleVelocitySq(state.pose, velocity * velocity);
+        }
+
+        // Backward pass: the highest squared velocity at each stage from which the
+        // next stage's controllable set can be reached with an allowed deceleration.
+        double[] controllable = new double[size];
+        controllable[size - 1] = Math.min(endVelocityMetersPerSecond * endVelocityMetersPerSecond,
+                admissible[size - 1]);
+        for (int i = size - 2; i >= 0; i--) {
+            final PoseWithCurvature pose = points.get(i);
+            final double ds = states.get(i + 1).distanceMeters - states.get(i).distanceMeters;
+            final double target = controllable[i + 1];
+
+            if (ds < 1E-9) {
+                controllable[i] = Math.min(admissible[i], target);
+            } else if (canReach(limits, pose, admissible[i], ds, target)) {
+                controllable[i] = admissible[i];
+            } else if (!canReach(limits, pose, 0.0, ds, target)) {
+                controllable[i] = 0.0;
+            } else {
+                double low = 0.0;
+                double high = admissible[i];
+                for (int step = 0; step < kBisectionSteps; step++) {
+                    double mid = (low + high) / 2;
+                    if (canReach(limits, pose, mid, ds, target)) {
+                        low = mid;
+                    } else {
+                        high = mid;
+                    }
+                }
+                controllable[i] = low;
+            }
+        }
+
+        // Forward pass: accelerate as hard as allowed, staying inside the controllable sets.
+        double velocitySq = Math.min(startVelocityMetersPerSecond * startVelocityMetersPerSecond,
+                controllable[0]);
+        states.get(0).maxVelocityMetersPerSecond = Math.sqrt(velocitySq);
+        for (int i = 0; i < size - 1; i++) {
+            final double ds = states.get(i + 1).distanceMeters - states.get(i).distanceMeters;
+            if (ds >= 1E-9) {
+                velocitySq += 2.0 * ds * limits.get(points.get(i), velocitySq).maxAccelerationMetersPerSecondSq;
+            }
+            velocitySq = Math.max(0.0, Math.min(velocitySq, controllable[i + 1]));
+            states.get(i + 1).maxVelocityMetersPerSecond = Math.sqrt(velocitySq);
+        }
+
+        return TrajectoryParameterizer.integrate(states, reversed);
+    }
+
+    /**
+     * Returns whether the target squared velocity can be reached over the given distance
+     * when starting at the given squared velocity and decelerating as hard as allowed.
+     */
+    private static boolean canReach(Limits limits, PoseWithCurvature pose, double velocitySq,
+                                    double ds, double target) {
+        return velocitySq + 2.0 * ds * limits.get(pose, velocitySq).minAccelerationMetersPerSecondSq
+                <= target;
+    }
+
+    /**
+     * Evaluates the acceleration limits of the constraints, reusing a single state.
+     */
+    private static class Limits {
+        private final List<TrajectoryConstraint> m_constraints;
+        private final double m_maxAcceleration;
+        private final boolean m_reversed;
+        private final ConstrainedState m_state = new ConstrainedState();
+
+        Limits(List<TrajectoryConstraint> constraints, double maxAcceleration, boolean reversed) {
+            m_constraints = constraints;
+            m_maxAcceleration = maxAcceleration;
+            m_reversed = reversed;
+        }
+
+        ConstrainedState get(PoseWithCurvature pose, double velocitySq) {
+            m_state.pose = pose;
+            m_state.maxVelocityMetersPerSecond = Math.sqrt(velocitySq);
+            m_state.minAccelerationMetersPerSecondSq = -m_maxAcceleration;
+            m_state.maxAccelerationMetersPerSecondSq = m_maxAcceleration;
+            TrajectoryParameterizer.enforceAccelerationLimits(m_reversed, m_constraints, m_state);
+            return m_state;
+        }
+
+        private boolean isFeasible(PoseWithCurvature pose, double velocitySq) {
+            ConstrainedState state = get(pose, velocitySq);
+            return state.minAccelerationMetersPerSecondSq <= state.maxAccelerationMetersPerSecondSq;
+        }
+
+        /**
+         * Returns the highest squared velocity, up to the given one, at which the
+         * acceleration limits are not contradictory.
+         */
+        double maxFeasibleVelocitySq(PoseWithCurvature pose, double velocitySq) {
+            if (isFeasible(pose, velocitySq)) {
+                return velocitySq;
+            }
+            double low = 0.0;
+            double high = velocitySq;
+            for (int step = 0; step < kBisectionSteps; step++) {
+                double mid = (low + high) / 2;
+                if (isFeasible(pose, mid)) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+/**
+ * A jerk-limited (S-curve) motion profile.
+ *
+ * <p>Unlike a {@link TrapezoidProfile}, which changes the acceleration instantly, this profile
+ * ramps the acceleration up and down at a limited jerk, which is gentler on mechanisms
+ * and easier for a feedback controller to follow. A move is made of up to seven phases of
+ * constant jerk: three to reach the cruise velocity, one to cruise and three to slow to the
+ * goal velocity. If the initial acceleration is not zero, one more phase first brings it to zero.
+ *
+ * <p>The phases are computed once, when the profile is created or {@link #reset reset} with a
+ * new goal, and {@link #calculate(double, State)} then evaluates a single phase into a state
+ * owned by the caller, so sampling the profile every loop does not allocate.
+ *
+ * <pre><code>
+ * SCurveProfile profile = new SCurveProfile(
+ *   new SCurveProfile.Constraints(kMaxV, kMaxA, kMaxJ),
+ *   new TrapezoidProfile.State(goal, 0));
+ * SCurveProfile.State setpoint = new SCurveProfile.State();
+ * // every loop:
+ * profile.calculate(timer.seconds(), setpoint);
+ * </code></pre>
+ */
+public class SCurveProfile {
+    private static final int kMaxPhases = 8;
+    private static final int kSearchIterations = 60;
+
+    // The direction of the profile, either 1 for forwards or -1 for inverted
+    private int m_direction;
+
+    private Constraints m_constraints;
+    private final State m_goal = new State();
+
+    // The start time, position, velocity and acceleration of each phase, and the
+    // state after the last one, in the direction of the profile.
+    private final double[] m_times = new double[kMaxPhases + 1];
+    private final double[] m_positions = new double[kMaxPhases + 1];
+    private final double[] m_velocities = new double[kMaxPhases + 1];
+    private final double[] m_accelerations = new double[kMaxPhases + 1];
+    private final double[] m_jerks = new double[kMaxPhases];
+    private int m_phases;
+
+    public static class Constraints extends TrapezoidProfile.Constraints {
+        @SuppressWarnings("MemberName")
+        public double maxJerk;
+
+        public Constraints() {
+        }
+
+        /**
+         * Construct constraints for an SCurveProfile.
+         *
+         * @param maxVelocity     maximum velocity
+         * @param maxAcceleration maximum acceleration
+         * @param maxJerk         maximum jerk
+         */
+        public Constraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+            super(maxVelocity, maxAcceleration);
+            this.maxJerk = maxJerk;
+        }
+    }
+
+    /**
+     * A state of the profile. It can be used anywhere a {@link TrapezoidProfile.State} is,
+     * and also holds the acceleration.
+     */
+    public static class State extends TrapezoidProfile.State {
+        @SuppressWarnings("MemberName")
+        public double acceleration;
+
+        public State() {
+        }
+
+        public State(double position, double velocity, double acceleration) {
+            super(position, velocity);
+            this.acceleration = acceleration;
+        }
+    }
+
+    /**
+     * Construct an SCurveProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param goal        The desired state when the profile is complete.
+     * @param initial     The initial state (usually the current state). Its acceleration is
+     *                    used if it is an {@link SCurveProfile.State}, and is zero otherwise.
+     */
+    public SCurveProfile(Constraints constraints, TrapezoidProfile.State goal, TrapezoidProfile.State initial) {
+        reset(constraints, goal, initial);
+    }
+
+    /**
+     * Construct an SCurveProfile that starts at rest at zero.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param goal        The desired state when the profile is complete.
+     */
+    public SCurveProfile(Constraints constraints, TrapezoidProfile.State goal) {
+        this(constraints, goal, new State());
+    }
+
+    /**
+     * Recomputes the phases of the profile for a new goal, in place.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param goal        The desired state when the profile is complete.
+     * @param initial     The initial state (usually the current state). Its acceleration is
+     *                    used if it is an {@link SCurveProfile.State}, and is zero otherwise.
+     */
+    public void reset(Constraints constraints, TrapezoidProfile.State goal, TrapezoidProfile.State initial) {
+        if (!(constraints.maxVelocity > 0) || !(constraints.maxAcceleration > 0) || !(constraints.maxJerk > 0)) {
+            throw new IllegalArgumentException("The constraints of an S-curve profile must be positive.");
+        }
+        m_constraints = constraints;
+        m_direction = initial.position > goal.position ? -1 : 1;
+        m_goal.position = goal.position;
+        m_goal.velocity = goal.velocity;
+        m_goal.acceleration = 0;
+
+        double maxVelocity = constraints.maxVelocity;
+        double initialVelocity = Math.min(initial.velocity * m_direction, maxVelocity);
+        double initialAcceleration = initial instanceof State ? ((State) initial).acceleration * m_direction : 0;
+        double goalVelocity = Math.max(Math.min(goal.velocity * m_direction, maxVelocity), -maxVelocity);
+
+        m_phases = 0;
+        m_times[0] = 0;
+        m_positions[0] = initial.position * m_direction;
+        m_velocities[0] = initialVelocity;
+        m_accelerations[0] = initialAcceleration;
+
+        // Bring the acceleration to zero, so the rest of the profile starts and ends at rest.
+        if (initialAcceleration != 0) {
+            addPhase(Math.abs(initialAcceleration) / constraints.maxJerk,
+                    -Math.signum(initialAcceleration) * constraints.maxJerk);
+        }
+
+        double goalPosition = goal.position * m_direction;
+        double startVelocity = m_velocities[m_phases];
+        double distance = goalPosition - m_positions[m_phases];
+
+        // Changing from the start velocity to the goal velocity covers the same distance whether
+        // the cruise velocity is either of them. Above the larger one, going faster covers more
+        // distance, and below the smaller one it covers less, so search above it if that distance
+        // falls short of the goal, and below it (backing up) only if it overshoots. Between the two
+        // velocities the distance is not monotonic, so it is never searched.
+        double cruiseVelocity;
+        double low;
+        double high;
+        if (noCruiseDistance(startVelocity, maxVelocity, goalVelocity) <= distance) {
+            cruiseVelocity = maxVelocity;
+        } else if (noCruiseDistance(startVelocity, startVelocity, goalVelocity) <= distance) {
+            low = Math.max(startVelocity, goalVelocity);
+            high = maxVelocity;
+            cruiseVelocity = search(startVelocity, goalVelocity, distance, low, high);
+        } else if (noCruiseDistance(startVelocity, -maxVelocity, goalVelocity) >= distance) {
+            cruiseVelocity = -maxVelocity;
+        } else {
+            low = -maxVelocity;
+            high = Math.min(startVelocity, goalVelocity);
+            cruiseVelocity = search(startVelocity, goalVelocity, distance, low, high);
+        }
+        addVelocityChange(startVelocity, cruiseVelocity);
+        double cruiseDistance = goalPosition - m_positions[m_phases] - changeDistance(cruiseVelocity, goalVelocity);
+        addPhase(Math.abs(cruiseVelocity) > 1E-9 ? Math.max(cruiseDistance / cruiseVelocity, 0) : 0, 0);
+        addVelocityChange(cruiseVelocity, goalVelocity);
+    }
+
+    /**
+     * Returns the distance covered changing from the start velocity to the cruise velocity,
+     * then to the goal velocity, without cruising.
+     */
+    private double noCruiseDistance(double startVelocity, double cruiseVelocity, double goalVelocity) {
+        return changeDistance(startVelocity, cruiseVelocity) + changeDistance(cruiseVelocity, goalVelocity);
+    }
+
+    /**
+     * Bisects for the cruise velocity between low and high that covers the distance without
+     * cruising. The distance must be below the target at low and at or above it at high.
+     */
+    private double search(double startVelocity, double goalVelocity, double distance, double low, double high) {
+        for (int i = 0; i < kSearchIterations; i++) {
+            double mid = (low + high) / 2;
+            if (noCruiseDistance(startVelocity, mid, goalVelocity) < distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Returns the time to change between two velocities, starting and ending at rest.
+     */
+    private double changeTime(double deltaVelocity) {
+        double delta = Math.abs(deltaVelocity);
+        double jerkTime = m_constraints.maxAcceleration / m_constraints.maxJerk;
+        if (delta * m_constraints.maxJerk >= m_constraints.maxAcceleration * m_constraints.maxAcceleration) {
+            return jerkTime + delta / m_constraints.maxAcceleration;
+        }
+        return 2 * Math.sqrt(delta / m_constraints.maxJerk);
+    }
+
+    /**
+     * Returns the distance covered while changing between two velocities. The acceleration is
+     * symmetric in time, so the average velocity is halfway between the two.
+     */
+    private double changeDistance(double from, double to) {
+        return (from + to) / 2 * changeTime(to - from);
+    }
+
+    /**
+     * Adds the three phases that change between two velocities: the acceleration ramps up,
+     * holds at the limit if the change is large enough, then ramps back down.
+     */
+    private void addVelocityChange(double from, double to) {
+        double delta = Math.abs(to - from);
+        double jerk = Math.signum(to - from) * m_constraints.maxJerk;
+        double jerkTime;
+        double constantTime;
+        if (delta * m_constraints.maxJerk >= m_constraints.maxAcceleration * m_constraints.maxAcceleration) {
+            jerkTime = m_constraints.maxAcceleration / m_constraints.maxJerk;
+            constantTime = delta / m_constraints.maxAcceleration - jerkTime;
+        } else {
+            jerkTime = Math.sqrt(delta / m_constraints.maxJerk);
+            constantTime = 0;
+        }
+        addPhase(jerkTime, jerk);
+        addPhase(constantTime, 0);
+        addPhase(jerkTime, -jerk);
+        // Remove the rounding left in the acceleration, so the next phase starts at rest.
+        m_accelerations[m_phases] = 0;
+        m_velocities[m_phases] = to;
+    }
+
+    /**
+     * Adds a phase of constant jerk, integrating the state at its end.
+     */
+    private void addPhase(double duration, double jerk) {
+        int i = m_phases;
+        double a = m_accelerations[i];
+        double v = m_velocities[i];
+        m_jerks[i] = jerk;
+        m_times[i + 1] = m_times[i] + duration;
+        m_positions[i + 1] = m_positions[i] + (v + (a / 2 + jerk * duration / 6) * duration) * duration;
+        m_velocities[i + 1] = v + (a + jerk * duration / 2) * duration;
+        m_accelerations[i + 1] = a + jerk * duration;
+        m_phases++;
+    }
+
+    /**
+     * Calculate the position, velocity and acceleration of the profile at a time t
+     * where the beginning of the profile was at time t = 0.
+     *
+     * @param t The time since the beginning of the profile.
+     * @return a new state of the profile at that time
+     */
+    @SuppressWarnings("ParameterName")
+    public State calculate(double t) {
+        return calculate(t, new State());
+    }
+
+    /**
+     * Calculate the position, velocity and acceleration of the profile at a time t
+     * where the beginning of the profile was at time t = 0, without allocating.
+     *
+     * @param t      The time since the beginning of the profile.
+     * @param result The state to write to.
+     * @return the given state, for chaining purposes
+     */
+    @SuppressWarnings("ParameterName")
+    public State calculate(double t, State result) {
+        if (t >= m_times[m_phases]) {
+            result.position = m_goal.position;
+            result.velocity = m_goal.velocity;
+            result.acceleration = 0;
+            return result;
+        }
+
+        int phase = 0;
+        while (phase < m_phases - 1 && t >= m_times[phase + 1]) {
+            phase++;
+        }
+        double dt = Math.max(t - m_times[phase], 0);
+
+        double jerk = m_jerks[phase];
+        double a = m_accelerations[phase];
+        double v = m_velocities[phase];
+        result.position = (m_positions[phase] + (v + (a / 2 + jerk * dt / 6) * dt) * dt) * m_direction;
+        result.velocity = (v + (a + jerk * dt / 2) * dt) * m_direction;
+        result.acceleration = (a + jerk * dt) * m_direction;
+        return result;
+    }
+
+    /**
+     * Returns the total time the profile takes to reach the goal.
+     */
+    public double totalTime() {
+        return m_times[m_phases];
+    }
+
+    /**
+     * Returns true if the profile has reached the goal.
+     *
+     * @param t The time since the beginning of the profile.
+     */
+    @SuppressWarnings("ParameterName")
+    public boolean isFinished(double t) {
+        return t >= totalTime();
+    }
+}
@@ -0,0 +1,564 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.spline.Spline;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.zip.CRC32;
+
+/**
+ * A file cache in front of {@link TrajectoryGenerator}. Trajectories are keyed by a hash of
+ * their waypoints, their {@link TrajectoryConfig} and its constraints, and are stored in a
+ * compact binary file. When the same trajectory is requested again (for example, every time
+ * an OpMode starts), it is loaded by memory-mapping the file instead of being regenerated.
+ * <p>
+ * Files carry a format version and a checksum. Files with an unknown version or a bad
+ * checksum are deleted and the trajectory is regenerated. The total size of the cache is
+ * capped, and the least recently used files are evicted first. The order of use is kept in
+ * an index file in the cache directory, as file modification times are not reliable on
+ * every file system.
+ * <p>
+ * Constraints are hashed by their class and the values of their fields, or by the key they
+ * supply if they implement {@link Fingerprintable}. Lambdas and anonymous or local classes
+ * have no name that is stable between builds, and unordered collections have no stable
+ * order, so trajectories using them are generated without being cached. Implement
+ * {@link Fingerprintable}, or use {@link #getOrGenerate(String, TrajectorySupplier)} with
+ * your own key, to cache them. A constraint that reads external state can not be hashed
+ * reliably at all, so give it a key that covers that state.
+ */
+@RequiresApi(api = Build.VERSION_CODES.N)
+public class TrajectoryCache {
+    /**
+     * The version of the binary format. Bump this whenever the format, or the output of
+     * the generator for the same input, changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x534C544A; // "SLTJ"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int FIELDS = 7;
+    static final String EXTENSION = ".traj";
+    static final String INDEX = "access.index";
+    private static final int MAX_FINGERPRINT_DEPTH = 6;
+
+    private final File m_directory;
+    private final long m_maxBytes;
+
+    /**
+     * Supplies a trajectory on a cache miss.
+     */
+    public interface TrajectorySupplier {
+        Trajectory generate();
+    }
+
+    /**
+     * An object, such as a {@link TrajectoryConstraint}, that supplies its own key for the cache
+     * instead of being hashed field by field.
+     */
+    public interface Fingerprintable {
+        /**
+         * Returns a key that is stable between runs and builds, and differs whenever the
+         * object would change the generated trajectory. It should name the type of the
+         * object as well as its parameters.
+         *
+         * @return The key.
+         */
+        String getFingerprint();
+    }
+
+    /**
+     * Thrown when an object can not be hashed into a key that depends only on its value.
+     */
+    private static final class UnstableKeyException extends IOException {
+        UnstableKeyException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Creates a cache in the given directory, capped at 16 MB.
+     *
+     * @param directory The directory to store the trajectories in.
+     */
+    public TrajectoryCache(File directory) {
+        this(directory, 16L * 1024 * 1024);
+    }
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param directory The directory to store the trajectories in.
+     * @param maxBytes  The maximum total size of the cache, in bytes.
+     */
+    public TrajectoryCache(File directory, long maxBytes) {
+        m_directory = directory;
+        m_maxBytes = maxBytes;
+    }
+
+    /**
+     * Generates a trajectory, or loads it from the cache.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)
+     */
+    public Trajectory generateTrajectory(List<Pose2d> waypoints, TrajectoryConfig config) {
+        return generate(key("quintic-waypoints", waypoints, config),
+                () -> TrajectoryGenerator.generateTrajectory(waypoints, config));
+    }
+
+    /**
+     * Generates a trajectory, or loads it from the cache.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)
+     */
+    public Trajectory generateTrajectory(Pose2d start, List<Translation2d> interiorWaypoints,
+                                         Pose2d end, TrajectoryConfig config) {
+        return generate(key("cubic-waypoints", Arrays.asList(start, interiorWaypoints, end), config),
+                () -> TrajectoryGenerator.generateTrajectory(start, interiorWaypoints, end, config));
+    }
+
+    /**
+     * Generates a trajectory, or loads it from the cache.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(Spline.ControlVector, List, Spline.ControlVector, TrajectoryConfig)
+     */
+    public Trajectory generateTrajectory(Spline.ControlVector initial, List<Translation2d> interiorWaypoints,
+                                         Spline.ControlVector end, TrajectoryConfig config) {
+        return generate(key("cubic-vectors", Arrays.asList(initial, interiorWaypoints, end), config),
+                () -> TrajectoryGenerator.generateTrajectory(initial, interiorWaypoints, end, config));
+    }
+
+    /**
+     * Generates a trajectory, or loads it from the cache.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(TrajectoryGenerator.ControlVectorList, TrajectoryConfig)
+     */
+    public Trajectory generateTrajectory(TrajectoryGenerator.ControlVectorList controlVectors,
+                                         TrajectoryConfig config) {
+        return generate(key("quintic-vectors", controlVectors, config),
+                () -> TrajectoryGenerator.generateTrajectory(controlVectors, config));
+    }
+
+    private Trajectory generate(String key, TrajectorySupplier generator) {
+        return key == null ? generator.generate() : getOrGenerate(key, generator);
+    }
+
+    /**
+     * Loads the trajectory with the given key, or generates and stores it on a miss.
+     * Trajectories with a single state (which the generator returns on failure) are not stored.
+     *
+     * @param key       A unique key for the trajectory. Only letters, digits, '-' and '_' are kept.
+     * @param generator Generates the trajectory on a miss.
+     * @return The trajectory.
+     */
+    public Trajectory getOrGenerate(String key, TrajectorySupplier generator) {
+        CompactTrajectory cached = load(key);
+        if (cached != null) {
+            return cached.toTrajectory();
+        }
+
+        Trajectory trajectory = generator.generate();
+        if (trajectory.getStates().size() > 1) {
+            store(key, CompactTrajectory.fromTrajectory(trajectory));
+        }
+        return trajectory;
+    }
+
+    /**
+     * Loads the trajectory with the given key.
+     *
+     * @param key The key of the trajectory.
+     * @return The trajectory, or null if it is not cached or the file is invalid.
+     */
+    public CompactTrajectory load(String key) {
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        CompactTrajectory trajectory;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            trajectory = decode(buffer);
+        } catch (IOException e) {
+            trajectory = null;
+        }
+
+        if (trajectory == null) {
+            // Corrupt or from another version, so it will never be readable
+            file.delete();
+            return null;
+        }
+
+        // Mark as recently used for eviction
+        touch(file.getName());
+        return trajectory;
+    }
+
+    /**
+     * Stores a trajectory under the given key and evicts old entries if the cache is too large.
+     * Failures to write are ignored, as the trajectory can always be regenerated.
+     *
+     * @param key        The key of the trajectory.
+     * @param trajectory The trajectory to store.
+     */
+    public void store(String key, CompactTrajectory trajectory) {
+        if (!m_directory.isDirectory() && !m_directory.mkdirs()) {
+            return;
+        }
+
+        File file = fileFor(key);
+        File temp = new File(m_directory, file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(encode(trajectory).array());
+            out.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+
+        // Rename so that a partially written file is never read
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return;
+        }
+        touch(file.getName());
+        evict();
+    }
+
+    /**
+     * Deletes every trajectory in the cache.
+     */
+    public void clear() {
+        for (File file : cacheFiles()) {
+            file.delete();
+        }
+        new File(m_directory, INDEX).delete();
+    }
+
+    /**
+     * @return The total size of the cached trajectories, in bytes.
+     */
+    public long sizeBytes() {
+        long total = 0;
+        for (File file : cacheFiles()) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private void evict() {
+        List<File> files = cacheFiles();
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= m_maxBytes) {
+            return;
+        }
+
+        // Least recently used first. Files missing from the index have not been used since
+        // it was last written, so they go before the rest, oldest first.
+        List<String> order = readIndex();
+        files.sort((a, b) -> {
+            int compare = Integer.compare(order.indexOf(a.getName()), order.indexOf(b.getName()));
+            return compare != 0 ? compare : Long.compare(a.lastModified(), b.lastModified());
+        });
+        for (File file : files) {
+            if (total <= m_maxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                order.remove(file.getName());
+            }
+        }
+        writeIndex(order);
+    }
+
+    /**
+     * Moves a file to the most recently used end of the index.
+     */
+    private void touch(String name) {
+        List<String> order = readIndex();
+        order.remove(name);
+        order.add(name);
+        writeIndex(order);
+    }
+
+    /**
+     * Reads the names of the cached files, least recently used first.
+     */
+    private List<String> readIndex() {
+        List<String> order = new ArrayList<>();
+        File index = new File(m_directory, INDEX);
+        if (!index.isFile()) {
+            return order;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(index))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.endsWith(EXTENSION) && !order.contains(line)) {
+                    order.add(line);
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable, so the files fall back to their modification times
+            order.clear();
+        }
+        return order;
+    }
+
+    /**
+     * Writes the index, dropping files that no longer exist. Failures to write are ignored,
+     * as eviction then falls back to the modification times of the files.
+     */
+    private void writeIndex(List<String> order) {
+        File index = new File(m_directory, INDEX);
+        File temp = new File(m_directory, INDEX + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp);
+             Writer out = new OutputStreamWriter(stream, "UTF-8")) {
+            for (String name : order) {
+                if (new File(m_directory, name).isFile()) {
+                    out.write(name);
+                    out.write('\n');
+                }
+            }
+            out.flush();
+            stream.getFD().sync();
+        } catch (IOException e) {
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(index)) {
+            temp.delete();
+        }
+    }
+
+    private List<File> cacheFiles() {
+        List<File> files = new ArrayList<>();
+        File[] listed = m_directory.listFiles();
+        if (listed != null) {
+            for (File file : listed) {
+                if (file.isFile() && file.getName().endsWith(EXTENSION)) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private File fileFor(String key) {
+        return new File(m_directory, key.replaceAll("[^A-Za-z0-9_-]", "_") + EXTENSION);
+    }
+
+    static ByteBuffer encode(CompactTrajectory trajectory) {
+        int size = trajectory.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + FIELDS * size * Double.BYTES + Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(size);
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getTime(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getVelocity(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getAcceleration(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getX(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getY(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getHeading(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(trajectory.getCurvature(i));
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        return buffer;
+    }
+
+    static CompactTrajectory decode(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int length = buffer.remaining();
+        if (length < HEADER_BYTES + Long.BYTES
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            return null;
+        }
+
+        int size = buffer.getInt(2 * Integer.BYTES);
+        int payload = HEADER_BYTES + FIELDS * size * Double.BYTES;
+        if (size <= 0 || length != payload + Long.BYTES) {
+            return null;
+        }
+
+        byte[] bytes = new byte[payload];
+        buffer.get(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, payload);
+        if (crc.getValue() != buffer.getLong(payload)) {
+            return null;
+        }
+
+        buffer.position(HEADER_BYTES);
+        double[][] fields = new double[FIELDS][size];
+        for (double[] field : fields) {
+            buffer.asDoubleBuffer().get(field);
+            buffer.position(buffer.position() + size * Double.BYTES);
+        }
+        return new CompactTrajectory(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6]);
+    }
+
+    /**
+     * Creates a key from the type of generation, the waypoints and the config.
+     *
+     * @return The key, or null if the waypoints or constraints can not be hashed reliably.
+     */
+    static String key(String type, Object waypoints, TrajectoryConfig config) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(type);
+            fingerprint(out, waypoints, new IdentityHashMap<>(), 0);
+
+            out.writeDouble(config.getMaxVelocity());
+            out.writeDouble(config.getMaxAcceleration());
+            out.writeDouble(config.getStartVelocity());
+            out.writeDouble(config.getEndVelocity());
+            out.writeBoolean(config.isReversed());
+            out.writeUTF(config.getParameterizer().name());
+            for (TrajectoryConstraint constraint : config.getConstraints()) {
+                fingerprint(out, constraint, new IdentityHashMap<>(), 0);
+            }
+            out.flush();
+
+            StringBuilder hex = new StringBuilder(type);
+            hex.append('-');
+            for (byte b : digest.digest(bytes.toByteArray())) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (UnstableKeyException e) {
+            return null;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash trajectory", e);
+        }
+    }
+
+    /**
+     * Writes the class and values of an object. Primitives, strings, arrays and ordered
+     * collections are written directly; other objects are walked field by field, and objects
+     * seen before are written as a reference to their first occurrence.
+     *
+     * @throws UnstableKeyException if the object, or anything it holds, can not be written
+     *                              in a way that depends only on its value
+     */
+    private static void fingerprint(DataOutputStream out, Object value,
+                                    Map<Object, Integer> visited, int depth) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+        if (depth > MAX_FINGERPRINT_DEPTH) {
+            throw new UnstableKeyException("Objects are nested too deeply to hash");
+        }
+        if (value instanceof Fingerprintable) {
+            out.writeByte(1);
+            out.writeUTF(((Fingerprintable) value).getFingerprint());
+            return;
+        }
+
+        Class<?> type = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+        if (type.isSynthetic() || type.isAnonymousClass() || type.isLocalClass()
+                || type.getName().contains("$$Lambda")) {
+            throw new UnstableKeyException(type.getName() + " has no stable name");
+        }
+        out.writeByte(2);
+        out.writeUTF(type.getName());
+
+        if (value instanceof Number) {
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof CharSequence || value instanceof Enum || value instanceof Character) {
+            out.writeUTF(value.toString());
+        } else if (type.isArray()) {
+            int length = Array.getLength(value);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                fingerprint(out, Array.get(value, i), visited, depth + 1);
+            }
+        } else if (value instanceof List || value instanceof SortedSet || value instanceof LinkedHashSet) {
+            out.writeInt(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                fingerprint(out, element, visited, depth + 1);
+            }
+        } else if (value instanceof SortedMap || value instanceof LinkedHashMap) {
+            out.writeInt(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                fingerprint(out, entry.getKey(), visited, depth + 1);
+                fingerprint(out, entry.getValue(), visited, depth + 1);
+            }
+        } else if (value instanceof Collection || value instanceof Map) {
+            throw new UnstableKeyException(type.getName() + " has no stable order");
+        } else if (type.getName().startsWith("java.")) {
+            throw new UnstableKeyException(type.getName() + " can not be hashed");
+        } else {
+            Integer seen = visited.get(value);
+            if (seen != null) {
+                out.writeInt(seen);
+                return;
+            }
+            visited.put(value, visited.size());
+            out.writeInt(-1);
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    Object fieldValue;
+                    try {
+                        field.setAccessible(true);
+                        fieldValue = field.get(value);
+                    } catch (IllegalAccessException | RuntimeException e) {
+                        throw new UnstableKeyException("Could not read " + c.getName() + "." + field.getName());
+                    }
+                    fingerprint(out, fieldValue, visited, depth + 1);
+                }
+            }
+        }
+    }
+}
@@ -34,6 +34,21 @@ public class TrajectoryConfig {
     private double m_startVelocity;
     private double m_endVelocity;
     private boolean m_reversed;
+    private Parameterizer m_parameterizer = Parameterizer.FORWARD_BACKWARD;
+
+    /**
+     * The algorithm used to parameterize the trajectory by time.
+     */
+    public enum Parameterizer {
+        /**
+         * The forward and backward pass of {@link TrajectoryParameterizer}.
+         */
+        FORWARD_BACKWARD,
+        /**
+         * The reachability analysis of {@link ReachabilityParameterizer}.
+         */
+        REACHABILITY
+    }
 
     /**
      * Constructs the trajectory configuration class.
@@ -192,4 +207,24 @@ public class TrajectoryConfig {
         m_reversed = reversed;
         return this;
     }
+
+    /**
+     * Returns the algorithm used to parameterize the trajectory by time.
+     *
+     * @return The parameterizer of the trajectory.
+     */
+    public Parameterizer getParameterizer() {
+        return m_parameterizer;
+    }
+
+    /**
+     * Sets the algorithm used to parameterize the trajectory by time.
+     *
+     * @param parameterizer The parameterizer of the trajectory.
+     * @return Instance of the current config object.
+     */
+    public TrajectoryConfig setParameterizer(Parameterizer parameterizer) {
+        m_parameterizer = parameterizer;
+        return this;
+    }
 }
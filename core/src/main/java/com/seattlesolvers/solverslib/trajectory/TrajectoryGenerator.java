@@ -24,6 +24,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 
 public final class TrajectoryGenerator {
@@ -73,6 +75,25 @@ public final class TrajectoryGenerator {
             List<Translation2d> interiorWaypoints,
             Spline.ControlVector end,
             TrajectoryConfig config
+    ) {
+        return generateTrajectory(initial, interiorWaypoints, end, config, null);
+    }
+
+    /**
+     * Generates a trajectory from the given control vectors and config, parameterizing
+     * the splines on the given pool.
+     *
+     * @param pool The pool to parameterize the splines on, or null to parameterize them
+     *             on the calling thread.
+     * @see #generateTrajectory(Spline.ControlVector, List, Spline.ControlVector, TrajectoryConfig)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    static Trajectory generateTrajectory(
+            Spline.ControlVector initial,
+            List<Translation2d> interiorWaypoints,
+            Spline.ControlVector end,
+            TrajectoryConfig config,
+            ForkJoinPool pool
     ) {
         final Transform2d flip = new Transform2d(new Translation2d(), Rotation2d.fromDegrees(180.0));
 
@@ -92,7 +113,7 @@ public final class TrajectoryGenerator {
         List<PoseWithCurvature> points;
         try {
             points = splinePointsFromSplines(SplineHelper.getCubicSplinesFromControlVectors(newInitial,
-                    interiorWaypoints.toArray(new Translation2d[0]), newEnd));
+                    interiorWaypoints.toArray(new Translation2d[0]), newEnd), pool);
         } catch (SplineParameterizer.MalformedSplineException ex) {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
                 reportError(ex.getMessage(), ex.getStackTrace());
@@ -109,9 +130,7 @@ public final class TrajectoryGenerator {
         }
 
         // Generate and return trajectory.
-        return TrajectoryParameterizer.timeParameterizeTrajectory(points, config.getConstraints(),
-                config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(),
-                config.getMaxAcceleration(), config.isReversed());
+        return timeParameterizeTrajectory(points, config);
     }
 
     /**
@@ -130,13 +149,29 @@ public final class TrajectoryGenerator {
     public static Trajectory generateTrajectory(
             Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end,
             TrajectoryConfig config
+    ) {
+        return generateTrajectory(start, interiorWaypoints, end, config, null);
+    }
+
+    /**
+     * Generates a trajectory from the given waypoints and config, parameterizing
+     * the splines on the given pool.
+     *
+     * @param pool The pool to parameterize the splines on, or null to parameterize them
+     *             on the calling thread.
+     * @see #generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    static Trajectory generateTrajectory(
+            Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end,
+            TrajectoryConfig config, ForkJoinPool pool
     ) {
         Spline.ControlVector[] controlVectors = SplineHelper.getCubicControlVectorsFromWaypoints(
                 start, interiorWaypoints.toArray(new Translation2d[0]), end
         );
 
         // Return the generated trajectory.
-        return generateTrajectory(controlVectors[0], interiorWaypoints, controlVectors[1], config);
+        return generateTrajectory(controlVectors[0], interiorWaypoints, controlVectors[1], config, pool);
     }
 
     /**
@@ -153,6 +188,24 @@ public final class TrajectoryGenerator {
     public static Trajectory generateTrajectory(
             ControlVectorList controlVectors,
             TrajectoryConfig config
+    ) {
+        return generateTrajectory(controlVectors, config, null);
+    }
+
+    /**
+     * Generates a trajectory from the given quintic control vectors and config,
+     * parameterizing the splines on the given pool.
+     *
+     * @param pool The pool to parameterize the splines on, or null to parameterize them
+     *             on the calling thread.
+     * @see #generateTrajectory(ControlVectorList, TrajectoryConfig)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    static Trajectory generateTrajectory(
+            ControlVectorList controlVectors,
+            TrajectoryConfig config,
+            ForkJoinPool pool
     ) {
         final Transform2d flip = new Transform2d(new Translation2d(), Rotation2d.fromDegrees(180.0));
         final ArrayList<Spline.ControlVector> newControlVectors = new ArrayList<Spline.ControlVector>(controlVectors.size());
@@ -172,7 +225,7 @@ public final class TrajectoryGenerator {
         try {
             points = splinePointsFromSplines(SplineHelper.getQuinticSplinesFromControlVectors(
                     newControlVectors.toArray(new Spline.ControlVector[]{})
-            ));
+            ), pool);
         } catch (SplineParameterizer.MalformedSplineException ex) {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
                 reportError(ex.getMessage(), ex.getStackTrace());
@@ -189,9 +242,7 @@ public final class TrajectoryGenerator {
         }
 
         // Generate and return trajectory.
-        return TrajectoryParameterizer.timeParameterizeTrajectory(points, config.getConstraints(),
-                config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(),
-                config.getMaxAcceleration(), config.isReversed());
+        return timeParameterizeTrajectory(points, config);
 
     }
 
@@ -207,9 +258,37 @@ public final class TrajectoryGenerator {
     @RequiresApi(api = Build.VERSION_CODES.N)
     @SuppressWarnings("LocalVariableName")
     public static Trajectory generateTrajectory(List<Pose2d> waypoints, TrajectoryConfig config) {
+        return generateTrajectory(waypoints, config, null);
+    }
+
+    /**
+     * Generates a trajectory from the given waypoints and config, parameterizing
+     * the splines on the given pool.
+     *
+     * @param pool The pool to parameterize the splines on, or null to parameterize them
+     *             on the calling thread.
+     * @see #generateTrajectory(List, TrajectoryConfig)
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    static Trajectory generateTrajectory(List<Pose2d> waypoints, TrajectoryConfig config, ForkJoinPool pool) {
         List<Spline.ControlVector> originalList = SplineHelper.getQuinticControlVectorsFromWaypoints(waypoints);
         ControlVectorList newList = new ControlVectorList(originalList);
-        return generateTrajectory(newList, config);
+        return generateTrajectory(newList, config, pool);
+    }
+
+    /**
+     * Parameterizes the points by time with the parameterizer selected in the config.
+     */
+    private static Trajectory timeParameterizeTrajectory(List<PoseWithCurvature> points,
+                                                         TrajectoryConfig config) {
+        if (config.getParameterizer() == TrajectoryConfig.Parameterizer.REACHABILITY) {
+            return ReachabilityParameterizer.timeParameterizeTrajectory(points, config.getConstraints(),
+                    config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(),
+                    config.getMaxAcceleration(), config.isReversed());
+        }
+        return TrajectoryParameterizer.timeParameterizeTrajectory(points, config.getConstraints(),
+                config.getStartVelocity(), config.getEndVelocity(), config.getMaxVelocity(),
+                config.getMaxAcceleration(), config.isReversed());
     }
 
     /**
@@ -242,6 +321,41 @@ public final class TrajectoryGenerator {
         return splinePoints;
     }
 
+    /**
+     * Generate spline points from a vector of splines by parameterizing the
+     * splines in parallel on the given pool. The points are returned in the same
+     * order as {@link #splinePointsFromSplines(Spline[])}.
+     *
+     * @param splines The splines to parameterize.
+     * @param pool    The pool to parameterize the splines on, or null to parameterize them
+     *                on the calling thread.
+     * @return The spline points for use in time parameterization of a trajectory.
+     * @throws SplineParameterizer.MalformedSplineException When the spline is malformed (e.g. has close adjacent points
+     *                                                      with approximately opposing headings)
+     */
+    public static List<PoseWithCurvature> splinePointsFromSplines(
+            Spline[] splines, ForkJoinPool pool) {
+        if (pool == null || splines.length < 2) {
+            return splinePointsFromSplines(splines);
+        }
+
+        List<ForkJoinTask<List<PoseWithCurvature>>> tasks = new ArrayList<>(splines.length);
+        for (final Spline spline : splines) {
+            tasks.add(pool.submit(() -> SplineParameterizer.parameterize(spline)));
+        }
+
+        ArrayList<PoseWithCurvature> splinePoints = new ArrayList<PoseWithCurvature>();
+        splinePoints.add(splines[0].getPoint(0.0));
+
+        // Joining from a worker of the same pool runs other queued tasks while waiting,
+        // so this is safe to call from a trajectory that is itself generated on the pool.
+        for (ForkJoinTask<List<PoseWithCurvature>> task : tasks) {
+            List<PoseWithCurvature> points = task.join();
+            splinePoints.addAll(points.subList(1, points.size()));
+        }
+        return splinePoints;
+    }
+
     // Work around type erasure signatures
     public static class ControlVectorList extends ArrayList<Spline.ControlVector> {
         public ControlVectorList(int initialCapacity) {
@@ -0,0 +1,114 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A named set of trajectories, declared in code so that they can be generated ahead of time by
+ * {@link TrajectoryPrecompiler} and loaded on the robot with {@link PrecompiledTrajectories}.
+ *
+ * <pre>{@code
+ * public class AutoTrajectories implements TrajectoryLibrary.Declaration {
+ *     @Override
+ *     public void declare(TrajectoryLibrary library) {
+ *         TrajectoryConfig config = new TrajectoryConfig(1.5, 1.0);
+ *         library.add("toBasket", Arrays.asList(START, BASKET), config)
+ *                .add("toSubmersible", Arrays.asList(BASKET, SUBMERSIBLE), config);
+ *     }
+ * }
+ * }</pre>
+ */
+@RequiresApi(api = Build.VERSION_CODES.N)
+public class TrajectoryLibrary {
+
+    /**
+     * Declares the trajectories of a library. Implementations must have a public
+     * no-argument constructor so that the precompiler can create them.
+     */
+    public interface Declaration {
+        void declare(TrajectoryLibrary library);
+    }
+
+    private final Map<String, Supplier<Trajectory>> m_trajectories = new LinkedHashMap<>();
+
+    /**
+     * Creates a library from a declaration.
+     *
+     * @param declaration The declaration of the trajectories.
+     * @return The library.
+     */
+    public static TrajectoryLibrary of(Declaration declaration) {
+        TrajectoryLibrary library = new TrajectoryLibrary();
+        declaration.declare(library);
+        return library;
+    }
+
+    /**
+     * Adds a trajectory generated with quintic splines through the given waypoints.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)
+     */
+    public TrajectoryLibrary add(String name, List<Pose2d> waypoints, TrajectoryConfig config) {
+        return add(name, () -> TrajectoryGenerator.generateTrajectory(waypoints, config));
+    }
+
+    /**
+     * Adds a trajectory generated with clamped cubic splines.
+     *
+     * @see TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)
+     */
+    public TrajectoryLibrary add(String name, Pose2d start, List<Translation2d> interiorWaypoints,
+                                 Pose2d end, TrajectoryConfig config) {
+        return add(name, () -> TrajectoryGenerator.generateTrajectory(start, interiorWaypoints, end, config));
+    }
+
+    /**
+     * Adds a trajectory created by the given generator.
+     *
+     * @param name      The name of the trajectory. Must only contain letters, digits, '-' and '_'.
+     * @param generator Creates the trajectory.
+     * @return This library, for chaining.
+     */
+    public TrajectoryLibrary add(String name, Supplier<Trajectory> generator) {
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Trajectory names must only contain letters, digits, '-' and '_'.");
+        }
+        if (m_trajectories.containsKey(name)) {
+            throw new IllegalArgumentException("A trajectory named " + name + " already exists.");
+        }
+        m_trajectories.put(name, generator);
+        return this;
+    }
+
+    /**
+     * @return The names of the trajectories, in the order they were added.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(m_trajectories.keySet());
+    }
+
+    /**
+     * Generates the trajectory with the given name.
+     *
+     * @param name The name of the trajectory.
+     * @return The generated trajectory.
+     */
+    public Trajectory generate(String name) {
+        Supplier<Trajectory> generator = m_trajectories.get(name);
+        if (generator == null) {
+            throw new IllegalArgumentException("No trajectory named " + name + ".");
+        }
+        return generator.get();
+    }
+}
@@ -90,69 +90,8 @@ public final class TrajectoryParameterizer {
             constrainedStates.add(new ConstrainedState());
             ConstrainedState constrainedState = constrainedStates.get(i);
             constrainedState.pose = points.get(i);
-
-            // Begin constraining based on predecessor.
-            double ds = constrainedState.pose.poseMeters.getTranslation().getDistance(
-                    predecessor.pose.poseMeters.getTranslation());
-            constrainedState.distanceMeters = predecessor.distanceMeters + ds;
-
-            // We may need to iterate to find the maximum end velocity and common
-            // acceleration, since acceleration limits may be a function of velocity.
-            while (true) {
-                // Enforce global max velocity and max reachable velocity by global
-                // acceleration limit. vf = std::sqrt(vi^2 + 2*a*d).
-                constrainedState.maxVelocityMetersPerSecond = Math.min(
-                        maxVelocityMetersPerSecond,
-                        Math.sqrt(predecessor.maxVelocityMetersPerSecond
-                                * predecessor.maxVelocityMetersPerSecond
-                                + predecessor.maxAccelerationMetersPerSecondSq * ds * 2.0)
-                );
-
-                constrainedState.minAccelerationMetersPerSecondSq = -maxAccelerationMetersPerSecondSq;
-                constrainedState.maxAccelerationMetersPerSecondSq = maxAccelerationMetersPerSecondSq;
-
-                // At this point, the constrained state is fully constructed apart from
-                // all the custom-defined user constraints.
-                for (final TrajectoryConstraint constraint : constraints) {
-                    constrainedState.maxVelocityMetersPerSecond = Math.min(
-                            constrainedState.maxVelocityMetersPerSecond,
-                            constraint.getMaxVelocityMetersPerSecond(
-                                    constrainedState.pose.poseMeters, constrainedState.pose.curvatureRadPerMeter,
-                                    constrainedState.maxVelocityMetersPerSecond)
-                    );
-                }
-
-                // Now enforce all acceleration limits.
-                enforceAccelerationLimits(reversed, constraints, constrainedState);
-
-                if (ds < 1E-6) {
-                    break;
-                }
-
-                // If the actual acceleration for this state is higher than the max
-                // acceleration that we applied, then we need to reduce the max
-                // acceleration of the predecessor and try again.
-                double actualAcceleration = (constrainedState.maxVelocityMetersPerSecond
-                        * constrainedState.maxVelocityMetersPerSecond
-                        - predecessor.maxVelocityMetersPerSecond * predecessor.maxVelocityMetersPerSecond)
-                        / (ds * 2.0);
-
-                // If we violate the max acceleration constraint, let's modify the
-                // predecessor.
-                if (constrainedState.maxAccelerationMetersPerSecondSq < actualAcceleration - 1E-6) {
-                    predecessor.maxAccelerationMetersPerSecondSq
-                            = constrainedState.maxAccelerationMetersPerSecondSq;
-                } else {
-                    // Constrain the predecessor's max acceleration to the current
-                    // acceleration.
-                    if (actualAcceleration > predecessor.minAccelerationMetersPerSecondSq) {
-                        predecessor.maxAccelerationMetersPerSecondSq = actualAcceleration;
-                    }
-                    // If the actual acceleration is less than the predecessor's min
-                    // acceleration, it will be repaired in the backward pass.
-                    break;
-                }
-            }
+            constrainForward(predecessor, constrainedState, constraints,
+                    maxVelocityMetersPerSecond, maxAccelerationMetersPerSecondSq, reversed);
             predecessor = constrainedState;
         }
 
@@ -164,52 +103,141 @@ public final class TrajectoryParameterizer {
         // Backward pass
         for (int i = points.size() - 1; i >= 0; i--) {
             ConstrainedState constrainedState = constrainedStates.get(i);
-            double ds = constrainedState.distanceMeters - successor.distanceMeters; // negative
-
-            while (true) {
-                // Enforce max velocity limit (reverse)
-                // vf = std::sqrt(vi^2 + 2*a*d), where vi = successor.
-                double newMaxVelocity = Math.sqrt(
-                        successor.maxVelocityMetersPerSecond * successor.maxVelocityMetersPerSecond
-                                + successor.minAccelerationMetersPerSecondSq * ds * 2.0
+            constrainBackward(successor, constrainedState, constraints, reversed);
+            successor = constrainedState;
+        }
+
+        return integrate(constrainedStates, reversed);
+    }
+
+    /**
+     * Constrains a state in the forward pass, given its predecessor. The pose of the state
+     * must already be set. The max acceleration of the predecessor may be lowered.
+     */
+    static void constrainForward(ConstrainedState predecessor, ConstrainedState constrainedState,
+                                 List<TrajectoryConstraint> constraints,
+                                 double maxVelocityMetersPerSecond,
+                                 double maxAccelerationMetersPerSecondSq, boolean reversed) {
+        // Begin constraining based on predecessor.
+        double ds = constrainedState.pose.poseMeters.getTranslation().getDistance(
+                predecessor.pose.poseMeters.getTranslation());
+        constrainedState.distanceMeters = predecessor.distanceMeters + ds;
+
+        // We may need to iterate to find the maximum end velocity and common
+        // acceleration, since acceleration limits may be a function of velocity.
+        while (true) {
+            // Enforce global max velocity and max reachable velocity by global
+            // acceleration limit. vf = std::sqrt(vi^2 + 2*a*d).
+            constrainedState.maxVelocityMetersPerSecond = Math.min(
+                    maxVelocityMetersPerSecond,
+                    Math.sqrt(predecessor.maxVelocityMetersPerSecond
+                            * predecessor.maxVelocityMetersPerSecond
+                            + predecessor.maxAccelerationMetersPerSecondSq * ds * 2.0)
+            );
+
+            constrainedState.minAccelerationMetersPerSecondSq = -maxAccelerationMetersPerSecondSq;
+            constrainedState.maxAccelerationMetersPerSecondSq = maxAccelerationMetersPerSecondSq;
+
+            // At this point, the constrained state is fully constructed apart from
+            // all the custom-defined user constraints.
+            for (final TrajectoryConstraint constraint : constraints) {
+                constrainedState.maxVelocityMetersPerSecond = Math.min(
+                        constrainedState.maxVelocityMetersPerSecond,
+                        constraint.getMaxVelocityMetersPerSecond(
+                                constrainedState.pose.poseMeters, constrainedState.pose.curvatureRadPerMeter,
+                                constrainedState.maxVelocityMetersPerSecond)
                 );
+            }
+
+            // Now enforce all acceleration limits.
+            enforceAccelerationLimits(reversed, constraints, constrainedState);
+
+            if (ds < 1E-6) {
+                break;
+            }
 
-                // No more limits to impose! This state can be finalized.
-                if (newMaxVelocity >= constrainedState.maxVelocityMetersPerSecond) {
-                    break;
+            // If the actual acceleration for this state is higher than the max
+            // acceleration that we applied, then we need to reduce the max
+            // acceleration of the predecessor and try again.
+            double actualAcceleration = (constrainedState.maxVelocityMetersPerSecond
+                    * constrainedState.maxVelocityMetersPerSecond
+                    - predecessor.maxVelocityMetersPerSecond * predecessor.maxVelocityMetersPerSecond)
+                    / (ds * 2.0);
+
+            // If we violate the max acceleration constraint, let's modify the
+            // predecessor.
+            if (constrainedState.maxAccelerationMetersPerSecondSq < actualAcceleration - 1E-6) {
+                predecessor.maxAccelerationMetersPerSecondSq
+                        = constrainedState.maxAccelerationMetersPerSecondSq;
+            } else {
+                // Constrain the predecessor's max acceleration to the current
+                // acceleration.
+                if (actualAcceleration > predecessor.minAccelerationMetersPerSecondSq) {
+                    predecessor.maxAccelerationMetersPerSecondSq = actualAcceleration;
                 }
+                // If the actual acceleration is less than the predecessor's min
+                // acceleration, it will be repaired in the backward pass.
+                break;
+            }
+        }
+    }
 
-                constrainedState.maxVelocityMetersPerSecond = newMaxVelocity;
+    /**
+     * Constrains a state in the backward pass, given its successor. The min acceleration
+     * of the successor may be raised.
+     */
+    static void constrainBackward(ConstrainedState successor, ConstrainedState constrainedState,
+                                  List<TrajectoryConstraint> constraints, boolean reversed) {
+        double ds = constrainedState.distanceMeters - successor.distanceMeters; // negative
+
+        while (true) {
+            // Enforce max velocity limit (reverse)
+            // vf = std::sqrt(vi^2 + 2*a*d), where vi = successor.
+            double newMaxVelocity = Math.sqrt(
+                    successor.maxVelocityMetersPerSecond * successor.maxVelocityMetersPerSecond
+                            + successor.minAccelerationMetersPerSecondSq * ds * 2.0
+            );
+
+            // No more limits to impose! This state can be finalized.
+            if (newMaxVelocity >= constrainedState.maxVelocityMetersPerSecond) {
+                break;
+            }
 
-                // Check all acceleration constraints with the new max velocity.
-                enforceAccelerationLimits(reversed, constraints, constrainedState);
+            constrainedState.maxVelocityMetersPerSecond = newMaxVelocity;
 
-                if (ds > -1E-6) {
-                    break;
-                }
+            // Check all acceleration constraints with the new max velocity.
+            enforceAccelerationLimits(reversed, constraints, constrainedState);
 
-                // If the actual acceleration for this state is lower than the min
-                // acceleration, then we need to lower the min acceleration of the
-                // successor and try again.
-                double actualAcceleration = (constrainedState.maxVelocityMetersPerSecond
-                        * constrainedState.maxVelocityMetersPerSecond
-                        - successor.maxVelocityMetersPerSecond * successor.maxVelocityMetersPerSecond)
-                        / (ds * 2.0);
-
-                if (constrainedState.minAccelerationMetersPerSecondSq > actualAcceleration + 1E-6) {
-                    successor.minAccelerationMetersPerSecondSq
-                            = constrainedState.minAccelerationMetersPerSecondSq;
-                } else {
-                    successor.minAccelerationMetersPerSecondSq = actualAcceleration;
-                    break;
-                }
+            if (ds > -1E-6) {
+                break;
+            }
+
+            // If the actual acceleration for this state is lower than the min
+            // acceleration, then we need to lower the min acceleration of the
+            // successor and try again.
+            double actualAcceleration = (constrainedState.maxVelocityMetersPerSecond
+                    * constrainedState.maxVelocityMetersPerSecond
+                    - successor.maxVelocityMetersPerSecond * successor.maxVelocityMetersPerSecond)
+                    / (ds * 2.0);
+
+            if (constrainedState.minAccelerationMetersPerSecondSq > actualAcceleration + 1E-6) {
+                successor.minAccelerationMetersPerSecondSq
+                        = constrainedState.minAccelerationMetersPerSecondSq;
+            } else {
+                successor.minAccelerationMetersPerSecondSq = actualAcceleration;
+                break;
             }
-            successor = constrainedState;
         }
+    }
 
+    /**
+     * Integrates the constrained states forward in time to obtain the trajectory.
+     */
+    @SuppressWarnings("PMD.AvoidThrowingRawExceptionTypes")
+    static Trajectory integrate(List<ConstrainedState> constrainedStates, boolean reversed) {
         // Now we can integrate the constrained states forward in time to obtain our
         // trajectory states.
-        ArrayList<Trajectory.State> states = new ArrayList<Trajectory.State>(points.size());
+        ArrayList<Trajectory.State> states = new ArrayList<Trajectory.State>(constrainedStates.size());
         double timeSeconds = 0.0;
         double distanceMeters = 0.0;
         double velocityMetersPerSecond = 0.0;
@@ -257,9 +285,9 @@ public final class TrajectoryParameterizer {
         return new Trajectory(states);
     }
 
-    private static void enforceAccelerationLimits(boolean reverse,
-                                                  List<TrajectoryConstraint> constraints,
-                                                  ConstrainedState state) {
+    static void enforceAccelerationLimits(boolean reverse,
+                                          List<TrajectoryConstraint> constraints,
+                                          ConstrainedState state) {
 
         for (final TrajectoryConstraint constraint : constraints) {
             double factor = reverse ? -1.0 : 1.0;
@@ -279,7 +307,7 @@ public final class TrajectoryParameterizer {
     }
 
     @SuppressWarnings("MemberName")
-    private static class ConstrainedState {
+    static class ConstrainedState {
         PoseWithCurvature pose;
         double distanceMeters;
         double maxVelocityMetersPerSecond;
@@ -300,5 +328,10 @@ public final class TrajectoryParameterizer {
         ConstrainedState() {
             pose = new PoseWithCurvature();
         }
+
+        ConstrainedState(ConstrainedState other) {
+            this(other.pose, other.distanceMeters, other.maxVelocityMetersPerSecond,
+                    other.minAccelerationMetersPerSecondSq, other.maxAccelerationMetersPerSecondSq);
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import android.os.Build;
+
+import androidx.annotation.RequiresApi;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Generates the trajectories of {@link TrajectoryLibrary.Declaration}s ahead of time, on the
+ * build machine, and writes them as files that {@link PrecompiledTrajectories} loads on the robot.
+ * <p>
+ * This runs on a regular JVM. For example, in the TeamCode {@code build.gradle}:
+ *
+ * <pre>{@code
+ * tasks.register("precompileTrajectories", JavaExec) {
+ *     dependsOn "compileDebugJavaWithJavac"
+ *     classpath = files(tasks.compileDebugJavaWithJavac.destinationDirectory) +
+ *             android.applicationVariants.find { it.name == "debug" }.javaCompileProvider.get().classpath
+ *     mainClass = "com.seattlesolvers.solverslib.trajectory.TrajectoryPrecompiler"
+ *     args "src/main/assets/trajectories", "org.firstinspires.ftc.teamcode.AutoTrajectories"
+ * }
+ * }</pre>
+ *
+ * Then run {@code ./gradlew precompileTrajectories} whenever the declarations change, so the
+ * generated files are packaged into the APK as assets.
+ */
+@RequiresApi(api = Build.VERSION_CODES.N)
+public final class TrajectoryPrecompiler {
+
+    private TrajectoryPrecompiler() {
+    }
+
+    /**
+     * Precompiles the trajectories of the given declarations.
+     *
+     * @param args The output directory, followed by the fully qualified class names
+     *             of one or more {@link TrajectoryLibrary.Declaration}s.
+     * @throws Exception if a declaration could not be created or a trajectory could not be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException(
+                    "Usage: TrajectoryPrecompiler <output directory> <declaration class>...");
+        }
+
+        File directory = new File(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            TrajectoryLibrary.Declaration declaration = (TrajectoryLibrary.Declaration)
+                    Class.forName(args[i]).getDeclaredConstructor().newInstance();
+            int count = precompile(TrajectoryLibrary.of(declaration), directory);
+            System.out.println("Precompiled " + count + " trajectories from " + args[i] + " into " + directory);
+        }
+    }
+
+    /**
+     * Generates every trajectory in the library and writes it to the given directory,
+     * as {@code <name>.traj}.
+     *
+     * @param library   The library to precompile.
+     * @param directory The directory to write to.
+     * @return The number of trajectories written.
+     * @throws IOException if a trajectory could not be written
+     */
+    public static int precompile(TrajectoryLibrary library, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        int count = 0;
+        for (String name : library.getNames()) {
+            Trajectory trajectory = library.generate(name);
+            if (trajectory.getStates().size() <= 1) {
+                throw new IllegalStateException("Could not generate trajectory " + name + ".");
+            }
+
+            File file = new File(directory, name + PrecompiledTrajectories.EXTENSION);
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(TrajectoryCache.encode(CompactTrajectory.fromTrajectory(trajectory)).array());
+            }
+            count++;
+        }
+        return count;
+    }
+}
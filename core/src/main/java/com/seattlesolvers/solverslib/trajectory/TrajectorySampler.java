@@ -0,0 +1,262 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+
+/**
+ * Samples a {@link Trajectory} without allocating. The sampler remembers the segment
+ * of the last sample, so when the requested times are increasing (such as when following
+ * the trajectory with a timer), each lookup only steps forward a few states instead of
+ * binary searching the whole trajectory. Going back in time falls back to a binary search.
+ * <p>
+ * The result is written into a caller-owned {@link Sample}, which is reused every loop.
+ * The sampler works on a {@link CompactTrajectory}, so no state objects are touched either.
+ * The interpolation matches {@link Trajectory#sample(double)}.
+ * <p>
+ * A sampler created from a {@link TrajectoryView} samples the states the view shares, and
+ * moves each sample into the frame of the view.
+ */
+public class TrajectorySampler {
+    private final CompactTrajectory m_trajectory;
+    private final TrajectoryView m_view;
+
+    // The index of the first state at or after the last sampled time.
+    private int m_index = 1;
+
+    /**
+     * Constructs a sampler for the given trajectory. Unless the trajectory is a
+     * {@link TrajectoryView}, the states are copied into a {@link CompactTrajectory} once, here.
+     *
+     * @param trajectory The trajectory to sample.
+     */
+    public TrajectorySampler(Trajectory trajectory) {
+        this(trajectory instanceof TrajectoryView
+                        ? ((TrajectoryView) trajectory).getBase()
+                        : CompactTrajectory.fromTrajectory(trajectory),
+                trajectory instanceof TrajectoryView ? (TrajectoryView) trajectory : null);
+    }
+
+    /**
+     * Constructs a sampler for the given compact trajectory.
+     *
+     * @param trajectory The trajectory to sample.
+     */
+    public TrajectorySampler(CompactTrajectory trajectory) {
+        this(trajectory, null);
+    }
+
+    private TrajectorySampler(CompactTrajectory trajectory, TrajectoryView view) {
+        m_trajectory = trajectory;
+        m_view = view;
+    }
+
+    /**
+     * Returns the trajectory being sampled. For a {@link TrajectoryView}, this is
+     * the untransformed trajectory it shares.
+     *
+     * @return The trajectory being sampled.
+     */
+    public CompactTrajectory getTrajectory() {
+        return m_trajectory;
+    }
+
+    /**
+     * Moves the cursor back to the start of the trajectory.
+     */
+    public void reset() {
+        m_index = 1;
+    }
+
+    /**
+     * Samples the trajectory at a point in time and writes the result into the given sample.
+     *
+     * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+     * @param out         The sample to write the state into.
+     * @return The given sample, for chaining.
+     */
+    public Sample sample(double timeSeconds, Sample out) {
+        sampleTrajectory(timeSeconds, out);
+        if (m_view != null) {
+            m_view.apply(out);
+        }
+        return out;
+    }
+
+    private Sample sampleTrajectory(double timeSeconds, Sample out) {
+        final CompactTrajectory trajectory = m_trajectory;
+        final int last = trajectory.size() - 1;
+
+        if (last == 0 || timeSeconds <= trajectory.getTime(0)) {
+            return out.set(trajectory, 0);
+        }
+        if (timeSeconds >= trajectory.getTotalTimeSeconds()) {
+            return out.set(trajectory, last);
+        }
+
+        if (timeSeconds < trajectory.getTime(m_index - 1)) {
+            m_index = search(timeSeconds);
+        }
+        while (m_index < last && trajectory.getTime(m_index) < timeSeconds) {
+            m_index++;
+        }
+
+        // If the difference in states is negligible, then we are spot on!
+        if (Math.abs(trajectory.getTime(m_index) - trajectory.getTime(m_index - 1)) < 1E-9) {
+            return out.set(trajectory, m_index);
+        }
+
+        return interpolate(trajectory, m_index - 1, m_index, timeSeconds, out);
+    }
+
+    /**
+     * Binary searches for the first state at or after the given time.
+     *
+     * @param timeSeconds The time to search for.
+     * @return The index of the state.
+     */
+    private int search(double timeSeconds) {
+        int low = 1;
+        int high = m_trajectory.size() - 1;
+
+        while (low != high) {
+            int mid = (low + high) / 2;
+            if (m_trajectory.getTime(mid) < timeSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Interpolates between two states in the same way as {@link Trajectory.State},
+     * but on primitives.
+     */
+    static Sample interpolate(CompactTrajectory trajectory, int start, int end,
+                              double timeSeconds, Sample out) {
+        final double deltaT = timeSeconds - trajectory.getTime(start);
+        final double velocity = trajectory.getVelocity(start);
+        final double acceleration = trajectory.getAcceleration(start);
+
+        // Check whether the robot is reversing at this stage.
+        final boolean reversing = velocity < 0 || Math.abs(velocity) < 1E-9 && acceleration < 0;
+
+        // v_f = v_0 + at
+        final double newV = velocity + acceleration * deltaT;
+
+        // delta_s = v_0 t + 0.5 at^2
+        final double newS = (velocity * deltaT + 0.5 * acceleration * deltaT * deltaT) * (reversing ? -1.0 : 1.0);
+
+        final double startX = trajectory.getX(start);
+        final double startY = trajectory.getY(start);
+        final double dx = trajectory.getX(end) - startX;
+        final double dy = trajectory.getY(end) - startY;
+        final double distance = Math.hypot(dx, dy);
+        final double frac = distance > 1E-9 ? newS / distance : 0.0;
+
+        final double startHeading = trajectory.getHeading(start);
+        final double headingDelta = normalize(trajectory.getHeading(end) - startHeading);
+        final double startCurvature = trajectory.getCurvature(start);
+
+        out.timeSeconds = timeSeconds;
+        out.velocityMetersPerSecond = newV;
+        out.accelerationMetersPerSecondSq = acceleration;
+        out.xMeters = startX + dx * frac;
+        out.yMeters = startY + dy * frac;
+        out.headingRadians = normalize(startHeading + headingDelta * frac);
+        out.curvatureRadPerMeter = startCurvature + (trajectory.getCurvature(end) - startCurvature) * frac;
+        return out;
+    }
+
+    static double normalize(double radians) {
+        while (radians > Math.PI) radians -= 2 * Math.PI;
+        while (radians < -Math.PI) radians += 2 * Math.PI;
+        return radians;
+    }
+
+    /**
+     * A mutable trajectory state made of primitives, written to by {@link TrajectorySampler}.
+     */
+    @SuppressWarnings("MemberName")
+    public static class Sample {
+        // The time elapsed since the beginning of the trajectory.
+        public double timeSeconds;
+
+        // The speed at that point of the trajectory.
+        public double velocityMetersPerSecond;
+
+        // The acceleration at that point of the trajectory.
+        public double accelerationMetersPerSecondSq;
+
+        // The pose at that point of the trajectory.
+        public double xMeters;
+        public double yMeters;
+        public double headingRadians;
+
+        // The curvature at that point of the trajectory.
+        public double curvatureRadPerMeter;
+
+        /**
+         * Copies the given state into this sample.
+         *
+         * @param state The state to copy.
+         * @return This sample, for chaining.
+         */
+        public Sample set(Trajectory.State state) {
+            timeSeconds = state.timeSeconds;
+            velocityMetersPerSecond = state.velocityMetersPerSecond;
+            accelerationMetersPerSecondSq = state.accelerationMetersPerSecondSq;
+            xMeters = state.poseMeters.getTranslation().getX();
+            yMeters = state.poseMeters.getTranslation().getY();
+            headingRadians = state.poseMeters.getRotation().getRadians();
+            curvatureRadPerMeter = state.curvatureRadPerMeter;
+            return this;
+        }
+
+        /**
+         * Copies the state at the given index of a compact trajectory into this sample.
+         *
+         * @param trajectory The trajectory to copy from.
+         * @param index      The index of the state.
+         * @return This sample, for chaining.
+         */
+        public Sample set(CompactTrajectory trajectory, int index) {
+            timeSeconds = trajectory.getTime(index);
+            velocityMetersPerSecond = trajectory.getVelocity(index);
+            accelerationMetersPerSecondSq = trajectory.getAcceleration(index);
+            xMeters = trajectory.getX(index);
+            yMeters = trajectory.getY(index);
+            headingRadians = trajectory.getHeading(index);
+            curvatureRadPerMeter = trajectory.getCurvature(index);
+            return this;
+        }
+
+        /**
+         * Creates a new pose from this sample. Note that this allocates.
+         *
+         * @return The pose at this sample.
+         */
+        public Pose2d getPose() {
+            return new Pose2d(xMeters, yMeters, new Rotation2d(headingRadians));
+        }
+
+        /**
+         * Creates a new {@link Trajectory.State} from this sample. Note that this allocates.
+         *
+         * @return The state at this sample.
+         */
+        public Trajectory.State toState() {
+            return new Trajectory.State(timeSeconds, velocityMetersPerSecond,
+                    accelerationMetersPerSecondSq, getPose(), curvatureRadPerMeter);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Sample(Sec: %.2f, Vel m/s: %.2f, Accel m/s/s: %.2f, X: %.2f, Y: %.2f, Heading: %.2f, Curvature: %.2f)",
+                    timeSeconds, velocityMetersPerSecond, accelerationMetersPerSecondSq,
+                    xMeters, yMeters, headingRadians, curvatureRadPerMeter);
+        }
+    }
+}
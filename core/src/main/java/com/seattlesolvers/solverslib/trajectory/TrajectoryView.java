@@ -0,0 +1,261 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Transform2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+
+import java.util.AbstractList;
+
+/**
+ * A trajectory that shares the states of a {@link CompactTrajectory} and moves them into
+ * another frame only when they are read. Transforming, re-basing or mirroring a view creates
+ * another view over the same states, so a single generated trajectory can be used for both
+ * alliances and every start position without copying it.
+ * <p>
+ * A view is a regular {@link Trajectory}, so it can be passed to any command. Each state read
+ * through {@link #getStates()} or {@link #sample(double)} is created on the fly, while a
+ * {@link TrajectorySampler} created from a view samples the shared states without allocating.
+ * Sampling searches the times of the shared states, and only the sampled state is transformed.
+ *
+ * <pre>{@code
+ * TrajectoryView blue = TrajectoryView.of(trajectory);
+ * TrajectoryView red = blue.mirrored(new Rotation2d()); // mirror across the x axis
+ * }</pre>
+ */
+public class TrajectoryView extends Trajectory {
+    private final CompactTrajectory m_base;
+    private final Frame m_frame;
+
+    /**
+     * Creates a view of the given compact trajectory, with no transformation.
+     *
+     * @param base The trajectory to view.
+     */
+    public TrajectoryView(CompactTrajectory base) {
+        this(base, Frame.IDENTITY);
+    }
+
+    private TrajectoryView(CompactTrajectory base, Frame frame) {
+        super(new States(base, frame));
+        m_base = base;
+        m_frame = frame;
+    }
+
+    /**
+     * Creates a view of the given trajectory. If it is already a view, the new view shares its
+     * states and transformation. Otherwise, the states are copied into a compact trajectory once.
+     *
+     * @param trajectory The trajectory to view.
+     * @return The view.
+     */
+    public static TrajectoryView of(Trajectory trajectory) {
+        if (trajectory instanceof TrajectoryView) {
+            return (TrajectoryView) trajectory;
+        }
+        return new TrajectoryView(CompactTrajectory.fromTrajectory(trajectory));
+    }
+
+    /**
+     * Returns the untransformed states that this view shares.
+     *
+     * @return The underlying trajectory.
+     */
+    public CompactTrajectory getBase() {
+        return m_base;
+    }
+
+    /**
+     * Returns a view with all poses transformed by the given transform, with respect to the
+     * first pose of the trajectory, in the same way as {@link Trajectory#transformBy(Transform2d)}.
+     *
+     * @param transform The transform to transform the trajectory by.
+     * @return The transformed view.
+     */
+    @Override
+    public TrajectoryView transformBy(Transform2d transform) {
+        Pose2d firstPose = getInitialPose();
+        Pose2d newFirstPose = firstPose.plus(transform);
+
+        // Maps the first pose onto the new first pose, keeping everything relative to it.
+        double rotation = newFirstPose.getRotation().getRadians() - firstPose.getRotation().getRadians();
+        Frame frame = Frame.rigid(rotation,
+                newFirstPose.getTranslation().minus(firstPose.getTranslation().rotateBy(new Rotation2d(rotation))));
+        return new TrajectoryView(m_base, m_frame.then(frame));
+    }
+
+    /**
+     * Returns a view with all poses relative to the given pose, in the same way as
+     * {@link Trajectory#relativeTo(Pose2d)}.
+     *
+     * @param pose The pose that is the origin of the coordinate frame that
+     *             the current trajectory will be transformed into.
+     * @return The transformed view.
+     */
+    @Override
+    public TrajectoryView relativeTo(Pose2d pose) {
+        Rotation2d inverse = pose.getRotation().unaryMinus();
+        Frame frame = Frame.rigid(inverse.getRadians(), pose.getTranslation().rotateBy(inverse).unaryMinus());
+        return new TrajectoryView(m_base, m_frame.then(frame));
+    }
+
+    /**
+     * Returns a view mirrored across the line through the given point in the given direction.
+     * Headings and curvatures are mirrored as well, so the robot drives the mirrored path
+     * the same way it drives this one.
+     *
+     * @param point A point on the mirror line.
+     * @param axis  The direction of the mirror line.
+     * @return The mirrored view.
+     */
+    public TrajectoryView mirrored(Translation2d point, Rotation2d axis) {
+        // Reflecting across a line through the origin at angle a is a rotation by 2a of the
+        // pose mirrored across the x axis. The translation moves the line through the point.
+        double rotation = 2 * axis.getRadians();
+        Translation2d reflected = new Translation2d(point.getX(), -point.getY()).rotateBy(new Rotation2d(rotation));
+        Frame frame = new Frame(rotation, point.getX() - reflected.getX(), point.getY() - reflected.getY(), true);
+        return new TrajectoryView(m_base, m_frame.then(frame));
+    }
+
+    /**
+     * Returns a view mirrored across the line through the origin in the given direction.
+     *
+     * @param axis The direction of the mirror line.
+     * @return The mirrored view.
+     * @see #mirrored(Translation2d, Rotation2d)
+     */
+    public TrajectoryView mirrored(Rotation2d axis) {
+        return mirrored(new Translation2d(), axis);
+    }
+
+    /**
+     * Sample the trajectory at a point in time. The shared states are searched and interpolated
+     * as they are, and only the result is moved into the frame of this view.
+     *
+     * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+     * @return The state at that point in time.
+     */
+    @Override
+    public State sample(double timeSeconds) {
+        final CompactTrajectory base = m_base;
+        final int last = base.size() - 1;
+        TrajectorySampler.Sample sample = new TrajectorySampler.Sample();
+
+        if (timeSeconds <= base.getTime(0)) {
+            sample.set(base, 0);
+        } else if (timeSeconds >= base.getTotalTimeSeconds()) {
+            sample.set(base, last);
+        } else {
+            // Binary search for the first state at or after the given time.
+            int low = 1;
+            int high = last;
+            while (low != high) {
+                int mid = (low + high) / 2;
+                if (base.getTime(mid) < timeSeconds) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            // If the difference in states is negligible, then we are spot on!
+            if (Math.abs(base.getTime(low) - base.getTime(low - 1)) < 1E-9) {
+                sample.set(base, low);
+            } else {
+                TrajectorySampler.interpolate(base, low - 1, low, timeSeconds, sample);
+            }
+        }
+
+        m_frame.apply(sample);
+        return sample.toState();
+    }
+
+    /**
+     * Moves a sample of the underlying trajectory into the frame of this view.
+     *
+     * @param sample The sample to transform in place.
+     */
+    void apply(TrajectorySampler.Sample sample) {
+        m_frame.apply(sample);
+    }
+
+    /**
+     * The states of a view, created when they are read.
+     */
+    private static class States extends AbstractList<State> {
+        private final CompactTrajectory m_base;
+        private final Frame m_frame;
+
+        States(CompactTrajectory base, Frame frame) {
+            m_base = base;
+            m_frame = frame;
+        }
+
+        @Override
+        public State get(int index) {
+            TrajectorySampler.Sample sample = new TrajectorySampler.Sample().set(m_base, index);
+            m_frame.apply(sample);
+            return sample.toState();
+        }
+
+        @Override
+        public int size() {
+            return m_base.size();
+        }
+    }
+
+    /**
+     * A rigid transformation of the plane, optionally preceded by a mirror across the x axis.
+     */
+    private static class Frame {
+        static final Frame IDENTITY = rigid(0, new Translation2d());
+
+        private final double m_rotation;
+        private final double m_cos;
+        private final double m_sin;
+        private final double m_x;
+        private final double m_y;
+        private final boolean m_mirror;
+
+        Frame(double rotation, double x, double y, boolean mirror) {
+            m_rotation = rotation;
+            m_cos = Math.cos(rotation);
+            m_sin = Math.sin(rotation);
+            m_x = x;
+            m_y = y;
+            m_mirror = mirror;
+        }
+
+        static Frame rigid(double rotation, Translation2d translation) {
+            return new Frame(rotation, translation.getX(), translation.getY(), false);
+        }
+
+        /**
+         * Returns the frame that applies this frame, then the given one.
+         */
+        Frame then(Frame next) {
+            // A mirror turns a rotation the other way, so mirror the rotation of this frame
+            // if the next one is mirrored.
+            double rotation = next.m_rotation + (next.m_mirror ? -m_rotation : m_rotation);
+            double y = next.m_mirror ? -m_y : m_y;
+            return new Frame(rotation,
+                    next.m_cos * m_x - next.m_sin * y + next.m_x,
+                    next.m_sin * m_x + next.m_cos * y + next.m_y,
+                    m_mirror != next.m_mirror);
+        }
+
+        void apply(TrajectorySampler.Sample sample) {
+            double y = sample.yMeters;
+            double heading = sample.headingRadians;
+            if (m_mirror) {
+                y = -y;
+                heading = -heading;
+                sample.curvatureRadPerMeter = -sample.curvatureRadPerMeter;
+            }
+            double x = sample.xMeters;
+            sample.xMeters = m_cos * x - m_sin * y + m_x;
+            sample.yMeters = m_sin * x + m_cos * y + m_y;
+            sample.headingRadians = TrajectorySampler.normalize(heading + m_rotation);
+        }
+    }
+}
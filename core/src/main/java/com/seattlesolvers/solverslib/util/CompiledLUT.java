@@ -0,0 +1,128 @@
+package com.seattlesolvers.solverslib.util;
+
+import java.util.Arrays;
+
+/**
+ * An immutable lookup table that returns the value of the closest key, like
+ * {@link LUT#getClosest(Number)}, with its keys in a sorted primitive array. Lookups binary
+ * search the keys, or index them directly when the keys are evenly spaced, and never box.
+ * <p>
+ * Build it once from a {@link LUT} with {@link LUT#compile()}, or from arrays of keys and values.
+ *
+ * @param <R> the type of the values
+ */
+public class CompiledLUT<R> {
+    // Keys evenly spaced to within this fraction of the spacing are indexed directly.
+    private static final double UNIFORM_TOLERANCE = 1E-9;
+
+    private final double[] keys;
+    private final Object[] values;
+    private final boolean uniform;
+    private final double spacing;
+
+    /**
+     * Creates a lookup table from its keys and values.
+     *
+     * @param keys   the keys, strictly increasing
+     * @param values the value of each key
+     * @throws IllegalArgumentException if the arrays are of different lengths or the keys are not
+     *                                  strictly increasing
+     */
+    public CompiledLUT(double[] keys, R[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("There must be a value for every key.");
+        }
+        for (int i = 0; i < keys.length - 1; i++) {
+            if (!(keys[i + 1] > keys[i])) {
+                throw new IllegalArgumentException("The keys must be strictly increasing.");
+            }
+        }
+        this.keys = Arrays.copyOf(keys, keys.length);
+        this.values = Arrays.copyOf(values, values.length, Object[].class);
+
+        int n = keys.length;
+        spacing = n > 1 ? (keys[n - 1] - keys[0]) / (n - 1) : 0;
+        boolean even = n > 2;
+        for (int i = 1; i < n - 1 && even; i++) {
+            even = Math.abs(keys[i] - (keys[0] + i * spacing)) <= UNIFORM_TOLERANCE * spacing;
+        }
+        uniform = even;
+    }
+
+    /**
+     * Returns the index of the closest key to the given key. Of two keys that are equally
+     * close, the larger one is chosen.
+     *
+     * @param key the input key
+     * @return the index of the closest key, or -1 if the table is empty
+     */
+    public int getClosestIndex(double key) {
+        final int n = keys.length;
+        if (n < 2) {
+            return n - 1;
+        }
+        if (key <= keys[0]) {
+            return 0;
+        }
+        if (key >= keys[n - 1]) {
+            return n - 1;
+        }
+
+        int floor;
+        if (uniform) {
+            // Within rounding of the true floor, which the comparisons below correct.
+            floor = Math.min(n - 2, (int) ((key - keys[0]) / spacing));
+            if (floor > 0 && keys[floor] > key) {
+                floor--;
+            } else if (floor < n - 2 && keys[floor + 1] <= key) {
+                floor++;
+            }
+        } else {
+            floor = InterpLUT.findInterval(keys, n, key, -1);
+        }
+        return key - keys[floor] < keys[floor + 1] - key ? floor : floor + 1;
+    }
+
+    /**
+     * Returns the value of the closest key to the given key.
+     *
+     * @param key the input key
+     * @return the closest value to the input key, or null if the table is empty
+     */
+    @SuppressWarnings("unchecked")
+    public R getClosest(double key) {
+        int index = getClosestIndex(key);
+        return index < 0 ? null : (R) values[index];
+    }
+
+    /**
+     * @param index the index of a key
+     * @return the key at that index
+     */
+    public double getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index the index of a key
+     * @return the value of the key at that index
+     */
+    @SuppressWarnings("unchecked")
+    public R getValue(int index) {
+        return (R) values[index];
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return whether the keys are evenly spaced, so lookups index them directly
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+}
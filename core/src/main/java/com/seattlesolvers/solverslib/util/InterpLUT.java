@@ -1,26 +1,44 @@
 package com.seattlesolvers.solverslib.util;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * Performs spline interpolation given a set of control points.
+ * <p>
+ * The control points are stored in primitive arrays, and lookups binary search for the
+ * interval of the input, starting with the interval of the previous lookup, so querying a
+ * large table every loop is cheap.
  *
  * @author Arush - 23511 (for the additional constructor and chained calls)
  */
 public class InterpLUT {
 
-    private List<Double> mX = new ArrayList<>();
-    private List<Double> mY = new ArrayList<>();
-    private List<Double> mM = new ArrayList<>();
-
-    private InterpLUT(List<Double> x, List<Double> y, List<Double> m) {
-        mX = x;
-        mY = y;
-        mM = m;
+    /**
+     * What {@link #get(double)} does with an input outside of the control points.
+     */
+    public enum BoundaryMode {
+        /**
+         * Throws an {@link IllegalArgumentException}.
+         */
+        THROW,
+        /**
+         * Returns the output of the nearest control point.
+         */
+        CLAMP,
+        /**
+         * Continues the spline as a line with its slope at the nearest control point.
+         */
+        EXTRAPOLATE
     }
 
+    private double[] mX = new double[8];
+    private double[] mY = new double[8];
+    private double[] mM;
+    private int mSize;
+    private int mLastIndex;
+    private BoundaryMode mBoundaryMode = BoundaryMode.THROW;
+
     public InterpLUT(List<Double> input, List<Double> output) {
         if (input == null || output == null || input.size() != output.size() || input.size() < 2) {
             throw new IllegalArgumentException("There must be at least two control "
@@ -28,11 +46,21 @@ public class InterpLUT {
         }
 
         for (int i = 0; i < input.size(); i++) {
-            mX.add(input.get(i));
-            mY.add(output.get(i));
+            add(input.get(i), output.get(i));
         }
     }
 
+    public InterpLUT(double[] input, double[] output) {
+        if (input == null || output == null || input.length != output.length || input.length < 2) {
+            throw new IllegalArgumentException("There must be at least two control "
+                    + "points and the arrays must be of equal length.");
+        }
+
+        mX = Arrays.copyOf(input, input.length);
+        mY = Arrays.copyOf(output, output.length);
+        mSize = input.length;
+    }
+
     public InterpLUT() {
     }
 
@@ -43,12 +71,36 @@ public class InterpLUT {
      * @return this class (for chaining calls)
      */
     public InterpLUT add(double input, double output) {
-        mX.add(input);
-        mY.add(output);
+        if (mSize == mX.length) {
+            mX = Arrays.copyOf(mX, mSize * 2);
+            mY = Arrays.copyOf(mY, mSize * 2);
+        }
+        mX[mSize] = input;
+        mY[mSize] = output;
+        mSize++;
 
         return this;
     }
 
+    /**
+     * Sets what {@link #get(double)} does with an input outside of the control points,
+     * which is {@link BoundaryMode#THROW} by default.
+     *
+     * @param mode the boundary mode
+     * @return this class (for chaining calls)
+     */
+    public InterpLUT setBoundaryMode(BoundaryMode mode) {
+        mBoundaryMode = mode;
+        return this;
+    }
+
+    /**
+     * @return what {@link #get(double)} does with an input outside of the control points
+     */
+    public BoundaryMode getBoundaryMode() {
+        return mBoundaryMode;
+    }
+
     /**
      * Creates a monotone cubic spline from a given set of control points.
      *
@@ -60,28 +112,26 @@ public class InterpLUT {
      * @throws IllegalArgumentException if the X values are not strictly increasing.
      * @return this class (for chaining calls)
      */
-    //public static LUTWithInterpolator createLUT(List<Double> x, List<Double> y) {
     public InterpLUT createLUT() {
-        List<Double> x = this.mX;
-        List<Double> y = this.mY;
-
-        if (x == null || y == null || x.size() != y.size() || x.size() < 2) {
+        final int n = mSize;
+        if (n < 2) {
             throw new IllegalArgumentException("There must be at least two control "
                     + "points and the arrays must be of equal length.");
         }
 
-        final int n = x.size();
-        Double[] d = new Double[n - 1]; // could optimize this out
-        Double[] m = new Double[n];
+        double[] x = mX;
+        double[] y = mY;
+        double[] d = new double[n - 1];
+        double[] m = new double[n];
 
         // Compute slopes of secant lines between successive points.
         for (int i = 0; i < n - 1; i++) {
-            Double h = x.get(i + 1) - x.get(i);
+            double h = x[i + 1] - x[i];
             if (h <= 0f) {
                 throw new IllegalArgumentException("The control points must all "
                         + "have strictly increasing X values.");
             }
-            d[i] = (y.get(i + 1) - y.get(i)) / h;
+            d[i] = (y[i + 1] - y[i]) / h;
         }
 
         // Initialize the tangents as the average of the secants.
@@ -94,8 +144,8 @@ public class InterpLUT {
         // Update the tangents to preserve monotonicity.
         for (int i = 0; i < n - 1; i++) {
             if (d[i] == 0f) { // successive Y values are equal
-                m[i] = Double.valueOf(0f);
-                m[i + 1] = Double.valueOf(0f);
+                m[i] = 0;
+                m[i + 1] = 0;
             } else {
                 double a = m[i] / d[i];
                 double b = m[i + 1] / d[i];
@@ -107,65 +157,105 @@ public class InterpLUT {
                 }
             }
         }
-        mX = x;
-        mY = y;
-        mM = Arrays.asList(m);
+        mM = m;
+        mLastIndex = 0;
 
         return this;
     }
 
     /**
-     * Interpolates the value of Y = f(X) for given X. Clamps X to the domain of the spline.
+     * Interpolates the value of Y = f(X) for given X. Inputs outside of the control points are
+     * handled according to the {@link BoundaryMode}.
      *
      * @param input The X value.
      * @return The interpolated Y = f(X) value.
      */
     public double get(double input) {
         // Handle the boundary cases.
-        final int n = mX.size();
+        final int n = mSize;
         if (Double.isNaN(input)) {
             return input;
         }
-        if (input <= mX.get(0)) {
-            throw new IllegalArgumentException("User requested value outside of bounds of LUT. Bounds are: " + mX.get(0).toString() + " to " + mX.get(n - 1).toString() + ". Value provided was: " + input);
-        }
-        if (input >= mX.get(n - 1)) {
-            throw new IllegalArgumentException("User requested value outside of bounds of LUT. Bounds are: " + mX.get(0).toString() + " to " + mX.get(n - 1).toString() + ". Value provided was: " + input);
+        if (input <= mX[0] || input >= mX[n - 1]) {
+            int end = input <= mX[0] ? 0 : n - 1;
+            if (input == mX[end]) {
+                return mY[end];
+            }
+            switch (mBoundaryMode) {
+                case CLAMP:
+                    return mY[end];
+                case EXTRAPOLATE:
+                    return mY[end] + mM[end] * (input - mX[end]);
+                default:
+                    throw new IllegalArgumentException("User requested value outside of bounds of LUT. Bounds are: "
+                            + mX[0] + " to " + mX[n - 1] + ". Value provided was: " + input);
+            }
         }
 
         // Find the index 'i' of the last point with smaller X.
         // We know this will be within the spline due to the boundary tests.
-        int i = 0;
-        while (input >= mX.get(i + 1)) {
-            i += 1;
-            if (input == mX.get(i)) {
-                return mY.get(i);
-            }
+        int i = findInterval(mX, n, input, mLastIndex);
+        mLastIndex = i;
+        if (input == mX[i]) {
+            return mY[i];
         }
 
         // Perform cubic Hermite spline interpolation.
-        double h = mX.get(i + 1) - mX.get(i);
-        double t = (input - mX.get(i)) / h;
-        return (mY.get(i) * (1 + 2 * t) + h * mM.get(i) * t) * (1 - t) * (1 - t)
-                + (mY.get(i + 1) * (3 - 2 * t) + h * mM.get(i + 1) * (t - 1)) * t * t;
+        double h = mX[i + 1] - mX[i];
+        double t = (input - mX[i]) / h;
+        return (mY[i] * (1 + 2 * t) + h * mM[i] * t) * (1 - t) * (1 - t)
+                + (mY[i + 1] * (3 - 2 * t) + h * mM[i + 1] * (t - 1)) * t * t;
+    }
+
+    /**
+     * Finds the interval of the input among sorted values, checking the interval of the
+     * previous lookup and the one after it before binary searching.
+     *
+     * @param x     the sorted values
+     * @param n     the number of values
+     * @param input the input, within the values
+     * @param hint  the interval of the previous lookup
+     * @return the index i, at most n - 2, such that x[i] &lt;= input &lt; x[i + 1]
+     */
+    static int findInterval(double[] x, int n, double input, int hint) {
+        if (hint >= 0 && hint < n - 1 && input >= x[hint]) {
+            if (input < x[hint + 1]) {
+                return hint;
+            }
+            if (hint < n - 2 && input < x[hint + 2]) {
+                return hint + 1;
+            }
+        }
+
+        int low = 0;
+        int high = n - 2;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (x[mid] <= input) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
     }
 
     // For debugging.
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();
-        final int n = mX.size();
+        final int n = mSize;
         str.append("[");
         for (int i = 0; i < n; i++) {
             if (i != 0) {
                 str.append(", ");
             }
-            str.append("(").append(mX.get(i));
-            str.append(", ").append(mY.get(i));
-            str.append(": ").append(mM.get(i)).append(")");
+            str.append("(").append(mX[i]);
+            str.append(", ").append(mY[i]);
+            str.append(": ").append(mM != null && i < mM.length ? mM[i] : Double.NaN).append(")");
         }
         str.append("]");
         return str.toString();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,238 @@
+package com.seattlesolvers.solverslib.util;
+
+import java.util.Arrays;
+
+/**
+ * Interpolates a function of two inputs, such as a shooter speed by distance and angle, from
+ * its values on a grid. The grid lines do not need to be evenly spaced.
+ * <p>
+ * Bicubic interpolation passes through every grid point with a continuous slope, using slopes
+ * estimated from the neighbouring points. Bilinear interpolation is cheaper, and never
+ * overshoots the values around it.
+ */
+public class InterpLUT2D {
+
+    /**
+     * How values between the grid points are interpolated.
+     */
+    public enum Method {
+        BILINEAR, BICUBIC
+    }
+
+    private final double[] mX;
+    private final double[] mY;
+    private final double[][] mZ;
+    // Slopes at the grid points, along x, along y, and the cross derivative.
+    private final double[][] mZx;
+    private final double[][] mZy;
+    private final double[][] mZxy;
+
+    private Method mMethod = Method.BICUBIC;
+    private InterpLUT.BoundaryMode mBoundaryMode = InterpLUT.BoundaryMode.THROW;
+    private int mLastX;
+    private int mLastY;
+
+    // Basis functions along each axis, and their derivatives, for the last lookup.
+    private final double[] mBasisX = new double[4];
+    private final double[] mBasisY = new double[4];
+    private final double[] mSlopeBasisX = new double[4];
+    private final double[] mSlopeBasisY = new double[4];
+
+    /**
+     * Creates a table from its values on a grid.
+     *
+     * @param x the grid lines of the first input, strictly increasing
+     * @param y the grid lines of the second input, strictly increasing
+     * @param z the values, where z[i][j] is the output at x[i] and y[j]
+     * @throws IllegalArgumentException if there are fewer than two grid lines of an input, the grid
+     *                                  lines are not strictly increasing, or z does not match them.
+     */
+    public InterpLUT2D(double[] x, double[] y, double[][] z) {
+        if (x == null || y == null || z == null || x.length < 2 || y.length < 2 || z.length != x.length) {
+            throw new IllegalArgumentException("There must be at least two grid lines of each input "
+                    + "and a value for every grid point.");
+        }
+        checkIncreasing(x);
+        checkIncreasing(y);
+        mX = Arrays.copyOf(x, x.length);
+        mY = Arrays.copyOf(y, y.length);
+        mZ = new double[x.length][];
+        for (int i = 0; i < x.length; i++) {
+            if (z[i] == null || z[i].length != y.length) {
+                throw new IllegalArgumentException("There must be at least two grid lines of each input "
+                        + "and a value for every grid point.");
+            }
+            mZ[i] = Arrays.copyOf(z[i], y.length);
+        }
+
+        final int n = x.length;
+        final int m = y.length;
+        mZx = new double[n][m];
+        mZy = new double[n][m];
+        mZxy = new double[n][m];
+        double[] column = new double[n];
+        double[] slopes = new double[Math.max(n, m)];
+        for (int j = 0; j < m; j++) {
+            for (int i = 0; i < n; i++) {
+                column[i] = mZ[i][j];
+            }
+            slopes(mX, column, slopes);
+            for (int i = 0; i < n; i++) {
+                mZx[i][j] = slopes[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            slopes(mY, mZ[i], slopes);
+            System.arraycopy(slopes, 0, mZy[i], 0, m);
+            slopes(mY, mZx[i], slopes);
+            System.arraycopy(slopes, 0, mZxy[i], 0, m);
+        }
+    }
+
+    private static void checkIncreasing(double[] values) {
+        for (int i = 0; i < values.length - 1; i++) {
+            if (!(values[i + 1] > values[i])) {
+                throw new IllegalArgumentException("The grid lines must be strictly increasing.");
+            }
+        }
+    }
+
+    /**
+     * Estimates the slope at every point from the secants on either side, weighted so that
+     * the estimate is exact for a parabola. The ends use the secant next to them.
+     */
+    private static void slopes(double[] x, double[] values, double[] out) {
+        final int n = x.length;
+        out[0] = (values[1] - values[0]) / (x[1] - x[0]);
+        out[n - 1] = (values[n - 1] - values[n - 2]) / (x[n - 1] - x[n - 2]);
+        for (int i = 1; i < n - 1; i++) {
+            double before = x[i] - x[i - 1];
+            double after = x[i + 1] - x[i];
+            double secantBefore = (values[i] - values[i - 1]) / before;
+            double secantAfter = (values[i + 1] - values[i]) / after;
+            out[i] = (after * secantBefore + before * secantAfter) / (before + after);
+        }
+    }
+
+    /**
+     * Sets how values between the grid points are interpolated, which is
+     * {@link Method#BICUBIC} by default.
+     *
+     * @param method the interpolation method
+     * @return this class (for chaining calls)
+     */
+    public InterpLUT2D setMethod(Method method) {
+        mMethod = method;
+        return this;
+    }
+
+    /**
+     * Sets what {@link #get(double, double)} does with inputs outside of the grid, which is
+     * {@link InterpLUT.BoundaryMode#THROW} by default. Extrapolation continues the surface
+     * as a plane with its slopes at the nearest edge of the grid.
+     *
+     * @param mode the boundary mode
+     * @return this class (for chaining calls)
+     */
+    public InterpLUT2D setBoundaryMode(InterpLUT.BoundaryMode mode) {
+        mBoundaryMode = mode;
+        return this;
+    }
+
+    /**
+     * Interpolates the output for the given inputs.
+     *
+     * @param x the first input
+     * @param y the second input
+     * @return the interpolated output
+     */
+    public double get(double x, double y) {
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return Double.NaN;
+        }
+        final int n = mX.length;
+        final int m = mY.length;
+        double clampedX = Math.max(mX[0], Math.min(mX[n - 1], x));
+        double clampedY = Math.max(mY[0], Math.min(mY[m - 1], y));
+        if ((clampedX != x || clampedY != y) && mBoundaryMode == InterpLUT.BoundaryMode.THROW) {
+            throw new IllegalArgumentException("User requested value outside of bounds of LUT. Bounds are: "
+                    + mX[0] + " to " + mX[n - 1] + " and " + mY[0] + " to " + mY[m - 1]
+                    + ". Values provided were: " + x + ", " + y);
+        }
+
+        int i = InterpLUT.findInterval(mX, n, clampedX, mLastX);
+        int j = InterpLUT.findInterval(mY, m, clampedY, mLastY);
+        mLastX = i;
+        mLastY = j;
+        double hx = mX[i + 1] - mX[i];
+        double hy = mY[j + 1] - mY[j];
+        basis((clampedX - mX[i]) / hx, mBasisX, mSlopeBasisX);
+        basis((clampedY - mY[j]) / hy, mBasisY, mSlopeBasisY);
+
+        double value = patch(i, j, hx, hy, mBasisX, mBasisY);
+        if (mBoundaryMode == InterpLUT.BoundaryMode.EXTRAPOLATE) {
+            if (clampedX != x) {
+                value += (x - clampedX) * patch(i, j, hx, hy, mSlopeBasisX, mBasisY) / hx;
+            }
+            if (clampedY != y) {
+                value += (y - clampedY) * patch(i, j, hx, hy, mBasisX, mSlopeBasisY) / hy;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Fills the basis functions of a cell at the fraction t across it, in the order: the value
+     * at the start, the value at the end, the slope at the start and the slope at the end,
+     * along with their derivatives by t.
+     */
+    private void basis(double t, double[] basis, double[] slopeBasis) {
+        if (mMethod == Method.BILINEAR) {
+            basis[0] = 1 - t;
+            basis[1] = t;
+            basis[2] = 0;
+            basis[3] = 0;
+            slopeBasis[0] = -1;
+            slopeBasis[1] = 1;
+            slopeBasis[2] = 0;
+            slopeBasis[3] = 0;
+            return;
+        }
+        double t2 = t * t;
+        double t3 = t2 * t;
+        basis[0] = 2 * t3 - 3 * t2 + 1;
+        basis[1] = -2 * t3 + 3 * t2;
+        basis[2] = t3 - 2 * t2 + t;
+        basis[3] = t3 - t2;
+        slopeBasis[0] = 6 * t2 - 6 * t;
+        slopeBasis[1] = -6 * t2 + 6 * t;
+        slopeBasis[2] = 3 * t2 - 4 * t + 1;
+        slopeBasis[3] = 3 * t2 - 2 * t;
+    }
+
+    /**
+     * Evaluates the cubic Hermite patch of a cell with the given basis functions.
+     */
+    private double patch(int i, int j, double hx, double hy, double[] bx, double[] by) {
+        double value = 0;
+        for (int a = 0; a < 2; a++) {
+            for (int b = 0; b < 2; b++) {
+                value += mZ[i + a][j + b] * bx[a] * by[b]
+                        + mZx[i + a][j + b] * hx * bx[2 + a] * by[b]
+                        + mZy[i + a][j + b] * hy * bx[a] * by[2 + b]
+                        + mZxy[i + a][j + b] * hx * hy * bx[2 + a] * by[2 + b];
+            }
+        }
+        return value;
+    }
+
+    // For debugging.
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("x=").append(Arrays.toString(mX));
+        str.append(", y=").append(Arrays.toString(mY));
+        str.append(", z=").append(Arrays.deepToString(mZ));
+        return str.toString();
+    }
+}
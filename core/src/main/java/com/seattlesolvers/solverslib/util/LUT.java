@@ -1,5 +1,6 @@
 package com.seattlesolvers.solverslib.util;
 
+import java.util.Map;
 import java.util.TreeMap;
 
 /**
@@ -35,4 +36,23 @@ public class LUT<T extends Number, R> extends TreeMap<T, R> {
         }
     }
 
+    /**
+     * Copies the table into an immutable {@link CompiledLUT}, whose lookups do not box the key
+     * or walk the tree. Later changes to this table do not affect it.
+     *
+     * @return the compiled table
+     */
+    @SuppressWarnings("unchecked")
+    public CompiledLUT<R> compile() {
+        double[] keys = new double[size()];
+        Object[] values = new Object[size()];
+        int i = 0;
+        for (Map.Entry<T, R> entry : entrySet()) {
+            keys[i] = entry.getKey().doubleValue();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new CompiledLUT<>(keys, (R[]) values);
+    }
+
 }
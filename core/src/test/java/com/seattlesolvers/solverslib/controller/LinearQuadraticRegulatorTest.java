@@ -0,0 +1,93 @@
+package com.seattlesolvers.solverslib.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.LinearQuadraticRegulator;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class LinearQuadraticRegulatorTest {
+    private static final double kDt = 0.02;
+
+    @Test
+    public void flywheelMatchesScalarRiccatiTest() {
+        SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(0.1, 0.5, 0.2);
+        LinearQuadraticRegulator lqr = LinearQuadraticRegulator.forFlywheel(feedforward, 1.0, 12.0, kDt);
+
+        // The exact discretization of dv/dt = (u - kV v) / kA, and the Riccati recursion
+        // iterated until it settles.
+        double a = Math.exp(-feedforward.kv / feedforward.ka * kDt);
+        double b = (1 - a) / feedforward.kv;
+        double q = 1.0;
+        double r = 1 / 144.0;
+        double p = q;
+        for (int i = 0; i < 10000; i++) {
+            p = q + a * a * p - a * a * b * b * p * p / (r + b * b * p);
+        }
+        double expected = b * p * a / (r + b * b * p);
+
+        assertEquals(expected, lqr.getK(0, 0), 1e-6);
+        assertEquals(expected * 2, lqr.calculate(1.0, 3.0), 1e-6);
+    }
+
+    @Test
+    public void elevatorConvergesTest() {
+        ElevatorFeedforward feedforward = new ElevatorFeedforward(0.2, 0.5, 2.0, 0.3);
+        LinearQuadraticRegulator lqr = LinearQuadraticRegulator.forElevator(feedforward, 0.02, 0.4, 12.0, kDt);
+        assertEquals(1, lqr.getInputs());
+        assertEquals(2, lqr.getStates());
+
+        // Simulates the linear part of the elevator, with the regulator holding a new position.
+        double position = 0;
+        double velocity = 0;
+        for (int i = 0; i < 200; i++) {
+            double voltage = lqr.calculate(position, velocity, 0.5, 0);
+            double acceleration = (voltage - feedforward.kv * velocity) / feedforward.ka;
+            position += velocity * kDt + acceleration * kDt * kDt / 2;
+            velocity += acceleration * kDt;
+        }
+        assertEquals(0.5, position, 1e-3);
+        assertEquals(0, velocity, 1e-3);
+    }
+
+    @Test
+    public void calculateReusesOutputTest() {
+        LinearQuadraticRegulator lqr = new LinearQuadraticRegulator(new double[][]{{2, 0.5}, {0, 1}});
+        double[] u = lqr.calculate(new double[]{1, 2}, new double[]{2, 4});
+        assertEquals(3, u[0], 1e-12);
+        assertEquals(2, u[1], 1e-12);
+        assertSame(u, lqr.calculate(new double[]{0, 0}, new double[]{0, 0}));
+        assertEquals(0, u[0], 1e-12);
+    }
+
+    @Test
+    public void saveAndLoadTest() throws IOException {
+        ElevatorFeedforward feedforward = new ElevatorFeedforward(0.2, 0.5, 2.0, 0.3);
+        LinearQuadraticRegulator lqr = LinearQuadraticRegulator.forElevator(feedforward, 0.02, 0.4, 12.0, kDt);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        lqr.save(out);
+        LinearQuadraticRegulator loaded = LinearQuadraticRegulator.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(lqr.getK(0, 0), loaded.getK(0, 0), 0);
+        assertEquals(lqr.getK(0, 1), loaded.getK(0, 1), 0);
+
+        LinearQuadraticRegulator written = LinearQuadraticRegulator.load(new ByteArrayInputStream(
+                "# gains\n1.5 0.25\n\n-2,3\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, written.getInputs());
+        assertEquals(-2, written.getK(1, 0), 0);
+        assertEquals(0.25, written.getK(0, 1), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingAccelerationGainTest() {
+        LinearQuadraticRegulator.forFlywheel(new SimpleMotorFeedforward(0.1, 0.5), 1.0, 12.0, kDt);
+    }
+}
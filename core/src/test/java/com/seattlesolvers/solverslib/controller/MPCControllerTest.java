@@ -0,0 +1,108 @@
+package com.seattlesolvers.solverslib.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.ChassisSpeeds;
+import com.seattlesolvers.solverslib.trajectory.Trajectory;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryConfig;
+import com.seattlesolvers.solverslib.trajectory.TrajectoryGenerator;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class MPCControllerTest {
+    private static final double kDt = 0.02;
+
+    private static Trajectory trajectory() {
+        return TrajectoryGenerator.generateTrajectory(
+                Arrays.asList(
+                        new Pose2d(0, 0, new Rotation2d(0)),
+                        new Pose2d(2, 1, Rotation2d.fromDegrees(90)),
+                        new Pose2d(0, 2, Rotation2d.fromDegrees(180))
+                ),
+                new TrajectoryConfig(1, 1)
+        );
+    }
+
+    /**
+     * Drives a perfect robot with the controller from the given start, and returns the largest
+     * position error over the second half of the trajectory.
+     */
+    private static double follow(MPCController controller, Trajectory trajectory, Pose2d start,
+                                 double maxVelocity, double maxAngularVelocity) {
+        double x = start.getX();
+        double y = start.getY();
+        double heading = start.getHeading();
+        double largestError = 0;
+        for (double t = 0; t <= trajectory.getTotalTimeSeconds(); t += kDt) {
+            ChassisSpeeds speeds = controller.calculate(new Pose2d(x, y, new Rotation2d(heading)), trajectory, t);
+            assertTrue(Math.abs(speeds.omegaRadiansPerSecond) <= maxAngularVelocity + 1e-9);
+
+            double cos = Math.cos(heading);
+            double sin = Math.sin(heading);
+            x += (speeds.vxMetersPerSecond * cos - speeds.vyMetersPerSecond * sin) * kDt;
+            y += (speeds.vxMetersPerSecond * sin + speeds.vyMetersPerSecond * cos) * kDt;
+            heading += speeds.omegaRadiansPerSecond * kDt;
+
+            if (t > trajectory.getTotalTimeSeconds() / 2) {
+                Pose2d reference = trajectory.sample(t + kDt).poseMeters;
+                largestError = Math.max(largestError, Math.hypot(reference.getX() - x, reference.getY() - y));
+            }
+        }
+        return largestError;
+    }
+
+    @Test
+    public void differentialConvergesTest() {
+        MPCController controller = MPCController.differential(10, 0.05, 1.5, 4.0);
+        double error = follow(controller, trajectory(), new Pose2d(0, 0.2, new Rotation2d(0.2)), 1.5, 4.0);
+        assertTrue("error " + error, error < 0.02);
+    }
+
+    @Test
+    public void holonomicConvergesTest() {
+        MPCController controller = MPCController.holonomic(10, 0.05, 1.5, 4.0);
+        double error = follow(controller, trajectory(), new Pose2d(-0.2, 0.2, new Rotation2d(-0.3)), 1.5, 4.0);
+        assertTrue("error " + error, error < 0.02);
+    }
+
+    @Test
+    public void onReferenceOutputsReferenceTest() {
+        Trajectory trajectory = trajectory();
+        MPCController controller = MPCController.differential(10, 0.05, 1.5, 4.0)
+                .setTimeBudget(1);
+        controller.setTolerance(new Pose2d(0.01, 0.01, new Rotation2d(0.01)));
+
+        Trajectory.State state = trajectory.sample(1.0);
+        ChassisSpeeds speeds = controller.calculate(state.poseMeters, trajectory, 1.0);
+        assertEquals(state.velocityMetersPerSecond, speeds.vxMetersPerSecond, 1e-6);
+        assertEquals(state.velocityMetersPerSecond * state.curvatureRadPerMeter,
+                speeds.omegaRadiansPerSecond, 1e-6);
+        assertTrue(controller.atReference());
+    }
+
+    @Test
+    public void iterationCapTest() {
+        MPCController controller = MPCController.differential(20, 0.05, 1.5, 4.0)
+                .setMaxIterations(3);
+        controller.calculate(new Pose2d(0.5, -0.5, new Rotation2d(1)), trajectory(), 0.5);
+        assertTrue(controller.getIterations() <= 3);
+    }
+
+    @Test
+    public void velocityLimitTest() {
+        MPCController controller = MPCController.differential(10, 0.05, 0.5, 1.0);
+        ChassisSpeeds speeds = controller.calculate(new Pose2d(-3, 2, new Rotation2d(2)), trajectory(), 1.0);
+        assertTrue(Math.abs(speeds.vxMetersPerSecond) <= 0.5 + 1e-9);
+        assertTrue(Math.abs(speeds.omegaRadiansPerSecond) <= 1.0 + 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidHorizonTest() {
+        MPCController.holonomic(0, 0.05, 1, 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.seattlesolvers.solverslib.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PIDFControllerBankTest {
+    private PIDFControllerBank m_bank;
+
+    @Before
+    public void setUp() {
+        m_bank = new PIDFControllerBank(3);
+        m_bank.setPIDF(0, 2, 0, 0, 0);
+        m_bank.setPIDF(1, 0, 4, 0, 0);
+        m_bank.setPIDF(2, 0, 0, 0.5, 0.1);
+        m_bank.setIntegrationBounds(1, -100, 100);
+    }
+
+    @Test
+    public void channelsAreIndependentTest() {
+        for (int i = 0; i < 3; i++) {
+            m_bank.setSetPoint(i, 10);
+            m_bank.setMeasuredValue(i, 4);
+        }
+        m_bank.update(0.02);
+
+        assertEquals(12, m_bank.getOutput(0), 1e-9);
+        assertEquals(4 * 0.02 * 6, m_bank.getOutput(1), 1e-9);
+        assertEquals(0.5 * 6 / 0.02 + 1, m_bank.getOutput(2), 1e-9);
+
+        m_bank.setMeasuredValue(2, 5);
+        m_bank.update(0.02);
+
+        assertEquals(4 * 0.02 * 12, m_bank.getOutput(1), 1e-9);
+        assertEquals(0.5 * -1 / 0.02 + 1, m_bank.getOutput(2), 1e-9);
+    }
+
+    @Test
+    public void matchesControllerOnFirstCallTest() {
+        PIDFController controller = new PIDFController(2, 3, 4, 0.5);
+        PIDFControllerBank bank = new PIDFControllerBank(1);
+        bank.setPIDF(0, 2, 3, 4, 0.5);
+
+        assertEquals(controller.calculate(1, 7), bank.calculate(0, 1, 7), 1e-9);
+    }
+
+    @Test
+    public void toleranceTest() {
+        m_bank.setTolerance(0, 1);
+        m_bank.setSetPoint(0, 10);
+        m_bank.setMeasuredValue(0, 9.5);
+        m_bank.update();
+        assertTrue(m_bank.atSetPoint(0));
+
+        m_bank.setMeasuredValue(0, 8);
+        m_bank.update();
+        assertFalse(m_bank.atSetPoint(0));
+    }
+}
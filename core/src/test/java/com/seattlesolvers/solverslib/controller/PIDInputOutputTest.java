@@ -77,4 +77,77 @@ public class PIDInputOutputTest {
         m_controller.setSetPoint(0);
         assertFalse(m_controller.atSetPoint());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fixedPeriodDerivativeTest() {
+        m_controller.setD(4);
+        m_controller.setFixedPeriod(0.02);
+
+        m_controller.calculate(0, 0);
+        // back-to-back calls still use the fixed period
+        assertEquals(-0.1 / 0.02, m_controller.calculate(0.025, 0), 1e-9);
+        assertEquals(0.02, m_controller.getPeriod(), 1e-12);
+        assertEquals(0.02, m_controller.getFixedPeriod(), 1e-12);
+
+        m_controller.clearFixedPeriod();
+        assertEquals(0, m_controller.getFixedPeriod(), 1e-12);
+        m_controller.calculate(0.025, 0);
+        assertEquals(0, m_controller.getPeriod(), 1e-12);
+    }
+
+    @Test
+    public void explicitPeriodIntegralTest() {
+        m_controller.setI(4);
+        m_controller.setIntegrationBounds(-180, 180);
+
+        double out = 0;
+        for (int i = 0; i < 5; i++) {
+            out = m_controller.calculateWithPeriod(0.025, 0, 0.01);
+        }
+
+        assertEquals(-4 * 5 * 0.01 * 0.025, out, 1e-12);
+        assertEquals(0.01, m_controller.getPeriod(), 1e-12);
+    }
+
+    @Test
+    public void timestampPeriodTest() {
+        m_controller.setD(4);
+
+        // the first timestamp, even at zero, only starts the clock
+        assertEquals(0, m_controller.calculateAtTime(0, 0, 0), 1e-12);
+        assertEquals(0, m_controller.getPeriod(), 1e-12);
+
+        assertEquals(-0.1 / 0.05, m_controller.calculateAtTime(0.025, 0, 0.05), 1e-9);
+        assertEquals(0.05, m_controller.getPeriod(), 1e-12);
+
+        m_controller.reset();
+        m_controller.calculateAtTime(0.025, 0, 10);
+        assertEquals(0, m_controller.getPeriod(), 1e-12);
+    }
+
+    @Test
+    public void unusedPeriodDoesNotCarryOverTest() {
+        boolean[] usesPeriod = new boolean[1];
+        Controller controller = new Controller() {
+            @Override
+            protected double calculateOutput(double pv) {
+                if (usesPeriod[0]) {
+                    updatePeriod();
+                }
+                return 0;
+            }
+        };
+        controller.setFixedPeriod(0.02);
+
+        controller.calculateWithPeriod(0, 0, 0.5);
+        controller.calculateAtTime(0, 0, 3);
+        usesPeriod[0] = true;
+        controller.calculate(0);
+        assertEquals(0.02, controller.getPeriod(), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveFixedPeriodTest() {
+        m_controller.setFixedPeriod(0);
+    }
+}
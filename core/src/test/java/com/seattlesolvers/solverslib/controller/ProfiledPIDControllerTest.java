@@ -1,8 +1,11 @@
 package com.seattlesolvers.solverslib.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.seattlesolvers.solverslib.controller.wpilibcontroller.ProfiledPIDController;
+import com.seattlesolvers.solverslib.trajectory.SCurveProfile;
 import com.seattlesolvers.solverslib.trajectory.TrapezoidProfile;
 
 import org.junit.Test;
@@ -17,4 +20,25 @@ public class ProfiledPIDControllerTest {
 
         assertEquals(0, controller.calculate(20, 20), 0.05);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSCurveSetpointIsReused() {
+        ProfiledPIDController controller = new ProfiledPIDController(1.0, 0.0, 0.0,
+                new SCurveProfile.Constraints(1.0, 1.0, 4.0));
+
+        controller.reset(20);
+        controller.calculate(20, 25);
+        TrapezoidProfile.State setpoint = controller.getSetpoint();
+        assertTrue(setpoint instanceof SCurveProfile.State);
+        assertEquals(20, setpoint.position, 1e-3);
+
+        controller.calculate(20, 25);
+        assertSame(setpoint, controller.getSetpoint());
+
+        // Changing the goal starts a new profile from the current setpoint.
+        controller.calculate(20, 10);
+        assertSame(setpoint, controller.getSetpoint());
+        assertEquals(20, setpoint.position, 1e-3);
+        assertTrue(setpoint.velocity <= 1e-3);
+    }
+}
@@ -0,0 +1,123 @@
+package com.seattlesolvers.solverslib.controller.tuning;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ArmFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.seattlesolvers.solverslib.trajectory.TrapezoidProfile;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class GainTunerTest {
+    private static final ElevatorFeedforward kElevator = new ElevatorFeedforward(0.3, 1.1, 6, 0.4);
+
+    private static GainTuner elevatorTuner() {
+        return new GainTuner(GainTuner.withFeedforward(GainTuner.pidf()), () -> new DCMotorSim(kElevator))
+                .addGain("kp", 0, 80, 9)
+                .addGain("ki", 0)
+                .addGain("kd", 0, 4, 5)
+                .addGain("kf", 0)
+                .addGain("ks", 0.3)
+                .addGain("kg", 1.1)
+                .addGain("kv", 6)
+                .setMove(0, 0.5)
+                .setProfile(new TrapezoidProfile.Constraints(1, 2));
+    }
+
+    @Test
+    public void parallelSweepMatchesSequentialTest() {
+        GainTuner tuner = elevatorTuner();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GainTuner.Result parallel = tuner.sweep(pool);
+            GainTuner.Result sequential = tuner.sweep(null);
+            assertArrayEquals(sequential.getGains(), parallel.getGains(), 0);
+            assertEquals(sequential.getScore(), parallel.getScore(), 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sweepFindsStableGainsTest() {
+        GainTuner.Result best = elevatorTuner().sweep();
+        assertTrue(best.toString(), best.getGain("kp") > 0);
+        assertTrue(best.toString(), best.getOvershoot() < 0.05);
+        assertTrue(best.toString(), best.getSettlingTime() < 1.5);
+    }
+
+    @Test
+    public void optimizeImprovesSweepTest() {
+        GainTuner tuner = elevatorTuner();
+        GainTuner.Result swept = tuner.sweep();
+        GainTuner.Result optimized = tuner.optimize(swept, 20, ForkJoinPool.commonPool());
+        assertTrue(optimized.getScore() <= swept.getScore());
+        assertEquals(0.3, optimized.getGain("ks"), 0);
+        assertTrue(optimized.getGain("kd") >= 0 && optimized.getGain("kd") <= 4);
+    }
+
+    @Test
+    public void velocityControlTest() {
+        SimpleMotorFeedforward flywheel = new SimpleMotorFeedforward(0.5, 0.01, 0.002);
+        GainTuner tuner = new GainTuner(GainTuner.squidf(), () -> new DCMotorSim(flywheel))
+                .addGain("kp", 0, 0.5, 11)
+                .addGain("ki", 0)
+                .addGain("kd", 0)
+                .addGain("kf", 0.01, 0.012, 3)
+                .setVelocityControl(true)
+                .setMove(0, 600);
+        GainTuner.Result best = tuner.sweep();
+        assertTrue(best.toString(), best.getSettlingTime() < tuner.evaluate(new double[]{0, 0, 0, 0.01}).getSettlingTime());
+    }
+
+    private static GainTuner.Result armResponse(GainTuner.LoopFactory factory) {
+        ArmFeedforward arm = new ArmFeedforward(0.2, 1.5, 2, 0.2);
+        return new GainTuner(factory, () -> new DCMotorSim(arm))
+                .addGain("kp", 20)
+                .addGain("ki", 0)
+                .addGain("kd", 1)
+                .addGain("kf", 0)
+                .addGain("ks", 0.2)
+                .addGain("kg", 1.5)
+                .addGain("kv", 2)
+                .setMove(0, Math.PI / 2)
+                .setProfile(new TrapezoidProfile.Constraints(2, 4))
+                .evaluate(new double[]{20, 0, 1, 0, 0.2, 1.5, 2});
+    }
+
+    @Test
+    public void armFeedforwardTest() {
+        // A constant gravity term keeps pushing the arm past the vertical goal, where gravity is zero.
+        GainTuner.Result cosine = armResponse(GainTuner.withArmFeedforward(GainTuner.pidf()));
+        GainTuner.Result constant = armResponse(GainTuner.withFeedforward(GainTuner.pidf()));
+        assertTrue(cosine.toString(), cosine.getOvershoot() < 0.05);
+        assertTrue(cosine.toString(), cosine.getSettlingTime() < 1.5);
+        assertTrue(constant.toString(), constant.getSettlingTime() > 1.5);
+    }
+
+    @Test
+    public void staticFrictionTest() {
+        DCMotorSim sim = new DCMotorSim(new SimpleMotorFeedforward(1, 1, 0.1));
+        sim.step(0.9, 1);
+        assertEquals(0, sim.getVelocity(), 0);
+
+        // Held against gravity by the gravity voltage, and coasts to a stop without reversing.
+        DCMotorSim elevator = new DCMotorSim(kElevator);
+        elevator.step(1.1, 1);
+        assertEquals(0, elevator.getPosition(), 0);
+        elevator.step(12, 0.1);
+        elevator.step(1.1, 1);
+        assertEquals(0, elevator.getVelocity(), 0);
+        assertTrue(elevator.getPosition() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRangeTest() {
+        elevatorTuner().addGain("kd", 1, 0, 3);
+    }
+}
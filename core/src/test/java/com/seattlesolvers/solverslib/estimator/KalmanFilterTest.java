@@ -0,0 +1,122 @@
+package com.seattlesolvers.solverslib.estimator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class KalmanFilterTest {
+    private static final double kDt = 0.02;
+
+    @Test
+    public void encoderVelocityTest() {
+        // A quantized encoder accelerating at 100 ticks/s^2, with some noise on the readings.
+        KalmanFilter filter = KalmanFilter.forEncoder(200, 2);
+        Random random = new Random(4);
+        double filteredError = 0;
+        double differenceError = 0;
+        double lastPosition = 0;
+        for (int i = 1; i <= 200; i++) {
+            double t = i * kDt;
+            double position = Math.round(50 * t * t + random.nextGaussian() * 2);
+            filter.predict(kDt);
+            filter.correct(position);
+            if (i > 100) {
+                double velocity = 100 * t;
+                filteredError += Math.abs(filter.getXhat(1) - velocity);
+                differenceError += Math.abs((position - lastPosition) / kDt - velocity);
+            }
+            lastPosition = position;
+        }
+        assertTrue("filtered " + filteredError + ", difference " + differenceError,
+                filteredError < differenceError / 3);
+        assertEquals(50 * 4 * 4, filter.getXhat(0), 5);
+    }
+
+    @Test
+    public void flywheelModelTest() {
+        SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(0, 0.01, 0.002);
+        KalmanFilter filter = KalmanFilter.forFlywheel(feedforward, 5, 20);
+        Random random = new Random(7);
+
+        // The flywheel settles at 6 V / kv = 600 ticks/s.
+        double velocity = 0;
+        for (int i = 0; i < 100; i++) {
+            velocity += (6 - feedforward.kv * velocity) / feedforward.ka * kDt;
+            filter.predict(6, kDt);
+            filter.correct(velocity + random.nextGaussian() * 20);
+        }
+        assertEquals(600, velocity, 1);
+        assertEquals(600, filter.getXhat(0), 10);
+    }
+
+    @Test
+    public void elevatorModelTest() {
+        ElevatorFeedforward feedforward = new ElevatorFeedforward(0, 0.5, 2.0, 0.2);
+        KalmanFilter filter = KalmanFilter.forElevator(feedforward, 0.01, 0.1, 0.005);
+
+        // Without noise, the model matches the elevator, so the estimate follows it exactly.
+        double position = 0;
+        double velocity = 0;
+        for (int i = 0; i < 50; i++) {
+            double acceleration = (3 - feedforward.kv * velocity) / feedforward.ka;
+            position += velocity * kDt + acceleration * kDt * kDt / 2;
+            velocity += acceleration * kDt;
+            filter.predict(3, kDt);
+            filter.correct(position);
+        }
+        assertEquals(position, filter.getXhat(0), 1e-3);
+        assertEquals(velocity, filter.getXhat(1), 0.05);
+        assertTrue(filter.getP(0, 0) < 0.005 * 0.005);
+    }
+
+    @Test
+    public void changingPeriodTest() {
+        KalmanFilter filter = KalmanFilter.forEncoder(10, 0.1);
+        filter.setXhat(0, 1);
+        filter.setXhat(1, 2);
+        filter.predict(0.1);
+        assertEquals(1.2, filter.getXhat(0), 1e-12);
+        filter.predict(0.25);
+        assertEquals(1.7, filter.getXhat(0), 1e-12);
+        assertEquals(2, filter.getXhat(1), 1e-12);
+    }
+
+    private static KalmanFilter twoInputFilter() {
+        // A position driven by two velocity inputs, such as two motors on one mechanism.
+        return new KalmanFilter(new double[][]{{0}}, new double[][]{{1, 1}}, new double[][]{{1}},
+                new double[]{0.1}, new double[]{0.01});
+    }
+
+    @Test
+    public void multipleInputsTest() {
+        KalmanFilter filter = twoInputFilter();
+        filter.predict(new double[]{1, 2}, 0.5);
+        assertEquals(1.5, filter.getXhat(0), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void singleInputForMultipleInputsTest() {
+        twoInputFilter().predict(1, 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongInputCountTest() {
+        twoInputFilter().predict(new double[]{1}, 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongMeasurementCountTest() {
+        KalmanFilter.forEncoder(10, 0.1).correct(new double[]{1, 2});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroAccelerationGainTest() {
+        KalmanFilter.forFlywheel(new SimpleMotorFeedforward(0, 1, 0), 1, 1);
+    }
+}
@@ -99,4 +99,33 @@ public class GamepadButtonTest {
         CommandScheduler.getInstance().reset();
     }
 
+    @Test
+    public void releasedAndChangedTest() {
+        myGamepad.dpad_up = true;
+        gamepadEx.readButtons();
+        assertTrue(gamepadEx.stateJustChanged(GamepadKeys.Button.DPAD_UP));
+        assertFalse(gamepadEx.wasJustReleased(GamepadKeys.Button.DPAD_UP));
+        assertFalse(gamepadEx.stateJustChanged(GamepadKeys.Button.DPAD_DOWN));
+
+        myGamepad.dpad_up = false;
+        gamepadEx.readButtons();
+        assertTrue(gamepadEx.wasJustReleased(GamepadKeys.Button.DPAD_UP));
+        assertTrue(gamepadEx.stateJustChanged(GamepadKeys.Button.DPAD_UP));
+        assertFalse(gamepadEx.wasJustPressed(GamepadKeys.Button.DPAD_UP));
+
+        gamepadEx.readButtons();
+        assertFalse(gamepadEx.stateJustChanged(GamepadKeys.Button.DPAD_UP));
+    }
+
+    @Test
+    public void buttonMaskTest() {
+        myGamepad.a = true;
+        myGamepad.right_bumper = true;
+        gamepadEx.readButtons();
+        assertEquals(GamepadEx.getMask(GamepadKeys.Button.CROSS, GamepadKeys.Button.RIGHT_BUMPER),
+                gamepadEx.getButtonMask());
+        assertEquals(gamepadEx.getButtonMask(), gamepadEx.getChangedMask());
+        assertTrue(gamepadEx.wasJustPressed(GamepadKeys.Button.CROSS));
+        assertEquals(GamepadEx.getMask(GamepadKeys.Button.A), GamepadEx.getMask(GamepadKeys.Button.CROSS));
+    }
 }
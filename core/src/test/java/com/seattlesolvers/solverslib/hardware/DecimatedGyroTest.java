@@ -0,0 +1,156 @@
+package com.seattlesolvers.solverslib.hardware;
+
+import static org.junit.Assert.assertEquals;
+
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DecimatedGyroTest {
+
+    private MockGyro gyro;
+    private double odometryHeading;
+    private DecimatedGyro decimatedGyro;
+
+    @Before
+    public void setUp() {
+        gyro = new MockGyro();
+        odometryHeading = 0;
+        decimatedGyro = new DecimatedGyro(gyro, () -> odometryHeading, 5);
+        decimatedGyro.init();
+    }
+
+    @Test
+    public void testReadsGyroEveryNLoops() {
+        assertEquals(1, gyro.reads);
+        for (int i = 0; i < 4; i++) {
+            decimatedGyro.update();
+        }
+        assertEquals(1, gyro.reads);
+        decimatedGyro.update();
+        assertEquals(2, gyro.reads);
+    }
+
+    @Test
+    public void testPropagatesFromOdometry() {
+        odometryHeading = 10;
+        decimatedGyro.update();
+        assertEquals(10, decimatedGyro.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void testCorrectsBiasOnSample() {
+        // the wheels drift by 2 degrees relative to the gyro, which over a single turn is
+        // indistinguishable from a proportional drift, so only check the correction at the sample
+        decimatedGyro.setDriftCompensation(false);
+        gyro.heading = 30;
+        odometryHeading = 32;
+        for (int i = 0; i < 5; i++) {
+            decimatedGyro.update();
+        }
+        assertEquals(30, decimatedGyro.getHeading(), 1e-9);
+
+        odometryHeading = 42;
+        decimatedGyro.update();
+        assertEquals(40, decimatedGyro.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void testRequestSample() {
+        gyro.heading = 15;
+        decimatedGyro.requestSample();
+        decimatedGyro.update();
+        assertEquals(15, decimatedGyro.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void testCorrectsDriftBetweenSamples() {
+        // The wheels under-read a steady turn of 10 degrees per second by 1 degree per second.
+        long start = System.nanoTime() + 1_000_000_000L;
+        long loop = 20_000_000L;
+        for (int i = 1; i <= 50; i++) {
+            double t = i * loop / 1E9;
+            gyro.heading = 10 * t;
+            odometryHeading = 9 * t;
+            decimatedGyro.update(start + i * loop);
+        }
+        // The estimate is smoothed, so it converges over a few samples.
+        assertEquals(1.0 / 9, decimatedGyro.getDriftPerDegree(), 1e-3);
+
+        // Between samples, the drift is propagated along with the odometry.
+        double t = 51 * loop / 1E9;
+        odometryHeading = 9 * t;
+        decimatedGyro.update(start + 51 * loop);
+        assertEquals(10 * t, decimatedGyro.getHeading(), 1e-3);
+
+        decimatedGyro.setDriftCompensation(false);
+        t = 52 * loop / 1E9;
+        odometryHeading = 9 * t;
+        decimatedGyro.update(start + 52 * loop);
+        assertEquals(10 * t - 0.04, decimatedGyro.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void testDriftHoldsWhileNotTurning() {
+        long start = System.nanoTime() + 1_000_000_000L;
+        long loop = 20_000_000L;
+        for (int i = 1; i <= 50; i++) {
+            double t = i * loop / 1E9;
+            gyro.heading = 10 * t;
+            odometryHeading = 9 * t;
+            decimatedGyro.update(start + i * loop);
+        }
+
+        // Once the robot stops turning, the heading stays put until the next sample.
+        decimatedGyro.update(start + 51 * loop);
+        double heading = decimatedGyro.getHeading();
+        for (int i = 52; i < 55; i++) {
+            decimatedGyro.update(start + i * loop);
+            assertEquals(heading, decimatedGyro.getHeading(), 1e-12);
+        }
+    }
+
+    private static class MockGyro extends GyroEx {
+        private double heading;
+        private int reads;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public double getHeading() {
+            return getAbsoluteHeading();
+        }
+
+        @Override
+        public double getAbsoluteHeading() {
+            reads++;
+            return heading;
+        }
+
+        @Override
+        public double[] getAngles() {
+            return new double[]{getAbsoluteHeading(), 0, 0};
+        }
+
+        @Override
+        public Rotation2d getRotation2d() {
+            return Rotation2d.fromDegrees(getHeading());
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void disable() {
+        }
+
+        @Override
+        public String getDeviceType() {
+            return "Mock Gyro";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.seattlesolvers.solverslib.kinematics;
+
+import static org.junit.Assert.assertEquals;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.hardware.GyroEx;
+
+import org.junit.Test;
+
+public class HolonomicOdometryTest {
+    private static final double kTrackWidth = 0.3;
+    private static final double kCenterWheelOffset = -0.1;
+
+    private double left;
+    private double right;
+    private double horizontal;
+    private final MockGyro gyro = new MockGyro();
+
+    /**
+     * Moves the encoders and the gyro of a robot driving forward and turning counterclockwise.
+     */
+    private void move(double forward, double counterclockwise) {
+        double arc = counterclockwise * kTrackWidth / 2;
+        left += forward - arc;
+        right += forward + arc;
+        // The encoder heading is clockwise positive.
+        horizontal += kCenterWheelOffset * -counterclockwise;
+        gyro.heading += Math.toDegrees(counterclockwise);
+    }
+
+    private static void assertPoseEquals(Pose2d expected, Pose2d actual) {
+        assertEquals(expected.getX(), actual.getX(), 1e-9);
+        assertEquals(expected.getY(), actual.getY(), 1e-9);
+        assertEquals(expected.getHeading(), actual.getHeading(), 1e-9);
+    }
+
+    @Test
+    public void gyroMatchesEncoderHeadingTest() {
+        HolonomicOdometry encoders = new HolonomicOdometry(() -> left, () -> right, () -> horizontal,
+                kTrackWidth, kCenterWheelOffset);
+        HolonomicOdometry gyroOdometry = new HolonomicOdometry(() -> left, () -> right, () -> horizontal,
+                gyro, kTrackWidth, kCenterWheelOffset);
+
+        // A pure rotation, then an arc.
+        for (int i = 0; i < 10; i++) {
+            move(0, 0.1);
+            encoders.updatePose();
+            gyroOdometry.updatePose();
+            assertPoseEquals(encoders.getPose(), gyroOdometry.getPose());
+        }
+        assertEquals(0, encoders.getPose().getX(), 1e-9);
+        assertEquals(0, encoders.getPose().getY(), 1e-9);
+        assertEquals(-1, encoders.getPose().getHeading(), 1e-9);
+
+        for (int i = 0; i < 10; i++) {
+            move(0.05, 0.02);
+            encoders.updatePose();
+            gyroOdometry.updatePose();
+            assertPoseEquals(encoders.getPose(), gyroOdometry.getPose());
+        }
+    }
+
+    @Test
+    public void gyroKeepsResetPoseTest() {
+        gyro.heading = 40;
+        HolonomicOdometry odometry = new HolonomicOdometry(() -> left, () -> right, () -> horizontal,
+                gyro, kTrackWidth, kCenterWheelOffset);
+        odometry.updatePose(new Pose2d(1, 2, new Rotation2d(0.5)));
+        odometry.updatePose();
+        assertPoseEquals(new Pose2d(1, 2, new Rotation2d(0.5)), odometry.getPose());
+
+        // Turning counterclockwise lowers the clockwise-positive heading.
+        move(0, 0.2);
+        odometry.updatePose();
+        assertEquals(0.3, odometry.getPose().getHeading(), 1e-9);
+    }
+
+    private static class MockGyro extends GyroEx {
+        private double heading;
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public double getHeading() {
+            return heading;
+        }
+
+        @Override
+        public double getAbsoluteHeading() {
+            return heading;
+        }
+
+        @Override
+        public double[] getAngles() {
+            return new double[]{heading, 0, 0};
+        }
+
+        @Override
+        public Rotation2d getRotation2d() {
+            return Rotation2d.fromDegrees(heading);
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void disable() {
+        }
+
+        @Override
+        public String getDeviceType() {
+            return "Mock Gyro";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.seattlesolvers.solverslib.p2p;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.controller.PController;
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.ChassisSpeeds;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class P2PControllerTest {
+    private P2PController m_controller;
+
+    @Before
+    public void setUp() {
+        m_controller = new P2PController(new PController(0.5), new PController(0.5), new PController(1),
+                AngleUnit.RADIANS, 1, 0.1);
+    }
+
+    @Test
+    public void singleTargetTest() {
+        m_controller.setTarget(new Pose2d(10, -4, new Rotation2d(0.5)));
+        ChassisSpeeds speeds = m_controller.calculate(new Pose2d(2, 0, new Rotation2d(0.2)));
+
+        assertEquals(4, speeds.vxMetersPerSecond, 1e-9);
+        assertEquals(-2, speeds.vyMetersPerSecond, 1e-9);
+        assertEquals(0.3, speeds.omegaRadiansPerSecond, 1e-9);
+    }
+
+    @Test
+    public void blendedTargetsTest() {
+        m_controller.setBlendRadius(2);
+        m_controller.setTargets(new Pose2d(10, 0, new Rotation2d()), new Pose2d(10, 10, new Rotation2d()));
+        ChassisSpeeds speeds = new ChassisSpeeds();
+
+        // The error toward the first target is stretched to the distance left through both targets.
+        assertSame(speeds, m_controller.calculate(new Pose2d(), speeds));
+        assertEquals(10, speeds.vxMetersPerSecond, 1e-9);
+        assertEquals(0, speeds.vyMetersPerSecond, 1e-9);
+        assertEquals(1, m_controller.getQueuedTargetCount());
+
+        // Within the blend radius, the controller moves on to the last target without slowing down.
+        m_controller.calculate(new Pose2d(9, 0, new Rotation2d()), speeds);
+        assertEquals(0, m_controller.getQueuedTargetCount());
+        assertEquals(10, m_controller.getTarget().getY(), 1e-9);
+        assertEquals(0.5, speeds.vxMetersPerSecond, 1e-9);
+        assertEquals(5, speeds.vyMetersPerSecond, 1e-9);
+
+        m_controller.calculate(new Pose2d(10, 9.5, new Rotation2d()), speeds);
+        assertTrue(m_controller.atTarget());
+    }
+
+    @Test
+    public void notAtIntermediateTargetTest() {
+        m_controller.setTolerance(5, 1);
+        m_controller.setTargets(new Pose2d(1, 0, new Rotation2d()), new Pose2d(20, 0, new Rotation2d()));
+        m_controller.calculate(new Pose2d(0.9, 0, new Rotation2d()));
+
+        // Within the tolerance of the intermediate target, the controller moves on instead of stopping.
+        assertEquals(0, m_controller.getQueuedTargetCount());
+        assertFalse(m_controller.atTarget());
+    }
+
+    @Test
+    public void defaultSettingsReachLastTargetTest() {
+        m_controller.setTargets(new Pose2d(10, 0, new Rotation2d()), new Pose2d(10, 10, new Rotation2d()),
+                new Pose2d(0, 10, new Rotation2d()));
+        ChassisSpeeds speeds = new ChassisSpeeds();
+        double x = 0;
+        double y = 0;
+        double heading = 0;
+
+        // Drive a simulated robot with the output until it settles on the last target.
+        final double dt = 0.02;
+        for (int i = 0; i < 2000 && !m_controller.atTarget(); i++) {
+            m_controller.calculate(new Pose2d(x, y, new Rotation2d(heading)), speeds);
+            x += speeds.vxMetersPerSecond * dt;
+            y += speeds.vyMetersPerSecond * dt;
+            heading += speeds.omegaRadiansPerSecond * dt;
+        }
+
+        assertTrue(m_controller.atTarget());
+        assertEquals(0, m_controller.getQueuedTargetCount());
+        assertEquals(0, m_controller.getTarget().getX(), 1e-9);
+        assertEquals(10, m_controller.getTarget().getY(), 1e-9);
+        assertEquals(0, x, 1);
+        assertEquals(10, y, 1);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.seattlesolvers.solverslib.planner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.purepursuit.Path;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class FieldPlannerTest {
+    private static double length(List<Translation2d> points) {
+        double length = 0.0;
+        for (int i = 1; i < points.size(); i++) {
+            length += points.get(i).getDistance(points.get(i - 1));
+        }
+        return length;
+    }
+
+    @Test
+    public void testStraightLine() {
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 5, Obstacle.rectangle(-12, 20, 12, 40));
+        List<Translation2d> points = planner.plan(new Translation2d(-40, 0), new Translation2d(40, 0));
+
+        assertEquals(2, points.size());
+    }
+
+    @Test
+    public void testAroundObstacle() {
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 5, Obstacle.rectangle(-12, -12, 12, 12));
+        List<Translation2d> points = planner.plan(new Translation2d(-40, 0), new Translation2d(40, 0));
+
+        assertEquals(4, points.size());
+        assertEquals(2 * Math.hypot(23, 17) + 34, length(points), 1e-9);
+        for (int i = 1; i < points.size(); i++) {
+            Translation2d a = points.get(i - 1);
+            Translation2d b = points.get(i);
+            for (double t = 0; t <= 1; t += 0.01) {
+                assertTrue(planner.isFree(a.getX() + (b.getX() - a.getX()) * t, a.getY() + (b.getY() - a.getY()) * t));
+            }
+        }
+    }
+
+    @Test
+    public void testWallBlocksShortcut() {
+        // A wall from the bottom of the field, with a gap at the top that the robot fits through.
+        Obstacle wall = new Obstacle(new Translation2d(-2, -72), new Translation2d(2, -72),
+                new Translation2d(2, 50), new Translation2d(-2, 50));
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 6, wall);
+        List<Translation2d> points = planner.plan(new Translation2d(-30, -60), new Translation2d(30, -60));
+
+        assertEquals(4, points.size());
+        assertEquals(56, points.get(1).getY(), 1e-9);
+        assertEquals(2 * Math.hypot(22, 116) + 16, length(points), 1e-9);
+    }
+
+    @Test
+    public void testUnreachableGoal() {
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 5, Obstacle.rectangle(-12, -12, 12, 12));
+
+        assertNull(planner.plan(new Translation2d(-40, 0), new Translation2d(0, 0)));
+        assertNull(planner.plan(new Translation2d(-40, 0), new Translation2d(70, 0)));
+        assertFalse(planner.isFree(0, 15));
+    }
+
+    @Test
+    public void testStartInsideObstacle() {
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 5, Obstacle.rectangle(-12, -12, 12, 12));
+        List<Translation2d> points = planner.plan(new Translation2d(-10, 15), new Translation2d(40, 0));
+
+        // Out the top edge of the grown obstacle, then around its corner.
+        assertEquals(4, points.size());
+        assertEquals(-10, points.get(1).getX(), 1e-9);
+        assertEquals(17, points.get(1).getY(), 1e-9);
+        assertEquals(17, points.get(2).getX(), 1e-9);
+    }
+
+    @Test
+    public void testPlanPath() {
+        FieldPlanner planner = new FieldPlanner(-72, -72, 72, 72, 5, Obstacle.rectangle(-12, -12, 12, 12));
+        planner.setTimeBudget(0.005);
+        Path path = planner.planPath(new Pose2d(-40, 0, new Rotation2d()), new Pose2d(40, 0, new Rotation2d()),
+                0.8, 0.8, 5, 1, 0.1);
+
+        assertEquals(4, path.size());
+        path.init();
+        assertTrue(path.isLegalPath());
+    }
+}
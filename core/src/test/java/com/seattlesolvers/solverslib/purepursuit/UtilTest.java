@@ -1,6 +1,8 @@
 package com.seattlesolvers.solverslib.purepursuit;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import com.seattlesolvers.solverslib.purepursuit.waypoints.EndWaypoint;
 import com.seattlesolvers.solverslib.purepursuit.waypoints.GeneralWaypoint;
@@ -9,6 +11,8 @@ import com.seattlesolvers.solverslib.purepursuit.waypoints.StartWaypoint;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+
 public class UtilTest {
 
     Path m_path;
@@ -56,4 +60,85 @@ public class UtilTest {
         assertArrayEquals(expected, motorPowers, 0.01);
     }
 
+    private Path zigZagPath() {
+        Path path = new Path(new StartWaypoint(0, 0));
+        for (int i = 1; i < 60; i++)
+            path.add(new GeneralWaypoint(i * 100, (i % 2) * 50, 0.8, 0.8, 30));
+        path.add(new EndWaypoint(6000, 0, 0, 0.5, 0.5, 30, 0.8, 1));
+        return path;
+    }
+
+    @Test
+    public void searchWindowMatchesFullSearchTest() {
+        Path windowed = zigZagPath();
+        Path full = zigZagPath().disableSearchWindow();
+        windowed.init();
+        full.init();
+        // Drive along the path, then jump to the far end of it, outside of the search window.
+        for (int x = 0; x <= 6000; x += 7) {
+            double y = 25 * Math.abs(Math.sin(x / 100.0));
+            double[] expected = Arrays.copyOf(full.loop(x, y, 0.1), 3);
+            assertArrayEquals(expected, windowed.loop(x, y, 0.1), 1e-12);
+        }
+        double[] expected = Arrays.copyOf(full.loop(150, 25, 0), 3);
+        assertArrayEquals(expected, windowed.loop(150, 25, 0), 1e-12);
+    }
+
+    @Test
+    public void loopReusesMotorPowersTest() {
+        m_path = zigZagPath();
+        m_path.init();
+        double[] motorPowers = m_path.loop(0, 0, 0);
+        assertSame(motorPowers, m_path.loop(10, 5, 0));
+    }
+
+    @Test
+    public void distanceRemainingTest() {
+        m_path = new Path(
+                new StartWaypoint(0, 0),
+                new GeneralWaypoint(300, 0, 0.8, 0.8, 30),
+                new GeneralWaypoint(300, 400, 0.8, 0.8, 30),
+                new EndWaypoint(0, 400, 0, 0.5, 0.5, 30, 0.8, 1));
+        m_path.init();
+        assertEquals(1000, m_path.getLength(), 1e-9);
+        m_path.loop(100, 5, 0);
+        assertEquals(100, m_path.getDistanceTraveled(), 1e-9);
+        m_path.loop(295, 200, 0);
+        assertEquals(500, m_path.getDistanceTraveled(), 1e-9);
+        assertEquals(500, m_path.getDistanceRemaining(), 1e-9);
+    }
+
+    @Test
+    public void profileDistancesAreStraightLineTest() {
+        double[] distances = new double[2];
+        m_path = new Path(
+                new StartWaypoint(0, 0),
+                new GeneralWaypoint(300, 0, 0.8, 0.8, 30),
+                new GeneralWaypoint(300, 400, 0.8, 0.8, 30),
+                new EndWaypoint(0, 400, 0, 0.5, 0.5, 30, 0.8, 1))
+                .setMotionProfile(new PathMotionProfile() {
+                    @Override
+                    public void decelerate(double[] motorSpeeds, double distanceToTarget, double speed,
+                                           double configuredMovementSpeed, double configuredTurnSpeed) {
+                        distances[1] = distanceToTarget;
+                    }
+
+                    @Override
+                    public void accelerate(double[] motorSpeeds, double distanceFromTarget, double speed,
+                                           double configuredMovementSpeed, double configuredTurnSpeed) {
+                        distances[0] = distanceFromTarget;
+                    }
+                });
+        m_path.init();
+        // Past the bend, the start is closer in a straight line than the next waypoint, though
+        // not along the path. The first call of each kind to the profile only primes it.
+        m_path.loop(300, 40, 0);
+        m_path.loop(300, 50, 0);
+        assertEquals(Math.hypot(300, 50), distances[0], 1e-9);
+        assertEquals(0, distances[1], 0);
+        m_path.loop(300, 290, 0);
+        m_path.loop(300, 300, 0);
+        assertEquals(100, distances[1], 1e-9);
+    }
+
 }
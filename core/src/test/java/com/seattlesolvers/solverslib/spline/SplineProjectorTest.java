@@ -0,0 +1,68 @@
+package com.seattlesolvers.solverslib.spline;
+
+import static org.junit.Assert.assertEquals;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SplineProjectorTest {
+
+    private QuinticHermiteSpline[] splines;
+
+    @Before
+    public void setUp() {
+        // The control vectors come in pairs, one pair for each spline
+        List<Spline.ControlVector> vectors = SplineHelper.getQuinticControlVectorsFromWaypoints(Arrays.asList(
+                new Pose2d(0, 0, new Rotation2d(0)),
+                new Pose2d(2, 1, Rotation2d.fromDegrees(45)),
+                new Pose2d(4, 3, Rotation2d.fromDegrees(90))
+        ));
+        splines = new QuinticHermiteSpline[vectors.size() / 2];
+        for (int i = 0; i < splines.length; i++) {
+            Spline.ControlVector start = vectors.get(2 * i);
+            Spline.ControlVector end = vectors.get(2 * i + 1);
+            splines[i] = new QuinticHermiteSpline(start.x, end.x, start.y, end.y);
+        }
+    }
+
+    @Test
+    public void testStraightLineLength() {
+        QuinticHermiteSpline line = new QuinticHermiteSpline(
+                new double[]{0, 3, 0}, new double[]{3, 3, 0},
+                new double[]{0, 4, 0}, new double[]{4, 4, 0});
+        ArcLengthTable table = new ArcLengthTable(line);
+        assertEquals(5, table.getLength(), 1e-9);
+        assertEquals(2.5, table.getDistance(0.5), 1e-9);
+        assertEquals(0.5, table.getParameter(2.5), 1e-9);
+    }
+
+    @Test
+    public void testDistanceAndParameterAreInverse() {
+        ArcLengthTable table = new ArcLengthTable(splines[0], 128);
+        for (double distance = 0; distance < table.getLength(); distance += 0.1) {
+            assertEquals(distance, table.getDistance(table.getParameter(distance)), 1e-6);
+        }
+    }
+
+    @Test
+    public void testProjectsOntoPath() {
+        SplineProjector projector = new SplineProjector(splines);
+        assertEquals(0, projector.reset(-0.5, 0.1), 1e-9);
+
+        // Walk along the path, slightly off to the side, as a robot following it would
+        for (double distance = 0.05; distance < projector.getLength(); distance += 0.05) {
+            PoseWithCurvature point = projector.getPoint(distance);
+            Rotation2d normal = point.poseMeters.getRotation().plus(Rotation2d.fromDegrees(90));
+            double x = point.poseMeters.getX() + 0.05 * normal.getCos();
+            double y = point.poseMeters.getY() + 0.05 * normal.getSin();
+            assertEquals(distance, projector.project(x, y), 1e-4);
+        }
+        assertEquals(projector.getLength(), projector.project(10, 10), 1e-9);
+    }
+}
@@ -0,0 +1,33 @@
+package com.seattlesolvers.solverslib.spline;
+
+import static org.junit.Assert.assertEquals;
+
+import org.ejml.simple.SimpleMatrix;
+import org.junit.Test;
+
+public class SplineTest {
+    @Test
+    public void testSubclassOnlyProvidingCoefficients() {
+        // x(t) = t^2 + 1, y(t) = 2t, with the derivative rows in the same columns.
+        SimpleMatrix coefficients = new SimpleMatrix(6, 3, true, new double[]{
+                1, 0, 1,
+                0, 2, 0,
+                2, 0, 0,
+                0, 2, 0,
+                2, 0, 0,
+                0, 0, 0
+        });
+        Spline spline = new Spline(2) {
+            @Override
+            protected SimpleMatrix getCoefficients() {
+                return coefficients;
+            }
+        };
+
+        PoseWithCurvature point = spline.getPoint(0.5);
+        assertEquals(1.25, point.poseMeters.getTranslation().getX(), 1e-12);
+        assertEquals(1, point.poseMeters.getTranslation().getY(), 1e-12);
+        assertEquals(Math.atan2(2, 1), point.poseMeters.getRotation().getRadians(), 1e-12);
+        assertEquals(2, spline.getDdx(0.5), 1e-12);
+    }
+}
@@ -0,0 +1,169 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.spline.PoseWithCurvature;
+import com.seattlesolvers.solverslib.spline.Spline;
+import com.seattlesolvers.solverslib.spline.SplineHelper;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTrajectoryGeneratorTest {
+    private final AsyncTrajectoryGenerator m_generator = new AsyncTrajectoryGenerator(4);
+
+    private static final List<Pose2d> kWaypoints = Arrays.asList(
+            new Pose2d(0, 0, new Rotation2d(0)),
+            new Pose2d(1.5, 0.5, Rotation2d.fromDegrees(45)),
+            new Pose2d(2, 2, Rotation2d.fromDegrees(90)),
+            new Pose2d(0.5, 3, Rotation2d.fromDegrees(180))
+    );
+
+    @After
+    public void tearDown() {
+        m_generator.shutdown();
+    }
+
+    /**
+     * A constraint that limits the velocity to 1 m/s, and can block or fail generation.
+     */
+    private static class TestConstraint implements TrajectoryConstraint {
+        private final CountDownLatch m_release;
+        private final boolean m_fail;
+
+        TestConstraint(CountDownLatch release, boolean fail) {
+            m_release = release;
+            m_fail = fail;
+        }
+
+        @Override
+        public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                    double velocityMetersPerSecond) {
+            if (m_fail) {
+                throw new IllegalStateException("constraint failed");
+            }
+            try {
+                m_release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        }
+
+        @Override
+        public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                             double velocityMetersPerSecond) {
+            return new MinMax();
+        }
+    }
+
+    private static void assertSameStates(Trajectory expected, Trajectory actual) {
+        assertEquals(expected.getStates().size(), actual.getStates().size());
+        for (int i = 0; i < expected.getStates().size(); i++) {
+            assertEquals(expected.getStates().get(i), actual.getStates().get(i));
+        }
+    }
+
+    @Test
+    public void matchesSynchronousGenerationTest() {
+        TrajectoryConfig config = new TrajectoryConfig(1.5, 1);
+        Trajectory expected = TrajectoryGenerator.generateTrajectory(kWaypoints, config);
+        Trajectory expectedCubic = TrajectoryGenerator.generateTrajectory(
+                kWaypoints.get(0), Arrays.asList(new Translation2d(1, 1), new Translation2d(2, 1.5)),
+                kWaypoints.get(3), config);
+
+        CompletableFuture<Trajectory> quintic = m_generator.generateTrajectory(kWaypoints, config);
+        CompletableFuture<Trajectory> cubic = m_generator.generateTrajectory(
+                kWaypoints.get(0), Arrays.asList(new Translation2d(1, 1), new Translation2d(2, 1.5)),
+                kWaypoints.get(3), config);
+        m_generator.awaitAll();
+
+        assertTrue(m_generator.isDone());
+        assertSameStates(expected, quintic.join());
+        assertSameStates(expectedCubic, cubic.join());
+    }
+
+    @Test
+    public void parallelSplinePointsMatchSequentialTest() {
+        Spline[] splines = SplineHelper.getQuinticSplinesFromControlVectors(
+                SplineHelper.getQuinticControlVectorsFromWaypoints(kWaypoints).toArray(new Spline.ControlVector[0]));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<PoseWithCurvature> expected = TrajectoryGenerator.splinePointsFromSplines(splines);
+            List<PoseWithCurvature> actual = TrajectoryGenerator.splinePointsFromSplines(splines, pool);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).poseMeters, actual.get(i).poseMeters);
+                assertEquals(expected.get(i).curvatureRadPerMeter, actual.get(i).curvatureRadPerMeter, 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void exceptionsReachFuturesTest() {
+        TrajectoryConfig config = new TrajectoryConfig(1.5, 1)
+                .addConstraint(new TestConstraint(new CountDownLatch(0), true));
+        CompletableFuture<Trajectory> future = m_generator.generateTrajectory(kWaypoints, config);
+
+        try {
+            m_generator.awaitAll();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void awaitAllTimeoutTest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TrajectoryConfig config = new TrajectoryConfig(1.5, 1)
+                .addConstraint(new TestConstraint(release, false));
+        CompletableFuture<Trajectory> future = m_generator.generateTrajectory(kWaypoints, config);
+
+        assertFalse(m_generator.awaitAll(50, TimeUnit.MILLISECONDS));
+        assertFalse(m_generator.isDone());
+
+        release.countDown();
+        assertTrue(m_generator.awaitAll(10, TimeUnit.SECONDS));
+        assertTrue(future.isDone());
+        assertSame(future.join(), future.join());
+    }
+
+    @Test
+    public void awaitAllTimeoutRethrowsFailureTest() throws InterruptedException {
+        TrajectoryConfig config = new TrajectoryConfig(1.5, 1)
+                .addConstraint(new TestConstraint(new CountDownLatch(0), true));
+        m_generator.generateTrajectory(kWaypoints, config);
+        try {
+            m_generator.awaitAll(10, TimeUnit.SECONDS);
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.trajectory.constraint.CentripetalAccelerationConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class IncrementalTrajectoryGeneratorTest {
+
+    private final List<Pose2d> waypoints = Arrays.asList(
+            new Pose2d(0, 0, new Rotation2d(0)),
+            new Pose2d(2, 1, Rotation2d.fromDegrees(45)),
+            new Pose2d(4, 1, new Rotation2d(0)),
+            new Pose2d(6, 3, Rotation2d.fromDegrees(90)),
+            new Pose2d(6, 6, Rotation2d.fromDegrees(90))
+    );
+
+    private static TrajectoryConfig config(boolean reversed, TrajectoryConstraint... constraints) {
+        return new TrajectoryConfig(2, 1.5)
+                .addConstraint(new CentripetalAccelerationConstraint(1.2))
+                .addConstraints(Arrays.asList(constraints))
+                .setReversed(reversed);
+    }
+
+    private static void assertTrajectoriesEqual(Trajectory expected, Trajectory actual) {
+        List<Trajectory.State> expectedStates = expected.getStates();
+        List<Trajectory.State> actualStates = actual.getStates();
+        assertEquals(expectedStates.size(), actualStates.size());
+        for (int i = 0; i < expectedStates.size(); i++) {
+            Trajectory.State e = expectedStates.get(i);
+            Trajectory.State a = actualStates.get(i);
+            assertEquals(e.timeSeconds, a.timeSeconds, 1e-9);
+            assertEquals(e.velocityMetersPerSecond, a.velocityMetersPerSecond, 1e-9);
+            assertEquals(e.accelerationMetersPerSecondSq, a.accelerationMetersPerSecondSq, 1e-6);
+            assertEquals(e.poseMeters, a.poseMeters);
+            assertEquals(e.curvatureRadPerMeter, a.curvatureRadPerMeter, 1e-9);
+        }
+    }
+
+    private void testMatchesFullGeneration(boolean reversed) {
+        List<Pose2d> waypoints = new ArrayList<>();
+        for (Pose2d waypoint : this.waypoints) {
+            // A reversed robot drives backwards along the path
+            waypoints.add(reversed ? new Pose2d(waypoint.getTranslation(),
+                    waypoint.getRotation().plus(Rotation2d.fromDegrees(180))) : waypoint);
+        }
+
+        IncrementalTrajectoryGenerator generator = new IncrementalTrajectoryGenerator(waypoints, config(reversed));
+        assertTrajectoriesEqual(TrajectoryGenerator.generateTrajectory(waypoints, config(reversed)),
+                generator.getTrajectory());
+
+        List<Pose2d> moved = new ArrayList<>(waypoints);
+        for (int index : new int[]{4, 2, 0}) {
+            Pose2d waypoint = moved.get(index);
+            moved.set(index, new Pose2d(waypoint.getX() + 0.3, waypoint.getY() - 0.2,
+                    waypoint.getRotation().plus(Rotation2d.fromDegrees(10))));
+            generator.setWaypoint(index, moved.get(index));
+            assertTrajectoriesEqual(TrajectoryGenerator.generateTrajectory(moved, config(reversed)),
+                    generator.getTrajectory());
+        }
+    }
+
+    @Test
+    public void testMatchesFullGeneration() {
+        testMatchesFullGeneration(false);
+    }
+
+    @Test
+    public void testMatchesFullGenerationReversed() {
+        testMatchesFullGeneration(true);
+    }
+
+    @Test
+    public void testOnlyReconstrainsChangedWindow() {
+        CountingConstraint counter = new CountingConstraint();
+        IncrementalTrajectoryGenerator generator = new IncrementalTrajectoryGenerator(waypoints, config(false, counter));
+        int full = counter.calls;
+
+        counter.calls = 0;
+        generator.setWaypoint(4, new Pose2d(6.2, 6, Rotation2d.fromDegrees(90)));
+        assertTrue(counter.calls < full / 2);
+    }
+
+    private static class CountingConstraint implements TrajectoryConstraint {
+        private int calls;
+
+        @Override
+        public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                    double velocityMetersPerSecond) {
+            calls++;
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                             double velocityMetersPerSecond) {
+            return new MinMax();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.DifferentialDriveKinematics;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.MecanumDriveKinematics;
+import com.seattlesolvers.solverslib.trajectory.constraint.CentripetalAccelerationConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.MecanumDriveKinematicsConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the parameterizers on the path of {@link ReachabilityParameterizerTest}: the length of
+ * the trajectory, the number of acceleration constraint evaluations and the time to generate it.
+ * This is not part of the unit tests; run its main method after changing either parameterizer.
+ * The optional argument is the number of timed generations of each.
+ */
+public final class ParameterizerBenchmark {
+    private static final List<Pose2d> kWaypoints = Arrays.asList(
+            new Pose2d(0, 0, new Rotation2d(0)),
+            new Pose2d(2, 1, Rotation2d.fromDegrees(45)),
+            new Pose2d(4, 1, new Rotation2d(0)),
+            new Pose2d(6, 3, Rotation2d.fromDegrees(90)),
+            new Pose2d(6, 6, Rotation2d.fromDegrees(90))
+    );
+
+    private ParameterizerBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        for (TrajectoryConfig.Parameterizer parameterizer : TrajectoryConfig.Parameterizer.values()) {
+            System.out.println(parameterizer + ": " + run(parameterizer, runs));
+        }
+    }
+
+    private static TrajectoryConfig config(TrajectoryConfig.Parameterizer parameterizer,
+                                           TrajectoryConstraint... constraints) {
+        MecanumDriveKinematics mecanum = new MecanumDriveKinematics(
+                new Translation2d(0.2, 0.2), new Translation2d(0.2, -0.2),
+                new Translation2d(-0.2, 0.2), new Translation2d(-0.2, -0.2));
+        return new TrajectoryConfig(2, 1.5)
+                .addConstraint(new CentripetalAccelerationConstraint(1.2))
+                .addConstraint(new MecanumDriveKinematicsConstraint(mecanum, 1.8))
+                .addConstraint(new DifferentialDriveVoltageConstraint(
+                        new SimpleMotorFeedforward(0.5, 3.0, 3.0), new DifferentialDriveKinematics(0.4), 7))
+                .addConstraints(Arrays.asList(constraints))
+                .setParameterizer(parameterizer);
+    }
+
+    private static String run(TrajectoryConfig.Parameterizer parameterizer, int runs) {
+        CountingConstraint counter = new CountingConstraint();
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(kWaypoints, config(parameterizer, counter));
+
+        TrajectoryConfig config = config(parameterizer);
+        for (int i = 0; i < runs / 4; i++) {
+            TrajectoryGenerator.generateTrajectory(kWaypoints, config);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            TrajectoryGenerator.generateTrajectory(kWaypoints, config);
+        }
+        double micros = (System.nanoTime() - start) / 1E3 / Math.max(runs, 1);
+
+        return String.format("%d points, %.3f s trajectory, %d acceleration evaluations, %.0f us to generate",
+                trajectory.getStates().size(), trajectory.getTotalTimeSeconds(), counter.calls, micros);
+    }
+
+    private static class CountingConstraint implements TrajectoryConstraint {
+        private int calls;
+
+        @Override
+        public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                    double velocityMetersPerSecond) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                             double velocityMetersPerSecond) {
+            calls++;
+            return new MinMax();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.DifferentialDriveKinematics;
+import com.seattlesolvers.solverslib.kinematics.wpilibkinematics.MecanumDriveKinematics;
+import com.seattlesolvers.solverslib.trajectory.constraint.CentripetalAccelerationConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.MecanumDriveKinematicsConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ReachabilityParameterizerTest {
+
+    private final List<Pose2d> waypoints = Arrays.asList(
+            new Pose2d(0, 0, new Rotation2d(0)),
+            new Pose2d(2, 1, Rotation2d.fromDegrees(45)),
+            new Pose2d(4, 1, new Rotation2d(0)),
+            new Pose2d(6, 3, Rotation2d.fromDegrees(90)),
+            new Pose2d(6, 6, Rotation2d.fromDegrees(90))
+    );
+
+    private final MecanumDriveKinematics mecanum = new MecanumDriveKinematics(
+            new Translation2d(0.2, 0.2), new Translation2d(0.2, -0.2),
+            new Translation2d(-0.2, 0.2), new Translation2d(-0.2, -0.2));
+
+    // The voltage constraint couples the acceleration limits to the velocity
+    private final DifferentialDriveVoltageConstraint voltage = new DifferentialDriveVoltageConstraint(
+            new SimpleMotorFeedforward(0.5, 3.0, 3.0), new DifferentialDriveKinematics(0.4), 7);
+
+    private TrajectoryConfig config(TrajectoryConfig.Parameterizer parameterizer,
+                                    TrajectoryConstraint... constraints) {
+        return new TrajectoryConfig(2, 1.5)
+                .addConstraint(new CentripetalAccelerationConstraint(1.2))
+                .addConstraint(new MecanumDriveKinematicsConstraint(mecanum, 1.8))
+                .addConstraint(voltage)
+                .addConstraints(Arrays.asList(constraints))
+                .setParameterizer(parameterizer);
+    }
+
+    @Test
+    public void testObeysConstraints() {
+        TrajectoryConfig config = config(TrajectoryConfig.Parameterizer.REACHABILITY);
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(waypoints, config);
+        List<Trajectory.State> states = trajectory.getStates();
+
+        assertEquals(0, states.get(0).velocityMetersPerSecond, 1e-9);
+        assertEquals(0, states.get(states.size() - 1).velocityMetersPerSecond, 1e-9);
+        for (int i = 0; i < states.size() - 1; i++) {
+            Trajectory.State state = states.get(i);
+            assertTrue(state.velocityMetersPerSecond <= config.getMaxVelocity() + 1e-9);
+            assertTrue(Math.abs(state.accelerationMetersPerSecondSq) <= config.getMaxAcceleration() + 1e-6);
+            assertTrue(state.velocityMetersPerSecond * state.velocityMetersPerSecond
+                    * Math.abs(state.curvatureRadPerMeter) <= 1.2 + 1e-6);
+
+            TrajectoryConstraint.MinMax limits = voltage.getMinMaxAccelerationMetersPerSecondSq(
+                    state.poseMeters, state.curvatureRadPerMeter, state.velocityMetersPerSecond);
+            assertTrue(state.accelerationMetersPerSecondSq <= limits.maxAccelerationMetersPerSecondSq + 1e-6);
+            assertTrue(state.accelerationMetersPerSecondSq >= limits.minAccelerationMetersPerSecondSq - 1e-6);
+        }
+    }
+
+    @Test
+    public void testNoSlowerThanForwardBackward() {
+        Trajectory forwardBackward = TrajectoryGenerator.generateTrajectory(waypoints,
+                config(TrajectoryConfig.Parameterizer.FORWARD_BACKWARD));
+        Trajectory reachability = TrajectoryGenerator.generateTrajectory(waypoints,
+                config(TrajectoryConfig.Parameterizer.REACHABILITY));
+
+        assertEquals(forwardBackward.getStates().size(), reachability.getStates().size());
+        assertTrue(reachability.getTotalTimeSeconds() <= forwardBackward.getTotalTimeSeconds() + 1e-9);
+    }
+
+    @Test
+    public void testBoundedConstraintEvaluations() {
+        CountingConstraint counter = new CountingConstraint();
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(waypoints,
+                config(TrajectoryConfig.Parameterizer.REACHABILITY, counter));
+
+        // One bisection per point at most for the feasible velocity and for the
+        // controllable set, plus the forward pass
+        int points = trajectory.getStates().size();
+        assertTrue(counter.calls <= points * (2 * 24 + 5));
+    }
+
+    private static class CountingConstraint implements TrajectoryConstraint {
+        private int calls;
+
+        @Override
+        public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                    double velocityMetersPerSecond) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                             double velocityMetersPerSecond) {
+            calls++;
+            return new MinMax();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SCurveProfileTest {
+    private static final double kDt = 0.001;
+
+    private static final SCurveProfile.Constraints kConstraints =
+            new SCurveProfile.Constraints(1.5, 2.0, 8.0);
+
+    /**
+     * Samples the profile finely and checks that it stays within the constraints, is continuous,
+     * and ends at the goal.
+     */
+    private static void checkProfile(SCurveProfile profile, TrapezoidProfile.State initial,
+                                     TrapezoidProfile.State goal) {
+        SCurveProfile.State state = new SCurveProfile.State();
+        SCurveProfile.State previous = profile.calculate(0);
+        assertEquals(initial.position, previous.position, 1e-9);
+        assertEquals(initial.velocity, previous.velocity, 1e-9);
+
+        for (double t = kDt; t <= profile.totalTime() + kDt; t += kDt) {
+            profile.calculate(t, state);
+            assertTrue(Math.abs(state.velocity) <= kConstraints.maxVelocity + 1e-9);
+            assertTrue(Math.abs(state.acceleration) <= kConstraints.maxAcceleration + 1e-9);
+            assertTrue(Math.abs(state.acceleration - previous.acceleration) <= kConstraints.maxJerk * kDt + 1e-6);
+            assertEquals(previous.velocity, state.velocity, kConstraints.maxAcceleration * kDt + 1e-6);
+            assertEquals(previous.position, state.position, kConstraints.maxVelocity * kDt + 1e-6);
+            previous.position = state.position;
+            previous.velocity = state.velocity;
+            previous.acceleration = state.acceleration;
+        }
+
+        assertTrue(profile.isFinished(profile.totalTime()));
+        assertEquals(goal.position, state.position, 1e-12);
+        assertEquals(goal.velocity, state.velocity, 1e-12);
+        assertEquals(0, state.acceleration, 1e-12);
+    }
+
+    @Test
+    public void longMoveReachesCruiseTest() {
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(5, 0);
+        SCurveProfile profile = new SCurveProfile(kConstraints, goal);
+        checkProfile(profile, new TrapezoidProfile.State(), goal);
+
+        // Halfway through a symmetric move, the profile is cruising at the limit.
+        SCurveProfile.State middle = profile.calculate(profile.totalTime() / 2);
+        assertEquals(2.5, middle.position, 1e-9);
+        assertEquals(kConstraints.maxVelocity, middle.velocity, 1e-9);
+        assertEquals(0, middle.acceleration, 1e-9);
+
+        // 0.25 s of jerk, 0.5 s at full acceleration, 0.25 s of jerk, then 5 - 1.5 m cruising.
+        assertEquals(2 * 1.0 + 3.5 / 1.5, profile.totalTime(), 1e-9);
+    }
+
+    @Test
+    public void shortMoveTest() {
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(0.1, 0);
+        SCurveProfile profile = new SCurveProfile(kConstraints, goal);
+        checkProfile(profile, new TrapezoidProfile.State(), goal);
+        assertTrue(profile.calculate(profile.totalTime() / 2).velocity < kConstraints.maxVelocity);
+    }
+
+    @Test
+    public void reversedMoveWithVelocitiesTest() {
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(2, 0.5);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(-1, -0.25);
+        SCurveProfile profile = new SCurveProfile(kConstraints, goal, initial);
+        checkProfile(profile, initial, goal);
+    }
+
+    @Test
+    public void overshootingInitialVelocityTest() {
+        // Too fast to stop in time, so the profile overshoots and comes back.
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(0, 1.5);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(0.2, 0);
+        SCurveProfile profile = new SCurveProfile(kConstraints, goal, initial);
+        checkProfile(profile, initial, goal);
+    }
+
+    @Test
+    public void initialAccelerationTest() {
+        SCurveProfile.State initial = new SCurveProfile.State(0, 0.5, 1.0);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(3, 0);
+        SCurveProfile profile = new SCurveProfile(kConstraints, goal, initial);
+        assertEquals(1.0, profile.calculate(0).acceleration, 1e-12);
+        checkProfile(profile, initial, goal);
+    }
+
+    @Test
+    public void resetReusesProfileTest() {
+        SCurveProfile profile = new SCurveProfile(kConstraints, new TrapezoidProfile.State(5, 0));
+        SCurveProfile.State state = new SCurveProfile.State();
+        profile.calculate(1.0, state);
+
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(1, 0);
+        profile.reset(kConstraints, goal, state);
+        checkProfile(profile, new TrapezoidProfile.State(state.position, state.velocity), goal);
+    }
+
+    /**
+     * Checks that a profile between equal velocities never slows below them, and is no slower
+     * than cruising at them.
+     */
+    private static void checkNoReversal(SCurveProfile.Constraints constraints, double velocity, double distance) {
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(1, velocity);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(1 + distance, velocity);
+        SCurveProfile profile = new SCurveProfile(constraints, goal, initial);
+
+        assertTrue(profile.totalTime() <= Math.abs(distance / velocity) + 1e-9);
+        SCurveProfile.State state = new SCurveProfile.State();
+        double previous = initial.position;
+        for (double t = 0; t <= profile.totalTime() + kDt; t += kDt) {
+            profile.calculate(t, state);
+            assertTrue(state.velocity * Math.signum(velocity) >= Math.abs(velocity) - 1e-9);
+            assertTrue((state.position - previous) * Math.signum(velocity) >= -1e-12);
+            previous = state.position;
+        }
+        assertEquals(goal.position, state.position, 1e-12);
+        assertEquals(goal.velocity, state.velocity, 1e-12);
+    }
+
+    @Test
+    public void equalVelocitiesShortMoveTest() {
+        checkNoReversal(kConstraints, 0.5, 0.2);
+        checkNoReversal(kConstraints, -0.5, -0.2);
+        checkNoReversal(new SCurveProfile.Constraints(1, 1, 4), 0.5, 0.2);
+        checkNoReversal(new SCurveProfile.Constraints(2, 1, 4), 1, 0.01);
+
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(0.2, 0.5);
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(0, 0.5);
+        checkProfile(new SCurveProfile(kConstraints, goal, initial), initial, goal);
+    }
+
+    @Test
+    public void equalVelocitiesAtLimitTest() {
+        // Already at the velocity limit, the profile cruises the whole way.
+        checkNoReversal(kConstraints, kConstraints.maxVelocity, 0.3);
+        SCurveProfile profile = new SCurveProfile(kConstraints, new TrapezoidProfile.State(0.3, 1.5),
+                new TrapezoidProfile.State(0, 1.5));
+        assertEquals(0.2, profile.totalTime(), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroJerkTest() {
+        new SCurveProfile(new SCurveProfile.Constraints(1, 1, 0), new TrapezoidProfile.State(1, 0));
+    }
+}
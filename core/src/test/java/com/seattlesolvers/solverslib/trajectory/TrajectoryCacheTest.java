@@ -0,0 +1,205 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.trajectory.constraint.CentripetalAccelerationConstraint;
+import com.seattlesolvers.solverslib.trajectory.constraint.TrajectoryConstraint;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TrajectoryCacheTest {
+
+    private File directory;
+    private TrajectoryCache cache;
+    private List<Pose2d> waypoints;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "trajectory-cache-test-" + System.nanoTime());
+        cache = new TrajectoryCache(directory);
+        waypoints = Arrays.asList(
+                new Pose2d(0, 0, new Rotation2d(0)),
+                new Pose2d(2, 1, Rotation2d.fromDegrees(90))
+        );
+    }
+
+    @After
+    public void tearDown() {
+        cache.clear();
+        directory.delete();
+    }
+
+    /**
+     * Limits the velocity to the smallest of a set of limits.
+     */
+    private static class SetConstraint implements TrajectoryConstraint {
+        private final Set<Double> m_limits = new HashSet<>(Arrays.asList(0.8, 0.9));
+
+        @Override
+        public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                    double velocityMetersPerSecond) {
+            double min = Double.POSITIVE_INFINITY;
+            for (double limit : m_limits) {
+                min = Math.min(min, limit);
+            }
+            return min;
+        }
+
+        @Override
+        public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                             double velocityMetersPerSecond) {
+            return new MinMax();
+        }
+    }
+
+    /**
+     * Limits the velocity, and supplies its own key.
+     */
+    private static TrajectoryConstraint fingerprinted(double maxVelocity) {
+        abstract class FingerprintableConstraint implements TrajectoryConstraint, TrajectoryCache.Fingerprintable {
+        }
+        return new FingerprintableConstraint() {
+            @Override
+            public String getFingerprint() {
+                return "max-velocity:" + maxVelocity;
+            }
+
+            @Override
+            public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                        double velocityMetersPerSecond) {
+                return maxVelocity;
+            }
+
+            @Override
+            public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                                 double velocityMetersPerSecond) {
+                return new MinMax();
+            }
+        };
+    }
+
+    private TrajectoryConfig config(double maxCentripetal) {
+        return new TrajectoryConfig(1, 1)
+                .addConstraint(new CentripetalAccelerationConstraint(maxCentripetal));
+    }
+
+    @Test
+    public void testCachedTrajectoryMatchesGenerated() {
+        Trajectory generated = cache.generateTrajectory(waypoints, config(1));
+        int[] calls = new int[1];
+        Trajectory cached = cache.getOrGenerate(TrajectoryCache.key("quintic-waypoints", waypoints, config(1)), () -> {
+            calls[0]++;
+            return generated;
+        });
+        assertEquals(0, calls[0]);
+        assertEquals(generated.getStates(), cached.getStates());
+    }
+
+    @Test
+    public void testConstraintsChangeKey() {
+        assertFalse(TrajectoryCache.key("quintic-waypoints", waypoints, config(1))
+                .equals(TrajectoryCache.key("quintic-waypoints", waypoints, config(2))));
+        assertEquals(TrajectoryCache.key("quintic-waypoints", waypoints, config(1)),
+                TrajectoryCache.key("quintic-waypoints", waypoints, config(1)));
+    }
+
+    @Test
+    public void testUnstableConstraintsAreNotCached() {
+        TrajectoryConstraint anonymousConstraint = new TrajectoryConstraint() {
+            @Override
+            public double getMaxVelocityMetersPerSecond(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                        double velocityMetersPerSecond) {
+                return 0.5;
+            }
+
+            @Override
+            public MinMax getMinMaxAccelerationMetersPerSecondSq(Pose2d poseMeters, double curvatureRadPerMeter,
+                                                                 double velocityMetersPerSecond) {
+                return new MinMax();
+            }
+        };
+        TrajectoryConfig anonymous = config(1).addConstraint(anonymousConstraint);
+        TrajectoryConfig unordered = config(1).addConstraint(new SetConstraint());
+        assertNull(TrajectoryCache.key("quintic-waypoints", waypoints, anonymous));
+        assertNull(TrajectoryCache.key("quintic-waypoints", waypoints, unordered));
+
+        assertEquals(TrajectoryGenerator.generateTrajectory(waypoints, anonymous).getStates(),
+                cache.generateTrajectory(waypoints, anonymous).getStates());
+        cache.generateTrajectory(waypoints, unordered);
+        assertEquals(0, cache.sizeBytes());
+    }
+
+    @Test
+    public void testFingerprintableConstraintsAreCached() {
+        String key = TrajectoryCache.key("quintic-waypoints", waypoints, config(1).addConstraint(fingerprinted(0.5)));
+        assertNotNull(key);
+        assertEquals(key, TrajectoryCache.key("quintic-waypoints", waypoints, config(1).addConstraint(fingerprinted(0.5))));
+        assertFalse(key.equals(TrajectoryCache.key("quintic-waypoints", waypoints,
+                config(1).addConstraint(fingerprinted(0.6)))));
+
+        cache.generateTrajectory(waypoints, config(1).addConstraint(fingerprinted(0.5)));
+        assertNotNull(cache.load(key));
+    }
+
+    @Test
+    public void testCorruptFileIsDiscarded() throws IOException {
+        String key = TrajectoryCache.key("quintic-waypoints", waypoints, config(1));
+        cache.generateTrajectory(waypoints, config(1));
+        assertNotNull(cache.load(key));
+
+        File file = new File(directory, key + TrajectoryCache.EXTENSION);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(40);
+            raf.writeDouble(12345);
+        }
+        assertNull(cache.load(key));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(waypoints, config(1));
+        CompactTrajectory compact = CompactTrajectory.fromTrajectory(trajectory);
+        long fileSize = TrajectoryCache.encode(compact).capacity();
+
+        cache = new TrajectoryCache(directory, fileSize * 2);
+        cache.store("a", compact);
+        cache.store("b", compact);
+        assertNotNull(cache.load("a"));
+        // The order of use comes from the index, not the modification times
+        new File(directory, "a.traj").setLastModified(1000);
+        new File(directory, "b.traj").setLastModified(2000);
+        cache.store("c", compact);
+
+        assertNull(cache.load("b"));
+        assertNotNull(cache.load("a"));
+        assertNotNull(cache.load("c"));
+        assertTrue(cache.sizeBytes() <= fileSize * 2);
+    }
+
+    @Test
+    public void testPrecompiledTrajectoryMatchesGenerated() throws IOException {
+        TrajectoryLibrary library = TrajectoryLibrary.of(l -> l.add("forward", waypoints, config(1)));
+        assertEquals(1, TrajectoryPrecompiler.precompile(library, directory));
+
+        CompactTrajectory loaded = PrecompiledTrajectories.load(
+                new File(directory, "forward" + PrecompiledTrajectories.EXTENSION));
+        assertEquals(CompactTrajectory.fromTrajectory(library.generate("forward")), loaded);
+    }
+}
@@ -0,0 +1,132 @@
+package com.seattlesolvers.solverslib.trajectory;
+
+import static org.junit.Assert.assertEquals;
+
+import com.seattlesolvers.solverslib.geometry.Pose2d;
+import com.seattlesolvers.solverslib.geometry.Rotation2d;
+import com.seattlesolvers.solverslib.geometry.Transform2d;
+import com.seattlesolvers.solverslib.geometry.Translation2d;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class TrajectorySamplerTest {
+
+    private Trajectory trajectory;
+    private TrajectorySampler sampler;
+    private TrajectorySampler.Sample sample;
+
+    @Before
+    public void setUp() {
+        trajectory = TrajectoryGenerator.generateTrajectory(
+                Arrays.asList(
+                        new Pose2d(0, 0, new Rotation2d(0)),
+                        new Pose2d(2, 1, Rotation2d.fromDegrees(90)),
+                        new Pose2d(0, 2, Rotation2d.fromDegrees(180))
+                ),
+                new TrajectoryConfig(1, 1)
+        );
+        sampler = new TrajectorySampler(trajectory);
+        sample = new TrajectorySampler.Sample();
+    }
+
+    private void assertMatches(double time) {
+        Trajectory.State expected = trajectory.sample(time);
+        sampler.sample(time, sample);
+        assertEquals(expected.timeSeconds, sample.timeSeconds, 1e-9);
+        assertEquals(expected.velocityMetersPerSecond, sample.velocityMetersPerSecond, 1e-9);
+        assertEquals(expected.accelerationMetersPerSecondSq, sample.accelerationMetersPerSecondSq, 1e-9);
+        assertEquals(expected.poseMeters.getX(), sample.xMeters, 1e-9);
+        assertEquals(expected.poseMeters.getY(), sample.yMeters, 1e-9);
+        assertEquals(expected.poseMeters.getHeading(), sample.headingRadians, 1e-9);
+        assertEquals(expected.curvatureRadPerMeter, sample.curvatureRadPerMeter, 1e-9);
+    }
+
+    @Test
+    public void testMonotonicSamplingMatchesTrajectory() {
+        for (double t = -0.1; t < trajectory.getTotalTimeSeconds() + 0.1; t += 0.02) {
+            assertMatches(t);
+        }
+    }
+
+    @Test
+    public void testBackwardsSamplingMatchesTrajectory() {
+        assertMatches(trajectory.getTotalTimeSeconds() * 0.75);
+        assertMatches(trajectory.getTotalTimeSeconds() * 0.25);
+        assertMatches(trajectory.getTotalTimeSeconds() * 0.5);
+        sampler.reset();
+        assertMatches(trajectory.getTotalTimeSeconds() * 0.6);
+    }
+
+    @Test
+    public void testCompactRoundTrip() {
+        CompactTrajectory compact = CompactTrajectory.fromTrajectory(trajectory);
+        assertEquals(trajectory.getStates().size(), compact.size());
+        assertEquals(trajectory.getTotalTimeSeconds(), compact.getTotalTimeSeconds(), 1e-9);
+        assertEquals(trajectory.getStates(), compact.toTrajectory().getStates());
+    }
+
+    @Test
+    public void testViewMatchesCopiedTransforms() {
+        TrajectoryView view = TrajectoryView.of(trajectory);
+        Transform2d transform = new Transform2d(new Translation2d(1, -2), Rotation2d.fromDegrees(30));
+        Pose2d origin = new Pose2d(3, 1, Rotation2d.fromDegrees(-45));
+
+        assertEquals(trajectory.transformBy(transform).getStates(), view.transformBy(transform).getStates());
+        assertEquals(trajectory.relativeTo(origin).getStates(), view.relativeTo(origin).getStates());
+        assertEquals(trajectory.transformBy(transform).relativeTo(origin).getStates(),
+                view.transformBy(transform).relativeTo(origin).getStates());
+    }
+
+    @Test
+    public void testMirroredView() {
+        TrajectoryView mirrored = TrajectoryView.of(trajectory).mirrored(new Rotation2d());
+        for (int i = 0; i < trajectory.getStates().size(); i++) {
+            Trajectory.State state = trajectory.getStates().get(i);
+            Trajectory.State expected = new Trajectory.State(state.timeSeconds, state.velocityMetersPerSecond,
+                    state.accelerationMetersPerSecondSq,
+                    new Pose2d(state.poseMeters.getX(), -state.poseMeters.getY(), state.poseMeters.getRotation().unaryMinus()),
+                    -state.curvatureRadPerMeter);
+            assertEquals(expected, mirrored.getStates().get(i));
+        }
+
+        // Mirroring twice across the same line gives back the original trajectory
+        Translation2d point = new Translation2d(1, 1);
+        Rotation2d axis = Rotation2d.fromDegrees(60);
+        assertEquals(trajectory.getStates(),
+                TrajectoryView.of(trajectory).mirrored(point, axis).mirrored(point, axis).getStates());
+    }
+
+    @Test
+    public void testViewSampleMatchesTransformedStates() {
+        TrajectoryView view = TrajectoryView.of(trajectory)
+                .transformBy(new Transform2d(new Translation2d(1, -2), Rotation2d.fromDegrees(30)))
+                .mirrored(new Translation2d(0, 1), Rotation2d.fromDegrees(90));
+        Trajectory copy = new Trajectory(new ArrayList<>(view.getStates()));
+        for (double t = -0.1; t < view.getTotalTimeSeconds() + 0.1; t += 0.02) {
+            Trajectory.State expected = copy.sample(t);
+            Trajectory.State actual = view.sample(t);
+            assertEquals(expected.timeSeconds, actual.timeSeconds, 1e-9);
+            assertEquals(expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, 1e-9);
+            assertEquals(expected.accelerationMetersPerSecondSq, actual.accelerationMetersPerSecondSq, 1e-9);
+            assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), 1e-9);
+            assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), 1e-9);
+            assertEquals(expected.poseMeters.getHeading(), actual.poseMeters.getHeading(), 1e-9);
+            assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, 1e-9);
+        }
+    }
+
+    @Test
+    public void testSamplingViewMatchesView() {
+        trajectory = TrajectoryView.of(trajectory)
+                .transformBy(new Transform2d(new Translation2d(1, -2), Rotation2d.fromDegrees(30)))
+                .mirrored(new Translation2d(0, 1), Rotation2d.fromDegrees(90));
+        sampler = new TrajectorySampler(trajectory);
+        for (double t = 0; t < trajectory.getTotalTimeSeconds(); t += 0.05) {
+            assertMatches(t);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.seattlesolvers.solverslib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CompiledLUTTest {
+    private static void checkMatchesLUT(LUT<Double, Integer> lut, CompiledLUT<Integer> compiled) {
+        Random random = new Random(11);
+        for (int i = 0; i < 1000; i++) {
+            double key = lut.firstKey() - 1 + random.nextDouble() * (lut.lastKey() - lut.firstKey() + 2);
+            assertEquals(lut.getClosest(key), compiled.getClosest(key));
+        }
+        for (double key : lut.keySet()) {
+            assertEquals(lut.getClosest(key), compiled.getClosest(key));
+        }
+    }
+
+    @Test
+    public void uniformKeysTest() {
+        LUT<Double, Integer> lut = new LUT<>();
+        for (int i = 0; i < 50; i++) {
+            lut.add(0.1 * i - 1, i);
+        }
+        CompiledLUT<Integer> compiled = lut.compile();
+        assertTrue(compiled.isUniform());
+        assertEquals(50, compiled.size());
+        checkMatchesLUT(lut, compiled);
+    }
+
+    @Test
+    public void unevenKeysTest() {
+        LUT<Double, Integer> lut = new LUT<>();
+        for (int i = 0; i < 50; i++) {
+            lut.add(i * i * 0.01, i);
+        }
+        CompiledLUT<Integer> compiled = lut.compile();
+        assertFalse(compiled.isUniform());
+        checkMatchesLUT(lut, compiled);
+    }
+
+    @Test
+    public void tiesChooseLargerKeyTest() {
+        CompiledLUT<String> compiled = new CompiledLUT<>(new double[]{0, 1, 3}, new String[]{"a", "b", "c"});
+        assertEquals("b", compiled.getClosest(0.5));
+        assertEquals("c", compiled.getClosest(2));
+        assertEquals(2, compiled.getClosestIndex(10));
+    }
+
+    @Test
+    public void smallTablesTest() {
+        assertNull(new LUT<Integer, Integer>().compile().getClosest(0));
+        CompiledLUT<String> single = new CompiledLUT<>(new double[]{4}, new String[]{"only"});
+        assertEquals("only", single.getClosest(-100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsortedKeysTest() {
+        new CompiledLUT<>(new double[]{0, 2, 1}, new Integer[]{0, 1, 2});
+    }
+}
@@ -0,0 +1,77 @@
+package com.seattlesolvers.solverslib.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class InterpLUT2DTest {
+    private static final double[] kX = {1, 1.5, 2.5, 4};
+    private static final double[] kY = {-0.5, 0, 0.25, 1};
+
+    private static double bilinear(double x, double y) {
+        return 2 * x + 3 * y + x * y + 1;
+    }
+
+    private static InterpLUT2D table() {
+        double[][] z = new double[kX.length][kY.length];
+        for (int i = 0; i < kX.length; i++) {
+            for (int j = 0; j < kY.length; j++) {
+                z[i][j] = bilinear(kX[i], kY[j]);
+            }
+        }
+        return new InterpLUT2D(kX, kY, z);
+    }
+
+    @Test
+    public void reproducesBilinearFunctionTest() {
+        InterpLUT2D bicubic = table();
+        InterpLUT2D bilinear = table().setMethod(InterpLUT2D.Method.BILINEAR);
+        for (double x = 1; x <= 4; x += 0.125) {
+            for (double y = -0.5; y <= 1; y += 0.0625) {
+                assertEquals(bilinear(x, y), bicubic.get(x, y), 1e-9);
+                assertEquals(bilinear(x, y), bilinear.get(x, y), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void bicubicIsSmoothTest() {
+        double[] x = {0, 1, 2, 3};
+        double[] y = {0, 1, 2};
+        double[][] z = {{0, 1, 4}, {1, 2, 5}, {4, 5, 8}, {9, 10, 13}};
+        InterpLUT2D lut = new InterpLUT2D(x, y, z);
+        assertEquals(5, lut.get(2, 1), 0);
+
+        // The slope along x is continuous across the grid line at x = 1.
+        double h = 1e-6;
+        double before = (lut.get(1, 0.5) - lut.get(1 - h, 0.5)) / h;
+        double after = (lut.get(1 + h, 0.5) - lut.get(1, 0.5)) / h;
+        assertEquals(before, after, 1e-4);
+    }
+
+    @Test
+    public void boundaryModesTest() {
+        InterpLUT2D lut = table();
+        try {
+            lut.get(5, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+
+        lut.setBoundaryMode(InterpLUT.BoundaryMode.CLAMP);
+        assertEquals(bilinear(4, 1), lut.get(5, 2), 1e-9);
+        assertEquals(bilinear(1, 0), lut.get(0, 0), 1e-9);
+
+        // Along one input, the function is linear, so extrapolation is exact.
+        lut.setBoundaryMode(InterpLUT.BoundaryMode.EXTRAPOLATE);
+        assertEquals(bilinear(5, 0.5), lut.get(5, 0.5), 1e-9);
+        assertEquals(bilinear(2, -1), lut.get(2, -1), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsortedGridTest() {
+        new InterpLUT2D(new double[]{0, 2, 1}, new double[]{0, 1}, new double[3][2]);
+    }
+}
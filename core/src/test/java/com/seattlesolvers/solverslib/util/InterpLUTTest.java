@@ -1,9 +1,12 @@
 package com.seattlesolvers.solverslib.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 public class InterpLUTTest {
 
     InterpLUT lut;
@@ -65,4 +68,49 @@ public class InterpLUTTest {
         assertEquals(lut.get(85.5), 86.5, 2.22e-16);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBounds() {
+        lut = new InterpLUT(new double[]{0, 1, 2}, new double[]{0, 2, 3});
+        lut.createLUT();
+        assertEquals(0, lut.get(0), 0);
+        assertEquals(3, lut.get(2), 0);
+        try {
+            lut.get(2.5);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("User requested value outside of bounds of LUT. Bounds are: 0.0 to 2.0. "
+                    + "Value provided was: 2.5", ex.getMessage());
+        }
+
+        lut.setBoundaryMode(InterpLUT.BoundaryMode.CLAMP);
+        assertEquals(0, lut.get(-1), 0);
+        assertEquals(3, lut.get(5), 0);
+
+        // The end tangents are the end secants.
+        lut.setBoundaryMode(InterpLUT.BoundaryMode.EXTRAPOLATE);
+        assertEquals(-2, lut.get(-1), 1e-12);
+        assertEquals(4, lut.get(3), 1e-12);
+    }
+
+    @Test
+    public void testLookupOrder() {
+        InterpLUT sequential = new InterpLUT();
+        InterpLUT scattered = new InterpLUT();
+        for (int i = 0; i < 60; i++) {
+            double y = Math.sqrt(i) + 0.1 * Math.sin(i);
+            sequential.add(i, y);
+            scattered.add(i, y);
+        }
+        sequential.createLUT();
+        scattered.createLUT();
+
+        // Lookups give the same results whatever interval the previous lookup was in.
+        Random random = new Random(3);
+        for (double x = 0.25; x < 59; x += 0.5) {
+            double jump = random.nextDouble() * 59;
+            scattered.get(jump);
+            assertEquals(sequential.get(x), scattered.get(x), 0);
+            assertEquals(sequential.get(jump), scattered.get(jump), 0);
+        }
+    }
+}